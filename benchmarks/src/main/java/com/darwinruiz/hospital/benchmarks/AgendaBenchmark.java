@@ -0,0 +1,111 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido de las agendas de todos los médicos con distintos tamaños de lote; al terminar cada
+ * prueba imprime el promedio de consultas por operación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgendaBenchmark {
+
+    @Param({"1", "16", "50"})
+    public int lote;
+
+    EntityManagerFactory emf;
+    Statistics estadisticas;
+    long operaciones;
+
+    @Setup(Level.Trial)
+    public void iniciar(EstadoHospital estado) {
+        emf = Persistencia.crearEntityManagerFactory(Map.of(
+            "hibernate.default_batch_fetch_size", String.valueOf(lote),
+            "hibernate.generate_statistics", "true"));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void reiniciarConteo() {
+        estadisticas.clear();
+        operaciones = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void informar() {
+        if (operaciones > 0) {
+            System.out.printf("%n  lote=%d: %.1f consultas por operación%n",
+                lote, (double) estadisticas.getPrepareStatementCount() / operaciones);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @Benchmark
+    public int citasPorMedico() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            int citas = 0;
+            for (Medico medico : cargarMedicos(em)) {
+                citas += medico.getCitas().size();
+            }
+            operaciones++;
+            return citas;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public int agendasConPaciente() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            int caracteres = 0;
+            for (Medico medico : cargarMedicos(em)) {
+                for (Cita cita : medico.getCitas()) {
+                    caracteres += cita.getPaciente().getNombre().length();
+                }
+            }
+            operaciones++;
+            return caracteres;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static List<Medico> cargarMedicos(EntityManager em) {
+        return em.createQuery("SELECT m FROM Medico m ORDER BY m.id", Medico.class).getResultList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * PostgreSQL embebido por fork de JMH, o la base de -Dbenchmark.db.url (sus datos BENCH se borran al
+ * empezar y al terminar). El embebido no arranca como root.
+ */
+final class BaseDatosBenchmark implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final String url;
+    private final String usuario;
+    private final String password;
+
+    private BaseDatosBenchmark(EmbeddedPostgres postgres, String url, String usuario, String password) {
+        this.postgres = postgres;
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+    }
+
+    static BaseDatosBenchmark iniciar() throws IOException {
+        String urlExterna = System.getProperty("benchmark.db.url");
+        if (urlExterna != null) {
+            return new BaseDatosBenchmark(null, urlExterna,
+                System.getProperty("benchmark.db.usuario", "postgres"),
+                System.getProperty("benchmark.db.password", "admin123"));
+        }
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        return new BaseDatosBenchmark(postgres, postgres.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+    }
+
+    boolean esEmbebida() {
+        return postgres != null;
+    }
+
+    // Debe llamarse antes de abrir el factory compartido de Persistencia
+    void configurarPersistencia() {
+        System.setProperty("hospital.db.url", url);
+        System.setProperty("hospital.db.usuario", usuario);
+        System.setProperty("hospital.db.password", password);
+        System.setProperty("hospital.sql.mostrar", "false");
+    }
+
+    Connection conectar() throws SQLException {
+        return DriverManager.getConnection(url, usuario, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
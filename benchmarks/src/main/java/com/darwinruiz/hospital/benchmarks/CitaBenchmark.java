@@ -0,0 +1,52 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.models.Cita;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CitaBenchmark {
+
+    @Benchmark
+    public Cita agendarCita(EstadoHospital estado, EstadoHospital.Aleatorio aleatorio) {
+        // Cada llamada usa un horario libre distinto, repartido entre todos los médicos
+        long n = estado.citasAgendadas.getAndIncrement();
+        long[] medicos = estado.datos.medicoIds;
+        long[] pacientes = estado.datos.pacienteIds;
+        LocalDateTime fechaHora = estado.inicioAgenda.plusMinutes(n / medicos.length);
+        return estado.citaService.agendarCita(
+            pacientes[aleatorio.generador.nextInt(pacientes.length)],
+            medicos[(int) (n % medicos.length)],
+            fechaHora,
+            "Cita de benchmark");
+    }
+
+    @Benchmark
+    public List<Cita> buscarPorRangoFechas(EstadoHospital estado, EstadoHospital.Aleatorio aleatorio) {
+        DatosBenchmark datos = estado.datos;
+        LocalDate inicio = datos.primerDia.plusDays(aleatorio.generador.nextInt(Math.max(1, datos.dias - 6)));
+        return estado.citaRepository.findByRangoFechas(inicio, inicio.plusDays(6));
+    }
+
+    @Benchmark
+    public boolean existeConflictoHorario(EstadoHospital estado, EstadoHospital.Aleatorio aleatorio) {
+        DatosBenchmark datos = estado.datos;
+        long medicoId = datos.medicoIds[aleatorio.generador.nextInt(datos.medicoIds.length)];
+        LocalDateTime fechaHora = datos.horario(aleatorio.generador.nextInt(datos.dias * DatosBenchmark.HORARIOS_POR_DIA));
+        return estado.citaRepository.existeConflictoHorario(medicoId, fechaHora);
+    }
+}
@@ -0,0 +1,213 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Para una escala N: N pacientes con historial, N/25 médicos (mínimo 10) y 4N citas en una rejilla
+ * de 8 horarios diarios por médico centrada en hoy.
+ */
+final class DatosBenchmark {
+
+    static final String PREFIJO = "BENCH";
+    static final int HORARIOS_POR_DIA = 8;
+    static final String[] ALERGIAS = {"Penicilina", "Polen", "Mariscos", "Látex", "Ibuprofeno"};
+
+    private static final int TAMANO_LOTE = 1000;
+
+    final long[] pacienteIds;
+    final String[] dpis;
+    final long[] medicoIds;
+    final LocalDate primerDia;
+    final int dias;
+
+    private DatosBenchmark(long[] pacienteIds, String[] dpis, long[] medicoIds, LocalDate primerDia, int dias) {
+        this.pacienteIds = pacienteIds;
+        this.dpis = dpis;
+        this.medicoIds = medicoIds;
+        this.primerDia = primerDia;
+        this.dias = dias;
+    }
+
+    LocalDateTime horario(int k) {
+        return primerDia.plusDays(k / HORARIOS_POR_DIA).atTime(8 + k % HORARIOS_POR_DIA, 0);
+    }
+
+    LocalDate ultimoDia() {
+        return primerDia.plusDays(dias - 1);
+    }
+
+    static DatosBenchmark generar(Connection conexion, int escala, long semilla) throws SQLException {
+        if (escala < 1) {
+            throw new IllegalArgumentException("La escala debe ser mayor que cero");
+        }
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        int medicos = Math.max(10, escala / 25);
+        int citasPorMedico = Math.max(1, escala * 4 / medicos);
+        int dias = (citasPorMedico + HORARIOS_POR_DIA - 1) / HORARIOS_POR_DIA;
+        LocalDate primerDia = LocalDate.now().minusDays(dias / 2);
+
+        conexion.setAutoCommit(false);
+        limpiar(conexion);
+        insertarPacientes(conexion, escala);
+        insertarMedicos(conexion, medicos);
+        long[] pacienteIds = consultarIds(conexion, "SELECT id FROM paciente WHERE dpi LIKE 'BENCHP%' ORDER BY id", escala);
+        long[] medicoIds = consultarIds(conexion, "SELECT id FROM medico WHERE colegiado LIKE 'BENCHM%' ORDER BY id", medicos);
+        insertarHistoriales(conexion, pacienteIds, aleatorio);
+
+        DatosBenchmark datos = new DatosBenchmark(pacienteIds, dpis(escala), medicoIds, primerDia, dias);
+        crearParticiones(conexion, primerDia, datos.ultimoDia());
+        insertarCitas(conexion, datos, citasPorMedico, aleatorio);
+        actualizarEstadisticas(conexion);
+        conexion.commit();
+
+        conexion.setAutoCommit(true);
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("ANALYZE");
+        }
+        return datos;
+    }
+
+    static void limpiar(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.executeUpdate("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'BENCH%')");
+            sentencia.executeUpdate("DELETE FROM cita WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'BENCH%')");
+            sentencia.executeUpdate("DELETE FROM historial_medico WHERE paciente_id IN " +
+                "(SELECT id FROM paciente WHERE dpi LIKE 'BENCH%')");
+            sentencia.executeUpdate("DELETE FROM cita WHERE paciente_id IN " +
+                "(SELECT id FROM paciente WHERE dpi LIKE 'BENCH%')");
+            sentencia.executeUpdate("DELETE FROM paciente WHERE dpi LIKE 'BENCH%'");
+            sentencia.executeUpdate("DELETE FROM medico WHERE colegiado LIKE 'BENCH%'");
+        }
+    }
+
+    private static String[] dpis(int escala) {
+        String[] dpis = new String[escala];
+        for (int i = 0; i < escala; i++) {
+            dpis[i] = String.format("%sP%09d", PREFIJO, i);
+        }
+        return dpis;
+    }
+
+    private static void insertarPacientes(Connection conexion, int escala) throws SQLException {
+        String[] dpis = dpis(escala);
+        try (PreparedStatement insert = conexion.prepareStatement(
+                "INSERT INTO paciente (nombre, dpi, fechaNacimiento, telefono, email) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < escala; i++) {
+                insert.setString(1, "Paciente Benchmark " + i);
+                insert.setString(2, dpis[i]);
+                insert.setObject(3, LocalDate.of(1950 + i % 60, 1 + i % 12, 1 + i % 28));
+                insert.setString(4, String.format("5%07d", i % 10_000_000));
+                insert.setString(5, "paciente" + i + "@bench.test");
+                agregarAlLote(insert, i);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void insertarMedicos(Connection conexion, int medicos) throws SQLException {
+        Especialidad[] especialidades = Especialidad.values();
+        try (PreparedStatement insert = conexion.prepareStatement(
+                "INSERT INTO medico (nombre, colegiado, especialidad, email) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < medicos; i++) {
+                insert.setString(1, "Médico Benchmark " + i);
+                insert.setString(2, String.format("%sM%06d", PREFIJO, i));
+                insert.setString(3, especialidades[i % especialidades.length].name());
+                insert.setString(4, "medico" + i + "@bench.test");
+                agregarAlLote(insert, i);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void insertarHistoriales(Connection conexion, long[] pacienteIds, SplittableRandom aleatorio)
+            throws SQLException {
+        try (PreparedStatement insert = conexion.prepareStatement(
+                "INSERT INTO historial_medico (paciente_id, alergias, antecedentes, observaciones) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < pacienteIds.length; i++) {
+                insert.setLong(1, pacienteIds[i]);
+                insert.setString(2, ALERGIAS[aleatorio.nextInt(ALERGIAS.length)]);
+                insert.setString(3, aleatorio.nextInt(3) == 0 ? "Hipertensión" : null);
+                insert.setString(4, "Control anual");
+                agregarAlLote(insert, i);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void crearParticiones(Connection conexion, LocalDate desde, LocalDate hasta) throws SQLException {
+        try (PreparedStatement crear = conexion.prepareStatement("SELECT crear_particion_cita(CAST(? AS DATE))")) {
+            for (YearMonth mes = YearMonth.from(desde); !mes.isAfter(YearMonth.from(hasta)); mes = mes.plusMonths(1)) {
+                crear.setString(1, mes.atDay(1).toString());
+                crear.execute();
+            }
+        }
+    }
+
+    private static void insertarCitas(Connection conexion, DatosBenchmark datos, int citasPorMedico,
+                                      SplittableRandom aleatorio) throws SQLException {
+        LocalDateTime ahora = LocalDateTime.now();
+        int fila = 0;
+        try (PreparedStatement insert = conexion.prepareStatement(
+                "INSERT INTO cita (fecha_hora, estado, motivo, paciente_id, medico_id) VALUES (?, ?, ?, ?, ?)")) {
+            for (long medicoId : datos.medicoIds) {
+                for (int k = 0; k < citasPorMedico; k++) {
+                    LocalDateTime fechaHora = datos.horario(k);
+                    EstadoCita estado = fechaHora.isBefore(ahora)
+                        ? (aleatorio.nextInt(10) < 7 ? EstadoCita.ATENDIDA : EstadoCita.CANCELADA)
+                        : (aleatorio.nextInt(10) < 9 ? EstadoCita.PROGRAMADA : EstadoCita.CANCELADA);
+                    insert.setTimestamp(1, Timestamp.valueOf(fechaHora));
+                    insert.setString(2, estado.name());
+                    insert.setString(3, "Consulta de benchmark");
+                    insert.setLong(4, datos.pacienteIds[aleatorio.nextInt(datos.pacienteIds.length)]);
+                    insert.setLong(5, medicoId);
+                    agregarAlLote(insert, fila++);
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void actualizarEstadisticas(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.executeUpdate(
+                "INSERT INTO estadistica_cita_diaria (dia, medico_id, estado, especialidad, total) " +
+                "SELECT CAST(c.fecha_hora AS DATE), c.medico_id, c.estado, m.especialidad, COUNT(*) " +
+                "FROM cita c JOIN medico m ON m.id = c.medico_id " +
+                "WHERE m.colegiado LIKE 'BENCHM%' " +
+                "GROUP BY CAST(c.fecha_hora AS DATE), c.medico_id, c.estado, m.especialidad");
+        }
+    }
+
+    private static long[] consultarIds(Connection conexion, String sql, int esperados) throws SQLException {
+        List<Long> ids = new ArrayList<>(esperados);
+        try (Statement sentencia = conexion.createStatement(); ResultSet filas = sentencia.executeQuery(sql)) {
+            while (filas.next()) {
+                ids.add(filas.getLong(1));
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void agregarAlLote(PreparedStatement insert, int fila) throws SQLException {
+        insert.addBatch();
+        if ((fila + 1) % TAMANO_LOTE == 0) {
+            insert.executeBatch();
+        }
+    }
+}
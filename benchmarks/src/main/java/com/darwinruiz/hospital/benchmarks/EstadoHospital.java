@@ -0,0 +1,84 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.repositories.CitaRepository;
+import com.darwinruiz.hospital.repositories.HistorialMedicoRepository;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.HistorialMedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+public class EstadoHospital {
+
+    @Param({"1000"})
+    public int escala;
+
+    BaseDatosBenchmark baseDatos;
+    DatosBenchmark datos;
+    EntityManagerFactory emf;
+    CitaService citaService;
+    PacienteService pacienteService;
+    HistorialMedicoService historialMedicoService;
+    CitaRepository citaRepository;
+    HistorialMedicoRepository historialMedicoRepository;
+
+    // En segundos :30 para no chocar con la rejilla de horas en punto
+    LocalDateTime inicioAgenda;
+    final AtomicLong citasAgendadas = new AtomicLong();
+    final AtomicLong pacientesRegistrados = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        baseDatos = BaseDatosBenchmark.iniciar();
+        baseDatos.configurarPersistencia();
+
+        emf = Persistencia.compartida();
+        try (Connection conexion = baseDatos.conectar()) {
+            datos = DatosBenchmark.generar(conexion, escala, Long.getLong("benchmark.semilla", 42L));
+        }
+
+        citaService = new CitaService(emf);
+        pacienteService = new PacienteService(emf);
+        historialMedicoService = new HistorialMedicoService(emf);
+        citaRepository = new CitaRepository();
+        historialMedicoRepository = new HistorialMedicoRepository();
+        inicioAgenda = LocalDate.now().plusDays(1).atTime(0, 0, 30);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() throws Exception {
+        Persistencia.cerrarCompartida();
+        if (baseDatos != null) {
+            if (!baseDatos.esEmbebida()) {
+                try (Connection conexion = baseDatos.conectar()) {
+                    DatosBenchmark.limpiar(conexion);
+                }
+            }
+            baseDatos.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Aleatorio {
+
+        SplittableRandom generador;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            generador = new SplittableRandom(Thread.currentThread().getId());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.importacion.ImportadorPacientesCsv;
+import com.darwinruiz.hospital.models.Paciente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importación masiva de pacientes (1 de cada 20 filas con email inválido) y, sin base de datos, la
+ * validación de sus filas por fila.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImportacionBenchmark {
+
+    static final int FILAS_VALIDACION = 5_000;
+
+    private static final LocalDate NACIMIENTO = LocalDate.of(1985, 6, 15);
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ImportadorPacientesCsv.Resultado importarCsv(EstadoHospital estado, ArchivoCsv archivo) {
+        return new ImportadorPacientesCsv(estado.emf).importar(archivo.ruta, archivo.rechazos);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS_VALIDACION)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long validarFilasSecuencial(Filas filas) {
+        long validas = 0;
+        for (String[] fila : filas.valores) {
+            validas += validar(fila);
+        }
+        return validas;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS_VALIDACION)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long validarFilasParalelo(Filas filas) {
+        return Arrays.stream(filas.valores).parallel().mapToLong(ImportacionBenchmark::validar).sum();
+    }
+
+    private static long validar(String[] fila) {
+        try {
+            new Paciente(fila[0], fila[1], NACIMIENTO, fila[2], fila[3]);
+            return 1;
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private static String email(long n) {
+        return n % 20 == 0 ? "paciente" + n + "@sin-dominio" : "paciente" + n + "@importacion.test";
+    }
+
+    // Los DPI llevan el número de invocación para no chocar con los ya importados
+    @State(Scope.Thread)
+    public static class ArchivoCsv {
+
+        @Param({"10000"})
+        public int filas;
+
+        Path ruta;
+        Path rechazos;
+        private int invocacion;
+
+        @Setup(Level.Trial)
+        public void crear() throws IOException {
+            ruta = Files.createTempFile("importacion-bench", ".csv");
+            rechazos = ImportadorPacientesCsv.reportePorDefecto(ruta);
+        }
+
+        @Setup(Level.Invocation)
+        public void escribir() throws IOException {
+            invocacion++;
+            try (BufferedWriter salida = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8)) {
+                salida.write("nombre,dpi,fechaNacimiento,telefono,email");
+                salida.newLine();
+                for (int i = 0; i < filas; i++) {
+                    long n = (long) invocacion * filas + i;
+                    salida.write(String.format("Paciente Importado %d,%sI%05d%09d,%s,5550%04d,%s",
+                        n, DatosBenchmark.PREFIJO, invocacion, i, NACIMIENTO, i % 10_000, email(n)));
+                    salida.newLine();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void borrar() throws IOException {
+            Files.deleteIfExists(ruta);
+            Files.deleteIfExists(rechazos);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Filas {
+
+        String[][] valores;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            // La primera validación construye el validador; no se mide
+            new Paciente("Inicio", "INICIO", NACIMIENTO, null, "inicio@bench.test");
+
+            valores = new String[FILAS_VALIDACION][];
+            for (int i = 0; i < FILAS_VALIDACION; i++) {
+                valores[i] = new String[]{"Paciente Validado " + i, String.format("VAL%010d", i),
+                    String.format("5550%04d", i), email(i)};
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.models.HistorialMedico;
+import com.darwinruiz.hospital.models.Paciente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PacienteBenchmark {
+
+    @Benchmark
+    public Paciente registrarPaciente(EstadoHospital estado) {
+        long n = estado.pacientesRegistrados.getAndIncrement();
+        return estado.pacienteService.registrarPaciente(
+            "Paciente Registrado " + n,
+            String.format("%sR%012d", DatosBenchmark.PREFIJO, n),
+            LocalDate.of(1980, 1, 1),
+            "55501234",
+            "registrado" + n + "@bench.test");
+    }
+
+    @Benchmark
+    public Optional<HistorialMedico> consultarHistorialPorDpi(EstadoHospital estado, EstadoHospital.Aleatorio aleatorio) {
+        String[] dpis = estado.datos.dpis;
+        return estado.historialMedicoService.consultarHistorialPorDpi(dpis[aleatorio.generador.nextInt(dpis.length)]);
+    }
+
+    @Benchmark
+    public List<HistorialMedico> buscarHistorialPorAlergia(EstadoHospital estado, EstadoHospital.Aleatorio aleatorio) {
+        String[] alergias = DatosBenchmark.ALERGIAS;
+        return estado.historialMedicoRepository.findByAlergiasContaining(alergias[aleatorio.generador.nextInt(alergias.length)]);
+    }
+}
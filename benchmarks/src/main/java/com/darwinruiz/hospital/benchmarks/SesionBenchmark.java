@@ -0,0 +1,91 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.models.Cita;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flush y memoria de una sesión con todas las citas sembradas, su paciente y su médico. Los bytes de
+ * flush incluyen la carga de la sesión: el perfilador gc no separa el setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SesionBenchmark {
+
+    @Param({"0", "50"})
+    public int modificadas;
+
+    @State(Scope.Thread)
+    public static class SesionCargada {
+
+        EntityManager em;
+        List<Cita> citas;
+
+        @Setup(Level.Invocation)
+        public void abrir(EstadoHospital estado) {
+            em = estado.emf.createEntityManager();
+            em.getTransaction().begin();
+            citas = cargarCitas(em);
+        }
+
+        @TearDown(Level.Invocation)
+        public void cerrar() {
+            em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public int flush(SesionCargada sesion) {
+        int cambios = modificar(sesion.citas, modificadas);
+        sesion.em.flush();
+        return cambios;
+    }
+
+    @Benchmark
+    public int cargarModificarYVaciar(EstadoHospital estado) {
+        EntityManager em = estado.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            int cambios = modificar(cargarCitas(em), modificadas);
+            em.flush();
+            return cambios;
+        } finally {
+            em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    private static List<Cita> cargarCitas(EntityManager em) {
+        return em.createQuery("SELECT c FROM Cita c JOIN FETCH c.paciente JOIN FETCH c.medico", Cita.class)
+            .getResultList();
+    }
+
+    private static int modificar(List<Cita> citas, int cantidad) {
+        int limite = Math.min(cantidad, citas.size());
+        for (int i = 0; i < limite; i++) {
+            Cita cita = citas.get(i * (citas.size() / Math.max(1, limite)));
+            cita.setMotivo("Motivo modificado " + i);
+        }
+        return limite;
+    }
+}
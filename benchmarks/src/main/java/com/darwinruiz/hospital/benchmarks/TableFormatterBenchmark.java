@@ -0,0 +1,159 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.utils.TableFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderizado de tablas de consola, por fila; renderizarAnterior conserva el algoritmo previo como
+ * referencia.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TableFormatterBenchmark {
+
+    static final int FILAS = 1_000;
+
+    private static final String[] ENCABEZADOS = {"ID", "Fecha y Hora", "Paciente", "Médico", "Especialidad", "Estado", "Motivo"};
+    private static final String[] NOMBRES = {"José Pérez", "María Fernández", "Ana Lucía Gómez", "Iñaki Núñez", "Luis Rodríguez"};
+    private static final String[] ESPECIALIDADES = {"CARDIOLOGIA", "PEDIATRIA", "DERMATOLOGIA", "NEUROLOGIA"};
+    private static final String[] ESTADOS = {"PROGRAMADA", "ATENDIDA", "CANCELADA"};
+    private static final String[] MOTIVOS = {"Control", "Revisión anual", "Dolor de cabeza", "Seguimiento 🩺", "Sin especificar"};
+
+    private List<String[]> filas;
+    private TableFormatter tablaConstruida;
+    private TablaAnterior tablaAnterior;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        filas = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            filas.add(new String[]{
+                String.valueOf(100_000 + i),
+                String.format("%02d/%02d/2025 %02d:00", 1 + random.nextInt(28), 1 + random.nextInt(12), 8 + random.nextInt(10)),
+                NOMBRES[random.nextInt(NOMBRES.length)],
+                "Dr. " + NOMBRES[random.nextInt(NOMBRES.length)],
+                ESPECIALIDADES[random.nextInt(ESPECIALIDADES.length)],
+                ESTADOS[random.nextInt(ESTADOS.length)],
+                MOTIVOS[random.nextInt(MOTIVOS.length)]
+            });
+        }
+
+        tablaConstruida = new TableFormatter().setHeaders(ENCABEZADOS);
+        tablaAnterior = new TablaAnterior(ENCABEZADOS);
+        for (String[] fila : filas) {
+            tablaConstruida.addRow(fila);
+            tablaAnterior.addRow(fila);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public String construirYRenderizar() {
+        TableFormatter tabla = new TableFormatter().setHeaders(ENCABEZADOS);
+        for (String[] fila : filas) {
+            tabla.addRow(fila);
+        }
+        return tabla.build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public String renderizar() {
+        return tablaConstruida.build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public String renderizarAnterior() {
+        return tablaAnterior.build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public long streaming() {
+        TableFormatter.StreamingTable tabla = TableFormatter.streaming(Writer.nullWriter())
+            .setHeaders(ENCABEZADOS)
+            .setColumnWidths(6, 16, 16, 20, 12, 10, 16);
+        for (String[] fila : filas) {
+            tabla.addRow(fila);
+        }
+        return tabla.finish();
+    }
+
+    static final class TablaAnterior {
+
+        private final List<String> encabezados;
+        private final List<List<String>> filas = new ArrayList<>();
+        private final List<Integer> anchos = new ArrayList<>();
+
+        TablaAnterior(String... encabezados) {
+            this.encabezados = List.of(encabezados);
+            for (String encabezado : encabezados) {
+                anchos.add(encabezado.length());
+            }
+        }
+
+        void addRow(String... valores) {
+            List<String> fila = new ArrayList<>();
+            for (int i = 0; i < valores.length && i < encabezados.size(); i++) {
+                String valor = valores[i] != null ? valores[i] : "";
+                fila.add(valor);
+                if (valor.length() > anchos.get(i)) {
+                    anchos.set(i, valor.length());
+                }
+            }
+            filas.add(fila);
+        }
+
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(separador()).append("\n");
+            sb.append(linea(encabezados)).append("\n");
+            sb.append(separador()).append("\n");
+            for (List<String> fila : filas) {
+                sb.append(linea(fila)).append("\n");
+            }
+            sb.append(separador());
+            return sb.toString();
+        }
+
+        private String separador() {
+            StringBuilder sb = new StringBuilder("+");
+            for (int ancho : anchos) {
+                sb.append("-".repeat(ancho + 2)).append("+");
+            }
+            return sb.toString();
+        }
+
+        private String linea(List<String> valores) {
+            StringBuilder sb = new StringBuilder("|");
+            for (int i = 0; i < valores.size(); i++) {
+                String valor = valores.get(i);
+                int ancho = anchos.get(i);
+                sb.append(" ").append(valor.length() >= ancho ? valor : valor + " ".repeat(ancho - valor.length())).append(" |");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.darwinruiz.hospital.benchmarks;
+
+import com.darwinruiz.hospital.validacion.ValidadorFormato;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Validación de formatos por valor (1 de cada 8 inválido); los *Pattern conservan las expresiones
+ * regulares que ValidadorFormato reemplaza, como referencia.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidacionFormatoBenchmark {
+
+    static final int VALORES = 1_000;
+
+    private static final Pattern EMAIL =
+        Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9]+([.-][a-zA-Z0-9]+)*\\.[a-zA-Z]{2,}$");
+    private static final Pattern DPI = Pattern.compile("[0-9]{13}");
+    private static final Pattern TELEFONO =
+        Pattern.compile("(?=.{1,15}$)(?=(?:[^0-9]*[0-9]){7})\\+?[0-9]+(?:[ -][0-9]+)*");
+
+    private String[] emails;
+    private String[] dpis;
+    private String[] telefonos;
+
+    @Setup
+    public void preparar() {
+        emails = new String[VALORES];
+        dpis = new String[VALORES];
+        telefonos = new String[VALORES];
+        for (int i = 0; i < VALORES; i++) {
+            boolean invalido = i % 8 == 0;
+            emails[i] = invalido ? "paciente" + i + "@sin-dominio" : "paciente." + i + "@hospital-nacional.gob.gt";
+            dpis[i] = String.format(invalido ? "%012dX" : "%013d", 2_987_654_320_000L + i);
+            telefonos[i] = String.format(invalido ? "+502 %04d--%04d" : "+502 %04d-%04d", 5500 + i % 100, i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public int emailPattern() {
+        int validos = 0;
+        for (String email : emails) {
+            validos += EMAIL.matcher(email).matches() ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public int emailValidadorFormato() {
+        int validos = 0;
+        for (String email : emails) {
+            validos += ValidadorFormato.esEmailValido(email) ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public int dpiPattern() {
+        int validos = 0;
+        for (String dpi : dpis) {
+            validos += DPI.matcher(dpi).matches() ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public int dpiValidadorFormato() {
+        int validos = 0;
+        for (String dpi : dpis) {
+            validos += ValidadorFormato.esDpiValido(dpi) ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public int telefonoPattern() {
+        int validos = 0;
+        for (String telefono : telefonos) {
+            validos += TELEFONO.matcher(telefono).matches() ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public int telefonoValidadorFormato() {
+        int validos = 0;
+        for (String telefono : telefonos) {
+            validos += ValidadorFormato.esTelefonoValido(telefono) ? 1 : 0;
+        }
+        return validos;
+    }
+}
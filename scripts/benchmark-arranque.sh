@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Compara el tiempo hasta el primer menú de la consola con y sin el archivo CDS.
+#
+#   mvn -Parranque -Dmaven.test.skip=true package
+#   scripts/benchmark-arranque.sh [repeticiones]
+#
+# Cada ejecución usa --medir-arranque, que muestra el menú, espera a Hibernate, hace una consulta
+# y termina. Se informa la mediana de: primer menú (desde el inicio de la JVM), primera consulta
+# y tiempo total del proceso. Necesita la base de datos de persistence.xml (o -Dhospital.db.*
+# en JAVA_OPTS).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+REPETICIONES="${1:-5}"
+JAR=target/hospital.jar
+ARCHIVO_CDS=target/hospital.jsa
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+if [[ ! -f "$JAR" ]]; then
+    echo "No existe $JAR; ejecute: mvn -Parranque -Dmaven.test.skip=true package" >&2
+    exit 1
+fi
+
+mediana() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+etapa() {
+    sed -n "s/^  $1: \([0-9]*\) ms$/\1/p" "$2"
+}
+
+medir() {
+    local nombre="$1"
+    shift
+    local menus=() consultas=() totales=()
+    local salida
+    salida="$(mktemp)"
+    for ((i = 0; i < REPETICIONES; i++)); do
+        local inicio fin
+        inicio=$(date +%s%N)
+        # shellcheck disable=SC2086
+        "$JAVA" ${JAVA_OPTS:-} -Dhospital.sql.mostrar=false "$@" -jar "$JAR" --medir-arranque \
+            > /dev/null 2> "$salida"
+        fin=$(date +%s%N)
+        if ! grep -q "primera consulta" "$salida"; then
+            echo "La ejecución '$nombre' falló:" >&2
+            cat "$salida" >&2
+            exit 1
+        fi
+        menus+=($(($(etapa "jvm hasta main" "$salida") + $(etapa "primer menú" "$salida"))))
+        consultas+=($(($(etapa "jvm hasta main" "$salida") + $(etapa "primera consulta" "$salida"))))
+        totales+=($(((fin - inicio) / 1000000)))
+    done
+    rm -f "$salida"
+    printf "%-12s %14s %18s %12s\n" "$nombre" \
+        "$(printf '%s\n' "${menus[@]}" | mediana) ms" \
+        "$(printf '%s\n' "${consultas[@]}" | mediana) ms" \
+        "$(printf '%s\n' "${totales[@]}" | mediana) ms"
+}
+
+echo "Mediana de $REPETICIONES ejecuciones"
+printf "%-12s %14s %18s %12s\n" "Configuración" "Primer menú" "Primera consulta" "Total"
+medir "jar" -Xshare:auto
+if [[ -f "$ARCHIVO_CDS" ]]; then
+    medir "jar + CDS" -XX:SharedArchiveFile="$ARCHIVO_CDS" -Xlog:cds=error
+else
+    echo "No existe $ARCHIVO_CDS; se omite la medición con CDS" >&2
+fi
@@ -1,15 +1,41 @@
 package com.darwinruiz.hospital;
 
+import com.darwinruiz.hospital.archivo.ArchivadorCitas;
+import com.darwinruiz.hospital.archivo.ArchivoCitas;
 import com.darwinruiz.hospital.console.HospitalConsoleApp;
+import com.darwinruiz.hospital.database.MantenimientoParticiones;
+import com.darwinruiz.hospital.database.MigradorEsquema;
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.database.PurgaEliminados;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.exportacion.ExportadorDatos;
+import com.darwinruiz.hospital.importacion.ImportadorPacientesCsv;
+import com.darwinruiz.hospital.lote.EjecutorLote;
 import com.darwinruiz.hospital.utils.EncodingUtils;
+import com.darwinruiz.hospital.utils.GeneradorDatosSinteticos;
+import com.darwinruiz.hospital.utils.TiemposArranque;
 
-import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
 public class HospitalApplication {
 
+    private static final int SEGUNDOS_VERIFICACION_CONEXION = 5;
+
     public static void main(String[] args) {
+        TiemposArranque.registrarInicioJvm();
 
         try {
             System.setProperty("file.encoding", "UTF-8");
@@ -19,24 +45,90 @@ public class HospitalApplication {
 
         }
 
+        int lote = Arrays.asList(args).indexOf("--lote");
+        if (lote >= 0) {
+            // Sin encabezado: la salida estándar queda solo con los resultados NDJSON
+            ejecutarLote(lote + 1 < args.length ? args[lote + 1] : "-");
+            return;
+        }
+
         System.out.println("=== SISTEMA DE HOSPITAL ===");
 
+        if (Arrays.asList(args).contains("--migrar")) {
+            ejecutarMigraciones();
+            return;
+        }
 
+        if (Arrays.asList(args).contains("--mantener-particiones")) {
+            mantenerParticiones();
+            return;
+        }
 
-        try {
-            EntityManagerFactory emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
-            EntityManager em = emf.createEntityManager();
+        if (Arrays.asList(args).contains("--archivar-citas")) {
+            archivarCitas();
+            return;
+        }
 
-            System.out.println("✓ Conexión a base de datos establecida correctamente");
+        if (Arrays.asList(args).contains("--purgar-eliminados")) {
+            purgarEliminados();
+            return;
+        }
 
-            em.close();
-            emf.close();
+        if (Arrays.asList(args).contains("--generar-datos")) {
+            generarDatos();
+            return;
+        }
+
+        int importar = Arrays.asList(args).indexOf("--importar-pacientes");
+        if (importar >= 0) {
+            if (importar + 1 >= args.length) {
+                System.err.println("Uso: --importar-pacientes <archivo.csv>");
+                return;
+            }
+            importarPacientes(Path.of(args[importar + 1]));
+            return;
+        }
+
+        int exportarCitas = Arrays.asList(args).indexOf("--exportar-citas");
+        if (exportarCitas >= 0) {
+            if (exportarCitas + 1 >= args.length) {
+                System.err.println("Uso: --exportar-citas <archivo.csv|archivo.ndjson>[.gz]");
+                return;
+            }
+            exportarCitas(Path.of(args[exportarCitas + 1]));
+            return;
+        }
+
+        int exportarHistoriales = Arrays.asList(args).indexOf("--exportar-historiales");
+        if (exportarHistoriales >= 0) {
+            if (exportarHistoriales + 1 >= args.length) {
+                System.err.println("Uso: --exportar-historiales <archivo.csv|archivo.ndjson>[.gz]");
+                return;
+            }
+            exportarHistoriales(Path.of(args[exportarHistoriales + 1]));
+            return;
+        }
+
+        try {
+            // Hibernate y las migraciones se preparan en segundo plano mientras se muestra el menú;
+            // la conexión se comprueba antes con un ping JDBC
+            Persistencia.compartida();
+            long inicioPing = System.nanoTime();
+            Persistencia.verificarConexion(SEGUNDOS_VERIFICACION_CONEXION);
+            TiemposArranque.registrar("ping JDBC", (System.nanoTime() - inicioPing) / 1_000_000);
+
+            iniciarPurgaProgramada();
 
+            System.out.println("✓ Conexión a base de datos establecida correctamente");
             System.out.println("✓ Estructura del proyecto configurada correctamente");
             System.out.println();
 
             HospitalConsoleApp consoleApp = new HospitalConsoleApp();
-            consoleApp.iniciar();
+            if (Arrays.asList(args).contains("--medir-arranque")) {
+                consoleApp.medirArranque();
+            } else {
+                consoleApp.iniciar();
+            }
 
         } catch (Exception e) {
             System.err.println("Error al conectar con la base de datos: " + e.getMessage());
@@ -44,4 +136,207 @@ public class HospitalApplication {
             System.err.println("La aplicación no puede continuar sin conexión a la base de datos.");
         }
     }
+
+    private static void ejecutarMigraciones() {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(
+            Persistencia.UNIDAD_PERSISTENCIA, Persistencia.propiedadesConexion());
+        int codigoSalida = 0;
+        try {
+            List<MigradorEsquema.Migracion> aplicadas = new MigradorEsquema(emf).migrar();
+            if (aplicadas.isEmpty()) {
+                System.out.println("✓ El esquema ya está actualizado");
+            }
+            for (MigradorEsquema.Migracion migracion : aplicadas) {
+                System.out.println("✓ Migración V" + migracion.version() + " aplicada: " + migracion.descripcion());
+            }
+        } catch (Exception e) {
+            System.err.println("Error al migrar el esquema: " + e.getMessage());
+            codigoSalida = 1;
+        } finally {
+            emf.close();
+        }
+        if (codigoSalida != 0) {
+            System.exit(codigoSalida);
+        }
+    }
+
+    // Se ejecuta después de --archivar-citas: solo desacopla los meses que ya quedaron vacíos
+    private static void mantenerParticiones() {
+        EntityManagerFactory emf = Persistencia.compartida();
+        try {
+            MantenimientoParticiones mantenimiento = new MantenimientoParticiones(emf);
+            List<String> futuras = mantenimiento.asegurarParticionesFuturas(MantenimientoParticiones.MESES_ADELANTE_POR_DEFECTO);
+            System.out.println("✓ Particiones disponibles hasta " + futuras.get(futuras.size() - 1));
+
+            for (String particion : mantenimiento.archivarParticionesAntiguas(MantenimientoParticiones.MESES_RETENCION_POR_DEFECTO)) {
+                System.out.println("✓ Partición " + particion + " movida al esquema " + MantenimientoParticiones.ESQUEMA_ARCHIVO);
+            }
+
+            long enDefault = mantenimiento.contarCitasEnParticionDefault();
+            if (enDefault > 0) {
+                System.out.println("⚠ " + enDefault + " citas fuera del rango de particiones (cita_default)");
+            }
+        } catch (Exception e) {
+            System.err.println("Error al mantener las particiones: " + e.getMessage());
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+    }
+
+    private static void archivarCitas() {
+        int meses = Integer.getInteger("hospital.archivo.meses", ArchivadorCitas.MESES_ANTIGUEDAD_POR_DEFECTO);
+        EntityManagerFactory emf = Persistencia.compartida();
+        try {
+            long inicio = System.nanoTime();
+            long archivadas = new ArchivadorCitas(emf, ArchivoCitas.directorioPorDefecto()).archivarAnterioresA(meses);
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.println("✓ " + archivadas + " citas archivadas en " + ArchivoCitas.directorioPorDefecto().toAbsolutePath() +
+                " (" + milisegundos + " ms)");
+        } catch (Exception e) {
+            System.err.println("Error al archivar citas: " + e.getMessage());
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+    }
+
+    private static void purgarEliminados() {
+        int dias = Integer.getInteger("hospital.purga.dias", PurgaEliminados.DIAS_RETENCION_POR_DEFECTO);
+        EntityManagerFactory emf = Persistencia.compartida();
+        try {
+            long inicio = System.nanoTime();
+            PurgaEliminados.Resultado resultado = new PurgaEliminados(emf).purgarVencidos(dias);
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.println("✓ Purgados " + resultado.citas() + " citas, " + resultado.pacientes() +
+                " pacientes y " + resultado.medicos() + " médicos eliminados hace más de " + dias +
+                " días (" + milisegundos + " ms)");
+        } catch (Exception e) {
+            System.err.println("Error al purgar los registros eliminados: " + e.getMessage());
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+    }
+
+    private static void iniciarPurgaProgramada() {
+        Integer horas = Integer.getInteger("hospital.purga.horas");
+        if (horas == null || horas < 1) {
+            return;
+        }
+        int dias = Integer.getInteger("hospital.purga.dias", PurgaEliminados.DIAS_RETENCION_POR_DEFECTO);
+        new PurgaEliminados(Persistencia.compartida()).iniciar(Duration.ofHours(horas), dias);
+    }
+
+    private static void generarDatos() {
+        GeneradorDatosSinteticos.Configuracion porEscala = GeneradorDatosSinteticos.Configuracion.porEscala(
+            Integer.getInteger("hospital.generador.pacientes", 10_000),
+            Long.getLong("hospital.generador.semilla", 42L));
+        GeneradorDatosSinteticos.Configuracion configuracion = new GeneradorDatosSinteticos.Configuracion(
+            porEscala.pacientes(),
+            Integer.getInteger("hospital.generador.medicos", porEscala.medicos()),
+            Integer.getInteger("hospital.generador.citas", porEscala.citas()),
+            porEscala.semilla(),
+            Integer.getInteger("hospital.generador.hilos", porEscala.hilos()),
+            porEscala.fechaReferencia());
+
+        EntityManagerFactory emf = Persistencia.compartida();
+        try {
+            GeneradorDatosSinteticos.Resumen resumen = new GeneradorDatosSinteticos(emf).generar(configuracion);
+            System.out.println("✓ " + resumen.pacientes() + " pacientes, " + resumen.historiales() + " historiales, " +
+                resumen.medicos() + " médicos y " + resumen.citas() + " citas generados en " +
+                resumen.milisegundos() + " ms");
+        } catch (Exception e) {
+            System.err.println("Error al generar datos: " + e.getMessage());
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+    }
+
+    private static void importarPacientes(Path archivo) {
+        EntityManagerFactory emf = Persistencia.compartida();
+        try {
+            ImportadorPacientesCsv.Resultado resultado = new ImportadorPacientesCsv(emf)
+                .importar(archivo, ImportadorPacientesCsv.reportePorDefecto(archivo));
+            System.out.println("✓ " + resultado.importadas() + " de " + resultado.leidas() + " pacientes importados en " +
+                resultado.milisegundos() + " ms");
+            if (resultado.rechazadas() > 0) {
+                System.out.println("⚠ " + resultado.rechazadas() + " filas rechazadas: " +
+                    resultado.reporteRechazos().toAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.err.println("Error al importar pacientes: " + e.getMessage());
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+    }
+
+    private static void exportarCitas(Path destino) {
+        EntityManagerFactory emf = Persistencia.compartida();
+        try {
+            String estado = System.getProperty("hospital.exportar.estado");
+            ExportadorDatos.FiltroCitas filtro = new ExportadorDatos.FiltroCitas(
+                fechaHoraPropiedad("hospital.exportar.desde"),
+                fechaHoraPropiedad("hospital.exportar.hasta"),
+                estado == null ? null : EstadoCita.valueOf(estado.trim().toUpperCase()),
+                Long.getLong("hospital.exportar.medico"));
+            imprimirExportacion(new ExportadorDatos(emf).exportarCitas(filtro, destino), "citas exportadas");
+        } catch (Exception e) {
+            System.err.println("Error al exportar citas: " + e.getMessage());
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+    }
+
+    private static void exportarHistoriales(Path destino) {
+        EntityManagerFactory emf = Persistencia.compartida();
+        try {
+            imprimirExportacion(new ExportadorDatos(emf).exportarHistoriales(destino), "historiales exportados");
+        } catch (Exception e) {
+            System.err.println("Error al exportar historiales: " + e.getMessage());
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+    }
+
+    private static void ejecutarLote(String origen) {
+        // El SQL de Hibernate se imprime en la salida estándar y mezclaría las líneas de resultados
+        if (System.getProperty("hospital.sql.mostrar") == null) {
+            System.setProperty("hospital.sql.mostrar", "false");
+        }
+        EntityManagerFactory emf = Persistencia.compartida();
+        int codigoSalida = 0;
+        try (Reader entrada = "-".equals(origen)
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(origen), StandardCharsets.UTF_8)) {
+            EjecutorLote ejecutor = new EjecutorLote(emf,
+                Integer.getInteger("hospital.lote.tamano", EjecutorLote.TAMANO_LOTE_POR_DEFECTO));
+            EjecutorLote.Resumen resumen = ejecutor.ejecutar(entrada, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            System.err.println("✓ " + resumen.comandos() + " comandos (" + resumen.exitosos() + " exitosos, " +
+                resumen.fallidos() + " fallidos, " + resumen.lotesReintentados() + " lotes reintentados) en " +
+                resumen.milisegundos() + " ms, " + resumen.comandosPorSegundo() + " comandos/s");
+            if (resumen.fallidos() > 0) {
+                codigoSalida = 2;
+            }
+        } catch (Exception e) {
+            System.err.println("Error al ejecutar el lote: " + e.getMessage());
+            codigoSalida = 1;
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+        if (codigoSalida != 0) {
+            System.exit(codigoSalida);
+        }
+    }
+
+    private static void imprimirExportacion(ExportadorDatos.Resultado resultado, String descripcion) {
+        System.out.println("✓ " + resultado.filas() + " " + descripcion + " en " +
+            resultado.archivo().toAbsolutePath() + " (" + resultado.formato() + ", " + resultado.milisegundos() +
+            " ms, " + resultado.filasPorSegundo() + " filas/s)");
+    }
+
+    private static LocalDateTime fechaHoraPropiedad(String propiedad) {
+        String valor = System.getProperty(propiedad);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        return valor.contains("T") ? LocalDateTime.parse(valor.trim()) : LocalDate.parse(valor.trim()).atStartOfDay();
+    }
 }
@@ -0,0 +1,143 @@
+package com.darwinruiz.hospital.archivo;
+
+import com.darwinruiz.hospital.enums.EstadoCita;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mueve al archivo frío las citas ATENDIDAS y CANCELADAS antiguas, por lotes paginados por
+ * llave (fechaHora, id). Las eliminadas no se archivan: las borra PurgaEliminados.
+ */
+public class ArchivadorCitas {
+
+    public static final int TAMANO_LOTE_POR_DEFECTO = 1000;
+    public static final int MESES_ANTIGUEDAD_POR_DEFECTO = 12;
+
+    private static final String JPQL_LOTE =
+        "SELECT c.id, c.fechaHora, c.estado, c.motivo, c.paciente.id, c.medico.id FROM Cita c " +
+        "WHERE c.fechaHora < ?1 " +
+        "AND (c.fechaHora > ?2 OR (c.fechaHora = ?2 AND c.id > ?3)) " +
+        "AND c.estado IN (?4) AND c.deletedAt IS NULL " +
+        "ORDER BY c.fechaHora ASC, c.id ASC";
+
+    private static final String JPQL_BORRAR_LOTE =
+        "DELETE FROM Cita c WHERE c.id IN ?1 AND c.fechaHora >= ?2 AND c.fechaHora <= ?3";
+
+    private static final List<EstadoCita> ESTADOS_ARCHIVABLES = List.of(EstadoCita.ATENDIDA, EstadoCita.CANCELADA);
+
+    private final EntityManagerFactory emf;
+    private final ArchivoCitas archivo;
+    private final int tamanoLote;
+
+    public ArchivadorCitas(EntityManagerFactory emf, Path directorio) {
+        this(emf, new ArchivoCitas(directorio), TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    public ArchivadorCitas(EntityManagerFactory emf, ArchivoCitas archivo, int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        this.emf = emf;
+        this.archivo = archivo;
+        this.tamanoLote = tamanoLote;
+    }
+
+    // Se archivan meses completos para que el fichero de un mes no siga creciendo después
+    public long archivarAnterioresA(int mesesAntiguedad) {
+        if (mesesAntiguedad < 1) {
+            throw new IllegalArgumentException("La antigüedad mínima es de un mes");
+        }
+        return archivarAnterioresA(YearMonth.now().minusMonths(mesesAntiguedad).atDay(1).atStartOfDay());
+    }
+
+    public long archivarAnterioresA(LocalDateTime limite) {
+        LocalDateTime ultimaFecha = LocalDateTime.of(1, 1, 1, 0, 0);
+        long ultimoId = 0L;
+        long total = 0;
+
+        while (true) {
+            List<RegistroCitaArchivada> lote = leerLote(limite, ultimaFecha, ultimoId);
+            if (lote.isEmpty()) {
+                return total;
+            }
+
+            for (Map.Entry<YearMonth, List<RegistroCitaArchivada>> porMes : agruparPorMes(lote).entrySet()) {
+                archivo.agregar(porMes.getKey(), porMes.getValue());
+            }
+            borrarLote(lote);
+
+            RegistroCitaArchivada ultimo = lote.get(lote.size() - 1);
+            ultimaFecha = ultimo.fechaHora();
+            ultimoId = ultimo.id();
+            total += lote.size();
+
+            if (lote.size() < tamanoLote) {
+                return total;
+            }
+        }
+    }
+
+    private List<RegistroCitaArchivada> leerLote(LocalDateTime limite, LocalDateTime ultimaFecha, long ultimoId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            TypedQuery<Object[]> query = em.createQuery(JPQL_LOTE, Object[].class);
+            query.setParameter(1, limite);
+            query.setParameter(2, ultimaFecha);
+            query.setParameter(3, ultimoId);
+            query.setParameter(4, ESTADOS_ARCHIVABLES);
+            query.setMaxResults(tamanoLote);
+
+            List<RegistroCitaArchivada> lote = new ArrayList<>(tamanoLote);
+            for (Object[] fila : query.getResultList()) {
+                lote.add(new RegistroCitaArchivada((Long) fila[0], (LocalDateTime) fila[1], (EstadoCita) fila[2],
+                    (String) fila[3], (Long) fila[4], (Long) fila[5]));
+            }
+            return lote;
+        } finally {
+            em.close();
+        }
+    }
+
+    private void borrarLote(List<RegistroCitaArchivada> lote) {
+        List<Long> ids = new ArrayList<>(lote.size());
+        for (RegistroCitaArchivada registro : lote) {
+            ids.add(registro.id());
+        }
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            // El lote está ordenado por fecha: los límites restringen el borrado a sus particiones
+            em.createQuery(JPQL_BORRAR_LOTE)
+                .setParameter(1, ids)
+                .setParameter(2, lote.get(0).fechaHora())
+                .setParameter(3, lote.get(lote.size() - 1).fechaHora())
+                .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al borrar las citas archivadas: " + e.getMessage(), e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Map<YearMonth, List<RegistroCitaArchivada>> agruparPorMes(List<RegistroCitaArchivada> lote) {
+        Map<YearMonth, List<RegistroCitaArchivada>> porMes = new TreeMap<>();
+        for (RegistroCitaArchivada registro : lote) {
+            porMes.computeIfAbsent(YearMonth.from(registro.fechaHora()), mes -> new ArrayList<>()).add(registro);
+        }
+        return porMes;
+    }
+}
@@ -0,0 +1,242 @@
+package com.darwinruiz.hospital.archivo;
+
+import com.darwinruiz.hospital.enums.EstadoCita;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archivo frío de citas: un fichero citas_AAAA_MM.gz por mes, con un miembro gzip por bloque y las
+ * filas del bloque guardadas por columnas. La cabecera lleva el rango de ids de paciente del bloque.
+ */
+public class ArchivoCitas {
+
+    private static final int MAGICO = 0x43495441; // "CITA"
+    private static final byte VERSION_FORMATO = 1;
+    private static final Pattern NOMBRE_FICHERO = Pattern.compile("^citas_(\\d{4})_(\\d{2})\\.gz$");
+    private static final EstadoCita[] ESTADOS = EstadoCita.values();
+
+    private final Path directorio;
+
+    public static Path directorioPorDefecto() {
+        return Path.of(System.getProperty("hospital.archivo.dir", "archivo-citas"));
+    }
+
+    public ArchivoCitas(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    public Path getDirectorio() {
+        return directorio;
+    }
+
+    // Sincroniza a disco antes de volver: después el llamador borra las filas de la base de datos
+    public void agregar(YearMonth mes, List<RegistroCitaArchivada> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directorio);
+            ByteBuffer bloque = ByteBuffer.wrap(comprimir(codificarBloque(registros)));
+            try (FileChannel canal = FileChannel.open(ficheroDelMes(mes),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (bloque.hasRemaining()) {
+                    canal.write(bloque);
+                }
+                canal.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir el archivo de citas de " + mes, e);
+        }
+    }
+
+    public List<RegistroCitaArchivada> leerMes(YearMonth mes) {
+        return leer(ficheroDelMes(mes), null);
+    }
+
+    public List<RegistroCitaArchivada> leerPorPaciente(Long pacienteId) {
+        List<RegistroCitaArchivada> registros = new ArrayList<>();
+        for (YearMonth mes : mesesArchivados()) {
+            registros.addAll(leer(ficheroDelMes(mes), pacienteId));
+        }
+        registros.sort(Comparator.comparing(RegistroCitaArchivada::fechaHora).reversed());
+        return registros;
+    }
+
+    public List<YearMonth> mesesArchivados() {
+        List<YearMonth> meses = new ArrayList<>();
+        if (!Files.isDirectory(directorio)) {
+            return meses;
+        }
+        try (DirectoryStream<Path> ficheros = Files.newDirectoryStream(directorio, "citas_*.gz")) {
+            for (Path fichero : ficheros) {
+                Matcher matcher = NOMBRE_FICHERO.matcher(fichero.getFileName().toString());
+                if (matcher.matches()) {
+                    meses.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al listar el archivo de citas", e);
+        }
+        meses.sort(Comparator.naturalOrder());
+        return meses;
+    }
+
+    Path ficheroDelMes(YearMonth mes) {
+        return directorio.resolve(String.format("citas_%04d_%02d.gz", mes.getYear(), mes.getMonthValue()));
+    }
+
+    private List<RegistroCitaArchivada> leer(Path fichero, Long pacienteId) {
+        if (!Files.exists(fichero)) {
+            return List.of();
+        }
+        // Por id: un bloque reescrito tras un archivado interrumpido reemplaza al anterior
+        Map<Long, RegistroCitaArchivada> porId = new LinkedHashMap<>();
+        try (InputStream entrada = Channels.newInputStream(FileChannel.open(fichero, StandardOpenOption.READ));
+             DataInputStream datos = new DataInputStream(
+                 new BufferedInputStream(new GZIPInputStream(entrada, 64 * 1024), 64 * 1024))) {
+            while (true) {
+                int magico;
+                try {
+                    magico = datos.readInt();
+                } catch (EOFException fin) {
+                    break;
+                }
+                if (magico != MAGICO || datos.readByte() != VERSION_FORMATO) {
+                    throw new IOException("Formato de archivo de citas no reconocido: " + fichero);
+                }
+                int filas = datos.readInt();
+                long pacienteMinimo = datos.readLong();
+                long pacienteMaximo = datos.readLong();
+                int longitudCuerpo = datos.readInt();
+
+                if (pacienteId != null && (pacienteId < pacienteMinimo || pacienteId > pacienteMaximo)) {
+                    datos.skipNBytes(longitudCuerpo);
+                    continue;
+                }
+                for (RegistroCitaArchivada registro : decodificarCuerpo(datos, filas)) {
+                    if (pacienteId == null || pacienteId.equals(registro.pacienteId())) {
+                        porId.put(registro.id(), registro);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo de citas " + fichero, e);
+        }
+        return new ArrayList<>(porId.values());
+    }
+
+    static byte[] codificarBloque(List<RegistroCitaArchivada> registros) throws IOException {
+        ByteArrayOutputStream cuerpoBytes = new ByteArrayOutputStream(registros.size() * 48);
+        DataOutputStream cuerpo = new DataOutputStream(cuerpoBytes);
+        long pacienteMinimo = Long.MAX_VALUE;
+        long pacienteMaximo = Long.MIN_VALUE;
+
+        for (RegistroCitaArchivada registro : registros) {
+            cuerpo.writeLong(registro.id());
+        }
+        for (RegistroCitaArchivada registro : registros) {
+            cuerpo.writeLong(registro.fechaHora().toEpochSecond(ZoneOffset.UTC));
+        }
+        for (RegistroCitaArchivada registro : registros) {
+            cuerpo.writeInt(registro.fechaHora().getNano());
+        }
+        for (RegistroCitaArchivada registro : registros) {
+            cuerpo.writeByte(registro.estado().ordinal());
+        }
+        for (RegistroCitaArchivada registro : registros) {
+            cuerpo.writeLong(registro.pacienteId());
+            pacienteMinimo = Math.min(pacienteMinimo, registro.pacienteId());
+            pacienteMaximo = Math.max(pacienteMaximo, registro.pacienteId());
+        }
+        for (RegistroCitaArchivada registro : registros) {
+            cuerpo.writeLong(registro.medicoId());
+        }
+        for (RegistroCitaArchivada registro : registros) {
+            cuerpo.writeBoolean(registro.motivo() != null);
+            if (registro.motivo() != null) {
+                cuerpo.writeUTF(registro.motivo());
+            }
+        }
+        cuerpo.flush();
+
+        ByteArrayOutputStream bloqueBytes = new ByteArrayOutputStream(cuerpoBytes.size() + 32);
+        DataOutputStream bloque = new DataOutputStream(bloqueBytes);
+        bloque.writeInt(MAGICO);
+        bloque.writeByte(VERSION_FORMATO);
+        bloque.writeInt(registros.size());
+        bloque.writeLong(pacienteMinimo);
+        bloque.writeLong(pacienteMaximo);
+        bloque.writeInt(cuerpoBytes.size());
+        cuerpoBytes.writeTo(bloque);
+        bloque.flush();
+        return bloqueBytes.toByteArray();
+    }
+
+    private static List<RegistroCitaArchivada> decodificarCuerpo(DataInputStream datos, int filas) throws IOException {
+        long[] ids = new long[filas];
+        long[] fechas = new long[filas];
+        int[] nanos = new int[filas];
+        byte[] estados = new byte[filas];
+        long[] pacientes = new long[filas];
+        long[] medicos = new long[filas];
+
+        for (int i = 0; i < filas; i++) {
+            ids[i] = datos.readLong();
+        }
+        for (int i = 0; i < filas; i++) {
+            fechas[i] = datos.readLong();
+        }
+        for (int i = 0; i < filas; i++) {
+            nanos[i] = datos.readInt();
+        }
+        datos.readFully(estados);
+        for (int i = 0; i < filas; i++) {
+            pacientes[i] = datos.readLong();
+        }
+        for (int i = 0; i < filas; i++) {
+            medicos[i] = datos.readLong();
+        }
+
+        List<RegistroCitaArchivada> registros = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            String motivo = datos.readBoolean() ? datos.readUTF() : null;
+            registros.add(new RegistroCitaArchivada(ids[i], LocalDateTime.ofEpochSecond(fechas[i], nanos[i], ZoneOffset.UTC),
+                ESTADOS[estados[i]], motivo, pacientes[i], medicos[i]));
+        }
+        return registros;
+    }
+
+    private static byte[] comprimir(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida, 64 * 1024)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,9 @@
+package com.darwinruiz.hospital.archivo;
+
+import com.darwinruiz.hospital.enums.EstadoCita;
+
+import java.time.LocalDateTime;
+
+public record RegistroCitaArchivada(Long id, LocalDateTime fechaHora, EstadoCita estado, String motivo,
+                                    Long pacienteId, Long medicoId) {
+}
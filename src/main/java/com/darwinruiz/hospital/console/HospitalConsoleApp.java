@@ -3,24 +3,29 @@ package com.darwinruiz.hospital.console;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.enums.Especialidad;
 import com.darwinruiz.hospital.enums.EstadoCita;
 import com.darwinruiz.hospital.models.Cita;
 import com.darwinruiz.hospital.models.HistorialMedico;
 import com.darwinruiz.hospital.models.Medico;
 import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.repositories.PerfilCarga;
 import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.EstadisticaCitaService;
 import com.darwinruiz.hospital.services.HistorialMedicoService;
 import com.darwinruiz.hospital.services.MedicoService;
 import com.darwinruiz.hospital.services.PacienteService;
 import com.darwinruiz.hospital.utils.ConsoleUtils;
+import com.darwinruiz.hospital.utils.SalidaConsola;
 import com.darwinruiz.hospital.utils.SemillaDatos;
 import com.darwinruiz.hospital.utils.TableFormatter;
+import com.darwinruiz.hospital.utils.TiemposArranque;
 
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 
 public class HospitalConsoleApp {
     
@@ -28,23 +33,30 @@ public class HospitalConsoleApp {
     private final MedicoService medicoService;
     private final CitaService citaService;
     private final HistorialMedicoService historialMedicoService;
+    private final EstadisticaCitaService estadisticaCitaService;
     private final EntityManagerFactory emf;
     private boolean ejecutando = true;
     
     public HospitalConsoleApp() {
-        this.emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        this.emf = Persistencia.compartida();
         this.pacienteService = new PacienteService(emf);
         this.medicoService = new MedicoService(emf);
         this.citaService = new CitaService(emf);
         this.historialMedicoService = new HistorialMedicoService(emf);
+        this.estadisticaCitaService = new EstadisticaCitaService(emf);
     }
 
     public void iniciar() {
         mostrarBienvenida();
+        boolean primerMenu = true;
         
         while (ejecutando) {
             try {
                 mostrarMenuPrincipal();
+                if (primerMenu) {
+                    TiemposArranque.marcar("primer menú");
+                    primerMenu = false;
+                }
                 int opcion = ConsoleUtils.leerEnteroEnRango("Seleccione una opción", 1, 9);
                 procesarOpcionPrincipal(opcion);
             } catch (Exception e) {
@@ -56,6 +68,23 @@ public class HospitalConsoleApp {
         cerrarAplicacion();
     }
 
+    // También es la ejecución de entrenamiento del archivo CDS
+    public void medirArranque() {
+        mostrarBienvenida();
+        mostrarMenuPrincipal();
+        TiemposArranque.marcar("primer menú");
+        SalidaConsola.vaciar();
+        try {
+            LocalDate hoy = LocalDate.now();
+            estadisticaCitaService.resumenPorRango(hoy, hoy);
+            pacienteService.buscarPorDpi("0");
+            TiemposArranque.marcar("primera consulta");
+        } finally {
+            Persistencia.cerrarCompartida();
+        }
+        System.err.println(TiemposArranque.resumen());
+    }
+
     private void mostrarBienvenida() {
         ConsoleUtils.limpiarPantalla();
         System.out.println("║                    SISTEMA DE HOSPITAL                      ║");
@@ -244,16 +273,19 @@ public class HospitalConsoleApp {
 
     private void cerrarAplicacion() {
         try {
-            if (emf != null && emf.isOpen()) {
-                emf.close();
-            }
+            Persistencia.cerrarCompartida();
             System.out.println();
             System.out.println("╔══════════════════════════════════════════════════════════════╗");
             System.out.println("║                    ¡HASTA LUEGO!                           ║");
             System.out.println("║              Sistema de Hospital cerrado                    ║");
             System.out.println("╚══════════════════════════════════════════════════════════════╝");
+            if (TiemposArranque.habilitado()) {
+                System.err.println(TiemposArranque.resumen());
+            }
         } catch (Exception e) {
             ConsoleUtils.mostrarError("Error al cerrar la aplicación: " + e.getMessage());
+        } finally {
+            SalidaConsola.vaciar();
         }
     }
 
@@ -265,9 +297,9 @@ public class HospitalConsoleApp {
             System.out.println("═══════════════════════════════════════════════════════════════");
 
             String nombre = ConsoleUtils.leerTextoNoVacio("Ingrese el nombre completo del paciente");
-            String dpi = ConsoleUtils.leerTextoNoVacio("Ingrese el DPI del paciente");
+            String dpi = ConsoleUtils.leerDpi("Ingrese el DPI del paciente");
             LocalDate fechaNacimiento = ConsoleUtils.leerFecha("Ingrese la fecha de nacimiento");
-            String telefono = ConsoleUtils.leerTexto("Ingrese el teléfono (opcional)");
+            String telefono = ConsoleUtils.leerTelefono("Ingrese el teléfono (opcional)");
             String email = ConsoleUtils.leerEmail("Ingrese el email del paciente");
 
             System.out.println();
@@ -583,13 +615,10 @@ public class HospitalConsoleApp {
             
             TableFormatter formatter = new TableFormatter();
             formatter.setHeaders("ID", "Nombre", "DPI", "Fecha Nac.", "Email", "Citas Programadas");
+            Map<Long, Long> programadasPorPaciente = citaService.contarCitasPorPaciente(EstadoCita.PROGRAMADA);
             
             for (Paciente paciente : pacientes) {
-
-                List<Cita> citas = citaService.listarCitasPorPaciente(paciente.getId());
-                long citasProgramadas = citas.stream()
-                    .filter(c -> c.getEstado() == EstadoCita.PROGRAMADA)
-                    .count();
+                long citasProgramadas = programadasPorPaciente.getOrDefault(paciente.getId(), 0L);
                 
                 formatter.addRow(
                     paciente.getId().toString(),
@@ -635,7 +664,7 @@ public class HospitalConsoleApp {
             }
             
             Paciente pacienteSeleccionado = pacientes.get(opcion - 1);
-            List<Cita> citas = citaService.listarCitasPorPaciente(pacienteSeleccionado.getId());
+            List<Cita> citas = citaService.listarCitasPorPaciente(pacienteSeleccionado.getId(), true, PerfilCarga.PACIENTE_CRONOLOGIA);
             
             System.out.println();
             System.out.println("═══════════════════════════════════════════════════════════════");
@@ -684,13 +713,11 @@ public class HospitalConsoleApp {
             
             TableFormatter formatter = new TableFormatter();
             formatter.setHeaders("ID", "Nombre", "Colegiado", "Especialidad", "Email", "Próximas Citas");
+            Map<Long, Long> programadasPorMedico = citaService.contarProximasCitasProgramadasPorMedico();
             
             for (Medico medico : medicos) {
 
-                List<Cita> proximasCitas = citaService.listarProximasCitasPorMedico(medico.getId());
-                long citasProgramadas = proximasCitas.stream()
-                    .filter(c -> c.getEstado() == EstadoCita.PROGRAMADA)
-                    .count();
+                long citasProgramadas = programadasPorMedico.getOrDefault(medico.getId(), 0L);
                 
                 formatter.addRow(
                     medico.getId().toString(),
@@ -737,7 +764,7 @@ public class HospitalConsoleApp {
             }
             
             Medico medicoSeleccionado = medicos.get(opcion - 1);
-            List<Cita> proximasCitas = citaService.listarProximasCitasPorMedico(medicoSeleccionado.getId());
+            List<Cita> proximasCitas = citaService.listarProximasCitasPorMedico(medicoSeleccionado.getId(), PerfilCarga.MEDICO_AGENDA);
             
             System.out.println();
             System.out.println("═══════════════════════════════════════════════════════════════");
@@ -785,25 +812,19 @@ public class HospitalConsoleApp {
                 return;
             }
 
-            List<Cita> citasEnRango = citaService.buscarCitasPorRangoFechas(fechaInicio, fechaFin);
-            
             System.out.println();
             System.out.println("═══════════════════════════════════════════════════════════════");
             System.out.printf("    CITAS ENTRE %s Y %s%n", 
                 ConsoleUtils.formatearFecha(fechaInicio), 
                 ConsoleUtils.formatearFecha(fechaFin));
             System.out.println("═══════════════════════════════════════════════════════════════");
-            
-            if (citasEnRango.isEmpty()) {
-                TableFormatter.printNoDataMessage("No se encontraron citas en el rango de fechas especificado");
-                return;
-            }
-            
-            TableFormatter formatter = new TableFormatter();
-            formatter.setHeaders("ID", "Fecha y Hora", "Paciente", "Médico", "Especialidad", "Estado", "Motivo");
-            
-            for (Cita cita : citasEnRango) {
-                formatter.addRow(
+
+            // Las filas se imprimen a medida que llegan de la base de datos, sin cargar el rango completo
+            TableFormatter.StreamingTable tabla = TableFormatter.streaming()
+                .setHeaders("ID", "Fecha y Hora", "Paciente", "Médico", "Especialidad", "Estado", "Motivo");
+            long totalCitas;
+            try (tabla) {
+                totalCitas = citaService.recorrerCitasPorRangoFechas(fechaInicio, fechaFin, cita -> tabla.addRow(
                     cita.getId().toString(),
                     ConsoleUtils.formatearFechaHora(cita.getFechaHora()),
                     cita.getPaciente().getNombre(),
@@ -811,24 +832,27 @@ public class HospitalConsoleApp {
                     cita.getMedico().getEspecialidad().name(),
                     cita.getEstado().name(),
                     cita.getMotivo() != null ? cita.getMotivo() : "Sin especificar"
-                );
+                ));
             }
-            
-            formatter.print();
+
+            if (totalCitas == 0) {
+                TableFormatter.printNoDataMessage("No se encontraron citas en el rango de fechas especificado");
+                return;
+            }
+
+            System.out.println("Citas listadas: " + totalCitas);
+
+            // Conteos precalculados por día: a diferencia de la tabla, incluyen las citas archivadas
+            EstadisticaCitaService.ResumenCitas resumen = estadisticaCitaService.resumenPorRango(fechaInicio, fechaFin);
 
             System.out.println();
             System.out.println("───────────────────────────────────────────────────────────────");
-            System.out.println("                      ESTADÍSTICAS");
+            System.out.println("        ESTADÍSTICAS DEL RANGO (INCLUYE CITAS ARCHIVADAS)");
             System.out.println("───────────────────────────────────────────────────────────────");
-            System.out.println("Total de citas encontradas: " + citasEnRango.size());
-            
-            long programadas = citasEnRango.stream().filter(c -> c.getEstado() == EstadoCita.PROGRAMADA).count();
-            long atendidas = citasEnRango.stream().filter(c -> c.getEstado() == EstadoCita.ATENDIDA).count();
-            long canceladas = citasEnRango.stream().filter(c -> c.getEstado() == EstadoCita.CANCELADA).count();
-            
-            System.out.println("Programadas: " + programadas);
-            System.out.println("Atendidas: " + atendidas);
-            System.out.println("Canceladas: " + canceladas);
+            System.out.println("Total de citas: " + resumen.total());
+            System.out.println("Programadas: " + resumen.programadas());
+            System.out.println("Atendidas: " + resumen.atendidas());
+            System.out.println("Canceladas: " + resumen.canceladas());
             System.out.println("───────────────────────────────────────────────────────────────");
             
         } catch (Exception e) {
@@ -930,7 +954,7 @@ public class HospitalConsoleApp {
             
             System.out.println("───────────────────────────────────────────────────────────────");
 
-            List<Cita> citasPaciente = citaService.listarCitasPorPaciente(pacienteSeleccionado.getId());
+            List<Cita> citasPaciente = citaService.listarCitasPorPaciente(pacienteSeleccionado.getId(), PerfilCarga.PACIENTE_CRONOLOGIA);
             if (!citasPaciente.isEmpty()) {
                 System.out.println();
                 System.out.println("CITAS REGISTRADAS:");
@@ -1021,10 +1045,10 @@ public class HospitalConsoleApp {
             System.out.println("───────────────────────────────────────────────────────────────");
 
             System.out.println();
-            ConsoleUtils.mostrarAdvertencia("⚠️  ADVERTENCIA: Esta acción no se puede deshacer");
+            ConsoleUtils.mostrarAdvertencia("⚠️  ADVERTENCIA: La cita se conserva oculta hasta la purga y luego se borra definitivamente");
             System.out.println();
             ConsoleUtils.mostrarInfo("Al eliminar esta cita:");
-            System.out.println("• Se eliminará permanentemente del sistema");
+            System.out.println("• Dejará de mostrarse y se borrará definitivamente al vencer el período de retención");
             System.out.println("• NO afectará al paciente ni al médico");
             System.out.println("• El horario quedará disponible para nuevas citas");
             
@@ -1083,10 +1107,10 @@ public class HospitalConsoleApp {
             
             TableFormatter formatter = new TableFormatter();
             formatter.setHeaders("Opción", "ID", "Nombre", "DPI", "Email", "Citas");
+            Map<Long, Long> citasPorPaciente = citaService.contarCitasPorPaciente();
             
             for (int i = 0; i < pacientes.size(); i++) {
                 Paciente paciente = pacientes.get(i);
-                List<Cita> citas = citaService.listarCitasPorPaciente(paciente.getId());
                 
                 formatter.addRow(
                     String.valueOf(i + 1),
@@ -1094,7 +1118,7 @@ public class HospitalConsoleApp {
                     paciente.getNombre(),
                     paciente.getDpi(),
                     paciente.getEmail(),
-                    String.valueOf(citas.size())
+                    String.valueOf(citasPorPaciente.getOrDefault(paciente.getId(), 0L))
                 );
             }
             
@@ -1114,7 +1138,7 @@ public class HospitalConsoleApp {
             
             Paciente pacienteSeleccionado = pacientes.get(opcion - 1);
 
-            List<Cita> citasPaciente = citaService.listarCitasPorPaciente(pacienteSeleccionado.getId());
+            List<Cita> citasPaciente = citaService.listarCitasPorPaciente(pacienteSeleccionado.getId(), PerfilCarga.CITA_RESUMEN);
             boolean tieneHistorial = historialMedicoService.existeHistorial(pacienteSeleccionado.getId());
 
             System.out.println();
@@ -1184,13 +1208,13 @@ public class HospitalConsoleApp {
             System.out.println();
             System.out.println("JUSTIFICACIÓN TÉCNICA:");
             System.out.println("───────────────────────────────────────────────────────────────");
-            System.out.println("• Historial médico: Relación OneToOne con @MapsId - eliminación automática");
-            System.out.println("• Citas: Relación OneToMany con CascadeType.ALL - eliminación en cascada");
+            System.out.println("• Historial médico: Relación OneToOne con @MapsId - se oculta y se borra en la purga");
+            System.out.println("• Citas: se marcan todas como eliminadas con un solo UPDATE, sin cargarlas en memoria");
             System.out.println("• Médicos: Relación ManyToOne desde Cita - no se ven afectados");
-            System.out.println("• Integridad referencial: Garantizada por JPA/Hibernate");
+            System.out.println("• Integridad referencial: citas y paciente se marcan en una sola transacción (borrado lógico)");
 
             System.out.println();
-            ConsoleUtils.mostrarAdvertencia("ADVERTENCIA CRÍTICA: Esta acción es IRREVERSIBLE");
+            ConsoleUtils.mostrarAdvertencia("ADVERTENCIA CRÍTICA: El paciente y sus datos dejarán de mostrarse y se borrarán definitivamente al vencer el período de retención");
             
             System.out.println();
             if (!ConsoleUtils.confirmar("¿Ha leído y entendido completamente el impacto de esta eliminación?")) {
@@ -0,0 +1,170 @@
+package com.darwinruiz.hospital.database;
+
+import com.darwinruiz.hospital.utils.TiemposArranque;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Query;
+import jakarta.persistence.SynchronizationType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.metamodel.Metamodel;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * EntityManagerFactory que se construye en un hilo aparte y solo se espera al usarlo, para que la
+ * consola muestre su menú mientras Hibernate arma el metamodelo y se aplican las migraciones.
+ */
+final class FabricaDiferida implements EntityManagerFactory {
+
+    private final Supplier<EntityManagerFactory> constructor;
+    private final boolean compartida;
+    private CompletableFuture<EntityManagerFactory> fabrica;
+    private volatile boolean cerrada;
+
+    FabricaDiferida(Supplier<EntityManagerFactory> constructor) {
+        this(constructor, false);
+    }
+
+    FabricaDiferida(Supplier<EntityManagerFactory> constructor, boolean compartida) {
+        this.constructor = constructor;
+        this.compartida = compartida;
+    }
+
+    synchronized CompletableFuture<EntityManagerFactory> iniciar() {
+        if (cerrada) {
+            throw new IllegalStateException("La fábrica de EntityManager está cerrada");
+        }
+        if (fabrica == null) {
+            fabrica = CompletableFuture.supplyAsync(() -> {
+                long inicio = System.nanoTime();
+                EntityManagerFactory emf = constructor.get();
+                TiemposArranque.registrar("persistencia (segundo plano)", (System.nanoTime() - inicio) / 1_000_000);
+                return emf;
+            }, tarea -> {
+                Thread hilo = new Thread(tarea, "arranque-persistencia");
+                hilo.setDaemon(true);
+                hilo.start();
+            });
+        }
+        return fabrica;
+    }
+
+    EntityManagerFactory obtener() {
+        CompletableFuture<EntityManagerFactory> actual = iniciar();
+        if (!actual.isDone()) {
+            long inicio = System.nanoTime();
+            try {
+                actual.join();
+            } catch (CompletionException e) {
+                // Se informa abajo
+            }
+            TiemposArranque.registrar("espera de persistencia", (System.nanoTime() - inicio) / 1_000_000);
+        }
+        try {
+            return actual.join();
+        } catch (CompletionException e) {
+            synchronized (this) {
+                if (fabrica == actual) {
+                    fabrica = null;
+                }
+            }
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException("Error al iniciar la persistencia: " + causa.getMessage(), causa);
+        }
+    }
+
+    @Override
+    public EntityManager createEntityManager() {
+        return obtener().createEntityManager();
+    }
+
+    @Override
+    public EntityManager createEntityManager(Map map) {
+        return obtener().createEntityManager(map);
+    }
+
+    @Override
+    public EntityManager createEntityManager(SynchronizationType synchronizationType) {
+        return obtener().createEntityManager(synchronizationType);
+    }
+
+    @Override
+    public EntityManager createEntityManager(SynchronizationType synchronizationType, Map map) {
+        return obtener().createEntityManager(synchronizationType, map);
+    }
+
+    @Override
+    public CriteriaBuilder getCriteriaBuilder() {
+        return obtener().getCriteriaBuilder();
+    }
+
+    @Override
+    public Metamodel getMetamodel() {
+        return obtener().getMetamodel();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !cerrada;
+    }
+
+    @Override
+    public void close() {
+        if (!compartida) {
+            cerrar();
+        }
+    }
+
+    void cerrar() {
+        CompletableFuture<EntityManagerFactory> actual;
+        synchronized (this) {
+            if (cerrada) {
+                throw new IllegalStateException("La fábrica de EntityManager está cerrada");
+            }
+            cerrada = true;
+            actual = fabrica;
+            fabrica = null;
+        }
+        if (actual != null) {
+            // Si aún se está construyendo, se cierra al terminar
+            actual.thenAccept(EntityManagerFactory::close);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getProperties() {
+        return obtener().getProperties();
+    }
+
+    @Override
+    public Cache getCache() {
+        return obtener().getCache();
+    }
+
+    @Override
+    public PersistenceUnitUtil getPersistenceUnitUtil() {
+        return obtener().getPersistenceUnitUtil();
+    }
+
+    @Override
+    public void addNamedQuery(String name, Query query) {
+        obtener().addNamedQuery(name, query);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> cls) {
+        EntityManagerFactory emf = obtener();
+        return cls.isInstance(emf) ? cls.cast(emf) : emf.unwrap(cls);
+    }
+
+    @Override
+    public <T> void addNamedEntityGraph(String graphName, EntityGraph<T> entityGraph) {
+        obtener().addNamedEntityGraph(graphName, entityGraph);
+    }
+}
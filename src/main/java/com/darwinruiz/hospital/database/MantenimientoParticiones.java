@@ -0,0 +1,141 @@
+package com.darwinruiz.hospital.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Particiones mensuales de cita. Solo se desacoplan las particiones vacías, es decir, meses que
+ * ArchivadorCitas ya vació: una cita PROGRAMADA o sin purgar mantiene su mes acoplado.
+ */
+public class MantenimientoParticiones {
+
+    public static final int MESES_ADELANTE_POR_DEFECTO = 3;
+    public static final int MESES_RETENCION_POR_DEFECTO = 24;
+    public static final String ESQUEMA_ARCHIVO = "archivo";
+
+    private static final Pattern NOMBRE_PARTICION = Pattern.compile("^cita_(\\d{4})_(\\d{2})$");
+
+    private final EntityManagerFactory emf;
+
+    public MantenimientoParticiones(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public List<String> asegurarParticionesFuturas(int mesesAdelante) {
+        if (mesesAdelante < 0) {
+            throw new IllegalArgumentException("Los meses por adelantado no pueden ser negativos");
+        }
+        List<String> particiones = new ArrayList<>();
+        YearMonth actual = YearMonth.now();
+        for (int i = 0; i <= mesesAdelante; i++) {
+            particiones.add(crearParticion(actual.plusMonths(i)));
+        }
+        return particiones;
+    }
+
+    // crear_particion_cita también traslada las filas del mes que estuvieran en cita_default
+    public String crearParticion(YearMonth mes) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            String nombre = (String) em.createNativeQuery("SELECT crear_particion_cita(CAST(?1 AS DATE))")
+                .setParameter(1, mes.atDay(1).toString())
+                .getSingleResult();
+            em.getTransaction().commit();
+            return nombre;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al crear la partición de " + mes + ": " + e.getMessage(), e);
+        } finally {
+            em.close();
+        }
+    }
+
+    public List<String> desacoplarParticionesAnteriores(YearMonth limite) {
+        List<String> desacopladas = new ArrayList<>();
+        for (YearMonth mes : listarParticiones()) {
+            if (!mes.isBefore(limite)) {
+                continue;
+            }
+            String nombre = nombreParticion(mes);
+            EntityManager em = emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                em.createNativeQuery("CREATE SCHEMA IF NOT EXISTS " + ESQUEMA_ARCHIVO).executeUpdate();
+                em.createNativeQuery("ALTER TABLE cita DETACH PARTITION " + nombre).executeUpdate();
+                // Se comprueba después de desacoplar: el bloqueo de DETACH impide insertar entre medias
+                boolean conCitas = (Boolean) em.createNativeQuery("SELECT EXISTS (SELECT 1 FROM " + nombre + ")")
+                    .getSingleResult();
+                if (conCitas) {
+                    em.getTransaction().rollback();
+                    continue;
+                }
+                em.createNativeQuery("ALTER TABLE " + nombre + " SET SCHEMA " + ESQUEMA_ARCHIVO).executeUpdate();
+                em.getTransaction().commit();
+                desacopladas.add(nombre);
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw new RuntimeException("Error al desacoplar la partición " + nombre + ": " + e.getMessage(), e);
+            } finally {
+                em.close();
+            }
+        }
+        return desacopladas;
+    }
+
+    public List<String> archivarParticionesAntiguas(int mesesRetencion) {
+        if (mesesRetencion < 1) {
+            throw new IllegalArgumentException("La retención debe ser de al menos un mes");
+        }
+        return desacoplarParticionesAnteriores(YearMonth.now().minusMonths(mesesRetencion));
+    }
+
+    public List<YearMonth> listarParticiones() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> nombres = em.createNativeQuery(
+                    "SELECT hija.relname FROM pg_inherits i " +
+                    "JOIN pg_class hija ON hija.oid = i.inhrelid " +
+                    "JOIN pg_class padre ON padre.oid = i.inhparent " +
+                    "JOIN pg_namespace esquema ON esquema.oid = padre.relnamespace " +
+                    "WHERE padre.relname = 'cita' AND esquema.nspname = 'public' " +
+                    "ORDER BY hija.relname")
+                .getResultList();
+
+            List<YearMonth> meses = new ArrayList<>();
+            for (String nombre : nombres) {
+                Matcher matcher = NOMBRE_PARTICION.matcher(nombre);
+                if (matcher.matches()) {
+                    meses.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                }
+            }
+            return meses;
+        } finally {
+            em.close();
+        }
+    }
+
+    public long contarCitasEnParticionDefault() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return ((Number) em.createNativeQuery("SELECT COUNT(*) FROM cita_default").getSingleResult()).longValue();
+        } finally {
+            em.close();
+        }
+    }
+
+    static String nombreParticion(YearMonth mes) {
+        return String.format("cita_%04d_%02d", mes.getYear(), mes.getMonthValue());
+    }
+}
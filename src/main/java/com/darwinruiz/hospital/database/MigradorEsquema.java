@@ -0,0 +1,253 @@
+package com.darwinruiz.hospital.database;
+
+import com.darwinruiz.hospital.exceptions.MigracionException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aplica en orden las migraciones de db/migracion y registra su checksum en esquema_version:
+ * si un script ya aplicado cambia, el arranque se detiene.
+ */
+public class MigradorEsquema {
+
+    private static final String DIRECTORIO_SCRIPTS = "db/migracion/";
+
+    // Los scripts aplicados no se modifican: cada cambio de esquema es una versión nueva
+    private static final List<String> SCRIPTS = List.of(
+        "V1__esquema_inicial.sql",
+        "V2__indices_cita_programada.sql",
+        "V3__particionar_cita_por_mes.sql",
+        "V4__estadistica_cita_diaria.sql",
+        "V5__borrado_logico.sql",
+        "V6__uuid_entidades.sql"
+    );
+
+    private static final Pattern NOMBRE_SCRIPT = Pattern.compile("^V(\\d+)__(\\w+)\\.sql$");
+
+    private static final long LLAVE_BLOQUEO = 20_260_027L;
+
+    private static final String SQL_TABLA_VERSION =
+        "CREATE TABLE IF NOT EXISTS esquema_version (" +
+        "version INTEGER NOT NULL PRIMARY KEY, " +
+        "descripcion VARCHAR(200) NOT NULL, " +
+        "script VARCHAR(200) NOT NULL, " +
+        "checksum VARCHAR(64) NOT NULL, " +
+        "aplicada_en TIMESTAMP NOT NULL, " +
+        "duracion_ms BIGINT NOT NULL)";
+
+    private final EntityManagerFactory emf;
+
+    public MigradorEsquema(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public List<Migracion> migrar() {
+        ConnectionProvider proveedor = emf.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(ConnectionProvider.class);
+
+        Connection connection = null;
+        try {
+            connection = proveedor.getConnection();
+            boolean autoCommitOriginal = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + LLAVE_BLOQUEO + ")");
+            }
+            try {
+                connection.setAutoCommit(false);
+                return aplicarPendientes(connection);
+            } finally {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT pg_advisory_unlock(" + LLAVE_BLOQUEO + ")");
+                }
+                connection.setAutoCommit(autoCommitOriginal);
+            }
+        } catch (SQLException e) {
+            throw new MigracionException("Error al aplicar las migraciones de esquema: " + e.getMessage(), e);
+        } finally {
+            if (connection != null) {
+                try {
+                    proveedor.closeConnection(connection);
+                } catch (SQLException ignored) {
+                    // La conexión ya no es utilizable; el pool la descarta
+                }
+            }
+        }
+    }
+
+    private List<Migracion> aplicarPendientes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(SQL_TABLA_VERSION);
+        }
+        connection.commit();
+
+        Map<Integer, String> aplicadas = leerVersionesAplicadas(connection);
+        List<Migracion> nuevas = new ArrayList<>();
+
+        for (Migracion migracion : migracionesDisponibles()) {
+            String checksumAplicado = aplicadas.get(migracion.version());
+            if (checksumAplicado != null) {
+                if (!checksumAplicado.equals(migracion.checksum())) {
+                    throw new MigracionException("La migración " + migracion.script() +
+                        " fue modificada después de aplicarse (checksum " + checksumAplicado +
+                        ", actual " + migracion.checksum() + ")");
+                }
+                continue;
+            }
+            aplicar(connection, migracion);
+            nuevas.add(migracion);
+        }
+        return nuevas;
+    }
+
+    private void aplicar(Connection connection, Migracion migracion) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            try (Statement statement = connection.createStatement()) {
+                for (String sentencia : separarSentencias(migracion.contenido())) {
+                    statement.execute(sentencia);
+                }
+            }
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO esquema_version (version, descripcion, script, checksum, aplicada_en, duracion_ms) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)")) {
+                ps.setInt(1, migracion.version());
+                ps.setString(2, migracion.descripcion());
+                ps.setString(3, migracion.script());
+                ps.setString(4, migracion.checksum());
+                ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setLong(6, duracionMs);
+                ps.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new MigracionException("Error al aplicar la migración " + migracion.script() +
+                ": " + e.getMessage(), e);
+        }
+    }
+
+    private Map<Integer, String> leerVersionesAplicadas(Connection connection) throws SQLException {
+        Map<Integer, String> aplicadas = new TreeMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM esquema_version")) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        connection.commit();
+        return aplicadas;
+    }
+
+    static List<Migracion> migracionesDisponibles() {
+        List<Migracion> migraciones = new ArrayList<>();
+        int versionAnterior = 0;
+        for (String script : SCRIPTS) {
+            Migracion migracion = Migracion.desdeScript(script, leerScript(script));
+            if (migracion.version() <= versionAnterior) {
+                throw new MigracionException("Las migraciones deben estar en orden de versión: " + script);
+            }
+            versionAnterior = migracion.version();
+            migraciones.add(migracion);
+        }
+        return migraciones;
+    }
+
+    static String leerScript(String nombre) {
+        try (InputStream in = MigradorEsquema.class.getClassLoader()
+                .getResourceAsStream(DIRECTORIO_SCRIPTS + nombre)) {
+            if (in == null) {
+                throw new MigracionException("No se encontró el script " + DIRECTORIO_SCRIPTS + nombre);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MigracionException("No se pudo leer el script " + nombre, e);
+        }
+    }
+
+    static String calcularChecksum(String contenido) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Se normalizan los fines de línea para que el checksum no dependa del sistema operativo
+            byte[] hash = digest.digest(contenido.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    // Los cuerpos entre $$ (funciones y bloques DO) no se parten aunque contengan ';'
+    static List<String> separarSentencias(String script) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean dentroDeDolares = false;
+
+        for (String linea : script.split("\\R")) {
+            String recortada = linea.trim();
+            if (recortada.isEmpty() || recortada.startsWith("--")) {
+                continue;
+            }
+            actual.append(linea).append('\n');
+            if (contarDelimitadores(linea) % 2 == 1) {
+                dentroDeDolares = !dentroDeDolares;
+            }
+            if (!dentroDeDolares && recortada.endsWith(";")) {
+                String sentencia = actual.toString().trim();
+                sentencias.add(sentencia.substring(0, sentencia.length() - 1));
+                actual.setLength(0);
+            }
+        }
+
+        if (!actual.toString().isBlank()) {
+            sentencias.add(actual.toString().trim());
+        }
+        return sentencias;
+    }
+
+    private static int contarDelimitadores(String linea) {
+        int total = 0;
+        int desde = 0;
+        int posicion;
+        while ((posicion = linea.indexOf("$$", desde)) >= 0) {
+            total++;
+            desde = posicion + 2;
+        }
+        return total;
+    }
+
+    public record Migracion(int version, String descripcion, String script, String checksum, String contenido) {
+
+        static Migracion desdeScript(String script, String contenido) {
+            Matcher matcher = NOMBRE_SCRIPT.matcher(script);
+            if (!matcher.matches()) {
+                throw new MigracionException("Nombre de migración inválido: " + script +
+                    " (se espera V<version>__<descripcion>.sql)");
+            }
+            return new Migracion(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                script, calcularChecksum(contenido), contenido);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.darwinruiz.hospital.database;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HospitalSystemPU no genera DDL: el primer factory de la JVM aplica MigradorEsquema
+ * (se desactiva con -Dhospital.migraciones.auto=false).
+ */
+public final class Persistencia {
+
+    public static final String UNIDAD_PERSISTENCIA = "HospitalSystemPU";
+
+    private static volatile boolean esquemaMigrado = false;
+
+    private static FabricaDiferida compartida;
+
+    private Persistencia() {
+    }
+
+    public static EntityManagerFactory crearEntityManagerFactory() {
+        return crearEntityManagerFactory(Map.of());
+    }
+
+    public static EntityManagerFactory crearEntityManagerFactory(Map<String, ?> adicionales) {
+        Map<String, Object> propiedades = propiedadesConexion();
+        propiedades.putAll(adicionales);
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(UNIDAD_PERSISTENCIA, propiedades);
+        if (!esquemaMigrado && migracionAutomaticaHabilitada()) {
+            try {
+                migrarUnaVez(emf);
+            } catch (RuntimeException e) {
+                emf.close();
+                throw e;
+            }
+        }
+        return emf;
+    }
+
+    // Se construye en segundo plano; su close() no hace nada, solo cerrarCompartida() lo cierra
+    public static synchronized EntityManagerFactory compartida() {
+        if (compartida == null || !compartida.isOpen()) {
+            compartida = new FabricaDiferida(Persistencia::crearEntityManagerFactory, true);
+            compartida.iniciar();
+        }
+        return compartida;
+    }
+
+    public static synchronized void cerrarCompartida() {
+        if (compartida != null && compartida.isOpen()) {
+            compartida.cerrar();
+        }
+        compartida = null;
+    }
+
+    public static void verificarConexion(int segundos) throws SQLException {
+        Map<String, String> propiedades = propiedadesUnidad();
+        propiedadesConexion().forEach((clave, valor) -> propiedades.put(clave, String.valueOf(valor)));
+
+        DriverManager.setLoginTimeout(segundos);
+        try (Connection conexion = DriverManager.getConnection(propiedades.get("jakarta.persistence.jdbc.url"),
+                propiedades.get("jakarta.persistence.jdbc.user"), propiedades.get("jakarta.persistence.jdbc.password"))) {
+            if (!conexion.isValid(segundos)) {
+                throw new SQLException("La base de datos no respondió en " + segundos + " s");
+            }
+        }
+    }
+
+    private static Map<String, String> propiedadesUnidad() {
+        Map<String, String> propiedades = new HashMap<>();
+        try (InputStream xml = Persistencia.class.getClassLoader().getResourceAsStream("META-INF/persistence.xml")) {
+            if (xml == null) {
+                throw new IllegalStateException("No se encontró META-INF/persistence.xml");
+            }
+            DocumentBuilderFactory fabrica = DocumentBuilderFactory.newInstance();
+            fabrica.setNamespaceAware(true);
+            Document documento = fabrica.newDocumentBuilder().parse(xml);
+
+            NodeList unidades = documento.getElementsByTagNameNS("*", "persistence-unit");
+            for (int i = 0; i < unidades.getLength(); i++) {
+                Element unidad = (Element) unidades.item(i);
+                if (!UNIDAD_PERSISTENCIA.equals(unidad.getAttribute("name"))) {
+                    continue;
+                }
+                NodeList elementos = unidad.getElementsByTagNameNS("*", "property");
+                for (int j = 0; j < elementos.getLength(); j++) {
+                    Element propiedad = (Element) elementos.item(j);
+                    propiedades.put(propiedad.getAttribute("name"), propiedad.getAttribute("value"));
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error al leer persistence.xml: " + e.getMessage(), e);
+        }
+        return propiedades;
+    }
+
+    public static Map<String, Object> propiedadesConexion() {
+        Map<String, Object> propiedades = new HashMap<>();
+        copiarPropiedad("hospital.db.url", "jakarta.persistence.jdbc.url", propiedades);
+        copiarPropiedad("hospital.db.usuario", "jakarta.persistence.jdbc.user", propiedades);
+        copiarPropiedad("hospital.db.password", "jakarta.persistence.jdbc.password", propiedades);
+        copiarPropiedad("hospital.sql.mostrar", "hibernate.show_sql", propiedades);
+        copiarPropiedad("hospital.carga.lote", "hibernate.default_batch_fetch_size", propiedades);
+        return propiedades;
+    }
+
+    private static void copiarPropiedad(String propiedadSistema, String propiedadJpa, Map<String, Object> propiedades) {
+        String valor = System.getProperty(propiedadSistema);
+        if (valor != null) {
+            propiedades.put(propiedadJpa, valor);
+        }
+    }
+
+    private static synchronized void migrarUnaVez(EntityManagerFactory emf) {
+        if (!esquemaMigrado) {
+            new MigradorEsquema(emf).migrar();
+            new MantenimientoParticiones(emf).asegurarParticionesFuturas(MantenimientoParticiones.MESES_ADELANTE_POR_DEFECTO);
+            esquemaMigrado = true;
+        }
+    }
+
+    private static boolean migracionAutomaticaHabilitada() {
+        return Boolean.parseBoolean(System.getProperty("hospital.migraciones.auto", "true"));
+    }
+}
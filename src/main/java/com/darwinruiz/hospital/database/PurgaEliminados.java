@@ -0,0 +1,131 @@
+package com.darwinruiz.hospital.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Borra físicamente las filas con borrado lógico vencido, en lotes de transacción corta para no
+ * bloquear las tablas ni inflar el WAL de una sola vez.
+ */
+public class PurgaEliminados {
+
+    public static final int DIAS_RETENCION_POR_DEFECTO = 30;
+    public static final int TAMANO_LOTE_POR_DEFECTO = 1000;
+
+    // Cada DELETE toma a lo sumo un lote; las subconsultas recorren solo los índices parciales *_eliminad[oa]
+    static final String SQL_PURGAR_CITAS =
+        "DELETE FROM cita WHERE (id, fecha_hora) IN (" +
+        "  SELECT id, fecha_hora FROM cita WHERE deleted_at < ?1 LIMIT ?2)";
+
+    // Historial y citas del lote se borran en la misma sentencia; las llaves foráneas se comprueban al final
+    static final String SQL_PURGAR_PACIENTES =
+        "WITH lote AS (SELECT id FROM paciente WHERE deleted_at < ?1 LIMIT ?2), " +
+        "historiales AS (DELETE FROM historial_medico WHERE paciente_id IN (SELECT id FROM lote)), " +
+        "citas AS (DELETE FROM cita WHERE paciente_id IN (SELECT id FROM lote)) " +
+        "DELETE FROM paciente WHERE id IN (SELECT id FROM lote)";
+
+    // Un médico con citas (aunque estén eliminadas) espera a que se purguen sus citas
+    static final String SQL_PURGAR_MEDICOS =
+        "DELETE FROM medico WHERE id IN (" +
+        "  SELECT m.id FROM medico m WHERE m.deleted_at < ?1 " +
+        "  AND NOT EXISTS (SELECT 1 FROM cita c WHERE c.medico_id = m.id) LIMIT ?2)";
+
+    private final EntityManagerFactory emf;
+    private final int tamanoLote;
+    private ScheduledExecutorService programador;
+
+    public PurgaEliminados(EntityManagerFactory emf) {
+        this(emf, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    public PurgaEliminados(EntityManagerFactory emf, int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño del lote debe ser mayor que cero");
+        }
+        this.emf = emf;
+        this.tamanoLote = tamanoLote;
+    }
+
+    public record Resultado(long citas, long pacientes, long medicos) {
+
+        public long total() {
+            return citas + pacientes + medicos;
+        }
+    }
+
+    public Resultado purgarVencidos(int diasRetencion) {
+        if (diasRetencion < 0) {
+            throw new IllegalArgumentException("Los días de retención no pueden ser negativos");
+        }
+        return purgarAnterioresA(LocalDateTime.now().minusDays(diasRetencion));
+    }
+
+    public Resultado purgarAnterioresA(LocalDateTime limite) {
+        if (limite == null) {
+            throw new IllegalArgumentException("La fecha límite de la purga es obligatoria");
+        }
+        long citas = purgarPorLotes(SQL_PURGAR_CITAS, limite);
+        long pacientes = purgarPorLotes(SQL_PURGAR_PACIENTES, limite);
+        long medicos = purgarPorLotes(SQL_PURGAR_MEDICOS, limite);
+        return new Resultado(citas, pacientes, medicos);
+    }
+
+    public synchronized void iniciar(Duration intervalo, int diasRetencion) {
+        if (intervalo == null || intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("El intervalo de la purga debe ser positivo");
+        }
+        if (programador != null) {
+            throw new IllegalStateException("La purga ya está programada");
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "purga-eliminados");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(() -> {
+            try {
+                purgarVencidos(diasRetencion);
+            } catch (RuntimeException e) {
+                System.err.println("Error en la purga de registros eliminados: " + e.getMessage());
+            }
+        }, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void detener() {
+        if (programador != null) {
+            programador.shutdownNow();
+            programador = null;
+        }
+    }
+
+    private long purgarPorLotes(String sql, LocalDateTime limite) {
+        long total = 0;
+        int borradas;
+        do {
+            EntityManager em = emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                borradas = em.createNativeQuery(sql)
+                    .setParameter(1, limite)
+                    .setParameter(2, tamanoLote)
+                    .executeUpdate();
+                em.getTransaction().commit();
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw new RuntimeException("Error al purgar los registros eliminados: " + e.getMessage(), e);
+            } finally {
+                em.close();
+            }
+            total += borradas;
+        } while (borradas == tamanoLote);
+        return total;
+    }
+}
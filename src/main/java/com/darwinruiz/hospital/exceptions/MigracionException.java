@@ -0,0 +1,12 @@
+package com.darwinruiz.hospital.exceptions;
+
+public class MigracionException extends RuntimeException {
+
+    public MigracionException(String message) {
+        super(message);
+    }
+
+    public MigracionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.darwinruiz.hospital.exceptions;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Es una IllegalArgumentException para que los llamadores que ya la esperaban no cambien.
+ */
+public class ValidacionException extends IllegalArgumentException {
+
+    private final String propiedad;
+    private final Class<? extends Annotation> restriccion;
+
+    public ValidacionException(String mensaje, String propiedad, Class<? extends Annotation> restriccion) {
+        super(mensaje);
+        this.propiedad = propiedad;
+        this.restriccion = restriccion;
+    }
+
+    public String getPropiedad() {
+        return propiedad;
+    }
+
+    public Class<? extends Annotation> getRestriccion() {
+        return restriccion;
+    }
+}
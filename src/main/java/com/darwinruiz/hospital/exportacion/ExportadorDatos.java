@@ -0,0 +1,317 @@
+package com.darwinruiz.hospital.exportacion;
+
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.utils.CsvUtils;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación de citas e historiales a CSV o NDJSON, según la extensión del archivo (.gz comprime).
+ * Las filas se leen con un cursor del servidor, así que la memoria no depende de cuántas se exporten.
+ */
+public class ExportadorDatos {
+
+    public static final int TAMANO_FETCH = 1_000;
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private static final String SQL_CITAS =
+        "SELECT c.id, c.fecha_hora, c.estado, c.motivo, p.id, p.nombre, p.dpi, m.id, m.nombre, m.especialidad " +
+        "FROM cita c JOIN paciente p ON p.id = c.paciente_id JOIN medico m ON m.id = c.medico_id " +
+        "WHERE c.deleted_at IS NULL";
+
+    private static final List<Columna> COLUMNAS_CITAS = List.of(
+        new Columna("id", Tipo.NUMERO),
+        new Columna("fechaHora", Tipo.FECHA_HORA),
+        new Columna("estado", Tipo.TEXTO),
+        new Columna("motivo", Tipo.TEXTO),
+        new Columna("pacienteId", Tipo.NUMERO),
+        new Columna("pacienteNombre", Tipo.TEXTO),
+        new Columna("pacienteDpi", Tipo.TEXTO),
+        new Columna("medicoId", Tipo.NUMERO),
+        new Columna("medicoNombre", Tipo.TEXTO),
+        new Columna("especialidad", Tipo.TEXTO));
+
+    private static final String SQL_HISTORIALES =
+        "SELECT p.id, p.nombre, p.dpi, h.alergias, h.antecedentes, h.observaciones " +
+        "FROM historial_medico h JOIN paciente p ON p.id = h.paciente_id " +
+        "WHERE p.deleted_at IS NULL ORDER BY p.id";
+
+    private static final List<Columna> COLUMNAS_HISTORIALES = List.of(
+        new Columna("pacienteId", Tipo.NUMERO),
+        new Columna("pacienteNombre", Tipo.TEXTO),
+        new Columna("pacienteDpi", Tipo.TEXTO),
+        new Columna("alergias", Tipo.TEXTO),
+        new Columna("antecedentes", Tipo.TEXTO),
+        new Columna("observaciones", Tipo.TEXTO));
+
+    public enum Formato {
+        CSV, NDJSON;
+
+        public static Formato desdeArchivo(Path archivo) {
+            String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (nombre.endsWith(".gz")) {
+                nombre = nombre.substring(0, nombre.length() - 3);
+            }
+            return nombre.endsWith(".json") || nombre.endsWith(".ndjson") ? NDJSON : CSV;
+        }
+    }
+
+    // Los null no filtran; el rango es [desde, hasta)
+    public record FiltroCitas(LocalDateTime desde, LocalDateTime hasta, EstadoCita estado, Long medicoId) {
+
+        public static FiltroCitas todas() {
+            return new FiltroCitas(null, null, null, null);
+        }
+
+        public FiltroCitas {
+            if (desde != null && hasta != null && !desde.isBefore(hasta)) {
+                throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
+            }
+        }
+    }
+
+    public record Resultado(Path archivo, Formato formato, long filas, long milisegundos) {
+
+        public long filasPorSegundo() {
+            return milisegundos == 0 ? filas * 1000 : filas * 1000 / milisegundos;
+        }
+    }
+
+    private enum Tipo { NUMERO, TEXTO, FECHA_HORA }
+
+    private record Columna(String nombre, Tipo tipo) {
+    }
+
+    private final EntityManagerFactory emf;
+
+    public ExportadorDatos(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public Resultado exportarCitas(FiltroCitas filtro, Path destino) {
+        StringBuilder sql = new StringBuilder(SQL_CITAS);
+        List<Object> parametros = new ArrayList<>();
+        // SQL_CITAS ya tiene el WHERE que excluye las citas eliminadas
+        if (filtro.desde() != null) {
+            sql.append(" AND c.fecha_hora >= ?");
+            parametros.add(filtro.desde());
+        }
+        if (filtro.hasta() != null) {
+            sql.append(" AND c.fecha_hora < ?");
+            parametros.add(filtro.hasta());
+        }
+        if (filtro.estado() != null) {
+            sql.append(" AND c.estado = ?");
+            parametros.add(filtro.estado().name());
+        }
+        if (filtro.medicoId() != null) {
+            sql.append(" AND c.medico_id = ?");
+            parametros.add(filtro.medicoId());
+        }
+        sql.append(" ORDER BY c.fecha_hora, c.id");
+        return exportar(sql.toString(), parametros, COLUMNAS_CITAS, destino);
+    }
+
+    public Resultado exportarHistoriales(Path destino) {
+        return exportar(SQL_HISTORIALES, List.of(), COLUMNAS_HISTORIALES, destino);
+    }
+
+    private Resultado exportar(String sql, List<Object> parametros, List<Columna> columnas, Path destino) {
+        long inicio = System.nanoTime();
+        Formato formato = Formato.desdeArchivo(destino);
+        ConnectionProvider proveedor = emf.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(ConnectionProvider.class);
+
+        long filas;
+        try (Salida salida = abrirSalida(destino, formato, columnas)) {
+            Connection connection = proveedor.getConnection();
+            boolean autoCommitOriginal = connection.getAutoCommit();
+            try {
+                // PostgreSQL solo usa un cursor (y respeta fetchSize) dentro de una transacción
+                connection.setAutoCommit(false);
+                filas = 0;
+                try (PreparedStatement statement = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(TAMANO_FETCH);
+                    for (int i = 0; i < parametros.size(); i++) {
+                        statement.setObject(i + 1, parametros.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            salida.escribirFila(resultSet);
+                            filas++;
+                        }
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommitOriginal);
+                proveedor.closeConnection(connection);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir la exportación " + destino, e);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al exportar datos: " + e.getMessage(), e);
+        }
+        return new Resultado(destino, formato, filas, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static Salida abrirSalida(Path destino, Formato formato, List<Columna> columnas) throws IOException {
+        Path directorio = destino.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        OutputStream flujo = new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(destino,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)), TAMANO_BUFFER);
+        if (destino.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            flujo = new GZIPOutputStream(flujo, TAMANO_BUFFER);
+        }
+        return formato == Formato.NDJSON ? new SalidaNdjson(flujo, columnas) : new SalidaCsv(flujo, columnas);
+    }
+
+    private interface Salida extends AutoCloseable {
+
+        void escribirFila(ResultSet resultSet) throws SQLException, IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class SalidaCsv implements Salida {
+
+        private final Writer writer;
+        private final List<Columna> columnas;
+        private boolean cerrada;
+
+        SalidaCsv(OutputStream flujo, List<Columna> columnas) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(flujo, StandardCharsets.UTF_8), TAMANO_BUFFER);
+            this.columnas = columnas;
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columnas.get(i).nombre());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void escribirFila(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Columna columna = columnas.get(i);
+                switch (columna.tipo()) {
+                    case NUMERO -> {
+                        long valor = resultSet.getLong(i + 1);
+                        if (!resultSet.wasNull()) {
+                            writer.write(Long.toString(valor));
+                        }
+                    }
+                    case FECHA_HORA -> {
+                        LocalDateTime valor = resultSet.getObject(i + 1, LocalDateTime.class);
+                        if (valor != null) {
+                            writer.write(valor.toString());
+                        }
+                    }
+                    case TEXTO -> writer.write(CsvUtils.escapar(resultSet.getString(i + 1)));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!cerrada) {
+                cerrada = true;
+                writer.close();
+            }
+        }
+    }
+
+    private static final class SalidaNdjson implements Salida {
+
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        private final JsonGenerator generator;
+        private final List<Columna> columnas;
+        private boolean cerrada;
+
+        SalidaNdjson(OutputStream flujo, List<Columna> columnas) throws IOException {
+            this.generator = FACTORY.createGenerator(flujo, JsonEncoding.UTF8);
+            // Sin separador entre valores raíz: cada objeto termina con su propio salto de línea
+            this.generator.setRootValueSeparator(null);
+            this.columnas = columnas;
+        }
+
+        @Override
+        public void escribirFila(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columnas.size(); i++) {
+                Columna columna = columnas.get(i);
+                generator.writeFieldName(columna.nombre());
+                switch (columna.tipo()) {
+                    case NUMERO -> {
+                        long valor = resultSet.getLong(i + 1);
+                        if (resultSet.wasNull()) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(valor);
+                        }
+                    }
+                    case FECHA_HORA -> {
+                        LocalDateTime valor = resultSet.getObject(i + 1, LocalDateTime.class);
+                        if (valor == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeString(valor.toString());
+                        }
+                    }
+                    case TEXTO -> generator.writeString(resultSet.getString(i + 1));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!cerrada) {
+                cerrada = true;
+                generator.close();
+            }
+        }
+    }
+}
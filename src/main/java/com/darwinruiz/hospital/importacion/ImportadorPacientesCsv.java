@@ -0,0 +1,288 @@
+package com.darwinruiz.hospital.importacion;
+
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.utils.CsvUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Importación masiva de pacientes desde CSV, por lotes que se confirman por separado: al repetir una
+ * importación interrumpida, los pacientes ya cargados aparecen como rechazados por DPI registrado.
+ */
+public class ImportadorPacientesCsv {
+
+    public static final int TAMANO_LOTE_POR_DEFECTO = 5_000;
+
+    private static final List<String> COLUMNAS = List.of("nombre", "dpi", "fechanacimiento", "telefono", "email");
+    private static final List<String> COLUMNAS_OBLIGATORIAS = List.of("nombre", "dpi", "fechanacimiento", "email");
+    private static final DateTimeFormatter FORMATO_FECHA_CONSOLA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final String SQL_TABLA_TEMPORAL =
+        "CREATE TEMP TABLE IF NOT EXISTS paciente_importacion (" +
+        "linea BIGINT NOT NULL, nombre VARCHAR(100), dpi VARCHAR(20), fechaNacimiento DATE, " +
+        "telefono VARCHAR(15), email VARCHAR(100)) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_TABLA_TEMPORAL =
+        "COPY paciente_importacion (linea, nombre, dpi, fechaNacimiento, telefono, email) FROM STDIN (FORMAT csv)";
+
+    // Devuelve las filas del lote que no se insertaron porque su DPI ya existía
+    private static final String SQL_FUSIONAR =
+        "WITH insertados AS (" +
+        "  INSERT INTO paciente (nombre, dpi, fechaNacimiento, telefono, email) " +
+        "  SELECT nombre, dpi, fechaNacimiento, telefono, email FROM paciente_importacion ORDER BY linea " +
+        "  ON CONFLICT (dpi) WHERE deleted_at IS NULL DO NOTHING " +
+        "  RETURNING dpi) " +
+        "SELECT s.linea, s.dpi FROM paciente_importacion s " +
+        "LEFT JOIN insertados i ON i.dpi = s.dpi " +
+        "WHERE i.dpi IS NULL";
+
+    public record Rechazo(long linea, String dpi, String motivo) {
+    }
+
+    public record Resultado(long leidas, long importadas, long rechazadas, long milisegundos, Path reporteRechazos) {
+    }
+
+    private record Registro(long linea, List<String> campos) {
+    }
+
+    private record Fila(long linea, String nombre, String dpi, LocalDate fechaNacimiento, String telefono, String email) {
+    }
+
+    private record Validacion(Fila fila, Rechazo rechazo) {
+    }
+
+    private final EntityManagerFactory emf;
+    private final int tamanoLote;
+
+    public ImportadorPacientesCsv(EntityManagerFactory emf) {
+        this(emf, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    public ImportadorPacientesCsv(EntityManagerFactory emf, int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        this.emf = emf;
+        this.tamanoLote = tamanoLote;
+    }
+
+    public static Path reportePorDefecto(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + ".rechazos.csv");
+    }
+
+    public Resultado importar(Path archivo, Path reporteRechazos) {
+        long inicio = System.nanoTime();
+        ConnectionProvider proveedor = emf.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(ConnectionProvider.class);
+
+        try (BufferedReader entrada = Files.newBufferedReader(archivo, StandardCharsets.UTF_8);
+             BufferedWriter reporte = Files.newBufferedWriter(reporteRechazos, StandardCharsets.UTF_8)) {
+            CsvUtils.Lector lector = new CsvUtils.Lector(entrada);
+            int[] posiciones = leerEncabezado(lector);
+            reporte.write(CsvUtils.unirLinea("linea", "dpi", "motivo"));
+            reporte.newLine();
+
+            Connection connection = proveedor.getConnection();
+            boolean autoCommitOriginal = connection.getAutoCommit();
+            try {
+                connection.setAutoCommit(false);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(SQL_TABLA_TEMPORAL);
+                }
+                connection.commit();
+
+                Set<String> dpisDelArchivo = new HashSet<>();
+                long leidas = 0;
+                long importadas = 0;
+                long rechazadas = 0;
+                List<Registro> lote;
+                while (!(lote = leerLote(lector)).isEmpty()) {
+                    leidas += lote.size();
+                    List<Rechazo> rechazos = new ArrayList<>();
+                    List<Fila> filas = new ArrayList<>(lote.size());
+
+                    List<Validacion> validaciones = lote.parallelStream()
+                        .map(registro -> validar(registro, posiciones))
+                        .toList();
+                    // El primer registro de cada DPI gana; el recorrido secuencial conserva el orden del archivo
+                    for (Validacion validacion : validaciones) {
+                        if (validacion.rechazo() != null) {
+                            rechazos.add(validacion.rechazo());
+                        } else if (!dpisDelArchivo.add(validacion.fila().dpi())) {
+                            rechazos.add(new Rechazo(validacion.fila().linea(), validacion.fila().dpi(),
+                                "DPI repetido en el archivo"));
+                        } else {
+                            filas.add(validacion.fila());
+                        }
+                    }
+
+                    List<Rechazo> existentes = cargarLote(connection, filas);
+                    rechazos.addAll(existentes);
+                    importadas += filas.size() - existentes.size();
+                    rechazadas += rechazos.size();
+                    escribirRechazos(reporte, rechazos);
+                }
+
+                return new Resultado(leidas, importadas, rechazadas, (System.nanoTime() - inicio) / 1_000_000,
+                    reporteRechazos);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE IF EXISTS paciente_importacion");
+                    connection.commit();
+                } finally {
+                    connection.setAutoCommit(autoCommitOriginal);
+                    proveedor.closeConnection(connection);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo de pacientes " + archivo, e);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al importar pacientes: " + e.getMessage(), e);
+        }
+    }
+
+    private static int[] leerEncabezado(CsvUtils.Lector lector) throws IOException {
+        List<String> encabezado = lector.leerRegistro();
+        if (encabezado == null) {
+            throw new IllegalArgumentException("El archivo de pacientes está vacío");
+        }
+        int[] posiciones = new int[COLUMNAS.size()];
+        for (int i = 0; i < COLUMNAS.size(); i++) {
+            posiciones[i] = -1;
+        }
+        for (int i = 0; i < encabezado.size(); i++) {
+            int columna = COLUMNAS.indexOf(encabezado.get(i).trim().toLowerCase(Locale.ROOT));
+            if (columna >= 0) {
+                posiciones[columna] = i;
+            }
+        }
+        List<String> faltantes = new ArrayList<>();
+        for (String obligatoria : COLUMNAS_OBLIGATORIAS) {
+            if (posiciones[COLUMNAS.indexOf(obligatoria)] < 0) {
+                faltantes.add(obligatoria);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas en el encabezado: " + String.join(", ", faltantes));
+        }
+        return posiciones;
+    }
+
+    private List<Registro> leerLote(CsvUtils.Lector lector) throws IOException {
+        List<Registro> lote = new ArrayList<>(tamanoLote);
+        List<String> campos;
+        while (lote.size() < tamanoLote && (campos = lector.leerRegistro()) != null) {
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            lote.add(new Registro(lector.getLineaRegistro(), campos));
+        }
+        return lote;
+    }
+
+    private static Validacion validar(Registro registro, int[] posiciones) {
+        String nombre = campo(registro, posiciones[0]);
+        String dpi = campo(registro, posiciones[1]);
+        String fechaTexto = campo(registro, posiciones[2]);
+        String telefono = campo(registro, posiciones[3]);
+        String email = campo(registro, posiciones[4]);
+
+        for (int posicion : posiciones) {
+            if (posicion >= registro.campos().size()) {
+                return new Validacion(null, new Rechazo(registro.linea(), dpi,
+                    "Faltan columnas: se esperaban al menos " + (posicion + 1)));
+            }
+        }
+
+        LocalDate fechaNacimiento = null;
+        if (fechaTexto != null) {
+            fechaNacimiento = parsearFecha(fechaTexto);
+            if (fechaNacimiento == null) {
+                return new Validacion(null, new Rechazo(registro.linea(), dpi,
+                    "Fecha de nacimiento inválida: " + fechaTexto));
+            }
+        }
+
+        try {
+            Paciente paciente = new Paciente(nombre, dpi, fechaNacimiento, telefono, email);
+            return new Validacion(new Fila(registro.linea(), paciente.getNombre(), paciente.getDpi(),
+                paciente.getFechaNacimiento(), paciente.getTelefono(), paciente.getEmail()), null);
+        } catch (IllegalArgumentException e) {
+            return new Validacion(null, new Rechazo(registro.linea(), dpi, e.getMessage()));
+        }
+    }
+
+    private static String campo(Registro registro, int posicion) {
+        if (posicion < 0 || posicion >= registro.campos().size()) {
+            return null;
+        }
+        String valor = registro.campos().get(posicion).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static LocalDate parsearFecha(String texto) {
+        try {
+            return texto.contains("/") ? LocalDate.parse(texto, FORMATO_FECHA_CONSOLA) : LocalDate.parse(texto);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static List<Rechazo> cargarLote(Connection connection, List<Fila> filas) throws SQLException, IOException {
+        List<Rechazo> existentes = new ArrayList<>();
+        if (filas.isEmpty()) {
+            return existentes;
+        }
+
+        StringBuilder csv = new StringBuilder(filas.size() * 96);
+        for (Fila fila : filas) {
+            csv.append(CsvUtils.unirLinea(String.valueOf(fila.linea()), fila.nombre(), fila.dpi(),
+                fila.fechaNacimiento().toString(), fila.telefono(), fila.email())).append('\n');
+        }
+        connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_TABLA_TEMPORAL, new StringReader(csv.toString()));
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rechazadas = statement.executeQuery(SQL_FUSIONAR)) {
+            while (rechazadas.next()) {
+                existentes.add(new Rechazo(rechazadas.getLong(1), rechazadas.getString(2), "El DPI ya está registrado"));
+            }
+        }
+        connection.commit();
+        return existentes;
+    }
+
+    private static void escribirRechazos(BufferedWriter reporte, List<Rechazo> rechazos) throws IOException {
+        rechazos.sort(Comparator.comparingLong(Rechazo::linea));
+        for (Rechazo rechazo : rechazos) {
+            reporte.write(CsvUtils.unirLinea(String.valueOf(rechazo.linea()), rechazo.dpi(), rechazo.motivo()));
+            reporte.newLine();
+        }
+    }
+}
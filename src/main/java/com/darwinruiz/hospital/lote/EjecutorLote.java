@@ -0,0 +1,340 @@
+package com.darwinruiz.hospital.lote;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.exceptions.MedicoYaExisteException;
+import com.darwinruiz.hospital.exceptions.PacienteYaExisteException;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Ejecuta sin interacción comandos NDJSON con los servicios de la consola, en lotes que comparten
+ * una transacción. Si un comando falla, el lote se revierte y se reintenta comando por comando.
+ */
+public class EjecutorLote {
+
+    public static final int TAMANO_LOTE_POR_DEFECTO = 100;
+
+    public record Resumen(long comandos, long exitosos, long fallidos, long lotesReintentados, long milisegundos) {
+
+        public long comandosPorSegundo() {
+            return milisegundos == 0 ? comandos * 1000 : comandos * 1000 / milisegundos;
+        }
+    }
+
+    private record Comando(long linea, String nombre, JsonNode datos) {
+    }
+
+    private final EntityManagerFactory emf;
+    private final int tamanoLote;
+    private final PacienteService pacienteService;
+    private final MedicoService medicoService;
+    private final CitaService citaService;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private long exitosos;
+    private long fallidos;
+    private long lotesReintentados;
+
+    public EjecutorLote(EntityManagerFactory emf) {
+        this(emf, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    public EjecutorLote(EntityManagerFactory emf, int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        this.emf = emf;
+        this.tamanoLote = tamanoLote;
+        this.pacienteService = new PacienteService(emf);
+        this.medicoService = new MedicoService(emf);
+        this.citaService = new CitaService(emf);
+    }
+
+    public Resumen ejecutar(Reader entrada, Writer salida) {
+        long inicio = System.nanoTime();
+        exitosos = 0;
+        fallidos = 0;
+        lotesReintentados = 0;
+
+        BufferedReader lector = entrada instanceof BufferedReader buffered ? buffered : new BufferedReader(entrada);
+        List<Comando> lote = new ArrayList<>(tamanoLote);
+        long numeroLinea = 0;
+        try {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                String texto = linea.trim();
+                if (texto.isEmpty() || texto.startsWith("#")) {
+                    continue;
+                }
+
+                Comando comando;
+                try {
+                    comando = leerComando(numeroLinea, texto);
+                } catch (IllegalArgumentException | JsonProcessingException e) {
+                    // Se ejecuta lo pendiente antes para conservar el orden de la salida
+                    escribir(salida, ejecutarLote(lote));
+                    lote.clear();
+                    escribir(salida, List.of(error(numeroLinea, null, e)));
+                    continue;
+                }
+
+                lote.add(comando);
+                if (lote.size() >= tamanoLote) {
+                    escribir(salida, ejecutarLote(lote));
+                    lote.clear();
+                }
+            }
+            escribir(salida, ejecutarLote(lote));
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error en la entrada o salida del lote", e);
+        }
+
+        return new Resumen(exitosos + fallidos, exitosos, fallidos, lotesReintentados,
+            (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private Comando leerComando(long linea, String texto) throws JsonProcessingException {
+        JsonNode datos = mapper.readTree(texto);
+        if (!datos.isObject()) {
+            throw new IllegalArgumentException("Cada línea debe ser un objeto JSON");
+        }
+        JsonNode nombre = datos.get("comando");
+        if (nombre == null || !nombre.isTextual() || nombre.asText().isBlank()) {
+            throw new IllegalArgumentException("Falta el campo \"comando\"");
+        }
+        return new Comando(linea, nombre.asText().trim(), datos);
+    }
+
+    private List<ObjectNode> ejecutarLote(List<Comando> lote) {
+        if (lote.isEmpty()) {
+            return List.of();
+        }
+
+        List<ObjectNode> resultados = new ArrayList<>(lote.size());
+        EntityManager em = emf.createEntityManager();
+        boolean confirmado = false;
+        int rechazados = 0;
+        try {
+            em.getTransaction().begin();
+            for (Comando comando : lote) {
+                try {
+                    resultados.add(exito(comando, ejecutarComando(em, comando)));
+                } catch (PacienteYaExisteException | MedicoYaExisteException e) {
+                    // Se lanzan antes de escribir: la transacción del lote sigue siendo válida
+                    resultados.add(error(comando.linea(), comando.nombre(), e));
+                    rechazados++;
+                }
+            }
+            em.getTransaction().commit();
+            confirmado = true;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+        } finally {
+            em.close();
+        }
+
+        if (confirmado) {
+            exitosos += lote.size() - rechazados;
+            fallidos += rechazados;
+            return resultados;
+        }
+
+        lotesReintentados++;
+        resultados.clear();
+        for (Comando comando : lote) {
+            resultados.add(ejecutarSolo(comando));
+        }
+        return resultados;
+    }
+
+    private ObjectNode ejecutarSolo(Comando comando) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            JsonNode resultado = ejecutarComando(em, comando);
+            em.getTransaction().commit();
+            exitosos++;
+            return exito(comando, resultado);
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            fallidos++;
+            return error(comando.linea(), comando.nombre(), e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private JsonNode ejecutarComando(EntityManager em, Comando comando) {
+        JsonNode datos = comando.datos();
+        switch (comando.nombre()) {
+            case "registrarPaciente" -> {
+                String fechaNacimiento = texto(datos, "fechaNacimiento");
+                return paciente(pacienteService.registrarPaciente(em, texto(datos, "nombre"), texto(datos, "dpi"),
+                    fechaNacimiento == null ? null : LocalDate.parse(fechaNacimiento),
+                    texto(datos, "telefono"), texto(datos, "email")));
+            }
+            case "registrarMedico" -> {
+                String especialidad = texto(datos, "especialidad");
+                return medico(medicoService.registrarMedico(em, texto(datos, "nombre"), texto(datos, "colegiado"),
+                    especialidad == null ? null : Especialidad.valueOf(especialidad.toUpperCase(Locale.ROOT)),
+                    texto(datos, "email")));
+            }
+            case "agendarCita" -> {
+                String fechaHora = texto(datos, "fechaHora");
+                return cita(citaService.agendarCita(em, pacienteId(em, datos), medicoId(em, datos),
+                    fechaHora == null ? null : LocalDateTime.parse(fechaHora), texto(datos, "motivo")));
+            }
+            case "cambiarEstadoCita" -> {
+                String estado = texto(datos, "estado");
+                return cita(citaService.cambiarEstadoCita(em, numero(datos, "citaId"),
+                    estado == null ? null : EstadoCita.valueOf(estado.toUpperCase(Locale.ROOT))));
+            }
+            case "consultarPaciente" -> {
+                return pacienteService.buscarPorDpi(em, texto(datos, "dpi"))
+                    .map(this::paciente)
+                    .orElse(null);
+            }
+            case "citasPorPaciente" -> {
+                Optional<Paciente> paciente = pacienteService.buscarPorDpi(em, texto(datos, "dpi"));
+                if (paciente.isEmpty()) {
+                    throw new IllegalArgumentException("No se encontró el paciente con DPI: " + texto(datos, "dpi"));
+                }
+                ArrayNode citas = mapper.createArrayNode();
+                for (Cita cita : citaService.listarCitasPorPaciente(em, paciente.get().getId())) {
+                    citas.add(cita(cita));
+                }
+                return citas;
+            }
+            default -> throw new IllegalArgumentException("Comando desconocido: " + comando.nombre());
+        }
+    }
+
+    private Long pacienteId(EntityManager em, JsonNode datos) {
+        Long id = numero(datos, "pacienteId");
+        String dpi = texto(datos, "dpi");
+        if (id != null || dpi == null) {
+            return id;
+        }
+        return pacienteService.buscarPorDpi(em, dpi)
+            .orElseThrow(() -> new IllegalArgumentException("No se encontró el paciente con DPI: " + dpi))
+            .getId();
+    }
+
+    private Long medicoId(EntityManager em, JsonNode datos) {
+        Long id = numero(datos, "medicoId");
+        String colegiado = texto(datos, "colegiado");
+        if (id != null || colegiado == null) {
+            return id;
+        }
+        return medicoService.buscarPorColegiado(em, colegiado)
+            .orElseThrow(() -> new IllegalArgumentException("No se encontró el médico con colegiado: " + colegiado))
+            .getId();
+    }
+
+    private static String texto(JsonNode datos, String campo) {
+        JsonNode valor = datos.get(campo);
+        return valor == null || valor.isNull() ? null : valor.asText();
+    }
+
+    private static Long numero(JsonNode datos, String campo) {
+        JsonNode valor = datos.get(campo);
+        if (valor == null || valor.isNull()) {
+            return null;
+        }
+        if (!valor.canConvertToLong() && !valor.isTextual()) {
+            throw new IllegalArgumentException("El campo " + campo + " debe ser numérico");
+        }
+        return valor.isTextual() ? Long.valueOf(valor.asText().trim()) : valor.asLong();
+    }
+
+    private ObjectNode paciente(Paciente paciente) {
+        ObjectNode nodo = mapper.createObjectNode();
+        nodo.put("id", paciente.getId());
+        nodo.put("nombre", paciente.getNombre());
+        nodo.put("dpi", paciente.getDpi());
+        nodo.put("fechaNacimiento", paciente.getFechaNacimiento().toString());
+        nodo.put("telefono", paciente.getTelefono());
+        nodo.put("email", paciente.getEmail());
+        return nodo;
+    }
+
+    private ObjectNode medico(Medico medico) {
+        ObjectNode nodo = mapper.createObjectNode();
+        nodo.put("id", medico.getId());
+        nodo.put("nombre", medico.getNombre());
+        nodo.put("colegiado", medico.getColegiado());
+        nodo.put("especialidad", medico.getEspecialidad().name());
+        nodo.put("email", medico.getEmail());
+        return nodo;
+    }
+
+    private ObjectNode cita(Cita cita) {
+        ObjectNode nodo = mapper.createObjectNode();
+        nodo.put("id", cita.getId());
+        nodo.put("fechaHora", cita.getFechaHora().toString());
+        nodo.put("estado", cita.getEstado().name());
+        nodo.put("motivo", cita.getMotivo());
+        nodo.put("pacienteId", cita.getPaciente().getId());
+        nodo.put("medicoId", cita.getMedico().getId());
+        return nodo;
+    }
+
+    private ObjectNode exito(Comando comando, JsonNode resultado) {
+        ObjectNode nodo = mapper.createObjectNode();
+        nodo.put("linea", comando.linea());
+        nodo.put("comando", comando.nombre());
+        nodo.put("ok", true);
+        nodo.set("resultado", resultado);
+        return nodo;
+    }
+
+    private ObjectNode error(long linea, String comando, Exception e) {
+        if (comando == null) {
+            fallidos++;
+        }
+        ObjectNode nodo = mapper.createObjectNode();
+        nodo.put("linea", linea);
+        nodo.put("comando", comando);
+        nodo.put("ok", false);
+        nodo.put("tipo", e.getClass().getSimpleName());
+        nodo.put("error", e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage());
+        return nodo;
+    }
+
+    private void escribir(Writer salida, List<ObjectNode> resultados) throws IOException {
+        for (ObjectNode resultado : resultados) {
+            salida.write(mapper.writeValueAsString(resultado));
+            salida.write('\n');
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.darwinruiz.hospital.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que se elimina marcando deleted_at; PurgaEliminados borra la fila al vencer la retención.
+ */
+public interface BorradoLogico {
+
+    // Definido en package-info
+    String FILTRO = "noEliminados";
+
+    LocalDateTime getDeletedAt();
+
+    default boolean isEliminado() {
+        return getDeletedAt() != null;
+    }
+}
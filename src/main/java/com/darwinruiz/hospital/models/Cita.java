@@ -1,24 +1,40 @@
 package com.darwinruiz.hospital.models;
 
 import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.validacion.Validador;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Filter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.util.UUID;
 
 @Entity
 @Table(name = "cita",
        indexes = {
-           @Index(name = "ix_cita_paciente", columnList = "paciente_id"),
+           @Index(name = "ix_cita_paciente_fecha", columnList = "paciente_id, fecha_hora DESC"),
            @Index(name = "ix_cita_medico", columnList = "medico_id"),
            @Index(name = "ix_cita_fecha_hora", columnList = "fecha_hora")
        })
-public class Cita {
+// Grafos de carga por caso de uso; los repositorios los eligen con PerfilCarga
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = "cita-summary"),
+    @NamedEntityGraph(name = "cita-full", attributeNodes = {
+        @NamedAttributeNode("paciente"), @NamedAttributeNode("medico")}),
+    @NamedEntityGraph(name = "medico-agenda", attributeNodes = @NamedAttributeNode("paciente")),
+    @NamedEntityGraph(name = "paciente-timeline", attributeNodes = @NamedAttributeNode("medico"))
+})
+@Filter(name = BorradoLogico.FILTRO)
+public class Cita implements BorradoLogico {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Identidad de la cita desde que se crea: no cambia al persistir y equals la usa
+    @Column(nullable = false, updatable = false)
+    private UUID uuid;
     
     @NotNull(message = "La fecha y hora de la cita es obligatoria")
     @Column(name = "fecha_hora", nullable = false)
@@ -33,6 +49,9 @@ public class Cita {
     @Column(length = 200)
     private String motivo;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @NotNull(message = "El paciente es obligatorio para la cita")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "paciente_id", foreignKey = @ForeignKey(name = "fk_cita_paciente"))
@@ -63,6 +82,21 @@ public class Cita {
         validarDatos();
     }
 
+    // Cita leída del archivo frío: sin validar la fecha, y no se debe persistir
+    public static Cita desdeArchivo(Long id, LocalDateTime fechaHora, EstadoCita estado, String motivo,
+                                    Paciente paciente, Medico medico) {
+        Cita cita = new Cita();
+        cita.id = id;
+        // Derivado del id: dos lecturas del archivo devuelven la misma cita
+        cita.uuid = UUID.nameUUIDFromBytes(("cita:" + id).getBytes(StandardCharsets.UTF_8));
+        cita.fechaHora = fechaHora;
+        cita.estado = estado;
+        cita.motivo = motivo;
+        cita.paciente = paciente;
+        cita.medico = medico;
+        return cita;
+    }
+
     public void validarFechaFutura() {
         if (fechaHora != null && fechaHora.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("La fecha y hora de la cita no puede estar en el pasado");
@@ -70,27 +104,13 @@ public class Cita {
     }
 
     public void validarMotivo() {
-        if (motivo != null && motivo.length() > 200) {
-            throw new IllegalArgumentException("El motivo no puede exceder 200 caracteres");
-        }
+        Validador.validarValor(Cita.class, "motivo", motivo);
     }
 
+    // Reglas de los campos en las anotaciones; la fecha futura solo se exige al crear la cita
     public void validarDatos() {
-        if (fechaHora == null) {
-            throw new IllegalArgumentException("La fecha y hora de la cita es obligatoria");
-        }
-        if (paciente == null) {
-            throw new IllegalArgumentException("El paciente es obligatorio para la cita");
-        }
-        if (medico == null) {
-            throw new IllegalArgumentException("El médico es obligatorio para la cita");
-        }
-        if (estado == null) {
-            throw new IllegalArgumentException("El estado de la cita es obligatorio");
-        }
-        
+        Validador.validar(this);
         validarFechaFutura();
-        validarMotivo();
     }
 
     public boolean puedeSerCancelada() {
@@ -122,7 +142,20 @@ public class Cita {
     public void setId(Long id) {
         this.id = id;
     }
-    
+
+    // Se genera al pedirla por primera vez: las citas cargadas ya la traen de la base de datos
+    public UUID getUuid() {
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid;
+    }
+
+    @PrePersist
+    void asignarUuid() {
+        getUuid();
+    }
+
     public LocalDateTime getFechaHora() {
         return fechaHora;
     }
@@ -172,6 +205,15 @@ public class Cita {
         this.medico = medico;
     }
 
+    @Override
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     public void cambiarEstado(EstadoCita nuevoEstado) {
         if (nuevoEstado == null) {
             throw new IllegalArgumentException("El nuevo estado no puede ser nulo");
@@ -195,23 +237,28 @@ public class Cita {
         this.estado = nuevoEstado;
     }
     
+    // Dos citas son iguales si tienen el mismo uuid. Con los dos ids asignados basta compararlos: cada
+    // fila tiene un id y un uuid, y getId() no inicializa un proxy. hashCode usa el uuid, que un proxy
+    // solo conoce al inicializarse
     @Override
-    public boolean equals(Object o) {
+    public final boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        
-        Cita cita = (Cita) o;
-        
-        return Objects.equals(fechaHora, cita.fechaHora) &&
-               Objects.equals(paciente, cita.paciente) &&
-               Objects.equals(medico, cita.medico);
+        if (!(o instanceof Cita)) return false;
+
+        Cita otra = (Cita) o;
+        Long id = getId();
+        Long otroId = otra.getId();
+        if (id != null && otroId != null) {
+            return id.equals(otroId);
+        }
+        return getUuid().equals(otra.getUuid());
     }
-    
+
     @Override
-    public int hashCode() {
-        return Objects.hash(fechaHora, paciente, medico);
+    public final int hashCode() {
+        return getUuid().hashCode();
     }
-    
+
     @Override
     public String toString() {
         return "Cita{" +
@@ -0,0 +1,96 @@
+package com.darwinruiz.hospital.models;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Table(name = "estadistica_cita_diaria")
+@IdClass(EstadisticaCitaDiaria.Clave.class)
+public class EstadisticaCitaDiaria {
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "medico_id", nullable = false)
+    private Long medicoId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoCita estado;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Especialidad especialidad;
+
+    @Column(nullable = false)
+    private long total;
+
+    public EstadisticaCitaDiaria() {}
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public Long getMedicoId() {
+        return medicoId;
+    }
+
+    public EstadoCita getEstado() {
+        return estado;
+    }
+
+    public Especialidad getEspecialidad() {
+        return especialidad;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public static class Clave implements Serializable {
+
+        private LocalDate dia;
+        private Long medicoId;
+        private EstadoCita estado;
+
+        public Clave() {}
+
+        public Clave(LocalDate dia, Long medicoId, EstadoCita estado) {
+            this.dia = dia;
+            this.medicoId = medicoId;
+            this.estado = estado;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave)) return false;
+            Clave otra = (Clave) o;
+            return Objects.equals(dia, otra.dia) && Objects.equals(medicoId, otra.medicoId) && estado == otra.estado;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, medicoId, estado);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticaCitaDiaria{" +
+                "dia=" + dia +
+                ", medicoId=" + medicoId +
+                ", estado=" + estado +
+                ", especialidad=" + especialidad +
+                ", total=" + total +
+                '}';
+    }
+}
@@ -1,23 +1,43 @@
 package com.darwinruiz.hospital.models;
 
+import com.darwinruiz.hospital.validacion.Validador;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.LazyGroup;
+
+import java.util.Objects;
 
 @Entity
 @Table(name = "historial_medico")
+// Comparte el id del paciente: se oculta cuando el paciente tiene borrado lógico
+@Filter(name = BorradoLogico.FILTRO,
+        condition = "paciente_id NOT IN (SELECT p.id FROM paciente p WHERE p.deleted_at IS NOT NULL)")
 public class HistorialMedico {
     
     @Id
     private Long id;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("textos")
+    @Size(max = 500, message = "Las alergias no pueden tener más de 500 caracteres")
     @Column(length = 500)
     private String alergias;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("textos")
+    @Size(max = 1000, message = "Los antecedentes no pueden tener más de 1000 caracteres")
     @Column(length = 1000)
     private String antecedentes;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("textos")
+    @Size(max = 1000, message = "Las observaciones no pueden tener más de 1000 caracteres")
     @Column(length = 1000)
     private String observaciones;
 
+    @NotNull(message = "El paciente no puede ser nulo")
     @OneToOne
     @MapsId
     @JoinColumn(name = "paciente_id", foreignKey = @ForeignKey(name = "fk_historial_paciente"))
@@ -39,26 +59,17 @@ public class HistorialMedico {
     }
 
     public void validarPaciente() {
-        if (paciente == null) {
-            throw new IllegalArgumentException("El paciente no puede ser nulo");
-        }
+        Validador.validarValor(HistorialMedico.class, "paciente", paciente);
     }
 
     public void validarLongitudCampos() {
-        if (alergias != null && alergias.length() > 500) {
-            throw new IllegalArgumentException("Las alergias no pueden tener más de 500 caracteres");
-        }
-        if (antecedentes != null && antecedentes.length() > 1000) {
-            throw new IllegalArgumentException("Los antecedentes no pueden tener más de 1000 caracteres");
-        }
-        if (observaciones != null && observaciones.length() > 1000) {
-            throw new IllegalArgumentException("Las observaciones no pueden tener más de 1000 caracteres");
-        }
+        Validador.validarValor(HistorialMedico.class, "alergias", alergias);
+        Validador.validarValor(HistorialMedico.class, "antecedentes", antecedentes);
+        Validador.validarValor(HistorialMedico.class, "observaciones", observaciones);
     }
 
     public void validarDatos() {
-        validarPaciente();
-        validarLongitudCampos();
+        Validador.validar(this);
     }
 
     
@@ -86,9 +97,7 @@ public class HistorialMedico {
     }
     
     public void setAlergias(String alergias) {
-        if (alergias != null && alergias.length() > 500) {
-            throw new IllegalArgumentException("Las alergias no pueden tener más de 500 caracteres");
-        }
+        Validador.validarValor(HistorialMedico.class, "alergias", alergias);
         this.alergias = alergias;
     }
     
@@ -97,9 +106,7 @@ public class HistorialMedico {
     }
     
     public void setAntecedentes(String antecedentes) {
-        if (antecedentes != null && antecedentes.length() > 1000) {
-            throw new IllegalArgumentException("Los antecedentes no pueden tener más de 1000 caracteres");
-        }
+        Validador.validarValor(HistorialMedico.class, "antecedentes", antecedentes);
         this.antecedentes = antecedentes;
     }
     
@@ -108,9 +115,7 @@ public class HistorialMedico {
     }
     
     public void setObservaciones(String observaciones) {
-        if (observaciones != null && observaciones.length() > 1000) {
-            throw new IllegalArgumentException("Las observaciones no pueden tener más de 1000 caracteres");
-        }
+        Validador.validarValor(HistorialMedico.class, "observaciones", observaciones);
         this.observaciones = observaciones;
     }
 
@@ -137,18 +142,23 @@ public class HistorialMedico {
                 '}';
     }
     
+    // Un historial por paciente y con su mismo id: se identifica por el paciente, que no cambia al persistir
     @Override
-    public boolean equals(Object o) {
+    public final boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        
-        HistorialMedico that = (HistorialMedico) o;
-        
-        return id != null ? id.equals(that.id) : that.id == null;
+        if (!(o instanceof HistorialMedico)) return false;
+
+        HistorialMedico otro = (HistorialMedico) o;
+        Long id = getId();
+        Long otroId = otro.getId();
+        if (id != null && otroId != null) {
+            return id.equals(otroId);
+        }
+        return Objects.equals(getPaciente(), otro.getPaciente());
     }
-    
+
     @Override
-    public int hashCode() {
-        return id != null ? id.hashCode() : 0;
+    public final int hashCode() {
+        return Objects.hashCode(getPaciente());
     }
 }
\ No newline at end of file
@@ -1,25 +1,35 @@
 package com.darwinruiz.hospital.models;
 
 import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.validacion.EmailValido;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Where;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
 
 @Entity
-@Table(name = "medico",
-       uniqueConstraints = @UniqueConstraint(name = "uk_medico_colegiado", columnNames = "colegiado"))
-public class Medico {
+@Table(name = "medico")
+@Filter(name = BorradoLogico.FILTRO)
+public class Medico implements BorradoLogico {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Identidad del médico desde que se crea: no cambia al persistir y equals la usa
+    @Column(nullable = false, updatable = false)
+    private UUID uuid;
+
     @NotBlank(message = "El nombre del médico es obligatorio")
     @Size(max = 100, message = "El nombre no puede exceder 100 caracteres")
     @Column(nullable = false, length = 100)
@@ -27,7 +37,8 @@ public class Medico {
 
     @NotBlank(message = "El número de colegiado es obligatorio")
     @Size(max = 20, message = "El número de colegiado no puede exceder 20 caracteres")
-    @Column(nullable = false, unique = true, length = 20)
+    // Único entre los médicos vigentes: índice parcial uk_medico_colegiado (db/migracion V5)
+    @Column(nullable = false, length = 20)
     private String colegiado;
 
     @NotNull(message = "La especialidad es obligatoria")
@@ -36,14 +47,25 @@ public class Medico {
     private Especialidad especialidad;
 
     @NotBlank(message = "El email es obligatorio")
-    @Email(message = "El formato del email no es válido")
+    @EmailValido
     @Size(max = 100, message = "El email no puede exceder 100 caracteres")
     @Column(nullable = false, length = 100)
     private String email;
 
-    // Relación OneToMany con Cita
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Relación OneToMany con Cita; trae todo el historial, los listados usan citasProgramadas
     @OneToMany(mappedBy = "medico", cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
-    private List<Cita> citas = new ArrayList<>();
+    @Filter(name = BorradoLogico.FILTRO)
+    @OrderBy("fechaHora ASC")
+    private Set<Cita> citas = new LinkedHashSet<>();
+
+    @OneToMany(mappedBy = "medico", fetch = FetchType.LAZY)
+    @Where(clause = "estado = 'PROGRAMADA' AND fecha_hora >= now() AND deleted_at IS NULL")
+    @OrderBy("fechaHora ASC")
+    @Immutable
+    private Set<Cita> citasProgramadas = new LinkedHashSet<>();
 
     // Constructores
     public Medico() {}
@@ -63,6 +85,19 @@ public class Medico {
         this.id = id;
     }
 
+    // Se genera al pedirla por primera vez: los médicos cargados ya la traen de la base de datos
+    public UUID getUuid() {
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid;
+    }
+
+    @PrePersist
+    void asignarUuid() {
+        getUuid();
+    }
+
     public String getNombre() {
         return nombre;
     }
@@ -95,14 +130,27 @@ public class Medico {
         this.email = email;
     }
 
-    public List<Cita> getCitas() {
+    @Override
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Set<Cita> getCitas() {
         return citas;
     }
 
-    public void setCitas(List<Cita> citas) {
+    public void setCitas(Set<Cita> citas) {
         this.citas = citas;
     }
 
+    public Set<Cita> getCitasProgramadas() {
+        return Collections.unmodifiableSet(citasProgramadas);
+    }
+
     public void addCita(Cita cita) {
         citas.add(cita);
         cita.setMedico(this);
@@ -113,17 +161,24 @@ public class Medico {
         cita.setMedico(null);
     }
 
+    // Como en Cita: mismo uuid, o mismo id cuando los dos lo tienen
     @Override
-    public boolean equals(Object o) {
+    public final boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Medico medico = (Medico) o;
-        return Objects.equals(colegiado, medico.colegiado);
+        if (!(o instanceof Medico)) return false;
+
+        Medico otro = (Medico) o;
+        Long id = getId();
+        Long otroId = otro.getId();
+        if (id != null && otroId != null) {
+            return id.equals(otroId);
+        }
+        return getUuid().equals(otro.getUuid());
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(colegiado);
+    public final int hashCode() {
+        return getUuid().hashCode();
     }
 
     @Override
@@ -1,43 +1,82 @@
 package com.darwinruiz.hospital.models;
 
+import com.darwinruiz.hospital.validacion.EmailValido;
+import com.darwinruiz.hospital.validacion.Validador;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
+import org.hibernate.annotations.Where;
+
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
 
 @Entity
-@Table(name = "paciente", 
-       uniqueConstraints = @UniqueConstraint(name = "uk_paciente_dpi", columnNames = "dpi"))
-public class Paciente {
+@Table(name = "paciente")
+@Filter(name = BorradoLogico.FILTRO)
+public class Paciente implements BorradoLogico {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Identidad del paciente desde que se crea: no cambia al persistir y equals la usa
+    @Column(nullable = false, updatable = false)
+    private UUID uuid;
     
+    @NotBlank(message = "El nombre no puede ser nulo o vacío")
+    @Size(max = 100, message = "El nombre no puede tener más de 100 caracteres")
     @Column(nullable = false, length = 100)
     private String nombre;
     
-    @Column(nullable = false, unique = true, length = 20)
+    @NotBlank(message = "El DPI no puede ser nulo o vacío")
+    @Size(max = 20, message = "El DPI no puede tener más de 20 caracteres")
+    // Único entre los pacientes vigentes: índice parcial uk_paciente_dpi (db/migracion V5)
+    @Column(nullable = false, length = 20)
     private String dpi;
     
+    @NotNull(message = "La fecha de nacimiento no puede ser nula")
+    @PastOrPresent(message = "La fecha de nacimiento no puede ser futura")
     @Column(nullable = false)
     private LocalDate fechaNacimiento;
     
+    @Size(max = 15, message = "El teléfono no puede tener más de 15 caracteres")
     @Column(length = 15)
     private String telefono;
     
+    @NotBlank(message = "El email no puede ser nulo o vacío")
+    @EmailValido
+    @Size(max = 100, message = "El email no puede tener más de 100 caracteres")
     @Column(nullable = false, length = 100)
     private String email;
 
-    @OneToOne(mappedBy = "paciente", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Lado inverso: sin la mejora de bytecode y NO_PROXY haría un SELECT por paciente
+    @OneToOne(mappedBy = "paciente", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @LazyToOne(LazyToOneOption.NO_PROXY)
     private HistorialMedico historialMedico;
 
     @OneToMany(mappedBy = "paciente", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Cita> citas = new ArrayList<>();
+    @Filter(name = BorradoLogico.FILTRO)
+    @OrderBy("fechaHora ASC")
+    private Set<Cita> citas = new LinkedHashSet<>();
 
-    private static final Pattern EMAIL_PATTERN = 
-        Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    @OneToMany(mappedBy = "paciente", fetch = FetchType.LAZY)
+    @Where(clause = "estado = 'PROGRAMADA' AND fecha_hora >= now() AND deleted_at IS NULL")
+    @OrderBy("fechaHora ASC")
+    @Immutable
+    private Set<Cita> citasProgramadas = new LinkedHashSet<>();
 
     public Paciente() {}
     
@@ -51,45 +90,24 @@ public class Paciente {
     }
 
     public void validarDpi() {
-        if (dpi == null || dpi.trim().isEmpty()) {
-            throw new IllegalArgumentException("El DPI no puede ser nulo o vacío");
-        }
-        if (dpi.length() > 20) {
-            throw new IllegalArgumentException("El DPI no puede tener más de 20 caracteres");
-        }
+        Validador.validarValor(Paciente.class, "dpi", dpi);
     }
 
     public void validarEmail() {
-        if (email == null || email.trim().isEmpty()) {
-            throw new IllegalArgumentException("El email no puede ser nulo o vacío");
-        }
-        if (!EMAIL_PATTERN.matcher(email).matches()) {
-            throw new IllegalArgumentException("El formato del email no es válido");
-        }
-        if (email.length() > 100) {
-            throw new IllegalArgumentException("El email no puede tener más de 100 caracteres");
-        }
+        Validador.validarValor(Paciente.class, "email", email);
     }
 
     public void validarDatos() {
-        if (nombre == null || nombre.trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre no puede ser nulo o vacío");
-        }
-        if (nombre.length() > 100) {
-            throw new IllegalArgumentException("El nombre no puede tener más de 100 caracteres");
-        }
-        if (fechaNacimiento == null) {
-            throw new IllegalArgumentException("La fecha de nacimiento no puede ser nula");
-        }
-        if (fechaNacimiento.isAfter(LocalDate.now())) {
-            throw new IllegalArgumentException("La fecha de nacimiento no puede ser futura");
-        }
-        if (telefono != null && telefono.length() > 15) {
-            throw new IllegalArgumentException("El teléfono no puede tener más de 15 caracteres");
-        }
-        
-        validarDpi();
-        validarEmail();
+        Validador.validar(this);
+    }
+
+    // Los datos ya están validados: no se repite la validación de cada setter
+    public void copiarDatos(Paciente datos) {
+        this.nombre = datos.nombre;
+        this.dpi = datos.dpi;
+        this.fechaNacimiento = datos.fechaNacimiento;
+        this.telefono = datos.telefono;
+        this.email = datos.email;
     }
 
     public Long getId() {
@@ -99,6 +117,19 @@ public class Paciente {
     public void setId(Long id) {
         this.id = id;
     }
+
+    // Se genera al pedirla por primera vez: los pacientes cargados ya la traen de la base de datos
+    public UUID getUuid() {
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid;
+    }
+
+    @PrePersist
+    void asignarUuid() {
+        getUuid();
+    }
     
     public String getNombre() {
         return nombre;
@@ -107,12 +138,7 @@ public class Paciente {
     public void setNombre(String nombre) {
         this.nombre = nombre;
         if (nombre != null) {
-            if (nombre.trim().isEmpty()) {
-                throw new IllegalArgumentException("El nombre no puede ser vacío");
-            }
-            if (nombre.length() > 100) {
-                throw new IllegalArgumentException("El nombre no puede tener más de 100 caracteres");
-            }
+            Validador.validarValor(Paciente.class, "nombre", nombre);
         }
     }
     
@@ -133,8 +159,8 @@ public class Paciente {
     
     public void setFechaNacimiento(LocalDate fechaNacimiento) {
         this.fechaNacimiento = fechaNacimiento;
-        if (fechaNacimiento != null && fechaNacimiento.isAfter(LocalDate.now())) {
-            throw new IllegalArgumentException("La fecha de nacimiento no puede ser futura");
+        if (fechaNacimiento != null) {
+            Validador.validarValor(Paciente.class, "fechaNacimiento", fechaNacimiento);
         }
     }
     
@@ -143,9 +169,7 @@ public class Paciente {
     }
     
     public void setTelefono(String telefono) {
-        if (telefono != null && telefono.length() > 15) {
-            throw new IllegalArgumentException("El teléfono no puede tener más de 15 caracteres");
-        }
+        Validador.validarValor(Paciente.class, "telefono", telefono);
         this.telefono = telefono;
     }
     
@@ -159,6 +183,15 @@ public class Paciente {
             validarEmail();
         }
     }
+
+    @Override
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
     
     public HistorialMedico getHistorialMedico() {
         return historialMedico;
@@ -168,12 +201,16 @@ public class Paciente {
         this.historialMedico = historialMedico;
     }
     
-    public List<Cita> getCitas() {
+    public Set<Cita> getCitas() {
         return citas;
     }
     
-    public void setCitas(List<Cita> citas) {
-        this.citas = citas != null ? citas : new ArrayList<>();
+    public void setCitas(Set<Cita> citas) {
+        this.citas = citas != null ? citas : new LinkedHashSet<>();
+    }
+
+    public Set<Cita> getCitasProgramadas() {
+        return Collections.unmodifiableSet(citasProgramadas);
     }
 
     public void agregarCita(Cita cita) {
@@ -202,18 +239,23 @@ public class Paciente {
                 '}';
     }
     
+    // Como en Cita: mismo uuid, o mismo id cuando los dos lo tienen
     @Override
-    public boolean equals(Object o) {
+    public final boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        
-        Paciente paciente = (Paciente) o;
-        
-        return dpi != null ? dpi.equals(paciente.dpi) : paciente.dpi == null;
+        if (!(o instanceof Paciente)) return false;
+
+        Paciente otro = (Paciente) o;
+        Long id = getId();
+        Long otroId = otro.getId();
+        if (id != null && otroId != null) {
+            return id.equals(otroId);
+        }
+        return getUuid().equals(otro.getUuid());
     }
-    
+
     @Override
-    public int hashCode() {
-        return dpi != null ? dpi.hashCode() : 0;
+    public final int hashCode() {
+        return getUuid().hashCode();
     }
 }
\ No newline at end of file
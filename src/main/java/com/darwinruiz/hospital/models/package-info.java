@@ -0,0 +1,4 @@
+@FilterDef(name = BorradoLogico.FILTRO, defaultCondition = "deleted_at IS NULL")
+package com.darwinruiz.hospital.models;
+
+import org.hibernate.annotations.FilterDef;
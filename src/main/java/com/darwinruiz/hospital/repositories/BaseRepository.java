@@ -1,16 +1,16 @@
 package com.darwinruiz.hospital.repositories;
 
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.models.BorradoLogico;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
 import java.util.List;
 import java.util.Optional;
 
 
 public abstract class BaseRepository<T> {
     
-    protected static final EntityManagerFactory emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
     protected final Class<T> entityClass;
     protected EntityManager entityManager;
     
@@ -23,7 +23,16 @@ public abstract class BaseRepository<T> {
     }
 
     protected EntityManager getEntityManager() {
-        return entityManager != null ? entityManager : emf.createEntityManager();
+        EntityManager em = entityManager != null ? entityManager : Persistencia.compartida().createEntityManager();
+        activarFiltroEliminados(em);
+        return em;
+    }
+
+    static void activarFiltroEliminados(EntityManager em) {
+        Session session = em.unwrap(Session.class);
+        if (session.getEnabledFilter(BorradoLogico.FILTRO) == null) {
+            session.enableFilter(BorradoLogico.FILTRO);
+        }
     }
 
     public void persist(T entity) {
@@ -74,15 +83,19 @@ public abstract class BaseRepository<T> {
     public void remove(T entity) {
         if (entityManager != null) {
 
-            T managedEntity = entityManager.merge(entity);
-            entityManager.remove(managedEntity);
+            T managedEntity = gestionada(entityManager, entity);
+            if (managedEntity != null) {
+                eliminar(entityManager, managedEntity);
+            }
         } else {
 
             EntityManager em = getEntityManager();
             try {
                 em.getTransaction().begin();
-                T managedEntity = em.merge(entity);
-                em.remove(managedEntity);
+                T managedEntity = gestionada(em, entity);
+                if (managedEntity != null) {
+                    eliminar(em, managedEntity);
+                }
                 em.getTransaction().commit();
             } catch (Exception e) {
                 if (em.getTransaction().isActive()) {
@@ -99,9 +112,9 @@ public abstract class BaseRepository<T> {
         EntityManager em = getEntityManager();
         try {
             em.getTransaction().begin();
-            T entity = em.find(entityClass, id);
+            T entity = vigente(em.find(entityClass, id));
             if (entity != null) {
-                em.remove(entity);
+                eliminar(em, entity);
             }
             em.getTransaction().commit();
         } catch (Exception e) {
@@ -114,21 +127,44 @@ public abstract class BaseRepository<T> {
         }
     }
 
+    // Se elimina la fila cargada por id: fusionar el estado desconectado escribiría datos viejos
+    // junto con deleted_at y falla con las colecciones orphanRemoval de la instancia desconectada
+    private T gestionada(EntityManager em, T entity) {
+        if (em.contains(entity)) {
+            return entity;
+        }
+        Object id = em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+        return vigente(em.find(entityClass, id));
+    }
+
+    // Las entidades con borrado lógico redefinen este método para marcar deleted_at
+    protected void eliminar(EntityManager em, T entity) {
+        em.remove(entity);
+    }
+
     public T findById(Long id) {
         EntityManager em = getEntityManager();
         if (entityManager != null) {
 
-            return em.find(entityClass, id);
+            return vigente(em.find(entityClass, id));
         } else {
 
             try {
-                return em.find(entityClass, id);
+                return vigente(em.find(entityClass, id));
             } finally {
                 em.close();
             }
         }
     }
 
+    // find() busca por id sin pasar por los filtros de Hibernate
+    private T vigente(T entity) {
+        if (entity instanceof BorradoLogico && ((BorradoLogico) entity).isEliminado()) {
+            return null;
+        }
+        return entity;
+    }
+
     public Optional<T> findByIdOptional(Long id) {
         return Optional.ofNullable(findById(id));
     }
@@ -220,8 +256,6 @@ public abstract class BaseRepository<T> {
     }
 
     public static void closeEntityManagerFactory() {
-        if (emf != null && emf.isOpen()) {
-            emf.close();
-        }
+        Persistencia.cerrarCompartida();
     }
 }
\ No newline at end of file
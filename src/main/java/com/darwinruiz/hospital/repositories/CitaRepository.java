@@ -4,38 +4,132 @@ import com.darwinruiz.hospital.enums.EstadoCita;
 import com.darwinruiz.hospital.models.Cita;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.annotations.QueryHints;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class CitaRepository extends BaseRepository<Cita> {
+
+    // El literal 'PROGRAMADA' (y no un parámetro) permite al planificador usar los índices parciales
+    static final String JPQL_CONFLICTO_HORARIO =
+        "SELECT c.id FROM Cita c " +
+        "WHERE c.medico.id = ?1 " +
+        "AND c.fechaHora = ?2 " +
+        "AND c.estado = 'PROGRAMADA'";
+
+    static final String JPQL_CITAS_PROGRAMADAS_EN_RANGO =
+        "SELECT c FROM Cita c " +
+        "WHERE c.fechaHora >= ?1 AND c.fechaHora < ?2 " +
+        "AND c.estado = 'PROGRAMADA' " +
+        "ORDER BY c.fechaHora ASC";
+
+    // Las consultas por rango usan intervalos semiabiertos [inicio, fin) sobre fechaHora, que es la
+    // columna de partición de cita: con ambos límites el planificador descarta los meses fuera del rango
+    static final String JPQL_CITAS_EN_RANGO =
+        "SELECT c FROM Cita c " +
+        "WHERE c.fechaHora >= ?1 AND c.fechaHora < ?2 " +
+        "ORDER BY c.fechaHora ASC";
+
+    static final String JPQL_PROXIMAS_CITAS_POR_MEDICO =
+        "SELECT c FROM Cita c " +
+        "WHERE c.medico.id = ?1 AND c.fechaHora >= ?2 AND c.fechaHora < ?3 " +
+        "ORDER BY c.fechaHora ASC";
+
+    public static final int HORIZONTE_PROXIMAS_CITAS_MESES = 12;
+
+    // Las consultas por estado sin rango explícito buscan en [hoy - HISTORIAL_RECIENTE_MESES,
+    // hoy + HORIZONTE_PROXIMAS_CITAS_MESES]: sin límites en fechaHora recorrerían todas las particiones
+    public static final int HISTORIAL_RECIENTE_MESES = 12;
+
+    static final String JPQL_CITAS_POR_ESTADO_EN_RANGO =
+        "SELECT c FROM Cita c " +
+        "WHERE c.estado = ?1 AND c.fechaHora >= ?2 AND c.fechaHora < ?3 " +
+        "ORDER BY c.fechaHora ASC";
+
+    static final String JPQL_CITAS_EN_RANGO_DESC =
+        "SELECT c FROM Cita c " +
+        "WHERE c.fechaHora >= ?1 AND c.fechaHora < ?2 " +
+        "ORDER BY c.fechaHora DESC";
+
+    static final String JPQL_CITAS_POR_MEDICO_Y_ESTADO_EN_RANGO =
+        "SELECT c FROM Cita c " +
+        "WHERE c.medico.id = ?1 AND c.estado = ?2 AND c.fechaHora >= ?3 AND c.fechaHora < ?4 " +
+        "ORDER BY c.fechaHora ASC";
+
+    static final String JPQL_CITAS_POR_PACIENTE_Y_ESTADO_EN_RANGO =
+        "SELECT c FROM Cita c " +
+        "WHERE c.paciente.id = ?1 AND c.estado = ?2 AND c.fechaHora >= ?3 AND c.fechaHora < ?4 " +
+        "ORDER BY c.fechaHora DESC";
+
+    static final String JPQL_CONTEO_POR_ESTADO_EN_RANGO =
+        "SELECT COUNT(c) FROM Cita c WHERE c.estado = ?1 AND c.fechaHora >= ?2 AND c.fechaHora < ?3";
+
+    public static final int TAMANO_FETCH_STREAMING = 500;
+
+    // Cuenta en el índice parcial de citas programadas, sin cargar ninguna cita
+    static final String JPQL_PROXIMAS_PROGRAMADAS_POR_MEDICO =
+        "SELECT c.medico.id, COUNT(c) FROM Cita c " +
+        "WHERE c.fechaHora >= ?1 AND c.fechaHora < ?2 AND c.estado = 'PROGRAMADA' " +
+        "GROUP BY c.medico.id";
+
+    static final String JPQL_CONTEO_CITAS_POR_PACIENTE =
+        "SELECT c.paciente.id, COUNT(c) FROM Cita c GROUP BY c.paciente.id";
+
+    static final String JPQL_CONTEO_CITAS_POR_PACIENTE_Y_ESTADO =
+        "SELECT c.paciente.id, COUNT(c) FROM Cita c " +
+        "WHERE c.estado = ?1 AND c.fechaHora >= ?2 AND c.fechaHora < ?3 " +
+        "GROUP BY c.paciente.id";
+
+    static final String JPQL_CITAS_POR_PACIENTE =
+        "SELECT c FROM Cita c " +
+        "WHERE c.paciente.id = ?1 " +
+        "ORDER BY c.fechaHora DESC";
     
     public CitaRepository() {
         super(Cita.class);
     }
 
+    @Override
+    protected void eliminar(EntityManager em, Cita cita) {
+        EstadisticaCitaRepository estadisticas = new EstadisticaCitaRepository();
+        estadisticas.setEntityManager(em);
+        estadisticas.decrementar(cita.getFechaHora(), cita.getMedico(), cita.getEstado());
+        cita.setDeletedAt(LocalDateTime.now());
+    }
+
     public List<Cita> findByPacienteId(Long pacienteId) {
+        return findByPacienteId(pacienteId, PerfilCarga.CITA_COMPLETA);
+    }
+
+    public List<Cita> findByPacienteId(Long pacienteId, PerfilCarga perfil) {
         if (pacienteId == null) {
             return List.of();
         }
         
         EntityManager em = getEntityManager();
+        boolean shouldClose = (entityManager == null);
+        
         try {
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "WHERE p.id = ?1 " +
-                         "ORDER BY c.fechaHora DESC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_CITAS_POR_PACIENTE, perfil);
             query.setParameter(1, pacienteId);
             return query.getResultList();
         } finally {
-            em.close();
+            if (shouldClose) {
+                em.close();
+            }
         }
     }
 
     public List<Cita> findProximasCitasByMedicoId(Long medicoId) {
+        return findProximasCitasByMedicoId(medicoId, PerfilCarga.CITA_COMPLETA);
+    }
+
+    public List<Cita> findProximasCitasByMedicoId(Long medicoId, PerfilCarga perfil) {
         if (medicoId == null) {
             return List.of();
         }
@@ -43,14 +137,10 @@ public class CitaRepository extends BaseRepository<Cita> {
         EntityManager em = getEntityManager();
         try {
             LocalDateTime ahora = LocalDateTime.now();
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "WHERE m.id = ?1 AND c.fechaHora >= ?2 " +
-                         "ORDER BY c.fechaHora ASC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_PROXIMAS_CITAS_POR_MEDICO, perfil);
             query.setParameter(1, medicoId);
             query.setParameter(2, ahora);
+            query.setParameter(3, ahora.plusMonths(HORIZONTE_PROXIMAS_CITAS_MESES));
             return query.getResultList();
         } finally {
             em.close();
@@ -58,43 +148,62 @@ public class CitaRepository extends BaseRepository<Cita> {
     }
 
     public List<Cita> findByRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        return findByRangoFechas(fechaInicio, fechaFin, PerfilCarga.CITA_COMPLETA);
+    }
+
+    public List<Cita> findByRangoFechas(LocalDate fechaInicio, LocalDate fechaFin, PerfilCarga perfil) {
         if (fechaInicio == null || fechaFin == null) {
             return List.of();
         }
         
         EntityManager em = getEntityManager();
         try {
-            LocalDateTime inicioDateTime = fechaInicio.atStartOfDay();
-            LocalDateTime finDateTime = fechaFin.atTime(23, 59, 59);
-            
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "WHERE c.fechaHora BETWEEN ?1 AND ?2 " +
-                         "ORDER BY c.fechaHora ASC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
-            query.setParameter(1, inicioDateTime);
-            query.setParameter(2, finDateTime);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_CITAS_EN_RANGO, perfil);
+            query.setParameter(1, fechaInicio.atStartOfDay());
+            query.setParameter(2, fechaFin.plusDays(1).atStartOfDay());
             return query.getResultList();
         } finally {
             em.close();
         }
     }
 
+    // Requiere una transacción activa (PostgreSQL solo usa el cursor dentro de una); el llamador
+    // cierra el Stream antes que el EntityManager
+    public Stream<Cita> streamByRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            return Stream.empty();
+        }
+        if (entityManager == null || !entityManager.getTransaction().isActive()) {
+            throw new IllegalStateException("La lectura en streaming requiere un EntityManager con una transacción activa");
+        }
+
+        TypedQuery<Cita> query = crearConsulta(entityManager, JPQL_CITAS_EN_RANGO, PerfilCarga.CITA_COMPLETA);
+        query.setParameter(1, fechaInicio.atStartOfDay());
+        query.setParameter(2, fechaFin.plusDays(1).atStartOfDay());
+        query.setHint(QueryHints.FETCH_SIZE, TAMANO_FETCH_STREAMING);
+        query.setHint(QueryHints.READ_ONLY, true);
+        return query.getResultStream();
+    }
+
     public List<Cita> findByEstado(EstadoCita estado) {
-        if (estado == null) {
+        return findByEstado(estado, PerfilCarga.CITA_COMPLETA);
+    }
+
+    public List<Cita> findByEstado(EstadoCita estado, PerfilCarga perfil) {
+        return findByEstado(estado, inicioVentana(), finVentana(), perfil);
+    }
+
+    public List<Cita> findByEstado(EstadoCita estado, LocalDate fechaInicio, LocalDate fechaFin, PerfilCarga perfil) {
+        if (estado == null || fechaInicio == null || fechaFin == null) {
             return List.of();
         }
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "WHERE c.estado = ?1 " +
-                         "ORDER BY c.fechaHora ASC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_CITAS_POR_ESTADO_EN_RANGO, perfil);
             query.setParameter(1, estado);
+            query.setParameter(2, fechaInicio.atStartOfDay());
+            query.setParameter(3, fechaFin.plusDays(1).atStartOfDay());
             return query.getResultList();
         } finally {
             em.close();
@@ -110,10 +219,8 @@ public class CitaRepository extends BaseRepository<Cita> {
         boolean shouldClose = (entityManager == null);
         
         try {
-            String jpql = "SELECT COUNT(c) FROM Cita c " +
-                         "WHERE c.medico.id = ?1 " +
-                         "AND c.fechaHora = ?2 " +
-                         "AND c.estado = 'PROGRAMADA'";
+            // Basta con encontrar una fila: se resuelve con ix_cita_medico_fecha_programada sin contar
+            String jpql = JPQL_CONFLICTO_HORARIO;
             
             if (citaIdExcluir != null) {
                 jpql += " AND c.id != ?3";
@@ -126,8 +233,9 @@ public class CitaRepository extends BaseRepository<Cita> {
             if (citaIdExcluir != null) {
                 query.setParameter(3, citaIdExcluir);
             }
+            query.setMaxResults(1);
             
-            return query.getSingleResult() > 0;
+            return !query.getResultList().isEmpty();
         } finally {
             if (shouldClose) {
                 em.close();
@@ -140,13 +248,19 @@ public class CitaRepository extends BaseRepository<Cita> {
     }
 
     public List<Cita> findAllWithDetails() {
+        return findAllWithDetails(inicioVentana(), finVentana());
+    }
+
+    public List<Cita> findAllWithDetails(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            return List.of();
+        }
+
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "ORDER BY c.fechaHora DESC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_CITAS_EN_RANGO_DESC, PerfilCarga.CITA_COMPLETA);
+            query.setParameter(1, fechaInicio.atStartOfDay());
+            query.setParameter(2, fechaFin.plusDays(1).atStartOfDay());
             return query.getResultList();
         } finally {
             em.close();
@@ -154,20 +268,21 @@ public class CitaRepository extends BaseRepository<Cita> {
     }
 
     public List<Cita> findByMedicoIdAndEstado(Long medicoId, EstadoCita estado) {
-        if (medicoId == null || estado == null) {
+        return findByMedicoIdAndEstado(medicoId, estado, inicioVentana(), finVentana());
+    }
+
+    public List<Cita> findByMedicoIdAndEstado(Long medicoId, EstadoCita estado, LocalDate fechaInicio, LocalDate fechaFin) {
+        if (medicoId == null || estado == null || fechaInicio == null || fechaFin == null) {
             return List.of();
         }
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "WHERE m.id = ?1 AND c.estado = ?2 " +
-                         "ORDER BY c.fechaHora ASC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_CITAS_POR_MEDICO_Y_ESTADO_EN_RANGO, PerfilCarga.CITA_COMPLETA);
             query.setParameter(1, medicoId);
             query.setParameter(2, estado);
+            query.setParameter(3, fechaInicio.atStartOfDay());
+            query.setParameter(4, fechaFin.plusDays(1).atStartOfDay());
             return query.getResultList();
         } finally {
             em.close();
@@ -175,20 +290,21 @@ public class CitaRepository extends BaseRepository<Cita> {
     }
 
     public List<Cita> findByPacienteIdAndEstado(Long pacienteId, EstadoCita estado) {
-        if (pacienteId == null || estado == null) {
+        return findByPacienteIdAndEstado(pacienteId, estado, inicioVentana(), finVentana());
+    }
+
+    public List<Cita> findByPacienteIdAndEstado(Long pacienteId, EstadoCita estado, LocalDate fechaInicio, LocalDate fechaFin) {
+        if (pacienteId == null || estado == null || fechaInicio == null || fechaFin == null) {
             return List.of();
         }
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "WHERE p.id = ?1 AND c.estado = ?2 " +
-                         "ORDER BY c.fechaHora DESC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_CITAS_POR_PACIENTE_Y_ESTADO_EN_RANGO, PerfilCarga.CITA_COMPLETA);
             query.setParameter(1, pacienteId);
             query.setParameter(2, estado);
+            query.setParameter(3, fechaInicio.atStartOfDay());
+            query.setParameter(4, fechaFin.plusDays(1).atStartOfDay());
             return query.getResultList();
         } finally {
             em.close();
@@ -199,18 +315,9 @@ public class CitaRepository extends BaseRepository<Cita> {
         EntityManager em = getEntityManager();
         try {
             LocalDate hoy = LocalDate.now();
-            LocalDateTime inicioHoy = hoy.atStartOfDay();
-            LocalDateTime finHoy = hoy.atTime(23, 59, 59);
-            
-            String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
-                         "WHERE c.fechaHora BETWEEN ?1 AND ?2 " +
-                         "AND c.estado = 'PROGRAMADA' " +
-                         "ORDER BY c.fechaHora ASC";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
-            query.setParameter(1, inicioHoy);
-            query.setParameter(2, finHoy);
+            TypedQuery<Cita> query = crearConsulta(em, JPQL_CITAS_PROGRAMADAS_EN_RANGO, PerfilCarga.CITA_COMPLETA);
+            query.setParameter(1, hoy.atStartOfDay());
+            query.setParameter(2, hoy.plusDays(1).atStartOfDay());
             return query.getResultList();
         } finally {
             em.close();
@@ -218,21 +325,77 @@ public class CitaRepository extends BaseRepository<Cita> {
     }
 
     public long countByEstado(EstadoCita estado) {
-        if (estado == null) {
+        return countByEstado(estado, inicioVentana(), finVentana());
+    }
+
+    public long countByEstado(EstadoCita estado, LocalDate fechaInicio, LocalDate fechaFin) {
+        if (estado == null || fechaInicio == null || fechaFin == null) {
             return 0;
         }
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT COUNT(c) FROM Cita c WHERE c.estado = ?1";
-            TypedQuery<Long> query = em.createQuery(jpql, Long.class);
+            TypedQuery<Long> query = em.createQuery(JPQL_CONTEO_POR_ESTADO_EN_RANGO, Long.class);
             query.setParameter(1, estado);
+            query.setParameter(2, fechaInicio.atStartOfDay());
+            query.setParameter(3, fechaFin.plusDays(1).atStartOfDay());
             return query.getSingleResult();
         } finally {
             em.close();
         }
     }
 
+    public Map<Long, Long> contarProximasCitasProgramadasPorMedico() {
+        EntityManager em = getEntityManager();
+        try {
+            LocalDateTime ahora = LocalDateTime.now();
+            TypedQuery<Object[]> query = em.createQuery(JPQL_PROXIMAS_PROGRAMADAS_POR_MEDICO, Object[].class);
+            query.setParameter(1, ahora);
+            query.setParameter(2, ahora.plusMonths(HORIZONTE_PROXIMAS_CITAS_MESES));
+            Map<Long, Long> conteos = new HashMap<>();
+            for (Object[] fila : query.getResultList()) {
+                conteos.put((Long) fila[0], (Long) fila[1]);
+            }
+            return conteos;
+        } finally {
+            em.close();
+        }
+    }
+
+    public Map<Long, Long> contarCitasPorPaciente() {
+        EntityManager em = getEntityManager();
+        try {
+            return conteosPorId(em.createQuery(JPQL_CONTEO_CITAS_POR_PACIENTE, Object[].class).getResultList());
+        } finally {
+            em.close();
+        }
+    }
+
+    public Map<Long, Long> contarCitasPorPaciente(EstadoCita estado) {
+        return contarCitasPorPaciente(estado, inicioVentana(), finVentana());
+    }
+
+    public Map<Long, Long> contarCitasPorPaciente(EstadoCita estado, LocalDate fechaInicio, LocalDate fechaFin) {
+        EntityManager em = getEntityManager();
+        try {
+            TypedQuery<Object[]> query = em.createQuery(JPQL_CONTEO_CITAS_POR_PACIENTE_Y_ESTADO, Object[].class);
+            query.setParameter(1, estado);
+            query.setParameter(2, fechaInicio.atStartOfDay());
+            query.setParameter(3, fechaFin.plusDays(1).atStartOfDay());
+            return conteosPorId(query.getResultList());
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Map<Long, Long> conteosPorId(List<Object[]> filas) {
+        Map<Long, Long> conteos = new HashMap<>();
+        for (Object[] fila : filas) {
+            conteos.put((Long) fila[0], (Long) fila[1]);
+        }
+        return conteos;
+    }
+
     public Optional<Cita> findByIdWithDetails(Long id) {
         if (id == null) {
             return Optional.empty();
@@ -241,10 +404,8 @@ public class CitaRepository extends BaseRepository<Cita> {
         EntityManager em = getEntityManager();
         try {
             String jpql = "SELECT c FROM Cita c " +
-                         "JOIN FETCH c.paciente p " +
-                         "JOIN FETCH c.medico m " +
                          "WHERE c.id = ?1";
-            TypedQuery<Cita> query = em.createQuery(jpql, Cita.class);
+            TypedQuery<Cita> query = crearConsulta(em, jpql, PerfilCarga.CITA_COMPLETA);
             query.setParameter(1, id);
             List<Cita> results = query.getResultList();
             return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
@@ -252,4 +413,16 @@ public class CitaRepository extends BaseRepository<Cita> {
             em.close();
         }
     }
+
+    private static LocalDate inicioVentana() {
+        return LocalDate.now().minusMonths(HISTORIAL_RECIENTE_MESES);
+    }
+
+    private static LocalDate finVentana() {
+        return LocalDate.now().plusMonths(HORIZONTE_PROXIMAS_CITAS_MESES);
+    }
+
+    private TypedQuery<Cita> crearConsulta(EntityManager em, String jpql, PerfilCarga perfil) {
+        return perfil.aplicar(em, em.createQuery(jpql, Cita.class));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.darwinruiz.hospital.repositories;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.models.EstadisticaCitaDiaria;
+import com.darwinruiz.hospital.models.Medico;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Los conteos se modifican con el EntityManager de la transacción que modifica la cita, para que
+ * ambos se confirmen o se deshagan juntos.
+ */
+public class EstadisticaCitaRepository extends BaseRepository<EstadisticaCitaDiaria> {
+
+    // Las actualizaciones concurrentes del mismo día, médico y estado se serializan en el bloqueo de la fila
+    static final String SQL_INCREMENTAR =
+        "INSERT INTO estadistica_cita_diaria (dia, medico_id, estado, especialidad, total) " +
+        "VALUES (CAST(?1 AS DATE), ?2, ?3, ?4, ?5) " +
+        "ON CONFLICT (dia, medico_id, estado) " +
+        "DO UPDATE SET total = estadistica_cita_diaria.total + EXCLUDED.total";
+
+    static final String SQL_DECREMENTAR =
+        "UPDATE estadistica_cita_diaria SET total = total - ?4 " +
+        "WHERE dia = CAST(?1 AS DATE) AND medico_id = ?2 AND estado = ?3";
+
+    static final String SQL_DECREMENTAR_CITAS_DE_PACIENTES =
+        "UPDATE estadistica_cita_diaria e SET total = e.total - c.total " +
+        "FROM (SELECT CAST(fecha_hora AS DATE) AS dia, medico_id, estado, COUNT(*) AS total " +
+        "      FROM cita WHERE paciente_id IN (?1) AND deleted_at IS NULL " +
+        "      GROUP BY CAST(fecha_hora AS DATE), medico_id, estado) c " +
+        "WHERE e.dia = c.dia AND e.medico_id = c.medico_id AND e.estado = c.estado";
+
+    static final String JPQL_TOTAL_POR_ESTADO =
+        "SELECT e.estado, SUM(e.total) FROM EstadisticaCitaDiaria e " +
+        "WHERE e.dia >= ?1 AND e.dia <= ?2 " +
+        "GROUP BY e.estado";
+
+    static final String JPQL_TOTAL_POR_ESPECIALIDAD =
+        "SELECT e.especialidad, SUM(e.total) FROM EstadisticaCitaDiaria e " +
+        "WHERE e.dia >= ?1 AND e.dia <= ?2 " +
+        "GROUP BY e.especialidad";
+
+    static final String JPQL_TOTAL_POR_MEDICO =
+        "SELECT e.medicoId, SUM(e.total) FROM EstadisticaCitaDiaria e " +
+        "WHERE e.dia >= ?1 AND e.dia <= ?2 " +
+        "GROUP BY e.medicoId";
+
+    public EstadisticaCitaRepository() {
+        super(EstadisticaCitaDiaria.class);
+    }
+
+    public void incrementar(LocalDateTime fechaHora, Medico medico, EstadoCita estado) {
+        transaccionActiva().createNativeQuery(SQL_INCREMENTAR)
+            .setParameter(1, fechaHora.toLocalDate().toString())
+            .setParameter(2, medico.getId())
+            .setParameter(3, estado.name())
+            .setParameter(4, medico.getEspecialidad().name())
+            .setParameter(5, 1L)
+            .executeUpdate();
+    }
+
+    public void decrementar(LocalDateTime fechaHora, Medico medico, EstadoCita estado) {
+        transaccionActiva().createNativeQuery(SQL_DECREMENTAR)
+            .setParameter(1, fechaHora.toLocalDate().toString())
+            .setParameter(2, medico.getId())
+            .setParameter(3, estado.name())
+            .setParameter(4, 1L)
+            .executeUpdate();
+    }
+
+    // Debe ejecutarse antes de marcar o borrar las citas
+    public int decrementarCitasDePaciente(Long pacienteId) {
+        return decrementarCitasDePacientes(List.of(pacienteId));
+    }
+
+    public int decrementarCitasDePacientes(Collection<Long> pacienteIds) {
+        return transaccionActiva().createNativeQuery(SQL_DECREMENTAR_CITAS_DE_PACIENTES)
+            .setParameter(1, pacienteIds)
+            .executeUpdate();
+    }
+
+    public Map<EstadoCita, Long> totalPorEstado(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<EstadoCita, Long> totales = new EnumMap<>(EstadoCita.class);
+        for (Object[] fila : consultarTotales(JPQL_TOTAL_POR_ESTADO, fechaInicio, fechaFin)) {
+            totales.put((EstadoCita) fila[0], ((Number) fila[1]).longValue());
+        }
+        return totales;
+    }
+
+    public Map<Especialidad, Long> totalPorEspecialidad(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<Especialidad, Long> totales = new EnumMap<>(Especialidad.class);
+        for (Object[] fila : consultarTotales(JPQL_TOTAL_POR_ESPECIALIDAD, fechaInicio, fechaFin)) {
+            totales.put((Especialidad) fila[0], ((Number) fila[1]).longValue());
+        }
+        return totales;
+    }
+
+    public Map<Long, Long> totalPorMedico(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<Long, Long> totales = new HashMap<>();
+        for (Object[] fila : consultarTotales(JPQL_TOTAL_POR_MEDICO, fechaInicio, fechaFin)) {
+            totales.put((Long) fila[0], ((Number) fila[1]).longValue());
+        }
+        return totales;
+    }
+
+    private List<Object[]> consultarTotales(String jpql, LocalDate fechaInicio, LocalDate fechaFin) {
+        EntityManager em = getEntityManager();
+        boolean shouldClose = (entityManager == null);
+        try {
+            return em.createQuery(jpql, Object[].class)
+                .setParameter(1, fechaInicio)
+                .setParameter(2, fechaFin)
+                .getResultList();
+        } finally {
+            if (shouldClose) {
+                em.close();
+            }
+        }
+    }
+
+    private EntityManager transaccionActiva() {
+        if (entityManager == null || !entityManager.getTransaction().isActive()) {
+            throw new IllegalStateException("Las estadísticas de citas se actualizan dentro de la transacción de la cita");
+        }
+        return entityManager;
+    }
+}
@@ -22,7 +22,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
         boolean shouldClose = (entityManager == null);
         
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE p.id = ?1";
             TypedQuery<HistorialMedico> query = em.createQuery(jpql, HistorialMedico.class);
@@ -60,7 +60,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
     public List<HistorialMedico> findAllWithPaciente() {
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "ORDER BY p.nombre";
             TypedQuery<HistorialMedico> query = em.createQuery(jpql, HistorialMedico.class);
@@ -77,7 +77,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE LOWER(h.alergias) LIKE LOWER(?1) " +
                          "ORDER BY p.nombre";
@@ -96,7 +96,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE LOWER(h.antecedentes) LIKE LOWER(?1) " +
                          "ORDER BY p.nombre";
@@ -115,7 +115,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE LOWER(h.observaciones) LIKE LOWER(?1) " +
                          "ORDER BY p.nombre";
@@ -130,7 +130,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
     public List<HistorialMedico> findHistorialesConInformacion() {
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE (h.alergias IS NOT NULL AND TRIM(h.alergias) != '') " +
                          "OR (h.antecedentes IS NOT NULL AND TRIM(h.antecedentes) != '') " +
@@ -146,7 +146,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
     public List<HistorialMedico> findHistorialesVacios() {
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE (h.alergias IS NULL OR TRIM(h.alergias) = '') " +
                          "AND (h.antecedentes IS NULL OR TRIM(h.antecedentes) = '') " +
@@ -180,7 +180,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE h.id = ?1";
             TypedQuery<HistorialMedico> query = em.createQuery(jpql, HistorialMedico.class);
@@ -199,7 +199,7 @@ public class HistorialMedicoRepository extends BaseRepository<HistorialMedico> {
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT h FROM HistorialMedico h " +
+            String jpql = "SELECT h FROM HistorialMedico h FETCH ALL PROPERTIES " +
                          "JOIN FETCH h.paciente p " +
                          "WHERE p.dpi = ?1";
             TypedQuery<HistorialMedico> query = em.createQuery(jpql, HistorialMedico.class);
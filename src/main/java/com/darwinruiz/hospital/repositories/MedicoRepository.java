@@ -9,11 +9,31 @@ import java.util.List;
 import java.util.Optional;
 
 public class MedicoRepository extends BaseRepository<Medico> {
+
+    // NOT EXISTS correlacionado: cada médico se resuelve con una búsqueda en ix_cita_medico_fecha_programada
+    static final String JPQL_DISPONIBLES_EN_FECHA_HORA =
+        "SELECT m FROM Medico m " +
+        "WHERE NOT EXISTS (" +
+        "  SELECT c.id FROM Cita c " +
+        "  WHERE c.medico = m AND c.fechaHora = ?1 AND c.estado = 'PROGRAMADA'" +
+        ") ORDER BY m.nombre";
+
+    // El filtro va en el ON para no descartar médicos cuyas citas no estén programadas
+    static final String JPQL_ORDENADOS_POR_CITAS_PROGRAMADAS =
+        "SELECT m FROM Medico m " +
+        "LEFT JOIN m.citas c ON c.estado = 'PROGRAMADA' " +
+        "GROUP BY m.id, m.nombre, m.colegiado, m.especialidad, m.email " +
+        "ORDER BY COUNT(c) DESC, m.nombre";
     
     public MedicoRepository() {
         super(Medico.class);
     }
 
+    @Override
+    protected void eliminar(EntityManager em, Medico medico) {
+        medico.setDeletedAt(LocalDateTime.now());
+    }
+
     public Optional<Medico> findByColegiado(String colegiado) {
         if (colegiado == null || colegiado.trim().isEmpty()) {
             return Optional.empty();
@@ -39,6 +59,25 @@ public class MedicoRepository extends BaseRepository<Medico> {
         }
     }
 
+    public boolean tieneCitas(Long medicoId) {
+        if (medicoId == null) {
+            return false;
+        }
+
+        EntityManager em = getEntityManager();
+        try {
+            String jpql = "SELECT c.id FROM Cita c WHERE c.medico.id = ?1";
+            TypedQuery<Long> query = em.createQuery(jpql, Long.class);
+            query.setParameter(1, medicoId);
+            query.setMaxResults(1);
+            return !query.getResultList().isEmpty();
+        } finally {
+            if (entityManager == null) {
+                em.close();
+            }
+        }
+    }
+
     public List<Medico> findByEspecialidad(Especialidad especialidad) {
         if (especialidad == null) {
             return List.of();
@@ -66,20 +105,9 @@ public class MedicoRepository extends BaseRepository<Medico> {
         return executeSingleResultQuery(jpql, email.trim());
     }
 
+    // No trae las citas: el conteo sale de CitaRepository en una sola consulta
     public List<Medico> findAllWithProximasCitas() {
-        EntityManager em = getEntityManager();
-        try {
-            LocalDateTime ahora = LocalDateTime.now();
-            String jpql = "SELECT DISTINCT m FROM Medico m " +
-                         "LEFT JOIN FETCH m.citas c " +
-                         "WHERE c.fechaHora >= ?1 OR c IS NULL " +
-                         "ORDER BY m.nombre";
-            TypedQuery<Medico> query = em.createQuery(jpql, Medico.class);
-            query.setParameter(1, ahora);
-            return query.getResultList();
-        } finally {
-            em.close();
-        }
+        return executeQuery("SELECT m FROM Medico m ORDER BY m.nombre");
     }
 
     public Optional<Medico> findByIdWithCitas(Long id) {
@@ -126,12 +154,7 @@ public class MedicoRepository extends BaseRepository<Medico> {
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT m FROM Medico m " +
-                         "WHERE m.id NOT IN (" +
-                         "  SELECT c.medico.id FROM Cita c " +
-                         "  WHERE c.fechaHora = ?1 AND c.estado = 'PROGRAMADA'" +
-                         ") ORDER BY m.nombre";
-            TypedQuery<Medico> query = em.createQuery(jpql, Medico.class);
+            TypedQuery<Medico> query = em.createQuery(JPQL_DISPONIBLES_EN_FECHA_HORA, Medico.class);
             query.setParameter(1, fechaHora);
             return query.getResultList();
         } finally {
@@ -158,12 +181,7 @@ public class MedicoRepository extends BaseRepository<Medico> {
     public List<Medico> findMedicosOrderByCitasProgramadas() {
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT m FROM Medico m " +
-                         "LEFT JOIN m.citas c " +
-                         "WHERE c.estado = 'PROGRAMADA' OR c IS NULL " +
-                         "GROUP BY m.id, m.nombre, m.colegiado, m.especialidad, m.email " +
-                         "ORDER BY COUNT(c) DESC, m.nombre";
-            TypedQuery<Medico> query = em.createQuery(jpql, Medico.class);
+            TypedQuery<Medico> query = em.createQuery(JPQL_ORDENADOS_POR_CITAS_PROGRAMADAS, Medico.class);
             return query.getResultList();
         } finally {
             em.close();
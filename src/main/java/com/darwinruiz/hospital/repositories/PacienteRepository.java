@@ -3,6 +3,8 @@ package com.darwinruiz.hospital.repositories;
 import com.darwinruiz.hospital.models.Paciente;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +14,16 @@ public class PacienteRepository extends BaseRepository<Paciente> {
         super(Paciente.class);
     }
 
+    @Override
+    protected void eliminar(EntityManager em, Paciente paciente) {
+        EstadisticaCitaRepository estadisticas = new EstadisticaCitaRepository();
+        estadisticas.setEntityManager(em);
+        estadisticas.decrementarCitasDePaciente(paciente.getId());
+        LocalDateTime eliminadoEn = LocalDateTime.now();
+        marcarCitasEliminadas(em, List.of(paciente.getId()), eliminadoEn);
+        paciente.setDeletedAt(eliminadoEn);
+    }
+
     public Optional<Paciente> findByDpi(String dpi) {
         if (dpi == null || dpi.trim().isEmpty()) {
             return Optional.empty();
@@ -89,7 +101,7 @@ public class PacienteRepository extends BaseRepository<Paciente> {
         
         EntityManager em = getEntityManager();
         try {
-            String jpql = "SELECT p FROM Paciente p LEFT JOIN FETCH p.historialMedico WHERE p.id = ?1";
+            String jpql = "SELECT p FROM Paciente p LEFT JOIN FETCH p.historialMedico h FETCH ALL PROPERTIES WHERE p.id = ?1";
             TypedQuery<Paciente> query = em.createQuery(jpql, Paciente.class);
             query.setParameter(1, id);
             List<Paciente> results = query.getResultList();
@@ -108,7 +120,7 @@ public class PacienteRepository extends BaseRepository<Paciente> {
         try {
             String jpql = "SELECT p FROM Paciente p " +
                          "LEFT JOIN FETCH p.citas c " +
-                         "LEFT JOIN FETCH p.historialMedico " +
+                         "LEFT JOIN FETCH p.historialMedico h FETCH ALL PROPERTIES " +
                          "WHERE p.id = ?1";
             TypedQuery<Paciente> query = em.createQuery(jpql, Paciente.class);
             query.setParameter(1, id);
@@ -143,4 +155,29 @@ public class PacienteRepository extends BaseRepository<Paciente> {
             em.close();
         }
     }
-}
\ No newline at end of file
+
+    // Las estadísticas de citas se descuentan antes; el historial se conserva hasta la purga
+    public int marcarEliminados(Collection<Long> pacienteIds, LocalDateTime eliminadoEn) {
+        if (pacienteIds == null || pacienteIds.isEmpty()) {
+            return 0;
+        }
+        if (entityManager == null || !entityManager.getTransaction().isActive()) {
+            throw new IllegalStateException("El borrado en bloque requiere una transacción activa");
+        }
+
+        marcarCitasEliminadas(entityManager, pacienteIds, eliminadoEn);
+        return entityManager.createQuery("UPDATE Paciente p SET p.deletedAt = ?2 " +
+                "WHERE p.id IN ?1 AND p.deletedAt IS NULL")
+            .setParameter(1, pacienteIds)
+            .setParameter(2, eliminadoEn)
+            .executeUpdate();
+    }
+
+    private static void marcarCitasEliminadas(EntityManager em, Collection<Long> pacienteIds, LocalDateTime eliminadoEn) {
+        em.createQuery("UPDATE Cita c SET c.deletedAt = ?2 " +
+                "WHERE c.paciente.id IN ?1 AND c.deletedAt IS NULL")
+            .setParameter(1, pacienteIds)
+            .setParameter(2, eliminadoEn)
+            .executeUpdate();
+    }
+}
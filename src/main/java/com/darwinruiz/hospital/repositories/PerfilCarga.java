@@ -0,0 +1,31 @@
+package com.darwinruiz.hospital.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.graph.GraphSemantic;
+
+/**
+ * Grafo de carga de las citas según la pantalla que las pide; se aplica como fetch graph, así que lo
+ * que no está en el grafo queda como referencia sin inicializar.
+ */
+public enum PerfilCarga {
+
+    CITA_RESUMEN("cita-summary"),
+    CITA_COMPLETA("cita-full"),
+    MEDICO_AGENDA("medico-agenda"),
+    PACIENTE_CRONOLOGIA("paciente-timeline");
+
+    private final String grafo;
+
+    PerfilCarga(String grafo) {
+        this.grafo = grafo;
+    }
+
+    public String getGrafo() {
+        return grafo;
+    }
+
+    <T> TypedQuery<T> aplicar(EntityManager em, TypedQuery<T> query) {
+        return query.setHint(GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph(grafo));
+    }
+}
@@ -1,5 +1,8 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.archivo.ArchivoCitas;
+import com.darwinruiz.hospital.archivo.RegistroCitaArchivada;
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.enums.EstadoCita;
 import com.darwinruiz.hospital.exceptions.CitaConflictoHorarioException;
 import com.darwinruiz.hospital.exceptions.FechaInvalidaException;
@@ -7,16 +10,27 @@ import com.darwinruiz.hospital.models.Cita;
 import com.darwinruiz.hospital.models.Medico;
 import com.darwinruiz.hospital.models.Paciente;
 import com.darwinruiz.hospital.repositories.CitaRepository;
+import com.darwinruiz.hospital.repositories.EstadisticaCitaRepository;
 import com.darwinruiz.hospital.repositories.MedicoRepository;
 import com.darwinruiz.hospital.repositories.PacienteRepository;
+import com.darwinruiz.hospital.repositories.PerfilCarga;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 public class CitaService {
@@ -24,20 +38,30 @@ public class CitaService {
     private final CitaRepository citaRepository;
     private final PacienteRepository pacienteRepository;
     private final MedicoRepository medicoRepository;
+    private final EstadisticaCitaRepository estadisticaRepository;
     private final EntityManagerFactory emf;
+    private final ArchivoCitas archivoCitas;
     
     public CitaService() {
-        this.emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        this.emf = Persistencia.compartida();
         this.citaRepository = new CitaRepository();
         this.pacienteRepository = new PacienteRepository();
         this.medicoRepository = new MedicoRepository();
+        this.estadisticaRepository = new EstadisticaCitaRepository();
+        this.archivoCitas = new ArchivoCitas(ArchivoCitas.directorioPorDefecto());
     }
     
     public CitaService(EntityManagerFactory emf) {
+        this(emf, new ArchivoCitas(ArchivoCitas.directorioPorDefecto()));
+    }
+
+    public CitaService(EntityManagerFactory emf, ArchivoCitas archivoCitas) {
         this.emf = emf;
         this.citaRepository = new CitaRepository();
         this.pacienteRepository = new PacienteRepository();
         this.medicoRepository = new MedicoRepository();
+        this.estadisticaRepository = new EstadisticaCitaRepository();
+        this.archivoCitas = archivoCitas;
     }
 
     public Cita agendarCita(Long pacienteId, Long medicoId, LocalDateTime fechaHora, String motivo) {
@@ -49,25 +73,7 @@ public class CitaService {
         try {
             em.getTransaction().begin();
 
-            citaRepository.setEntityManager(em);
-            pacienteRepository.setEntityManager(em);
-            medicoRepository.setEntityManager(em);
-
-            Paciente paciente = pacienteRepository.findById(pacienteId);
-            if (paciente == null) {
-                throw new RuntimeException("No se encontró el paciente con ID: " + pacienteId);
-            }
-            
-            Medico medico = medicoRepository.findById(medicoId);
-            if (medico == null) {
-                throw new RuntimeException("No se encontró el médico con ID: " + medicoId);
-            }
-
-            validarConflictoHorarios(medicoId, fechaHora, null);
-
-            Cita cita = new Cita(fechaHora, motivo, paciente, medico);
-
-            citaRepository.persist(cita);
+            Cita cita = persistirCita(em, pacienteId, medicoId, fechaHora, motivo);
             
             em.getTransaction().commit();
             return cita;
@@ -80,6 +86,40 @@ public class CitaService {
         }
     }
 
+    // El conflicto se comprueba en el EntityManager del llamador: detecta las citas aún no confirmadas
+    public Cita agendarCita(EntityManager em, Long pacienteId, Long medicoId, LocalDateTime fechaHora, String motivo) {
+        validarDatosBasicos(pacienteId, medicoId, fechaHora);
+
+        validarFechaFutura(fechaHora);
+
+        return persistirCita(em, pacienteId, medicoId, fechaHora, motivo);
+    }
+
+    private Cita persistirCita(EntityManager em, Long pacienteId, Long medicoId, LocalDateTime fechaHora, String motivo) {
+        citaRepository.setEntityManager(em);
+        pacienteRepository.setEntityManager(em);
+        medicoRepository.setEntityManager(em);
+        estadisticaRepository.setEntityManager(em);
+
+        Paciente paciente = pacienteRepository.findById(pacienteId);
+        if (paciente == null) {
+            throw new RuntimeException("No se encontró el paciente con ID: " + pacienteId);
+        }
+        
+        Medico medico = medicoRepository.findById(medicoId);
+        if (medico == null) {
+            throw new RuntimeException("No se encontró el médico con ID: " + medicoId);
+        }
+
+        validarConflictoHorarios(medicoId, fechaHora, null);
+
+        Cita cita = new Cita(fechaHora, motivo, paciente, medico);
+
+        citaRepository.persist(cita);
+        estadisticaRepository.incrementar(fechaHora, medico, EstadoCita.PROGRAMADA);
+        return cita;
+    }
+
     public Cita cambiarEstadoCita(Long citaId, EstadoCita nuevoEstado) {
         if (citaId == null) {
             throw new IllegalArgumentException("El ID de la cita no puede ser nulo");
@@ -92,16 +132,7 @@ public class CitaService {
         try {
             em.getTransaction().begin();
             
-            citaRepository.setEntityManager(em);
-            Cita cita = citaRepository.findById(citaId);
-            
-            if (cita == null) {
-                throw new RuntimeException("No se encontró la cita con ID: " + citaId);
-            }
-
-            cita.cambiarEstado(nuevoEstado);
-            
-            Cita citaActualizada = citaRepository.merge(cita);
+            Cita citaActualizada = aplicarCambioEstado(em, citaId, nuevoEstado);
             em.getTransaction().commit();
             
             return citaActualizada;
@@ -114,7 +145,42 @@ public class CitaService {
         }
     }
 
+    public Cita cambiarEstadoCita(EntityManager em, Long citaId, EstadoCita nuevoEstado) {
+        if (citaId == null) {
+            throw new IllegalArgumentException("El ID de la cita no puede ser nulo");
+        }
+        if (nuevoEstado == null) {
+            throw new IllegalArgumentException("El nuevo estado no puede ser nulo");
+        }
+
+        return aplicarCambioEstado(em, citaId, nuevoEstado);
+    }
+
+    private Cita aplicarCambioEstado(EntityManager em, Long citaId, EstadoCita nuevoEstado) {
+        citaRepository.setEntityManager(em);
+        Cita cita = citaRepository.findById(citaId);
+        
+        if (cita == null) {
+            throw new RuntimeException("No se encontró la cita con ID: " + citaId);
+        }
+
+        EstadoCita estadoAnterior = cita.getEstado();
+        cita.cambiarEstado(nuevoEstado);
+
+        if (estadoAnterior != nuevoEstado) {
+            estadisticaRepository.setEntityManager(em);
+            estadisticaRepository.decrementar(cita.getFechaHora(), cita.getMedico(), estadoAnterior);
+            estadisticaRepository.incrementar(cita.getFechaHora(), cita.getMedico(), nuevoEstado);
+        }
+        
+        return citaRepository.merge(cita);
+    }
+
     public List<Cita> listarCitasPorPaciente(Long pacienteId) {
+        return listarCitasPorPaciente(pacienteId, PerfilCarga.CITA_COMPLETA);
+    }
+
+    public List<Cita> listarCitasPorPaciente(Long pacienteId, PerfilCarga perfil) {
         if (pacienteId == null) {
             return List.of();
         }
@@ -122,13 +188,80 @@ public class CitaService {
         EntityManager em = emf.createEntityManager();
         try {
             citaRepository.setEntityManager(em);
-            return citaRepository.findByPacienteId(pacienteId);
+            return citaRepository.findByPacienteId(pacienteId, perfil);
+        } finally {
+            em.close();
+        }
+    }
+
+    public List<Cita> listarCitasPorPaciente(EntityManager em, Long pacienteId) {
+        if (pacienteId == null) {
+            return List.of();
+        }
+
+        citaRepository.setEntityManager(em);
+        return citaRepository.findByPacienteId(pacienteId, PerfilCarga.CITA_RESUMEN);
+    }
+
+    // Las citas archivadas cuyo médico ya no existe se omiten
+    public List<Cita> listarCitasPorPaciente(Long pacienteId, boolean incluirArchivo) {
+        return listarCitasPorPaciente(pacienteId, incluirArchivo, PerfilCarga.CITA_COMPLETA);
+    }
+
+    public List<Cita> listarCitasPorPaciente(Long pacienteId, boolean incluirArchivo, PerfilCarga perfil) {
+        List<Cita> citas = listarCitasPorPaciente(pacienteId, perfil);
+        if (!incluirArchivo || pacienteId == null) {
+            return citas;
+        }
+
+        List<RegistroCitaArchivada> archivadas = archivoCitas.leerPorPaciente(pacienteId);
+        if (archivadas.isEmpty()) {
+            return citas;
+        }
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            // El repositorio activa el filtro de borrado lógico en em: un paciente o médico eliminado no se devuelve
+            pacienteRepository.setEntityManager(em);
+            Paciente paciente = pacienteRepository.findById(pacienteId);
+            if (paciente == null) {
+                return citas;
+            }
+
+            Set<Long> medicoIds = new HashSet<>();
+            for (RegistroCitaArchivada registro : archivadas) {
+                medicoIds.add(registro.medicoId());
+            }
+            Map<Long, Medico> medicos = em.createQuery("SELECT m FROM Medico m WHERE m.id IN ?1", Medico.class)
+                .setParameter(1, medicoIds)
+                .getResultStream()
+                .collect(Collectors.toMap(Medico::getId, Function.identity()));
+
+            Set<Long> idsEnBaseDeDatos = new HashSet<>();
+            for (Cita cita : citas) {
+                idsEnBaseDeDatos.add(cita.getId());
+            }
+
+            List<Cita> historial = new ArrayList<>(citas);
+            for (RegistroCitaArchivada registro : archivadas) {
+                Medico medico = medicos.get(registro.medicoId());
+                if (medico != null && !idsEnBaseDeDatos.contains(registro.id())) {
+                    historial.add(Cita.desdeArchivo(registro.id(), registro.fechaHora(), registro.estado(),
+                        registro.motivo(), paciente, medico));
+                }
+            }
+            historial.sort(Comparator.comparing(Cita::getFechaHora).reversed());
+            return historial;
         } finally {
             em.close();
         }
     }
 
     public List<Cita> listarProximasCitasPorMedico(Long medicoId) {
+        return listarProximasCitasPorMedico(medicoId, PerfilCarga.CITA_COMPLETA);
+    }
+
+    public List<Cita> listarProximasCitasPorMedico(Long medicoId, PerfilCarga perfil) {
         if (medicoId == null) {
             return List.of();
         }
@@ -136,7 +269,37 @@ public class CitaService {
         EntityManager em = emf.createEntityManager();
         try {
             citaRepository.setEntityManager(em);
-            return citaRepository.findProximasCitasByMedicoId(medicoId);
+            return citaRepository.findProximasCitasByMedicoId(medicoId, perfil);
+        } finally {
+            em.close();
+        }
+    }
+
+    public Map<Long, Long> contarProximasCitasProgramadasPorMedico() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            citaRepository.setEntityManager(em);
+            return citaRepository.contarProximasCitasProgramadasPorMedico();
+        } finally {
+            em.close();
+        }
+    }
+
+    public Map<Long, Long> contarCitasPorPaciente() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            citaRepository.setEntityManager(em);
+            return citaRepository.contarCitasPorPaciente();
+        } finally {
+            em.close();
+        }
+    }
+
+    public Map<Long, Long> contarCitasPorPaciente(EstadoCita estado) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            citaRepository.setEntityManager(em);
+            return citaRepository.contarCitasPorPaciente(estado);
         } finally {
             em.close();
         }
@@ -160,6 +323,42 @@ public class CitaService {
         }
     }
 
+    // El contexto de persistencia se limpia cada TAMANO_FETCH_STREAMING citas para no retenerlas todas
+    public long recorrerCitasPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin, Consumer<Cita> consumidor) {
+        if (fechaInicio == null || fechaFin == null) {
+            return 0;
+        }
+
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            citaRepository.setEntityManager(em);
+            long total = 0;
+            try (Stream<Cita> citas = citaRepository.streamByRangoFechas(fechaInicio, fechaFin)) {
+                Iterator<Cita> iterador = citas.iterator();
+                while (iterador.hasNext()) {
+                    consumidor.accept(iterador.next());
+                    if (++total % CitaRepository.TAMANO_FETCH_STREAMING == 0) {
+                        em.clear();
+                    }
+                }
+            }
+            em.getTransaction().commit();
+            return total;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al recorrer citas: " + e.getMessage(), e);
+        } finally {
+            em.close();
+        }
+    }
+
     public boolean eliminarCita(Long citaId) {
         if (citaId == null) {
             return false;
@@ -173,7 +372,9 @@ public class CitaService {
             Cita cita = citaRepository.findById(citaId);
             
             if (cita != null) {
-                citaRepository.remove(cita);
+                estadisticaRepository.setEntityManager(em);
+                estadisticaRepository.decrementar(cita.getFechaHora(), cita.getMedico(), cita.getEstado());
+                cita.setDeletedAt(LocalDateTime.now());
                 em.getTransaction().commit();
                 return true;
             }
@@ -253,6 +454,11 @@ public class CitaService {
 
             if (nuevaFechaHora != null && !nuevaFechaHora.equals(cita.getFechaHora())) {
                 validarConflictoHorarios(cita.getMedico().getId(), nuevaFechaHora, citaId);
+                if (!nuevaFechaHora.toLocalDate().equals(cita.getFechaHora().toLocalDate())) {
+                    estadisticaRepository.setEntityManager(em);
+                    estadisticaRepository.decrementar(cita.getFechaHora(), cita.getMedico(), cita.getEstado());
+                    estadisticaRepository.incrementar(nuevaFechaHora, cita.getMedico(), cita.getEstado());
+                }
                 cita.setFechaHora(nuevaFechaHora);
             }
             
@@ -0,0 +1,84 @@
+package com.darwinruiz.hospital.services;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.repositories.EstadisticaCitaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Reportes a partir de estadistica_cita_diaria: los conteos incluyen las citas archivadas.
+ */
+public class EstadisticaCitaService {
+
+    private final EstadisticaCitaRepository estadisticaRepository;
+    private final EntityManagerFactory emf;
+
+    public record ResumenCitas(long programadas, long atendidas, long canceladas) {
+
+        public long total() {
+            return programadas + atendidas + canceladas;
+        }
+    }
+
+    public EstadisticaCitaService(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.estadisticaRepository = new EstadisticaCitaRepository();
+    }
+
+    public ResumenCitas resumenPorRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<EstadoCita, Long> totales = contarPorEstado(fechaInicio, fechaFin);
+        return new ResumenCitas(
+            totales.getOrDefault(EstadoCita.PROGRAMADA, 0L),
+            totales.getOrDefault(EstadoCita.ATENDIDA, 0L),
+            totales.getOrDefault(EstadoCita.CANCELADA, 0L));
+    }
+
+    public Map<EstadoCita, Long> contarPorEstado(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRango(fechaInicio, fechaFin);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            estadisticaRepository.setEntityManager(em);
+            return estadisticaRepository.totalPorEstado(fechaInicio, fechaFin);
+        } finally {
+            em.close();
+        }
+    }
+
+    public Map<Especialidad, Long> contarPorEspecialidad(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRango(fechaInicio, fechaFin);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            estadisticaRepository.setEntityManager(em);
+            return estadisticaRepository.totalPorEspecialidad(fechaInicio, fechaFin);
+        } finally {
+            em.close();
+        }
+    }
+
+    public Map<Long, Long> contarPorMedico(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRango(fechaInicio, fechaFin);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            estadisticaRepository.setEntityManager(em);
+            return estadisticaRepository.totalPorMedico(fechaInicio, fechaFin);
+        } finally {
+            em.close();
+        }
+    }
+
+    private void validarRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new IllegalArgumentException("Las fechas del rango no pueden ser nulas");
+        }
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.models.HistorialMedico;
 import com.darwinruiz.hospital.models.Paciente;
 import com.darwinruiz.hospital.repositories.HistorialMedicoRepository;
 import com.darwinruiz.hospital.repositories.PacienteRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 
 import java.util.Optional;
 
@@ -17,7 +17,7 @@ public class HistorialMedicoService {
     private final EntityManagerFactory emf;
     
     public HistorialMedicoService() {
-        this.emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        this.emf = Persistencia.compartida();
         this.historialRepository = new HistorialMedicoRepository();
         this.pacienteRepository = new PacienteRepository();
     }
@@ -75,7 +75,8 @@ public class HistorialMedicoService {
 
             historialRepository.setEntityManager(em);
 
-            Optional<HistorialMedico> historialOpt = historialRepository.findByPacienteId(pacienteId);
+            // El historial comparte id con el paciente; se carga sin los textos, que se reemplazan
+            Optional<HistorialMedico> historialOpt = historialRepository.findByIdOptional(pacienteId);
             if (historialOpt.isEmpty()) {
                 throw new RuntimeException("No se encontró historial médico para el paciente con ID: " + pacienteId);
             }
@@ -158,7 +159,7 @@ public class HistorialMedicoService {
             em.getTransaction().begin();
             
             historialRepository.setEntityManager(em);
-            Optional<HistorialMedico> historialOpt = historialRepository.findByPacienteId(pacienteId);
+            Optional<HistorialMedico> historialOpt = historialRepository.findByIdOptional(pacienteId);
             
             if (historialOpt.isPresent()) {
                 historialRepository.remove(historialOpt.get());
@@ -1,17 +1,20 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.enums.Especialidad;
 import com.darwinruiz.hospital.exceptions.EmailInvalidoException;
 import com.darwinruiz.hospital.exceptions.MedicoYaExisteException;
+import com.darwinruiz.hospital.exceptions.ValidacionException;
 import com.darwinruiz.hospital.models.Medico;
 import com.darwinruiz.hospital.repositories.MedicoRepository;
+import com.darwinruiz.hospital.validacion.EmailValido;
+import com.darwinruiz.hospital.validacion.Validador;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 
 public class MedicoService {
@@ -19,11 +22,8 @@ public class MedicoService {
     private final MedicoRepository medicoRepository;
     private final EntityManagerFactory emf;
 
-    private static final Pattern EMAIL_PATTERN = 
-        Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
-    
     public MedicoService() {
-        this.emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        this.emf = Persistencia.compartida();
         this.medicoRepository = new MedicoRepository();
     }
     
@@ -33,21 +33,15 @@ public class MedicoService {
     }
 
     public Medico registrarMedico(String nombre, String colegiado, Especialidad especialidad, String email) {
-
-        validarDatosBasicos(nombre, colegiado, especialidad, email);
+        Medico medico = crearMedico(nombre, colegiado, especialidad, email);
 
         validarColegiadoUnico(colegiado);
-
-        validarFormatoEmail(email);
         
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
 
-            Medico medico = new Medico(nombre, colegiado, especialidad, email);
-
-            medicoRepository.setEntityManager(em);
-            medicoRepository.persist(medico);
+            persistirMedico(em, medico);
             
             em.getTransaction().commit();
             return medico;
@@ -60,6 +54,22 @@ public class MedicoService {
         }
     }
 
+    public Medico registrarMedico(EntityManager em, String nombre, String colegiado, Especialidad especialidad, String email) {
+        Medico medico = crearMedico(nombre, colegiado, especialidad, email);
+
+        if (buscarPorColegiado(em, colegiado).isPresent()) {
+            throw new MedicoYaExisteException(colegiado);
+        }
+
+        return persistirMedico(em, medico);
+    }
+
+    private Medico persistirMedico(EntityManager em, Medico medico) {
+        medicoRepository.setEntityManager(em);
+        medicoRepository.persist(medico);
+        return medico;
+    }
+
     public List<Medico> listarMedicos() {
         EntityManager em = emf.createEntityManager();
         try {
@@ -94,6 +104,15 @@ public class MedicoService {
         }
     }
 
+    public Optional<Medico> buscarPorColegiado(EntityManager em, String colegiado) {
+        if (colegiado == null || colegiado.trim().isEmpty()) {
+            return Optional.empty();
+        }
+
+        medicoRepository.setEntityManager(em);
+        return medicoRepository.findByColegiado(colegiado.trim());
+    }
+
     public Optional<Medico> buscarPorId(Long id) {
         if (id == null) {
             return Optional.empty();
@@ -128,7 +147,8 @@ public class MedicoService {
             throw new IllegalArgumentException("El ID del médico no puede ser nulo");
         }
 
-        validarDatosBasicos(nombre, colegiado, especialidad, email);
+        // Valida los datos nuevos antes de abrir la transacción
+        crearMedico(nombre, colegiado, especialidad, email);
         
         EntityManager em = emf.createEntityManager();
         try {
@@ -145,8 +165,6 @@ public class MedicoService {
                 validarColegiadoUnico(colegiado);
             }
 
-            validarFormatoEmail(email);
-
             medico.setNombre(nombre);
             medico.setColegiado(colegiado);
             medico.setEspecialidad(especialidad);
@@ -178,11 +196,11 @@ public class MedicoService {
             Medico medico = medicoRepository.findById(id);
             
             if (medico != null) {
-                if (medico.getCitas() != null && !medico.getCitas().isEmpty()) {
+                if (medicoRepository.tieneCitas(id)) {
                     throw new RuntimeException("No se puede eliminar el médico porque tiene citas asociadas");
                 }
                 
-                medicoRepository.remove(medico);
+                medico.setDeletedAt(LocalDateTime.now());
                 em.getTransaction().commit();
                 return true;
             }
@@ -198,31 +216,17 @@ public class MedicoService {
         }
     }
 
-    private void validarDatosBasicos(String nombre, String colegiado, Especialidad especialidad, String email) {
-        if (nombre == null || nombre.trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre del médico es obligatorio");
-        }
-        if (nombre.length() > 100) {
-            throw new IllegalArgumentException("El nombre no puede exceder 100 caracteres");
-        }
-        
-        if (colegiado == null || colegiado.trim().isEmpty()) {
-            throw new IllegalArgumentException("El número de colegiado es obligatorio");
-        }
-        if (colegiado.length() > 20) {
-            throw new IllegalArgumentException("El número de colegiado no puede exceder 20 caracteres");
-        }
-        
-        if (especialidad == null) {
-            throw new IllegalArgumentException("La especialidad es obligatoria");
-        }
-        
-        if (email == null || email.trim().isEmpty()) {
-            throw new IllegalArgumentException("El email del médico es obligatorio");
-        }
-        if (email.length() > 100) {
-            throw new IllegalArgumentException("El email no puede exceder 100 caracteres");
+    private static Medico crearMedico(String nombre, String colegiado, Especialidad especialidad, String email) {
+        Medico medico = new Medico(nombre, colegiado, especialidad, email);
+        try {
+            Validador.validar(medico);
+        } catch (ValidacionException e) {
+            if (e.getRestriccion() == EmailValido.class) {
+                throw new EmailInvalidoException(email);
+            }
+            throw e;
         }
+        return medico;
     }
 
     private void validarColegiadoUnico(String colegiado) {
@@ -237,12 +241,6 @@ public class MedicoService {
         }
     }
 
-    private void validarFormatoEmail(String email) {
-        if (email != null && !EMAIL_PATTERN.matcher(email.trim()).matches()) {
-            throw new EmailInvalidoException(email);
-        }
-    }
-
     public void close() {
         if (emf != null && emf.isOpen()) {
             emf.close();
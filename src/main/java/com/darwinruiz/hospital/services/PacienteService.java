@@ -1,52 +1,57 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.exceptions.EmailInvalidoException;
 import com.darwinruiz.hospital.exceptions.PacienteYaExisteException;
+import com.darwinruiz.hospital.exceptions.ValidacionException;
 import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.repositories.EstadisticaCitaRepository;
 import com.darwinruiz.hospital.repositories.PacienteRepository;
+import com.darwinruiz.hospital.validacion.EmailValido;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 public class PacienteService {
     
     private final PacienteRepository pacienteRepository;
+    private final EstadisticaCitaRepository estadisticaRepository;
     private final EntityManagerFactory emf;
 
-    private static final Pattern EMAIL_PATTERN = 
-        Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
-    
+    static final int LOTE_ELIMINACION = 500;
+
+    public record ProgresoEliminacion(int procesados, int total, long eliminados) {
+    }
+
     public PacienteService() {
-        this.emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        this.emf = Persistencia.compartida();
         this.pacienteRepository = new PacienteRepository();
+        this.estadisticaRepository = new EstadisticaCitaRepository();
     }
     
     public PacienteService(EntityManagerFactory emf) {
         this.emf = emf;
         this.pacienteRepository = new PacienteRepository();
+        this.estadisticaRepository = new EstadisticaCitaRepository();
     }
 
     public Paciente registrarPaciente(String nombre, String dpi, LocalDate fechaNacimiento, 
                                     String telefono, String email) {
-        validarDatosBasicos(nombre, dpi, fechaNacimiento, email);
+        Paciente paciente = crearPaciente(nombre, dpi, fechaNacimiento, telefono, email);
 
         validarDpiUnico(dpi);
-
-        validarFormatoEmail(email);
         
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
 
-            Paciente paciente = new Paciente(nombre, dpi, fechaNacimiento, telefono, email);
-
-            pacienteRepository.setEntityManager(em);
-            pacienteRepository.persist(paciente);
+            persistirPaciente(em, paciente);
             
             em.getTransaction().commit();
             return paciente;
@@ -59,6 +64,24 @@ public class PacienteService {
         }
     }
 
+    public Paciente registrarPaciente(EntityManager em, String nombre, String dpi, LocalDate fechaNacimiento,
+                                      String telefono, String email) {
+        Paciente paciente = crearPaciente(nombre, dpi, fechaNacimiento, telefono, email);
+
+        // En el EntityManager del llamador: ve los pacientes registrados antes en su transacción
+        if (buscarPorDpi(em, dpi).isPresent()) {
+            throw new PacienteYaExisteException(dpi);
+        }
+
+        return persistirPaciente(em, paciente);
+    }
+
+    private Paciente persistirPaciente(EntityManager em, Paciente paciente) {
+        pacienteRepository.setEntityManager(em);
+        pacienteRepository.persist(paciente);
+        return paciente;
+    }
+
     public List<Paciente> listarPacientes() {
         EntityManager em = emf.createEntityManager();
         try {
@@ -83,6 +106,15 @@ public class PacienteService {
         }
     }
 
+    public Optional<Paciente> buscarPorDpi(EntityManager em, String dpi) {
+        if (dpi == null || dpi.trim().isEmpty()) {
+            return Optional.empty();
+        }
+
+        pacienteRepository.setEntityManager(em);
+        return pacienteRepository.findByDpi(dpi.trim());
+    }
+
     public Optional<Paciente> buscarPorId(Long id) {
         if (id == null) {
             return Optional.empty();
@@ -105,19 +137,11 @@ public class PacienteService {
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
-            
-            pacienteRepository.setEntityManager(em);
-            Paciente paciente = pacienteRepository.findById(id);
-            
-            if (paciente != null) {
-                pacienteRepository.remove(paciente);
-                em.getTransaction().commit();
-                return true;
-            }
-            
-            em.getTransaction().rollback();
-            return false;
-            
+
+            boolean eliminado = marcarEliminados(em, List.of(id)) > 0;
+            em.getTransaction().commit();
+            return eliminado;
+
         } catch (Exception e) {
             em.getTransaction().rollback();
             throw new RuntimeException("Error al eliminar el paciente: " + e.getMessage(), e);
@@ -126,13 +150,55 @@ public class PacienteService {
         }
     }
 
+    public long eliminarPacientes(List<Long> ids, Consumer<ProgresoEliminacion> progreso) {
+        return eliminarPacientes(ids, LOTE_ELIMINACION, progreso);
+    }
+
+    public long eliminarPacientes(List<Long> ids, int tamanoLote, Consumer<ProgresoEliminacion> progreso) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño del lote debe ser mayor que cero");
+        }
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> pendientes = ids.stream().filter(Objects::nonNull).distinct().toList();
+        long eliminados = 0;
+        for (int desde = 0; desde < pendientes.size(); desde += tamanoLote) {
+            List<Long> lote = pendientes.subList(desde, Math.min(desde + tamanoLote, pendientes.size()));
+            EntityManager em = emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                eliminados += marcarEliminados(em, lote);
+                em.getTransaction().commit();
+            } catch (Exception e) {
+                em.getTransaction().rollback();
+                throw new RuntimeException("Error al eliminar los pacientes: " + e.getMessage(), e);
+            } finally {
+                em.close();
+            }
+            if (progreso != null) {
+                progreso.accept(new ProgresoEliminacion(desde + lote.size(), pendientes.size(), eliminados));
+            }
+        }
+        return eliminados;
+    }
+
+    // Las citas se descuentan de las estadísticas antes de marcarlas; todo en la transacción de em
+    private int marcarEliminados(EntityManager em, List<Long> ids) {
+        estadisticaRepository.setEntityManager(em);
+        estadisticaRepository.decrementarCitasDePacientes(ids);
+        pacienteRepository.setEntityManager(em);
+        return pacienteRepository.marcarEliminados(ids, LocalDateTime.now());
+    }
+
     public Paciente actualizarPaciente(Long id, String nombre, String dpi, LocalDate fechaNacimiento,
                                      String telefono, String email) {
         if (id == null) {
             throw new IllegalArgumentException("El ID del paciente no puede ser nulo");
         }
 
-        validarDatosBasicos(nombre, dpi, fechaNacimiento, email);
+        Paciente datos = crearPaciente(nombre, dpi, fechaNacimiento, telefono, email);
         
         EntityManager em = emf.createEntityManager();
         try {
@@ -149,13 +215,7 @@ public class PacienteService {
                 validarDpiUnico(dpi);
             }
 
-            validarFormatoEmail(email);
-
-            paciente.setNombre(nombre);
-            paciente.setDpi(dpi);
-            paciente.setFechaNacimiento(fechaNacimiento);
-            paciente.setTelefono(telefono);
-            paciente.setEmail(email);
+            paciente.copiarDatos(datos);
             
             Paciente pacienteActualizado = pacienteRepository.merge(paciente);
             em.getTransaction().commit();
@@ -170,33 +230,15 @@ public class PacienteService {
         }
     }
 
-    private void validarDatosBasicos(String nombre, String dpi, LocalDate fechaNacimiento, String email) {
-        if (nombre == null || nombre.trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre del paciente es obligatorio");
-        }
-        if (nombre.length() > 100) {
-            throw new IllegalArgumentException("El nombre no puede exceder 100 caracteres");
-        }
-        
-        if (dpi == null || dpi.trim().isEmpty()) {
-            throw new IllegalArgumentException("El DPI del paciente es obligatorio");
-        }
-        if (dpi.length() > 20) {
-            throw new IllegalArgumentException("El DPI no puede exceder 20 caracteres");
-        }
-        
-        if (fechaNacimiento == null) {
-            throw new IllegalArgumentException("La fecha de nacimiento es obligatoria");
-        }
-        if (fechaNacimiento.isAfter(LocalDate.now())) {
-            throw new IllegalArgumentException("La fecha de nacimiento no puede ser futura");
-        }
-        
-        if (email == null || email.trim().isEmpty()) {
-            throw new IllegalArgumentException("El email del paciente es obligatorio");
-        }
-        if (email.length() > 100) {
-            throw new IllegalArgumentException("El email no puede exceder 100 caracteres");
+    private static Paciente crearPaciente(String nombre, String dpi, LocalDate fechaNacimiento,
+                                          String telefono, String email) {
+        try {
+            return new Paciente(nombre, dpi, fechaNacimiento, telefono, email);
+        } catch (ValidacionException e) {
+            if (e.getRestriccion() == EmailValido.class) {
+                throw new EmailInvalidoException(email);
+            }
+            throw e;
         }
     }
 
@@ -212,12 +254,6 @@ public class PacienteService {
         }
     }
 
-    private void validarFormatoEmail(String email) {
-        if (email != null && !EMAIL_PATTERN.matcher(email.trim()).matches()) {
-            throw new EmailInvalidoException(email);
-        }
-    }
-
     public void close() {
         if (emf != null && emf.isOpen()) {
             emf.close();
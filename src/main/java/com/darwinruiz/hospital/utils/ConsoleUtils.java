@@ -1,12 +1,13 @@
 package com.darwinruiz.hospital.utils;
 
+import com.darwinruiz.hospital.validacion.ValidadorFormato;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
-import java.util.regex.Pattern;
 
 /**
  * Utilidades para entrada y validación de datos en consola
@@ -14,15 +15,12 @@ import java.util.regex.Pattern;
 public class ConsoleUtils {
     
     private static final Scanner scanner = new Scanner(System.in);
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9]+([.-][a-zA-Z0-9]+)*\\.[a-zA-Z]{2,}$"
-    );
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     public static String leerTexto(String mensaje) {
         System.out.print(mensaje + ": ");
-        return scanner.nextLine().trim();
+        return leerLinea().trim();
     }
 
     public static String leerTextoNoVacio(String mensaje) {
@@ -40,7 +38,7 @@ public class ConsoleUtils {
         while (true) {
             try {
                 System.out.print(mensaje + ": ");
-                return Integer.parseInt(scanner.nextLine().trim());
+                return Integer.parseInt(leerLinea().trim());
             } catch (NumberFormatException e) {
                 System.out.println("Error: Debe ingresar un número válido.");
             }
@@ -69,6 +67,28 @@ public class ConsoleUtils {
         return email;
     }
 
+    public static String leerDpi(String mensaje) {
+        String dpi;
+        do {
+            dpi = leerTextoNoVacio(mensaje);
+            if (!esDpiValido(dpi)) {
+                System.out.println("Error: El DPI debe tener 13 dígitos.");
+            }
+        } while (!esDpiValido(dpi));
+        return dpi;
+    }
+
+    public static String leerTelefono(String mensaje) {
+        String telefono;
+        do {
+            telefono = leerTexto(mensaje);
+            if (!telefono.isEmpty() && !esTelefonoValido(telefono)) {
+                System.out.println("Error: El teléfono debe tener al menos 7 dígitos, separados solo por guiones o espacios.");
+            }
+        } while (!telefono.isEmpty() && !esTelefonoValido(telefono));
+        return telefono;
+    }
+
     public static LocalDate leerFecha(String mensaje) {
         while (true) {
             try {
@@ -114,7 +134,15 @@ public class ConsoleUtils {
     }
 
     public static boolean esEmailValido(String email) {
-        return email != null && EMAIL_PATTERN.matcher(email).matches();
+        return ValidadorFormato.esEmailValido(email);
+    }
+
+    public static boolean esDpiValido(String dpi) {
+        return ValidadorFormato.esDpiValido(dpi);
+    }
+
+    public static boolean esTelefonoValido(String telefono) {
+        return ValidadorFormato.esTelefonoValido(telefono);
     }
 
     public static boolean esFechaFutura(LocalDate fecha) {
@@ -132,7 +160,12 @@ public class ConsoleUtils {
 
     public static void pausar() {
         System.out.print("Presione Enter para continuar...");
-        scanner.nextLine();
+        leerLinea();
+    }
+
+    private static String leerLinea() {
+        SalidaConsola.vaciar();
+        return scanner.nextLine();
     }
 
     public static void limpiarPantalla() {
@@ -0,0 +1,104 @@
+package com.darwinruiz.hospital.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura y escritura de CSV según RFC 4180.
+ */
+public class CsvUtils {
+
+    private CsvUtils() {
+    }
+
+    public static String escapar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        boolean requiereComillas = false;
+        for (int i = 0; i < valor.length() && !requiereComillas; i++) {
+            char c = valor.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return requiereComillas ? '"' + valor.replace("\"", "\"\"") + '"' : valor;
+    }
+
+    public static String unirLinea(String... campos) {
+        StringBuilder linea = new StringBuilder();
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                linea.append(',');
+            }
+            linea.append(escapar(campos[i]));
+        }
+        return linea.toString();
+    }
+
+    // Un campo entre comillas puede contener saltos de línea: getLineaRegistro() es la línea donde empezó
+    public static class Lector {
+
+        private final Reader entrada;
+        private int siguiente;
+        private long linea = 1;
+        private long lineaRegistro;
+
+        public Lector(Reader entrada) throws IOException {
+            this.entrada = entrada;
+            this.siguiente = entrada.read();
+            if (siguiente == '\uFEFF') { // BOM de UTF-8
+                siguiente = entrada.read();
+            }
+        }
+
+        public List<String> leerRegistro() throws IOException {
+            if (siguiente == -1) {
+                return null;
+            }
+            lineaRegistro = linea;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreComillas = false;
+
+            while (siguiente != -1) {
+                int c = siguiente;
+                siguiente = entrada.read();
+
+                if (entreComillas) {
+                    if (c == '"') {
+                        if (siguiente == '"') {
+                            campo.append('"');
+                            siguiente = entrada.read();
+                        } else {
+                            entreComillas = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            linea++;
+                        }
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0) {
+                    entreComillas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\r' && siguiente == '\n') {
+                    // El \n que sigue cierra el registro
+                } else if (c == '\n' || c == '\r') {
+                    linea++;
+                    break;
+                } else {
+                    campo.append((char) c);
+                }
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+
+        public long getLineaRegistro() {
+            return lineaRegistro;
+        }
+    }
+}
@@ -1,19 +1,9 @@
 package com.darwinruiz.hospital.utils;
 
-import java.io.PrintStream;
-import java.io.UnsupportedEncodingException;
-
 public class EncodingUtils {
 
     public static void configurarConsola() {
-        try {
-            // Intentar configurar UTF-8 para la salida estándar
-            System.setOut(new PrintStream(System.out, true, "UTF-8"));
-            System.setErr(new PrintStream(System.err, true, "UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            // Si no se puede configurar UTF-8, continuar con la configuración por defecto
-            System.err.println("Advertencia: No se pudo configurar UTF-8 para la consola");
-        }
+        SalidaConsola.instalar();
     }
 
     public static void printSafe(String texto) {
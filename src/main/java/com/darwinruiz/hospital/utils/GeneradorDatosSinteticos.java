@@ -0,0 +1,379 @@
+package com.darwinruiz.hospital.utils;
+
+import com.darwinruiz.hospital.database.MantenimientoParticiones;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Datos sintéticos para pruebas de capacidad, cargados en paralelo con COPY. Cada bloque usa un
+ * generador derivado de la semilla y de su número, así que el resultado no depende de los hilos.
+ * Si un bloque falla, los ya confirmados se conservan.
+ */
+public class GeneradorDatosSinteticos {
+
+    public static final int TAMANO_BLOQUE = 20_000;
+    public static final int HORARIOS_POR_DIA = 16;
+
+    private static final String COPY_PACIENTE =
+        "COPY paciente (id, nombre, dpi, fechaNacimiento, telefono, email) FROM STDIN (FORMAT csv)";
+    private static final String COPY_HISTORIAL =
+        "COPY historial_medico (paciente_id, alergias, antecedentes, observaciones) FROM STDIN (FORMAT csv)";
+    private static final String COPY_MEDICO =
+        "COPY medico (id, nombre, colegiado, especialidad, email) FROM STDIN (FORMAT csv)";
+    private static final String COPY_CITA =
+        "COPY cita (id, fecha_hora, estado, motivo, paciente_id, medico_id) FROM STDIN (FORMAT csv)";
+
+    private static final String SQL_ESTADISTICAS =
+        "INSERT INTO estadistica_cita_diaria (dia, medico_id, estado, especialidad, total) " +
+        "SELECT CAST(c.fecha_hora AS DATE), c.medico_id, c.estado, m.especialidad, COUNT(*) " +
+        "FROM cita c JOIN medico m ON m.id = c.medico_id " +
+        "WHERE c.medico_id BETWEEN ? AND ? " +
+        "GROUP BY CAST(c.fecha_hora AS DATE), c.medico_id, c.estado, m.especialidad " +
+        "ON CONFLICT (dia, medico_id, estado) " +
+        "DO UPDATE SET total = estadistica_cita_diaria.total + EXCLUDED.total";
+
+    private static final String[] NOMBRES = {
+        "María", "José", "Ana", "Luis", "Carmen", "Carlos", "Lucía", "Miguel", "Sofía", "Jorge",
+        "Elena", "Pedro", "Isabel", "Juan", "Patricia", "Roberto", "Gabriela", "Fernando", "Andrea", "Diego"
+    };
+    private static final String[] APELLIDOS = {
+        "García", "López", "Hernández", "Pérez", "González", "Rodríguez", "Martínez", "Morales", "Castillo", "Ramírez",
+        "Flores", "Cruz", "Reyes", "Méndez", "Ortiz", "Vásquez", "Jiménez", "Castro", "Vargas", "Mendoza"
+    };
+    private static final String[] ALERGIAS = {"Penicilina", "Polen", "Mariscos", "Látex", "Ibuprofeno", "Ácaros"};
+    private static final String[] ANTECEDENTES = {"Hipertensión", "Diabetes tipo 2", "Asma", "Migraña", "Apendicectomía"};
+    private static final String[] MOTIVOS = {
+        "Consulta general", "Control de rutina", "Seguimiento de tratamiento", "Dolor persistente",
+        "Revisión de resultados", "Chequeo preventivo", null
+    };
+    private static final Especialidad[] ESPECIALIDADES = Especialidad.values();
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}");
+
+    private static final int TABLA_PACIENTE = 1;
+    private static final int TABLA_MEDICO = 2;
+    private static final int TABLA_CITA = 3;
+
+    public record Configuracion(int pacientes, int medicos, int citas, long semilla, int hilos,
+                                LocalDate fechaReferencia) {
+
+        public Configuracion {
+            if (pacientes < 1 || medicos < 1 || citas < 0) {
+                throw new IllegalArgumentException("Se requiere al menos un paciente y un médico");
+            }
+            if (hilos < 1) {
+                throw new IllegalArgumentException("Se requiere al menos un hilo");
+            }
+        }
+
+        public static Configuracion porEscala(int pacientes, long semilla) {
+            return new Configuracion(pacientes, Math.max(1, pacientes / 200), pacientes * 5, semilla,
+                hilosPorDefecto(), LocalDate.now());
+        }
+
+        int citasDelMedico(int indiceMedico) {
+            return citas / medicos + (indiceMedico < citas % medicos ? 1 : 0);
+        }
+
+        int dias() {
+            int maximoPorMedico = citasDelMedico(0);
+            return Math.max(1, (maximoPorMedico + HORARIOS_POR_DIA - 1) / HORARIOS_POR_DIA);
+        }
+
+        LocalDate primerDia() {
+            return fechaReferencia.minusDays(dias() * 2L / 3);
+        }
+    }
+
+    public record Resumen(long primerPacienteId, long primerMedicoId, long pacientes, long historiales,
+                          long medicos, long citas, long milisegundos) {
+    }
+
+    private final EntityManagerFactory emf;
+
+    public GeneradorDatosSinteticos(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    // Sin agotar el pool de conexiones de Hibernate
+    public static int hilosPorDefecto() {
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+    }
+
+    public Resumen generar(Configuracion configuracion) {
+        long inicio = System.nanoTime();
+        ConnectionProvider proveedor = emf.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(ConnectionProvider.class);
+
+        crearParticiones(configuracion);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(configuracion.hilos());
+        try {
+            long primerPacienteId = reservarIds(proveedor, "paciente", configuracion.pacientes());
+            long primerMedicoId = reservarIds(proveedor, "medico", configuracion.medicos());
+            long primerCitaId = reservarIds(proveedor, "cita", configuracion.citas());
+
+            List<Future<Long>> tareas = new ArrayList<>();
+            for (int bloque = 0; bloque * TAMANO_BLOQUE < configuracion.pacientes(); bloque++) {
+                int numero = bloque;
+                tareas.add(hilos.submit(() -> copiar(proveedor, COPY_PACIENTE,
+                    csvPacientes(configuracion, primerPacienteId, numero))));
+            }
+            for (int bloque = 0; bloque * TAMANO_BLOQUE < configuracion.medicos(); bloque++) {
+                int numero = bloque;
+                tareas.add(hilos.submit(() -> copiar(proveedor, COPY_MEDICO,
+                    csvMedicos(configuracion, primerMedicoId, numero))));
+            }
+            long pacientes = esperar(tareas, 0, (configuracion.pacientes() + TAMANO_BLOQUE - 1) / TAMANO_BLOQUE);
+            long medicos = esperar(tareas, tareas.size() - (configuracion.medicos() + TAMANO_BLOQUE - 1) / TAMANO_BLOQUE, tareas.size());
+
+            // Historiales y citas dependen de las llaves foráneas de paciente y médico
+            tareas.clear();
+            for (int bloque = 0; bloque * TAMANO_BLOQUE < configuracion.pacientes(); bloque++) {
+                int numero = bloque;
+                tareas.add(hilos.submit(() -> copiar(proveedor, COPY_HISTORIAL,
+                    csvHistoriales(configuracion, primerPacienteId, numero))));
+            }
+            int bloquesHistorial = tareas.size();
+            for (int medico = 0, citaInicial = 0; medico < configuracion.medicos(); ) {
+                // Bloques de médicos completos con alrededor de TAMANO_BLOQUE citas
+                int medicoInicial = medico;
+                int citasDelBloque = 0;
+                while (medico < configuracion.medicos() && citasDelBloque < TAMANO_BLOQUE) {
+                    citasDelBloque += configuracion.citasDelMedico(medico++);
+                }
+                int medicoFinal = medico;
+                long primerIdDelBloque = primerCitaId + citaInicial;
+                citaInicial += citasDelBloque;
+                tareas.add(hilos.submit(() -> copiar(proveedor, COPY_CITA, csvCitas(configuracion, primerPacienteId,
+                    primerMedicoId, primerIdDelBloque, medicoInicial, medicoFinal))));
+            }
+            long historiales = esperar(tareas, 0, bloquesHistorial);
+            long citas = esperar(tareas, bloquesHistorial, tareas.size());
+
+            actualizarEstadisticas(proveedor, primerMedicoId, primerMedicoId + configuracion.medicos() - 1);
+
+            return new Resumen(primerPacienteId, primerMedicoId, pacientes, historiales, medicos, citas,
+                (System.nanoTime() - inicio) / 1_000_000);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al generar los datos sintéticos: " + e.getMessage(), e);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    static String csvPacientes(Configuracion configuracion, long primerId, int bloque) {
+        SplittableRandom aleatorio = aleatorio(configuracion.semilla(), TABLA_PACIENTE, bloque);
+        int desde = bloque * TAMANO_BLOQUE;
+        int hasta = Math.min(configuracion.pacientes(), desde + TAMANO_BLOQUE);
+        StringBuilder csv = new StringBuilder((hasta - desde) * 96);
+        for (int i = desde; i < hasta; i++) {
+            long id = primerId + i;
+            String nombre = elegir(NOMBRES, aleatorio);
+            String apellido = elegir(APELLIDOS, aleatorio);
+            LocalDate nacimiento = configuracion.fechaReferencia().minusDays(365L + aleatorio.nextInt(365 * 90));
+            csv.append(id).append(',')
+                .append(nombre).append(' ').append(apellido).append(' ').append(elegir(APELLIDOS, aleatorio)).append(',')
+                // DPI de 13 dígitos único por id; el 9 inicial lo separa de los DPI capturados a mano
+                .append(9_000_000_000_000L + id).append(',')
+                .append(nacimiento).append(',');
+            if (aleatorio.nextInt(10) > 0) {
+                csv.append(50_000_000 + aleatorio.nextInt(49_999_999));
+            }
+            csv.append(',')
+                .append(sinAcentos(nombre)).append('.').append(sinAcentos(apellido)).append(id).append("@correo.test")
+                .append('\n');
+        }
+        return csv.toString();
+    }
+
+    static String csvHistoriales(Configuracion configuracion, long primerPacienteId, int bloque) {
+        // Generador propio (semilla desplazada) para no alterar los pacientes al cambiar los historiales
+        SplittableRandom aleatorio = aleatorio(configuracion.semilla() + 1, TABLA_PACIENTE, bloque);
+        int desde = bloque * TAMANO_BLOQUE;
+        int hasta = Math.min(configuracion.pacientes(), desde + TAMANO_BLOQUE);
+        StringBuilder csv = new StringBuilder((hasta - desde) * 48);
+        for (int i = desde; i < hasta; i++) {
+            csv.append(primerPacienteId + i).append(',');
+            if (aleatorio.nextInt(10) < 3) {
+                csv.append(elegir(ALERGIAS, aleatorio));
+            }
+            csv.append(',');
+            if (aleatorio.nextInt(10) < 4) {
+                csv.append(elegir(ANTECEDENTES, aleatorio));
+            }
+            csv.append(',');
+            if (aleatorio.nextInt(10) < 2) {
+                csv.append("Control anual");
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    static String csvMedicos(Configuracion configuracion, long primerId, int bloque) {
+        SplittableRandom aleatorio = aleatorio(configuracion.semilla(), TABLA_MEDICO, bloque);
+        int desde = bloque * TAMANO_BLOQUE;
+        int hasta = Math.min(configuracion.medicos(), desde + TAMANO_BLOQUE);
+        StringBuilder csv = new StringBuilder((hasta - desde) * 96);
+        for (int i = desde; i < hasta; i++) {
+            long id = primerId + i;
+            String nombre = elegir(NOMBRES, aleatorio);
+            String apellido = elegir(APELLIDOS, aleatorio);
+            csv.append(id).append(',')
+                .append("Dr. ").append(nombre).append(' ').append(apellido).append(',')
+                .append("COLSIN").append(id).append(',')
+                .append(ESPECIALIDADES[aleatorio.nextInt(ESPECIALIDADES.length)].name()).append(',')
+                .append("dr.").append(sinAcentos(apellido)).append(id).append("@hospital.test")
+                .append('\n');
+        }
+        return csv.toString();
+    }
+
+    // Cada médico ocupa una rejilla de 16 horarios diarios, así que las citas no chocan entre sí
+    static String csvCitas(Configuracion configuracion, long primerPacienteId, long primerMedicoId, long primerId,
+                           int medicoInicial, int medicoFinal) {
+        SplittableRandom aleatorio = aleatorio(configuracion.semilla(), TABLA_CITA, medicoInicial);
+        LocalDate primerDia = configuracion.primerDia();
+        LocalDateTime ahora = configuracion.fechaReferencia().atStartOfDay();
+        StringBuilder csv = new StringBuilder(TAMANO_BLOQUE * 80);
+        long id = primerId;
+        for (int medico = medicoInicial; medico < medicoFinal; medico++) {
+            int citas = configuracion.citasDelMedico(medico);
+            for (int k = 0; k < citas; k++) {
+                LocalDateTime fechaHora = primerDia.plusDays(k / HORARIOS_POR_DIA)
+                    .atTime(8, 0).plusMinutes(30L * (k % HORARIOS_POR_DIA));
+                EstadoCita estado;
+                if (fechaHora.isBefore(ahora)) {
+                    estado = aleatorio.nextInt(10) < 8 ? EstadoCita.ATENDIDA : EstadoCita.CANCELADA;
+                } else {
+                    estado = aleatorio.nextInt(10) < 9 ? EstadoCita.PROGRAMADA : EstadoCita.CANCELADA;
+                }
+                String motivo = elegir(MOTIVOS, aleatorio);
+                csv.append(id++).append(',')
+                    .append(fechaHora.toLocalDate()).append(' ').append(fechaHora.toLocalTime()).append(',')
+                    .append(estado.name()).append(',')
+                    .append(motivo != null ? motivo : "").append(',')
+                    .append(primerPacienteId + aleatorio.nextInt(configuracion.pacientes())).append(',')
+                    .append(primerMedicoId + medico)
+                    .append('\n');
+            }
+        }
+        return csv.toString();
+    }
+
+    private void crearParticiones(Configuracion configuracion) {
+        MantenimientoParticiones mantenimiento = new MantenimientoParticiones(emf);
+        YearMonth ultimo = YearMonth.from(configuracion.primerDia().plusDays(configuracion.dias() - 1));
+        for (YearMonth mes = YearMonth.from(configuracion.primerDia()); !mes.isAfter(ultimo); mes = mes.plusMonths(1)) {
+            mantenimiento.crearParticion(mes);
+        }
+    }
+
+    private static long reservarIds(ConnectionProvider proveedor, String tabla, int cantidad) throws Exception {
+        return conConexion(proveedor, connection -> {
+            long primero;
+            try (PreparedStatement siguiente = connection.prepareStatement(
+                    "SELECT nextval(pg_get_serial_sequence(?, 'id'))")) {
+                siguiente.setString(1, tabla);
+                try (ResultSet fila = siguiente.executeQuery()) {
+                    fila.next();
+                    primero = fila.getLong(1);
+                }
+            }
+            if (cantidad > 1) {
+                try (PreparedStatement avanzar = connection.prepareStatement(
+                        "SELECT setval(pg_get_serial_sequence(?, 'id'), ?)")) {
+                    avanzar.setString(1, tabla);
+                    avanzar.setLong(2, primero + cantidad - 1);
+                    avanzar.executeQuery().close();
+                }
+            }
+            return primero;
+        });
+    }
+
+    private static long copiar(ConnectionProvider proveedor, String copy, String csv) throws Exception {
+        return conConexion(proveedor,
+            connection -> connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy, new StringReader(csv)));
+    }
+
+    private static void actualizarEstadisticas(ConnectionProvider proveedor, long primerMedicoId, long ultimoMedicoId)
+            throws Exception {
+        conConexion(proveedor, connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(SQL_ESTADISTICAS)) {
+                insert.setLong(1, primerMedicoId);
+                insert.setLong(2, ultimoMedicoId);
+                insert.executeUpdate();
+            }
+            try (Statement analizar = connection.createStatement()) {
+                analizar.execute("ANALYZE paciente, historial_medico, medico, cita");
+            }
+            return null;
+        });
+    }
+
+    private interface OperacionJdbc<T> {
+        T ejecutar(Connection connection) throws Exception;
+    }
+
+    private static <T> T conConexion(ConnectionProvider proveedor, OperacionJdbc<T> operacion) throws Exception {
+        Connection connection = proveedor.getConnection();
+        boolean autoCommitOriginal = connection.getAutoCommit();
+        try {
+            connection.setAutoCommit(true);
+            return operacion.ejecutar(connection);
+        } finally {
+            connection.setAutoCommit(autoCommitOriginal);
+            proveedor.closeConnection(connection);
+        }
+    }
+
+    private static long esperar(List<Future<Long>> tareas, int desde, int hasta) throws Exception {
+        long total = 0;
+        for (int i = desde; i < hasta; i++) {
+            try {
+                total += tareas.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Generación interrumpida", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception causa ? causa : e;
+            }
+        }
+        return total;
+    }
+
+    private static SplittableRandom aleatorio(long semilla, int tabla, int bloque) {
+        return new SplittableRandom(semilla * 0x9E3779B97F4A7C15L + tabla * 1_000_003L + bloque);
+    }
+
+    private static <T> T elegir(T[] opciones, SplittableRandom aleatorio) {
+        return opciones[aleatorio.nextInt(opciones.length)];
+    }
+
+    private static String sinAcentos(String texto) {
+        return MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+    }
+}
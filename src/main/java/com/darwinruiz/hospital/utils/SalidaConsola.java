@@ -0,0 +1,60 @@
+package com.darwinruiz.hospital.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * System.out UTF-8 con buffer y sin autoflush: menús y reportes salen en una sola escritura cuando
+ * ConsoleUtils espera una respuesta.
+ */
+public final class SalidaConsola {
+
+    public static final int TAMANO_BUFFER = 64 * 1024;
+
+    private static PrintStream instalada;
+
+    private SalidaConsola() {
+    }
+
+    public static synchronized void instalar() {
+        if (instalada != null) {
+            return;
+        }
+        PrintStream salida = crear(new FileOutputStream(FileDescriptor.out));
+        System.setOut(salida);
+        System.setErr(crearError(new FileOutputStream(FileDescriptor.err), salida));
+        Runtime.getRuntime().addShutdownHook(new Thread(salida::flush, "vaciar-salida-consola"));
+        instalada = salida;
+    }
+
+    public static void vaciar() {
+        System.out.flush();
+    }
+
+    static PrintStream crear(OutputStream destino) {
+        return new PrintStream(new BufferedOutputStream(destino, TAMANO_BUFFER), false, StandardCharsets.UTF_8);
+    }
+
+    // System.err vacía primero System.out para que los mensajes no se desordenen
+    static PrintStream crearError(OutputStream destino, PrintStream salida) {
+        return new PrintStream(new FilterOutputStream(destino) {
+            @Override
+            public void write(int b) throws IOException {
+                salida.flush();
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                salida.flush();
+                out.write(b, off, len);
+            }
+        }, true, StandardCharsets.UTF_8);
+    }
+}
@@ -1,46 +1,64 @@
 package com.darwinruiz.hospital.utils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TableFormatter {
+
+    public static final int DEFAULT_SAMPLE_SIZE = 200;
+    public static final int DEFAULT_MAX_COLUMN_WIDTH = 40;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final char[] SPACES = new char[64];
+    private static final String[] NO_VALUES = new String[0];
+
+    static {
+        Arrays.fill(SPACES, ' ');
+    }
     
     private final List<String> headers;
-    private final List<List<String>> rows;
-    private final List<Integer> columnWidths;
+    private final List<String[]> rows;
+    private int[] columnWidths;
+    private String separatorLine;
     
     public TableFormatter() {
         this.headers = new ArrayList<>();
         this.rows = new ArrayList<>();
-        this.columnWidths = new ArrayList<>();
+        this.columnWidths = new int[0];
     }
 
     public TableFormatter setHeaders(String... headers) {
         this.headers.clear();
-        this.columnWidths.clear();
+        this.columnWidths = new int[headers.length];
+        this.separatorLine = null;
         
-        for (String header : headers) {
-            this.headers.add(header);
-            this.columnWidths.add(header.length());
+        for (int i = 0; i < headers.length; i++) {
+            this.headers.add(headers[i]);
+            this.columnWidths[i] = AnchoVisual.ancho(headers[i]);
         }
         return this;
     }
 
     public TableFormatter addRow(String... values) {
-        List<String> row = new ArrayList<>();
+        String[] row = new String[headers.size()];
         
-        for (int i = 0; i < values.length && i < headers.size(); i++) {
-            String value = values[i] != null ? values[i] : "";
-            row.add(value);
+        for (int i = 0; i < row.length; i++) {
+            String value = i < values.length && values[i] != null ? values[i] : "";
+            row[i] = value;
 
-            if (value.length() > columnWidths.get(i)) {
-                columnWidths.set(i, value.length());
+            int width = AnchoVisual.ancho(value);
+            if (width > columnWidths[i]) {
+                columnWidths[i] = width;
+                separatorLine = null;
             }
         }
-
-        while (row.size() < headers.size()) {
-            row.add("");
-        }
         
         rows.add(row);
         return this;
@@ -50,24 +68,22 @@ public class TableFormatter {
         if (headers.isEmpty()) {
             return "Tabla vacía";
         }
-        
-        StringBuilder sb = new StringBuilder();
-
-        sb.append(createSeparatorLine());
-        sb.append("\n");
 
-        sb.append(createRowLine(headers));
-        sb.append("\n");
+        String separator = separatorLine();
+        // Cada línea ocupa aproximadamente lo mismo que el separador; el margen cubre emojis y acentos combinantes
+        StringBuilder sb = new StringBuilder((separator.length() + 1) * (rows.size() + 4) + 64);
 
-        sb.append(createSeparatorLine());
-        sb.append("\n");
+        sb.append(separator).append('\n');
+        appendRow(sb, headers.toArray(NO_VALUES), columnWidths);
+        sb.append('\n');
+        sb.append(separator).append('\n');
 
-        for (List<String> row : rows) {
-            sb.append(createRowLine(row));
-            sb.append("\n");
+        for (String[] row : rows) {
+            appendRow(sb, row, columnWidths);
+            sb.append('\n');
         }
 
-        sb.append(createSeparatorLine());
+        sb.append(separator);
         
         return sb.toString();
     }
@@ -76,39 +92,53 @@ public class TableFormatter {
         System.out.println(build());
     }
 
-    private String createSeparatorLine() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("+");
-        
-        for (int width : columnWidths) {
-            sb.append("-".repeat(width + 2));
-            sb.append("+");
+    private String separatorLine() {
+        if (separatorLine == null) {
+            StringBuilder sb = new StringBuilder(separatorLength(columnWidths));
+            appendSeparator(sb, columnWidths);
+            separatorLine = sb.toString();
         }
-        
-        return sb.toString();
+        return separatorLine;
     }
 
-    private String createRowLine(List<String> values) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("|");
-        
-        for (int i = 0; i < values.size(); i++) {
-            String value = values.get(i);
-            int width = columnWidths.get(i);
-            
-            sb.append(" ");
-            sb.append(padRight(value, width));
+    private static int separatorLength(int[] widths) {
+        int length = 1;
+        for (int width : widths) {
+            length += width + 3;
+        }
+        return length;
+    }
+
+    private static void appendSeparator(StringBuilder sb, int[] widths) {
+        sb.append('+');
+        for (int width : widths) {
+            for (int i = 0; i < width + 2; i++) {
+                sb.append('-');
+            }
+            sb.append('+');
+        }
+    }
+
+    private static void appendRow(StringBuilder sb, String[] values, int[] widths) {
+        sb.append('|');
+        for (int i = 0; i < widths.length; i++) {
+            sb.append(' ');
+            appendPadded(sb, values[i], widths[i]);
             sb.append(" |");
         }
-        
-        return sb.toString();
     }
 
-    private String padRight(String text, int width) {
-        if (text.length() >= width) {
-            return text;
+    private static void appendPadded(StringBuilder sb, String value, int width) {
+        sb.append(value);
+        appendSpaces(sb, width - AnchoVisual.ancho(value));
+    }
+
+    private static void appendSpaces(StringBuilder sb, int count) {
+        while (count > 0) {
+            int chunk = Math.min(count, SPACES.length);
+            sb.append(SPACES, 0, chunk);
+            count -= chunk;
         }
-        return text + " ".repeat(width - text.length());
     }
 
     public TableFormatter clear() {
@@ -142,4 +172,219 @@ public class TableFormatter {
         System.out.println("└" + "─".repeat(mensaje.length() + 2) + "┘");
         System.out.println();
     }
-}
\ No newline at end of file
+
+    public static StreamingTable streaming() {
+        PrintStream out = System.out;
+        return streaming(new BufferedWriter(new OutputStreamWriter(out, out.charset())));
+    }
+
+    public static StreamingTable streaming(Writer writer) {
+        return new StreamingTable(writer);
+    }
+
+    /**
+     * Tabla que escribe cada fila en cuanto llega; los anchos se calculan con las primeras filas.
+     * Sin filas no imprime nada y finish() devuelve 0, para que el llamador muestre su mensaje.
+     */
+    public static class StreamingTable implements AutoCloseable {
+
+        private final Writer writer;
+        private String[] headers = new String[0];
+        private int[] widths;
+        private boolean fixedWidths;
+        private int sampleSize = DEFAULT_SAMPLE_SIZE;
+        private int maxColumnWidth = DEFAULT_MAX_COLUMN_WIDTH;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private List<String[]> sample = new ArrayList<>();
+        private final StringBuilder line = new StringBuilder(256);
+        private char[] lineChars = new char[256];
+        private String separatorLine;
+        private long rowCount;
+        private boolean started;
+        private boolean finished;
+
+        private StreamingTable(Writer writer) {
+            this.writer = writer;
+        }
+
+        public StreamingTable setHeaders(String... headers) {
+            this.headers = headers.clone();
+            return this;
+        }
+
+        public StreamingTable setColumnWidths(int... widths) {
+            if (widths.length != headers.length) {
+                throw new IllegalArgumentException("Se esperaban " + headers.length + " anchos de columna");
+            }
+            for (int width : widths) {
+                if (width < 1) {
+                    throw new IllegalArgumentException("El ancho de columna debe ser mayor que cero");
+                }
+            }
+            this.widths = widths.clone();
+            this.fixedWidths = true;
+            return this;
+        }
+
+        public StreamingTable setSampleSize(int sampleSize) {
+            if (sampleSize < 1) {
+                throw new IllegalArgumentException("El tamaño de muestra debe ser mayor que cero");
+            }
+            this.sampleSize = sampleSize;
+            return this;
+        }
+
+        public StreamingTable setMaxColumnWidth(int maxColumnWidth) {
+            if (maxColumnWidth < 2) {
+                throw new IllegalArgumentException("El ancho máximo de columna debe ser al menos 2");
+            }
+            this.maxColumnWidth = maxColumnWidth;
+            return this;
+        }
+
+        public StreamingTable setPageSize(int pageSize) {
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public StreamingTable addRow(String... values) {
+            if (finished) {
+                throw new IllegalStateException("La tabla ya fue cerrada");
+            }
+            String[] row = normalize(values);
+            rowCount++;
+            if (!started && !fixedWidths) {
+                sample.add(row);
+                if (sample.size() >= sampleSize) {
+                    writeSample();
+                }
+                return this;
+            }
+            if (!started) {
+                writeHeader();
+            }
+            writeRow(row);
+            if (rowCount % pageSize == 0) {
+                flush();
+            }
+            return this;
+        }
+
+        public long finish() {
+            if (finished) {
+                return rowCount;
+            }
+            finished = true;
+            if (!sample.isEmpty()) {
+                writeSample();
+            }
+            if (started) {
+                writeSeparator();
+            }
+            flush();
+            return rowCount;
+        }
+
+        @Override
+        public void close() {
+            finish();
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        private String[] normalize(String[] values) {
+            String[] row = new String[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                String value = i < values.length && values[i] != null ? values[i] : "";
+                // Un salto de línea rompería la fila
+                row[i] = value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0
+                    ? value.replace("\r\n", " ").replace('\n', ' ').replace('\r', ' ')
+                    : value;
+            }
+            return row;
+        }
+
+        private void writeSample() {
+            widths = new int[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                widths[i] = Math.min(maxColumnWidth, Math.max(1, AnchoVisual.ancho(headers[i])));
+            }
+            for (String[] row : sample) {
+                for (int i = 0; i < row.length; i++) {
+                    widths[i] = Math.max(widths[i], Math.min(maxColumnWidth, AnchoVisual.ancho(row[i])));
+                }
+            }
+            writeHeader();
+            for (String[] row : sample) {
+                writeRow(row);
+            }
+            sample = new ArrayList<>();
+            flush();
+        }
+
+        private void writeHeader() {
+            started = true;
+            writeSeparator();
+            writeRow(headers);
+            writeSeparator();
+        }
+
+        private void writeSeparator() {
+            if (separatorLine == null) {
+                StringBuilder sb = new StringBuilder(separatorLength(widths));
+                appendSeparator(sb, widths);
+                separatorLine = sb.toString();
+            }
+            line.setLength(0);
+            line.append(separatorLine);
+            writeLine();
+        }
+
+        private void writeRow(String[] values) {
+            line.setLength(0);
+            line.append('|');
+            for (int i = 0; i < widths.length; i++) {
+                String value = values[i];
+                int width = widths[i];
+                line.append(' ');
+                if (AnchoVisual.ancho(value) > width) {
+                    int end = AnchoVisual.indiceHastaAncho(value, width - 1);
+                    line.append(value, 0, end).append('…');
+                    // Un carácter ancho que no cabe deja una columna libre
+                    appendSpaces(line, width - 1 - AnchoVisual.ancho(value, 0, end));
+                } else {
+                    appendPadded(line, value, width);
+                }
+                line.append(" |");
+            }
+            writeLine();
+        }
+
+        private void writeLine() {
+            try {
+                line.append('\n');
+                int length = line.length();
+                if (lineChars.length < length) {
+                    lineChars = new char[Math.max(length, lineChars.length * 2)];
+                }
+                line.getChars(0, length, lineChars, 0);
+                writer.write(lineChars, 0, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir la tabla", e);
+            }
+        }
+
+        private void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir la tabla", e);
+            }
+        }
+    }
+}
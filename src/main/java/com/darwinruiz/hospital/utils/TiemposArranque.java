@@ -0,0 +1,55 @@
+package com.darwinruiz.hospital.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class TiemposArranque {
+
+    private static final long INICIO = System.nanoTime();
+    private static final Map<String, Long> etapas = new LinkedHashMap<>();
+    private static volatile long inicioMain = -1;
+
+    private TiemposArranque() {
+    }
+
+    public static boolean habilitado() {
+        return Boolean.getBoolean("hospital.arranque.tiempos");
+    }
+
+    // El tiempo desde el arranque de la JVM se calcula al pedir las etapas, para no cargar
+    // java.management durante el arranque
+    public static void registrarInicioJvm() {
+        inicioMain = System.currentTimeMillis();
+    }
+
+    public static synchronized void registrar(String etapa, long milisegundos) {
+        etapas.put(etapa, milisegundos);
+    }
+
+    public static void marcar(String etapa) {
+        registrar(etapa, milisegundosDesdeInicio());
+    }
+
+    public static long milisegundosDesdeInicio() {
+        return (System.nanoTime() - INICIO) / 1_000_000;
+    }
+
+    public static synchronized Map<String, Long> etapas() {
+        Map<String, Long> copia = new LinkedHashMap<>();
+        if (inicioMain >= 0) {
+            copia.put("jvm hasta main", inicioMain - ManagementFactory.getRuntimeMXBean().getStartTime());
+        }
+        copia.putAll(etapas);
+        return copia;
+    }
+
+    public static String resumen() {
+        StringBuilder sb = new StringBuilder("Tiempos de arranque:");
+        for (Map.Entry<String, Long> etapa : etapas().entrySet()) {
+            sb.append(System.lineSeparator()).append("  ").append(etapa.getKey()).append(": ")
+                .append(etapa.getValue()).append(" ms");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.darwinruiz.hospital.validacion;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Nulo o en blanco se acepta: la obligatoriedad la indica @NotBlank
+@Documented
+@Constraint(validatedBy = EmailValidoValidator.class)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EmailValido {
+
+    String message() default "El formato del email no es válido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
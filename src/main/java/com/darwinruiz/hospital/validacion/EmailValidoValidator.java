@@ -0,0 +1,12 @@
+package com.darwinruiz.hospital.validacion;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class EmailValidoValidator implements ConstraintValidator<EmailValido, String> {
+
+    @Override
+    public boolean isValid(String email, ConstraintValidatorContext contexto) {
+        return email == null || email.isBlank() || ValidadorFormato.esEmailValido(email);
+    }
+}
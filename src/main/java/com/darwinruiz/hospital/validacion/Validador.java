@@ -0,0 +1,102 @@
+package com.darwinruiz.hospital.validacion;
+
+import com.darwinruiz.hospital.exceptions.ValidacionException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.TraversableResolver;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+
+import java.lang.annotation.ElementType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validación de las entidades con sus anotaciones de Bean Validation y un único Validator compartido.
+ * JPA no repite la validación al hacer flush (validation-mode NONE en persistence.xml).
+ */
+public final class Validador {
+
+    // Orden de declaración de los campos: el primer error informado es el del primer campo, como
+    // en las comprobaciones manuales que estas reglas reemplazan
+    private static final ClassValue<Map<String, Integer>> ORDEN_CAMPOS = new ClassValue<>() {
+        @Override
+        protected Map<String, Integer> computeValue(Class<?> tipo) {
+            Map<String, Integer> orden = new HashMap<>();
+            for (Field campo : tipo.getDeclaredFields()) {
+                orden.putIfAbsent(campo.getName(), orden.size());
+            }
+            return orden;
+        }
+    };
+
+    private Validador() {
+    }
+
+    // Se construye al primer uso: arrancar la consola no paga la inicialización de Hibernate Validator
+    private static final class Instancia {
+
+        static final ValidatorFactory FABRICA = Validation.byDefaultProvider()
+            .configure()
+            // Los mensajes son textos fijos: no hace falta Expression Language para interpolarlos
+            .messageInterpolator(new ParameterMessageInterpolator())
+            // No hay @Valid en cascada: se evita consultar a JPA si cada atributo está cargado
+            .traversableResolver(new RecorrerTodo())
+            .buildValidatorFactory();
+
+        static final Validator VALIDADOR = FABRICA.getValidator();
+    }
+
+    private static final class RecorrerTodo implements TraversableResolver {
+
+        @Override
+        public boolean isReachable(Object objeto, Path.Node nodo, Class<?> tipoRaiz, Path ruta, ElementType tipo) {
+            return true;
+        }
+
+        @Override
+        public boolean isCascadable(Object objeto, Path.Node nodo, Class<?> tipoRaiz, Path ruta, ElementType tipo) {
+            return true;
+        }
+    }
+
+    public static <T> List<ConstraintViolation<T>> violaciones(T objeto) {
+        return ordenar(Instancia.VALIDADOR.validate(objeto), objeto.getClass());
+    }
+
+    public static <T> void validar(T objeto) {
+        lanzarPrimera(violaciones(objeto));
+    }
+
+    public static <T> void validarValor(Class<T> tipo, String propiedad, Object valor) {
+        lanzarPrimera(ordenar(Instancia.VALIDADOR.validateValue(tipo, propiedad, valor), tipo));
+    }
+
+    private static <T> List<ConstraintViolation<T>> ordenar(Collection<ConstraintViolation<T>> violaciones,
+                                                           Class<?> tipo) {
+        if (violaciones.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Integer> orden = ORDEN_CAMPOS.get(tipo);
+        List<ConstraintViolation<T>> ordenadas = new ArrayList<>(violaciones);
+        ordenadas.sort(Comparator
+            .<ConstraintViolation<T>>comparingInt(v -> orden.getOrDefault(v.getPropertyPath().toString(), Integer.MAX_VALUE))
+            .thenComparing(v -> v.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName()));
+        return ordenadas;
+    }
+
+    private static <T> void lanzarPrimera(List<ConstraintViolation<T>> violaciones) {
+        if (!violaciones.isEmpty()) {
+            ConstraintViolation<T> primera = violaciones.get(0);
+            throw new ValidacionException(primera.getMessage(), primera.getPropertyPath().toString(),
+                primera.getConstraintDescriptor().getAnnotation().annotationType());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.darwinruiz.hospital.validacion;
+
+/**
+ * Formatos de email, DPI y teléfono en una sola pasada, sin expresiones regulares ni asignaciones.
+ * ValidadorFormatoTest comprueba que equivalen a las expresiones regulares que reemplazan.
+ */
+public final class ValidadorFormato {
+
+    public static final int LONGITUD_DPI = 13;
+    public static final int DIGITOS_MINIMOS_TELEFONO = 7;
+    public static final int LONGITUD_MAXIMA_TELEFONO = 15;
+
+    private ValidadorFormato() {
+    }
+
+    public static boolean esEmailValido(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int longitud = email.length();
+        int arroba = 0;
+        while (arroba < longitud && email.charAt(arroba) != '@') {
+            if (!esCaracterLocal(email.charAt(arroba))) {
+                return false;
+            }
+            arroba++;
+        }
+        if (arroba == 0 || arroba == longitud) {
+            return false;
+        }
+
+        // Dominio: tramos alfanuméricos separados por un solo '.' o '-'; el último separador es un
+        // punto y el último tramo (la extensión) tiene al menos dos letras
+        int separadores = 0;
+        char ultimoSeparador = 0;
+        int largoTramo = 0;
+        boolean tramoSoloLetras = true;
+        for (int i = arroba + 1; i < longitud; i++) {
+            char c = email.charAt(i);
+            if (esLetra(c)) {
+                largoTramo++;
+            } else if (esDigito(c)) {
+                largoTramo++;
+                tramoSoloLetras = false;
+            } else if ((c == '.' || c == '-') && largoTramo > 0) {
+                separadores++;
+                ultimoSeparador = c;
+                largoTramo = 0;
+                tramoSoloLetras = true;
+            } else {
+                return false;
+            }
+        }
+        return separadores > 0 && ultimoSeparador == '.' && largoTramo >= 2 && tramoSoloLetras;
+    }
+
+    public static boolean esDpiValido(CharSequence dpi) {
+        if (dpi == null || dpi.length() != LONGITUD_DPI) {
+            return false;
+        }
+        for (int i = 0; i < LONGITUD_DPI; i++) {
+            if (!esDigito(dpi.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Prefijo internacional opcional y grupos de dígitos separados por guion o espacio: "+502 5555-1234"
+    public static boolean esTelefonoValido(CharSequence telefono) {
+        if (telefono == null) {
+            return false;
+        }
+        int longitud = telefono.length();
+        if (longitud > LONGITUD_MAXIMA_TELEFONO) {
+            return false;
+        }
+        int digitos = 0;
+        boolean anteriorDigito = false;
+        for (int i = longitud > 0 && telefono.charAt(0) == '+' ? 1 : 0; i < longitud; i++) {
+            char c = telefono.charAt(i);
+            if (esDigito(c)) {
+                digitos++;
+                anteriorDigito = true;
+            } else if ((c == '-' || c == ' ') && anteriorDigito) {
+                anteriorDigito = false;
+            } else {
+                return false;
+            }
+        }
+        return anteriorDigito && digitos >= DIGITOS_MINIMOS_TELEFONO;
+    }
+
+    private static boolean esCaracterLocal(char c) {
+        return esLetra(c) || esDigito(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean esLetra(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
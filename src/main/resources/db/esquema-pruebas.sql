@@ -0,0 +1,9 @@
+-- HospitalSystemTestPU crea el esquema desde las entidades (create-drop); estos son los índices
+-- únicos parciales de V5__borrado_logico.sql, que las entidades no declaran
+CREATE UNIQUE INDEX uk_paciente_dpi ON paciente (dpi) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX uk_medico_colegiado ON medico (colegiado) WHERE deleted_at IS NULL;
+
+-- Valor por defecto de uuid de V6__uuid_entidades.sql, para las filas que se insertan por SQL
+ALTER TABLE paciente ALTER COLUMN uuid SET DEFAULT gen_random_uuid();
+ALTER TABLE medico ALTER COLUMN uuid SET DEFAULT gen_random_uuid();
+ALTER TABLE cita ALTER COLUMN uuid SET DEFAULT gen_random_uuid();
@@ -0,0 +1,50 @@
+-- Esquema base: tablas, llaves y restricciones de las entidades Paciente, Medico,
+-- HistorialMedico y Cita. Usa IF NOT EXISTS para adoptar las bases de datos creadas
+-- anteriormente con hibernate.hbm2ddl.auto=update sin modificarlas.
+
+CREATE TABLE IF NOT EXISTS paciente (
+    id              BIGSERIAL    NOT NULL,
+    nombre          VARCHAR(100) NOT NULL,
+    dpi             VARCHAR(20)  NOT NULL,
+    fechaNacimiento DATE         NOT NULL,
+    telefono        VARCHAR(15),
+    email           VARCHAR(100) NOT NULL,
+    CONSTRAINT paciente_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_paciente_dpi UNIQUE (dpi)
+);
+
+CREATE TABLE IF NOT EXISTS medico (
+    id           BIGSERIAL    NOT NULL,
+    nombre       VARCHAR(100) NOT NULL,
+    colegiado    VARCHAR(20)  NOT NULL,
+    especialidad VARCHAR(255) NOT NULL,
+    email        VARCHAR(100) NOT NULL,
+    CONSTRAINT medico_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_medico_colegiado UNIQUE (colegiado)
+);
+
+CREATE TABLE IF NOT EXISTS historial_medico (
+    paciente_id   BIGINT NOT NULL,
+    alergias      VARCHAR(500),
+    antecedentes  VARCHAR(1000),
+    observaciones VARCHAR(1000),
+    CONSTRAINT historial_medico_pkey PRIMARY KEY (paciente_id),
+    CONSTRAINT fk_historial_paciente FOREIGN KEY (paciente_id) REFERENCES paciente (id)
+);
+
+CREATE TABLE IF NOT EXISTS cita (
+    id          BIGSERIAL    NOT NULL,
+    fecha_hora  TIMESTAMP    NOT NULL,
+    estado      VARCHAR(255) NOT NULL,
+    motivo      VARCHAR(200),
+    paciente_id BIGINT       NOT NULL,
+    medico_id   BIGINT       NOT NULL,
+    CONSTRAINT cita_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_cita_paciente FOREIGN KEY (paciente_id) REFERENCES paciente (id),
+    CONSTRAINT fk_cita_medico FOREIGN KEY (medico_id) REFERENCES medico (id)
+);
+
+-- Índices declarados con @Index en Cita
+CREATE INDEX IF NOT EXISTS ix_cita_medico ON cita (medico_id);
+
+CREATE INDEX IF NOT EXISTS ix_cita_fecha_hora ON cita (fecha_hora);
@@ -0,0 +1,19 @@
+-- Índices parciales y compuestos para las consultas sobre citas PROGRAMADAS.
+-- JPA (@Index) no puede declarar índices parciales, por eso se mantienen aquí.
+
+-- existeConflictoHorario, findMedicosDisponiblesEnFechaHora y findMedicosOrderByCitasProgramadas
+CREATE INDEX IF NOT EXISTS ix_cita_medico_fecha_programada
+    ON cita (medico_id, fecha_hora)
+    WHERE estado = 'PROGRAMADA';
+
+-- findCitasHoy
+CREATE INDEX IF NOT EXISTS ix_cita_fecha_programada
+    ON cita (fecha_hora)
+    WHERE estado = 'PROGRAMADA';
+
+-- findByPacienteId (historial del paciente ordenado de la cita más reciente a la más antigua)
+CREATE INDEX IF NOT EXISTS ix_cita_paciente_fecha
+    ON cita (paciente_id, fecha_hora DESC);
+
+-- Reemplazado por ix_cita_paciente_fecha, que cubre el mismo prefijo
+DROP INDEX IF EXISTS ix_cita_paciente;
@@ -0,0 +1,105 @@
+-- Particionado declarativo de cita por mes sobre fecha_hora.
+-- La llave primaria de una tabla particionada debe incluir la columna de partición,
+-- por eso pasa a ser (id, fecha_hora); los ids siguen saliendo de cita_id_seq.
+-- Las filas fuera de las particiones existentes caen en cita_default hasta que
+-- MantenimientoParticiones crea la partición del mes y las traslada.
+
+ALTER TABLE cita RENAME TO cita_anterior;
+
+ALTER TABLE cita_anterior DROP CONSTRAINT cita_pkey;
+
+DROP INDEX IF EXISTS ix_cita_medico;
+DROP INDEX IF EXISTS ix_cita_fecha_hora;
+DROP INDEX IF EXISTS ix_cita_paciente_fecha;
+DROP INDEX IF EXISTS ix_cita_medico_fecha_programada;
+DROP INDEX IF EXISTS ix_cita_fecha_programada;
+
+CREATE TABLE cita (
+    id          BIGINT       NOT NULL DEFAULT nextval('cita_id_seq'),
+    fecha_hora  TIMESTAMP    NOT NULL,
+    estado      VARCHAR(255) NOT NULL,
+    motivo      VARCHAR(200),
+    paciente_id BIGINT       NOT NULL,
+    medico_id   BIGINT       NOT NULL,
+    CONSTRAINT cita_pkey PRIMARY KEY (id, fecha_hora),
+    CONSTRAINT fk_cita_paciente FOREIGN KEY (paciente_id) REFERENCES paciente (id),
+    CONSTRAINT fk_cita_medico FOREIGN KEY (medico_id) REFERENCES medico (id)
+) PARTITION BY RANGE (fecha_hora);
+
+-- La secuencia pertenecía a cita_anterior.id y se eliminaría junto con ella
+ALTER SEQUENCE cita_id_seq OWNED BY cita.id;
+
+CREATE TABLE cita_default PARTITION OF cita DEFAULT;
+
+-- Los índices del padre se crean automáticamente en cada partición
+CREATE INDEX ix_cita_medico ON cita (medico_id);
+
+CREATE INDEX ix_cita_fecha_hora ON cita (fecha_hora);
+
+CREATE INDEX ix_cita_paciente_fecha ON cita (paciente_id, fecha_hora DESC);
+
+CREATE INDEX ix_cita_medico_fecha_programada ON cita (medico_id, fecha_hora) WHERE estado = 'PROGRAMADA';
+
+CREATE INDEX ix_cita_fecha_programada ON cita (fecha_hora) WHERE estado = 'PROGRAMADA';
+
+-- Crea (si no existe) la partición del mes que contiene p_mes. Las filas de ese mes
+-- que hubieran caído en cita_default se trasladan antes de adjuntar la partición,
+-- porque ATTACH PARTITION falla si el default contiene filas del rango.
+CREATE OR REPLACE FUNCTION crear_particion_cita(p_mes DATE) RETURNS TEXT AS $$
+DECLARE
+    v_inicio DATE := date_trunc('month', p_mes)::DATE;
+    v_fin    DATE := (date_trunc('month', p_mes) + INTERVAL '1 month')::DATE;
+    v_nombre TEXT := 'cita_' || to_char(p_mes, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_nombre) IS NOT NULL THEN
+        RETURN v_nombre;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE cita INCLUDING DEFAULTS)', v_nombre);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (fecha_hora >= %L AND fecha_hora < %L)',
+                   v_nombre, v_nombre || '_rango', v_inicio, v_fin);
+    EXECUTE format('WITH movidas AS (DELETE FROM cita_default WHERE fecha_hora >= %L AND fecha_hora < %L RETURNING *) ' ||
+                   'INSERT INTO %I SELECT * FROM movidas', v_inicio, v_fin, v_nombre);
+
+    -- Índices con nombre propio; ATTACH los asocia a los índices del padre en lugar de crear otros
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id, fecha_hora)', v_nombre, v_nombre || '_pkey');
+    EXECUTE format('CREATE INDEX %I ON %I (medico_id)', 'ix_' || v_nombre || '_medico', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (fecha_hora)', 'ix_' || v_nombre || '_fecha_hora', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (paciente_id, fecha_hora DESC)', 'ix_' || v_nombre || '_paciente_fecha', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (medico_id, fecha_hora) WHERE estado = ''PROGRAMADA''',
+                   'ix_' || v_nombre || '_medico_fecha_programada', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (fecha_hora) WHERE estado = ''PROGRAMADA''',
+                   'ix_' || v_nombre || '_fecha_programada', v_nombre);
+
+    EXECUTE format('ALTER TABLE cita ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   v_nombre, v_inicio, v_fin);
+    -- El CHECK solo sirve para que ATTACH no tenga que recorrer la tabla
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_nombre, v_nombre || '_rango');
+    RETURN v_nombre;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Particiones para los datos existentes y para los próximos meses
+DO $$
+DECLARE
+    v_desde DATE;
+    v_hasta DATE;
+    v_mes   DATE;
+BEGIN
+    SELECT date_trunc('month', LEAST(COALESCE(MIN(fecha_hora), now()), now()))::DATE,
+           date_trunc('month', GREATEST(COALESCE(MAX(fecha_hora), now()), now() + INTERVAL '3 months'))::DATE
+      INTO v_desde, v_hasta
+      FROM cita_anterior;
+
+    v_mes := v_desde;
+    WHILE v_mes <= v_hasta LOOP
+        PERFORM crear_particion_cita(v_mes);
+        v_mes := (v_mes + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO cita (id, fecha_hora, estado, motivo, paciente_id, medico_id)
+SELECT id, fecha_hora, estado, motivo, paciente_id, medico_id FROM cita_anterior;
+
+DROP TABLE cita_anterior;
@@ -0,0 +1,22 @@
+-- Conteos diarios de citas por médico y estado, mantenidos por CitaService en la misma
+-- transacción que modifica la cita. Los reportes suman unas pocas filas por día en lugar
+-- de contar la tabla cita completa.
+-- La especialidad se copia del médico y no hay llave foránea a medico: las filas conservan
+-- la historia aunque las citas se archiven o el médico se elimine.
+
+CREATE TABLE IF NOT EXISTS estadistica_cita_diaria (
+    dia          DATE         NOT NULL,
+    medico_id    BIGINT       NOT NULL,
+    estado       VARCHAR(255) NOT NULL,
+    especialidad VARCHAR(255) NOT NULL,
+    total        BIGINT       NOT NULL,
+    CONSTRAINT estadistica_cita_diaria_pkey PRIMARY KEY (dia, medico_id, estado)
+);
+
+-- Carga inicial con las citas existentes
+INSERT INTO estadistica_cita_diaria (dia, medico_id, estado, especialidad, total)
+SELECT CAST(c.fecha_hora AS DATE), c.medico_id, c.estado, m.especialidad, COUNT(*)
+  FROM cita c
+  JOIN medico m ON m.id = c.medico_id
+ GROUP BY CAST(c.fecha_hora AS DATE), c.medico_id, c.estado, m.especialidad
+ON CONFLICT (dia, medico_id, estado) DO NOTHING;
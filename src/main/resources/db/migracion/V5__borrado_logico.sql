@@ -0,0 +1,113 @@
+-- Borrado lógico de pacientes, médicos y citas: eliminar marca deleted_at en lugar de borrar la
+-- fila. Los repositorios excluyen las filas marcadas con el filtro noEliminados y PurgaEliminados
+-- las borra físicamente, por lotes, cuando superan el período de retención.
+
+ALTER TABLE paciente ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE medico ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE cita ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- DPI y colegiado son únicos entre las filas vigentes: se pueden registrar de nuevo después de
+-- eliminar al paciente o médico, sin esperar a la purga
+ALTER TABLE paciente DROP CONSTRAINT IF EXISTS uk_paciente_dpi;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_paciente_dpi
+    ON paciente (dpi)
+    WHERE deleted_at IS NULL;
+
+ALTER TABLE medico DROP CONSTRAINT IF EXISTS uk_medico_colegiado;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_medico_colegiado
+    ON medico (colegiado)
+    WHERE deleted_at IS NULL;
+
+-- findByNombreContaining y los listados ordenados por nombre, solo sobre filas vigentes
+CREATE INDEX IF NOT EXISTS ix_paciente_nombre_vigente
+    ON paciente (nombre)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS ix_medico_especialidad_vigente
+    ON medico (especialidad, nombre)
+    WHERE deleted_at IS NULL;
+
+-- Los índices de citas PROGRAMADAS se rehacen sin las filas eliminadas: el filtro noEliminados
+-- agrega deleted_at IS NULL a todas las consultas de los repositorios. Se crean primero en el padre
+-- (ON ONLY) y luego en cada partición con el nombre de V3, para adjuntarlos sin duplicar índices.
+DROP INDEX IF EXISTS ix_cita_medico_fecha_programada;
+DROP INDEX IF EXISTS ix_cita_fecha_programada;
+
+CREATE INDEX ix_cita_medico_fecha_programada
+    ON ONLY cita (medico_id, fecha_hora)
+    WHERE estado = 'PROGRAMADA' AND deleted_at IS NULL;
+
+CREATE INDEX ix_cita_fecha_programada
+    ON ONLY cita (fecha_hora)
+    WHERE estado = 'PROGRAMADA' AND deleted_at IS NULL;
+
+DO $$
+DECLARE
+    v_particion TEXT;
+BEGIN
+    FOR v_particion IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = 'cita'::regclass
+    LOOP
+        EXECUTE format('CREATE INDEX %I ON %I (medico_id, fecha_hora) WHERE estado = ''PROGRAMADA'' AND deleted_at IS NULL',
+                       'ix_' || v_particion || '_medico_fecha_programada', v_particion);
+        EXECUTE format('ALTER INDEX ix_cita_medico_fecha_programada ATTACH PARTITION %I',
+                       'ix_' || v_particion || '_medico_fecha_programada');
+        EXECUTE format('CREATE INDEX %I ON %I (fecha_hora) WHERE estado = ''PROGRAMADA'' AND deleted_at IS NULL',
+                       'ix_' || v_particion || '_fecha_programada', v_particion);
+        EXECUTE format('ALTER INDEX ix_cita_fecha_programada ATTACH PARTITION %I',
+                       'ix_' || v_particion || '_fecha_programada');
+    END LOOP;
+END;
+$$;
+
+-- Las particiones nuevas se crean con los mismos índices parciales
+CREATE OR REPLACE FUNCTION crear_particion_cita(p_mes DATE) RETURNS TEXT AS $$
+DECLARE
+    v_inicio DATE := date_trunc('month', p_mes)::DATE;
+    v_fin    DATE := (date_trunc('month', p_mes) + INTERVAL '1 month')::DATE;
+    v_nombre TEXT := 'cita_' || to_char(p_mes, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_nombre) IS NOT NULL THEN
+        RETURN v_nombre;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE cita INCLUDING DEFAULTS)', v_nombre);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (fecha_hora >= %L AND fecha_hora < %L)',
+                   v_nombre, v_nombre || '_rango', v_inicio, v_fin);
+    EXECUTE format('WITH movidas AS (DELETE FROM cita_default WHERE fecha_hora >= %L AND fecha_hora < %L RETURNING *) ' ||
+                   'INSERT INTO %I SELECT * FROM movidas', v_inicio, v_fin, v_nombre);
+
+    -- Índices con nombre propio; ATTACH los asocia a los índices del padre en lugar de crear otros
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id, fecha_hora)', v_nombre, v_nombre || '_pkey');
+    EXECUTE format('CREATE INDEX %I ON %I (medico_id)', 'ix_' || v_nombre || '_medico', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (fecha_hora)', 'ix_' || v_nombre || '_fecha_hora', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (paciente_id, fecha_hora DESC)', 'ix_' || v_nombre || '_paciente_fecha', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (medico_id, fecha_hora) WHERE estado = ''PROGRAMADA'' AND deleted_at IS NULL',
+                   'ix_' || v_nombre || '_medico_fecha_programada', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (fecha_hora) WHERE estado = ''PROGRAMADA'' AND deleted_at IS NULL',
+                   'ix_' || v_nombre || '_fecha_programada', v_nombre);
+    EXECUTE format('CREATE INDEX %I ON %I (deleted_at) WHERE deleted_at IS NOT NULL',
+                   'ix_' || v_nombre || '_eliminada', v_nombre);
+
+    EXECUTE format('ALTER TABLE cita ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   v_nombre, v_inicio, v_fin);
+    -- El CHECK solo sirve para que ATTACH no tenga que recorrer la tabla
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_nombre, v_nombre || '_rango');
+    RETURN v_nombre;
+END;
+$$ LANGUAGE plpgsql;
+
+-- PurgaEliminados: solo indexa las filas eliminadas, que son pocas frente a las vigentes
+CREATE INDEX IF NOT EXISTS ix_paciente_eliminado
+    ON paciente (deleted_at)
+    WHERE deleted_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_medico_eliminado
+    ON medico (deleted_at)
+    WHERE deleted_at IS NOT NULL;
+
+-- Se propaga a las particiones existentes; las nuevas lo traen de crear_particion_cita
+CREATE INDEX IF NOT EXISTS ix_cita_eliminada
+    ON cita (deleted_at)
+    WHERE deleted_at IS NOT NULL;
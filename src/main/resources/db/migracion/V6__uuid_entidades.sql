@@ -0,0 +1,7 @@
+-- Identidad de pacientes, médicos y citas que no cambia al persistir: la entidad la genera al crearse
+-- y equals/hashCode la usan. Las filas existentes y las que se insertan por SQL (COPY, importación
+-- CSV) reciben una con el valor por defecto.
+
+ALTER TABLE paciente ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE medico ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE cita ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
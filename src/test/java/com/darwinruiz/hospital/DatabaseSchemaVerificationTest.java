@@ -1,8 +1,8 @@
 package com.darwinruiz.hospital;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import jakarta.persistence.Query;
 import org.junit.jupiter.api.*;
 
@@ -27,7 +27,7 @@ public class DatabaseSchemaVerificationTest {
 
     @BeforeAll
     static void setUpClass() {
-        emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        emf = Persistencia.crearEntityManagerFactory();
     }
 
     @AfterAll
@@ -0,0 +1,166 @@
+package com.darwinruiz.hospital.archivo;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.services.CitaService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivadorCitasTest {
+
+    private static EntityManagerFactory emf;
+    private static Long pacienteId;
+    private static Long medicoId;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistencia.crearEntityManagerFactory();
+        ejecutar("INSERT INTO paciente (nombre, dpi, fechaNacimiento, email) " +
+            "VALUES ('Paciente Archivo', '7900000000001', DATE '1985-05-05', 'archivo@test.com')");
+        ejecutar("INSERT INTO medico (nombre, colegiado, especialidad, email) " +
+            "VALUES ('Dr. Archivo', 'COLARCH1', 'PEDIATRIA', 'dr.archivo@test.com')");
+        pacienteId = ((Number) consultarUnico("SELECT id FROM paciente WHERE dpi = '7900000000001'")).longValue();
+        medicoId = ((Number) consultarUnico("SELECT id FROM medico WHERE colegiado = 'COLARCH1'")).longValue();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        ejecutar("DELETE FROM cita WHERE paciente_id = " + pacienteId);
+        ejecutar("DELETE FROM paciente WHERE id = " + pacienteId);
+        ejecutar("DELETE FROM medico WHERE id = " + medicoId);
+        emf.close();
+    }
+
+    @BeforeEach
+    void insertarCitas() {
+        ejecutar("DELETE FROM cita WHERE paciente_id = " + pacienteId);
+        insertarCita("2019-03-04 09:00:00", EstadoCita.ATENDIDA, "Control");
+        insertarCita("2019-03-11 09:00:00", EstadoCita.ATENDIDA, null);
+        insertarCita("2019-03-18 09:00:00", EstadoCita.CANCELADA, "Cancelada por el paciente");
+        insertarCita("2019-04-01 10:30:00", EstadoCita.ATENDIDA, "Seguimiento");
+        insertarCita("2019-04-08 10:30:00", EstadoCita.CANCELADA, null);
+        // Nunca se archivan: una PROGRAMADA antigua y una ATENDIDA reciente
+        insertarCita("2019-03-25 09:00:00", EstadoCita.PROGRAMADA, "Sin cerrar");
+        insertarCita(LocalDateTime.now().minusDays(2).withNano(0).toString().replace('T', ' '), EstadoCita.ATENDIDA, "Reciente");
+    }
+
+    @Test
+    @DisplayName("Debe mover a ficheros mensuales las citas cerradas antiguas y borrarlas de la base de datos")
+    void debeArchivarCitasCerradasAntiguas() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+        // Lotes de 2 para recorrer varias páginas por llave
+        ArchivadorCitas archivador = new ArchivadorCitas(emf, archivo, 2);
+
+        long archivadas = archivador.archivarAnterioresA(12);
+
+        assertTrue(archivadas >= 5);
+        assertEquals(3, delPaciente(archivo.leerMes(YearMonth.of(2019, 3))).size());
+        assertEquals(2, delPaciente(archivo.leerMes(YearMonth.of(2019, 4))).size());
+        assertEquals(2, contarCitasEnBaseDeDatos());
+        assertEquals(1, ((Number) consultarUnico("SELECT COUNT(*) FROM cita WHERE paciente_id = " + pacienteId +
+            " AND estado = 'PROGRAMADA'")).intValue());
+    }
+
+    @Test
+    @DisplayName("Una segunda ejecución no debe archivar nada nuevo del paciente")
+    void segundaEjecucionNoDebeDuplicar() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+        ArchivadorCitas archivador = new ArchivadorCitas(emf, archivo, 100);
+
+        archivador.archivarAnterioresA(12);
+        archivador.archivarAnterioresA(12);
+
+        assertEquals(5, archivo.leerPorPaciente(pacienteId).size());
+        assertEquals(2, contarCitasEnBaseDeDatos());
+    }
+
+    @Test
+    @DisplayName("listarCitasPorPaciente debe combinar el archivo con la base de datos cuando se pide")
+    void debeCombinarHistorialArchivado() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+        new ArchivadorCitas(emf, archivo, 100).archivarAnterioresA(12);
+        CitaService citaService = new CitaService(emf, archivo);
+
+        List<Cita> soloBaseDeDatos = citaService.listarCitasPorPaciente(pacienteId);
+        List<Cita> historial = citaService.listarCitasPorPaciente(pacienteId, true);
+
+        assertEquals(2, soloBaseDeDatos.size());
+        assertEquals(7, historial.size());
+        for (int i = 1; i < historial.size(); i++) {
+            assertFalse(historial.get(i).getFechaHora().isAfter(historial.get(i - 1).getFechaHora()),
+                "El historial debe estar ordenado de la cita más reciente a la más antigua");
+        }
+        assertTrue(historial.stream().allMatch(c -> c.getMedico().getId().equals(medicoId)));
+        assertTrue(historial.stream().allMatch(c -> c.getPaciente().getId().equals(pacienteId)));
+    }
+
+    @Test
+    @DisplayName("El historial de un paciente eliminado no debe incluir sus citas archivadas")
+    void noDebeCombinarHistorialDePacienteEliminado() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+        new ArchivadorCitas(emf, archivo, 100).archivarAnterioresA(12);
+        ejecutar("UPDATE cita SET deleted_at = now() WHERE paciente_id = " + pacienteId);
+        ejecutar("UPDATE paciente SET deleted_at = now() WHERE id = " + pacienteId);
+        try {
+            assertTrue(new CitaService(emf, archivo).listarCitasPorPaciente(pacienteId, true).isEmpty());
+        } finally {
+            ejecutar("UPDATE paciente SET deleted_at = NULL WHERE id = " + pacienteId);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar parámetros inválidos")
+    void debeRechazarParametrosInvalidos() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+
+        assertThrows(IllegalArgumentException.class, () -> new ArchivadorCitas(emf, archivo, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ArchivadorCitas(emf, archivo, 10).archivarAnterioresA(0));
+    }
+
+    private List<RegistroCitaArchivada> delPaciente(List<RegistroCitaArchivada> registros) {
+        return registros.stream().filter(r -> r.pacienteId().equals(pacienteId)).toList();
+    }
+
+    private static long contarCitasEnBaseDeDatos() {
+        return ((Number) consultarUnico("SELECT COUNT(*) FROM cita WHERE paciente_id = " + pacienteId)).longValue();
+    }
+
+    private static void insertarCita(String fechaHora, EstadoCita estado, String motivo) {
+        ejecutar("INSERT INTO cita (fecha_hora, estado, motivo, paciente_id, medico_id) VALUES (TIMESTAMP '" +
+            fechaHora + "', '" + estado.name() + "', " + (motivo == null ? "NULL" : "'" + motivo + "'") + ", " +
+            pacienteId + ", " + medicoId + ")");
+    }
+
+    private static Object consultarUnico(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createNativeQuery(sql).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void ejecutar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery(sql).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
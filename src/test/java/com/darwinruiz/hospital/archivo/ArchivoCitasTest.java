@@ -0,0 +1,91 @@
+package com.darwinruiz.hospital.archivo;
+
+import com.darwinruiz.hospital.enums.EstadoCita;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivoCitasTest {
+
+    private static final YearMonth MARZO = YearMonth.of(2020, 3);
+    private static final YearMonth ABRIL = YearMonth.of(2020, 4);
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debe leer exactamente lo que escribió, incluidos motivos nulos y con acentos")
+    void debeConservarLosDatos() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+        List<RegistroCitaArchivada> registros = List.of(
+            registro(1L, LocalDateTime.of(2020, 3, 2, 9, 30, 15, 123_000), EstadoCita.ATENDIDA, "Revisión anual", 10L),
+            registro(2L, LocalDateTime.of(2020, 3, 5, 14, 0), EstadoCita.CANCELADA, null, 11L));
+
+        archivo.agregar(MARZO, registros);
+
+        assertEquals(registros, archivo.leerMes(MARZO));
+    }
+
+    @Test
+    @DisplayName("Cada lote se añade como un bloque nuevo al fichero del mes")
+    void debeAcumularBloques() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+
+        archivo.agregar(MARZO, List.of(registro(1L, LocalDateTime.of(2020, 3, 2, 9, 0), EstadoCita.ATENDIDA, "A", 10L)));
+        archivo.agregar(MARZO, List.of(registro(2L, LocalDateTime.of(2020, 3, 3, 9, 0), EstadoCita.ATENDIDA, "B", 10L)));
+        archivo.agregar(ABRIL, List.of(registro(3L, LocalDateTime.of(2020, 4, 1, 9, 0), EstadoCita.CANCELADA, "C", 12L)));
+
+        assertEquals(2, archivo.leerMes(MARZO).size());
+        assertEquals(List.of(MARZO, ABRIL), archivo.mesesArchivados());
+    }
+
+    @Test
+    @DisplayName("Debe devolver solo las citas del paciente, de la más reciente a la más antigua")
+    void debeFiltrarPorPaciente() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+        archivo.agregar(MARZO, List.of(
+            registro(1L, LocalDateTime.of(2020, 3, 2, 9, 0), EstadoCita.ATENDIDA, null, 10L),
+            registro(2L, LocalDateTime.of(2020, 3, 9, 9, 0), EstadoCita.ATENDIDA, null, 11L)));
+        // Bloque cuyo rango de pacientes no incluye al 10: se descarta sin decodificar
+        archivo.agregar(MARZO, List.of(registro(3L, LocalDateTime.of(2020, 3, 10, 9, 0), EstadoCita.ATENDIDA, null, 50L)));
+        archivo.agregar(ABRIL, List.of(registro(4L, LocalDateTime.of(2020, 4, 1, 9, 0), EstadoCita.CANCELADA, null, 10L)));
+
+        List<RegistroCitaArchivada> delPaciente = archivo.leerPorPaciente(10L);
+
+        assertEquals(List.of(4L, 1L), delPaciente.stream().map(RegistroCitaArchivada::id).toList());
+    }
+
+    @Test
+    @DisplayName("Una fila escrita dos veces (archivado interrumpido) debe leerse una sola vez")
+    void debeDescartarDuplicados() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio);
+        RegistroCitaArchivada registro = registro(1L, LocalDateTime.of(2020, 3, 2, 9, 0), EstadoCita.ATENDIDA, null, 10L);
+
+        archivo.agregar(MARZO, List.of(registro));
+        archivo.agregar(MARZO, List.of(registro));
+
+        assertEquals(1, archivo.leerMes(MARZO).size());
+    }
+
+    @Test
+    @DisplayName("Un directorio sin archivos no debe tener citas archivadas")
+    void directorioVacioNoDebeTenerCitas() {
+        ArchivoCitas archivo = new ArchivoCitas(directorio.resolve("no-existe"));
+
+        assertTrue(archivo.mesesArchivados().isEmpty());
+        assertTrue(archivo.leerPorPaciente(1L).isEmpty());
+        assertTrue(archivo.leerMes(MARZO).isEmpty());
+    }
+
+    private static RegistroCitaArchivada registro(Long id, LocalDateTime fechaHora, EstadoCita estado,
+                                                  String motivo, Long pacienteId) {
+        return new RegistroCitaArchivada(id, fechaHora, estado, motivo, pacienteId, 99L);
+    }
+}
@@ -1,5 +1,6 @@
 package com.darwinruiz.hospital.console;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.enums.Especialidad;
 import com.darwinruiz.hospital.enums.EstadoCita;
 import com.darwinruiz.hospital.models.Cita;
@@ -11,7 +12,6 @@ import com.darwinruiz.hospital.services.HistorialMedicoService;
 import com.darwinruiz.hospital.services.MedicoService;
 import com.darwinruiz.hospital.services.PacienteService;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
@@ -39,7 +39,7 @@ public class DeletionMenuTest {
     
     @BeforeAll
     static void setUp() {
-        emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        emf = Persistencia.crearEntityManagerFactory();
         pacienteService = new PacienteService(emf);
         medicoService = new MedicoService(emf);
         citaService = new CitaService(emf);
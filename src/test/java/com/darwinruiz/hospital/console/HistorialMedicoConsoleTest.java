@@ -1,10 +1,10 @@
 package com.darwinruiz.hospital.console;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.models.Paciente;
 import com.darwinruiz.hospital.services.PacienteService;
 import com.darwinruiz.hospital.services.HistorialMedicoService;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
@@ -25,7 +25,7 @@ public class HistorialMedicoConsoleTest {
     
     @BeforeAll
     static void setUp() {
-        emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        emf = Persistencia.crearEntityManagerFactory();
         pacienteService = new PacienteService(emf);
         historialService = new HistorialMedicoService(emf);
         consoleApp = new HospitalConsoleApp();
@@ -0,0 +1,87 @@
+package com.darwinruiz.hospital.database;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del esquema de HospitalSystemTestPU: DPI y colegiado son únicos entre las filas vigentes,
+ * como en las migraciones.
+ */
+class EsquemaPruebasTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistence.createEntityManagerFactory("HospitalSystemTestPU");
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un DPI duplicado entre pacientes vigentes y aceptarlo si el anterior está eliminado")
+    void debeExigirDpiUnicoEntrePacientesVigentes() {
+        Paciente primero = paciente("ESQUE0000001");
+        persistir(primero);
+
+        assertThrows(PersistenceException.class, () -> persistir(paciente("ESQUE0000001")));
+
+        primero.setDeletedAt(LocalDateTime.now());
+        actualizar(primero);
+        assertDoesNotThrow(() -> persistir(paciente("ESQUE0000001")));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un colegiado duplicado entre médicos vigentes")
+    void debeExigirColegiadoUnicoEntreMedicosVigentes() {
+        persistir(new Medico("Dr. Esquema", "ESQUEMED1", Especialidad.PEDIATRIA, "esquema1@test.com"));
+
+        assertThrows(PersistenceException.class,
+            () -> persistir(new Medico("Dr. Esquema Dos", "ESQUEMED1", Especialidad.PEDIATRIA, "esquema2@test.com")));
+    }
+
+    private static Paciente paciente(String dpi) {
+        return new Paciente("Paciente Esquema", dpi, LocalDate.of(1980, 1, 1), null, "esquema@test.com");
+    }
+
+    private static void persistir(Object entidad) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(entidad);
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    private static void actualizar(Object entidad) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.merge(entidad);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
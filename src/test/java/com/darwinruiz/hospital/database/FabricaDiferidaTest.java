@@ -0,0 +1,87 @@
+package com.darwinruiz.hospital.database;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FabricaDiferidaTest {
+
+    private final List<String> cerradas = new CopyOnWriteArrayList<>();
+    private final AtomicInteger construcciones = new AtomicInteger();
+
+    @Test
+    @DisplayName("Debe construir en segundo plano una sola vez y esperar solo al usarse")
+    void debeConstruirEnSegundoPlanoUnaSolaVez() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        FabricaDiferida fabrica = new FabricaDiferida(() -> {
+            try {
+                assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return falsa("uno");
+        });
+
+        assertFalse(fabrica.iniciar().isDone());
+        assertSame(fabrica.iniciar(), fabrica.iniciar());
+
+        liberar.countDown();
+        assertEquals("uno", fabrica.getProperties().get("nombre"));
+        assertEquals("uno", fabrica.getProperties().get("nombre"));
+        assertEquals(1, construcciones.get());
+    }
+
+    @Test
+    @DisplayName("close debe cerrar el factory construido y rechazar las operaciones posteriores")
+    void closeDebeCerrarElFactoryConstruido() {
+        FabricaDiferida fabrica = new FabricaDiferida(() -> falsa("cerrable"));
+        fabrica.getProperties();
+
+        fabrica.close();
+
+        assertEquals(List.of("cerrable"), cerradas);
+        assertFalse(fabrica.isOpen());
+        assertThrows(IllegalStateException.class, fabrica::getProperties);
+        assertEquals(1, construcciones.get());
+    }
+
+    @Test
+    @DisplayName("Un error de construcción debe informarse y permitir reintentar")
+    void debeInformarErrorYPermitirReintentar() {
+        AtomicInteger intentos = new AtomicInteger();
+        FabricaDiferida fabrica = new FabricaDiferida(() -> {
+            if (intentos.incrementAndGet() == 1) {
+                throw new IllegalStateException("sin conexión");
+            }
+            return falsa("reintento");
+        });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, fabrica::getProperties);
+        assertTrue(e.getMessage().contains("Error al iniciar la persistencia: sin conexión"));
+        assertEquals("reintento", fabrica.getProperties().get("nombre"));
+    }
+
+    private EntityManagerFactory falsa(String nombre) {
+        construcciones.incrementAndGet();
+        return (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{EntityManagerFactory.class}, (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                case "getProperties" -> Map.of("nombre", nombre);
+                case "close" -> {
+                    cerradas.add(nombre);
+                    yield null;
+                }
+                case "isOpen" -> !cerradas.contains(nombre);
+                default -> throw new UnsupportedOperationException(metodo.getName());
+            });
+    }
+}
@@ -0,0 +1,146 @@
+package com.darwinruiz.hospital.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MantenimientoParticionesTest {
+
+    private static final YearMonth MES_LEJANO = YearMonth.now().plusYears(30);
+    private static final YearMonth MES_ANTIGUO = YearMonth.of(2001, 1);
+
+    private static EntityManagerFactory emf;
+    private static MantenimientoParticiones mantenimiento;
+    private static Long pacienteId;
+    private static Long medicoId;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistencia.crearEntityManagerFactory();
+        mantenimiento = new MantenimientoParticiones(emf);
+
+        ejecutar("INSERT INTO paciente (nombre, dpi, fechaNacimiento, email) " +
+            "VALUES ('Paciente Particiones', '7800000000001', DATE '1990-01-01', 'particiones@test.com')");
+        ejecutar("INSERT INTO medico (nombre, colegiado, especialidad, email) " +
+            "VALUES ('Dr. Particiones', 'COLPART1', 'CARDIOLOGIA', 'dr.particiones@test.com')");
+        pacienteId = ((Number) consultarUnico("SELECT id FROM paciente WHERE dpi = '7800000000001'")).longValue();
+        medicoId = ((Number) consultarUnico("SELECT id FROM medico WHERE colegiado = 'COLPART1'")).longValue();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        ejecutar("DELETE FROM cita WHERE paciente_id = " + pacienteId);
+        ejecutar("DROP TABLE IF EXISTS " + MantenimientoParticiones.nombreParticion(MES_LEJANO));
+        ejecutar("DROP TABLE IF EXISTS " + MantenimientoParticiones.ESQUEMA_ARCHIVO + "." +
+            MantenimientoParticiones.nombreParticion(MES_ANTIGUO));
+        ejecutar("DELETE FROM paciente WHERE id = " + pacienteId);
+        ejecutar("DELETE FROM medico WHERE id = " + medicoId);
+        emf.close();
+    }
+
+    @Test
+    @DisplayName("Debe existir una partición para el mes actual y los meses siguientes")
+    void debeCrearParticionesFuturas() {
+        List<String> creadas = mantenimiento.asegurarParticionesFuturas(2);
+
+        YearMonth actual = YearMonth.now();
+        assertEquals(List.of(
+            MantenimientoParticiones.nombreParticion(actual),
+            MantenimientoParticiones.nombreParticion(actual.plusMonths(1)),
+            MantenimientoParticiones.nombreParticion(actual.plusMonths(2))), creadas);
+        assertTrue(mantenimiento.listarParticiones().containsAll(List.of(actual, actual.plusMonths(1), actual.plusMonths(2))));
+    }
+
+    @Test
+    @DisplayName("Crear una partición existente no debe fallar")
+    void crearParticionDebeSerIdempotente() {
+        String primera = mantenimiento.crearParticion(YearMonth.now());
+        String segunda = mantenimiento.crearParticion(YearMonth.now());
+
+        assertEquals(primera, segunda);
+    }
+
+    @Test
+    @DisplayName("Las citas sin partición deben trasladarse desde cita_default al crearla")
+    void debeTrasladarCitasDesdeDefault() {
+        insertarCita(MES_LEJANO);
+        assertEquals(1, contarEn("cita_default", pacienteId));
+
+        String particion = mantenimiento.crearParticion(MES_LEJANO);
+
+        assertEquals(0, contarEn("cita_default", pacienteId));
+        assertEquals(1, contarEn(particion, pacienteId));
+        assertEquals(1, contarEn("cita", pacienteId) - contarEnOtrosMeses(MES_LEJANO));
+    }
+
+    @Test
+    @DisplayName("Debe desacoplar las particiones antiguas vacías y moverlas al esquema archivo")
+    void debeDesacoplarParticionesAntiguas() {
+        String particion = mantenimiento.crearParticion(MES_ANTIGUO);
+        insertarCita(MES_ANTIGUO);
+        assertTrue(mantenimiento.listarParticiones().contains(MES_ANTIGUO));
+
+        assertEquals(List.of(), mantenimiento.desacoplarParticionesAnteriores(MES_ANTIGUO.plusMonths(1)));
+        assertTrue(mantenimiento.listarParticiones().contains(MES_ANTIGUO));
+        assertEquals(1, contarEnMes(MES_ANTIGUO));
+
+        // Lo que hace ArchivadorCitas al mover las citas del mes al archivo frío
+        ejecutar("DELETE FROM " + particion + " WHERE paciente_id = " + pacienteId);
+        List<String> desacopladas = mantenimiento.desacoplarParticionesAnteriores(MES_ANTIGUO.plusMonths(1));
+
+        assertEquals(List.of(particion), desacopladas);
+        assertFalse(mantenimiento.listarParticiones().contains(MES_ANTIGUO));
+        assertEquals(0, contarEn(MantenimientoParticiones.ESQUEMA_ARCHIVO + "." + particion, pacienteId));
+    }
+
+    @Test
+    @DisplayName("La retención debe ser de al menos un mes")
+    void debeRechazarRetencionInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> mantenimiento.archivarParticionesAntiguas(0));
+        assertThrows(IllegalArgumentException.class, () -> mantenimiento.asegurarParticionesFuturas(-1));
+    }
+
+    private static void insertarCita(YearMonth mes) {
+        ejecutar("INSERT INTO cita (fecha_hora, estado, paciente_id, medico_id) VALUES (TIMESTAMP '" +
+            mes.atDay(15) + " 10:00:00', 'ATENDIDA', " + pacienteId + ", " + medicoId + ")");
+    }
+
+    private static long contarEn(String tabla, Long paciente) {
+        return ((Number) consultarUnico("SELECT COUNT(*) FROM " + tabla + " WHERE paciente_id = " + paciente)).longValue();
+    }
+
+    private static long contarEnOtrosMeses(YearMonth mes) {
+        return ((Number) consultarUnico("SELECT COUNT(*) FROM cita WHERE paciente_id = " + pacienteId +
+            " AND date_trunc('month', fecha_hora) <> DATE '" + mes.atDay(1) + "'")).longValue();
+    }
+
+    private static long contarEnMes(YearMonth mes) {
+        return ((Number) consultarUnico("SELECT COUNT(*) FROM cita WHERE fecha_hora >= TIMESTAMP '" + mes.atDay(1) +
+            " 00:00:00' AND fecha_hora < TIMESTAMP '" + mes.plusMonths(1).atDay(1) + " 00:00:00'")).longValue();
+    }
+
+    private static Object consultarUnico(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createNativeQuery(sql).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void ejecutar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery(sql).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.darwinruiz.hospital.database;
+
+import com.darwinruiz.hospital.exceptions.MigracionException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigradorEsquemaTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistencia.crearEntityManagerFactory();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe registrar en esquema_version cada migración con su checksum")
+    void debeRegistrarMigracionesAplicadas() {
+        List<MigradorEsquema.Migracion> disponibles = MigradorEsquema.migracionesDisponibles();
+
+        for (MigradorEsquema.Migracion migracion : disponibles) {
+            Object checksum = consultarUnico("SELECT checksum FROM esquema_version WHERE version = " + migracion.version());
+            assertEquals(migracion.checksum(), checksum, "Checksum de " + migracion.script());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe crear las tablas de todas las entidades")
+    void debeCrearTablasDeEntidades() {
+        for (String tabla : List.of("paciente", "medico", "historial_medico", "cita")) {
+            Number existe = (Number) consultarUnico(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = 'public' AND table_name = '" + tabla + "'");
+            assertEquals(1, existe.intValue(), "Falta la tabla " + tabla);
+        }
+    }
+
+    @Test
+    @DisplayName("Una segunda ejecución no debe aplicar ninguna migración")
+    void segundaEjecucionNoDebeAplicarNada() {
+        List<MigradorEsquema.Migracion> aplicadas = new MigradorEsquema(emf).migrar();
+
+        assertTrue(aplicadas.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe detenerse si una migración aplicada fue modificada")
+    void debeDetenerseSiCambiaUnaMigracionAplicada() {
+        String original = (String) consultarUnico("SELECT checksum FROM esquema_version WHERE version = 1");
+        ejecutar("UPDATE esquema_version SET checksum = 'modificado' WHERE version = 1");
+        try {
+            MigracionException e = assertThrows(MigracionException.class, () -> new MigradorEsquema(emf).migrar());
+            assertTrue(e.getMessage().contains("V1__esquema_inicial.sql"));
+        } finally {
+            ejecutar("UPDATE esquema_version SET checksum = '" + original + "' WHERE version = 1");
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar scripts que no siguen la convención V<version>__<descripcion>.sql")
+    void debeRechazarNombreInvalido() {
+        assertThrows(MigracionException.class,
+            () -> MigradorEsquema.Migracion.desdeScript("indices.sql", "SELECT 1;"));
+
+        MigradorEsquema.Migracion migracion =
+            MigradorEsquema.Migracion.desdeScript("V12__indices_cita.sql", "SELECT 1;");
+        assertEquals(12, migracion.version());
+        assertEquals("indices cita", migracion.descripcion());
+    }
+
+    @Test
+    @DisplayName("El checksum no debe depender del fin de línea")
+    void checksumDebeIgnorarFinDeLinea() {
+        assertEquals(MigradorEsquema.calcularChecksum("SELECT 1;\nSELECT 2;"),
+            MigradorEsquema.calcularChecksum("SELECT 1;\r\nSELECT 2;"));
+        assertNotEquals(MigradorEsquema.calcularChecksum("SELECT 1;"),
+            MigradorEsquema.calcularChecksum("SELECT 2;"));
+    }
+
+    @Test
+    @DisplayName("Debe separar sentencias ignorando comentarios de línea")
+    void debeSepararSentencias() {
+        String script = "-- comentario\n" +
+            "CREATE INDEX ix_a\n    ON cita (fecha_hora);\n\n" +
+            "DROP INDEX IF EXISTS ix_b;\n";
+
+        List<String> sentencias = MigradorEsquema.separarSentencias(script);
+
+        assertEquals(2, sentencias.size());
+        assertEquals("CREATE INDEX ix_a\n    ON cita (fecha_hora)", sentencias.get(0));
+        assertEquals("DROP INDEX IF EXISTS ix_b", sentencias.get(1));
+    }
+
+    @Test
+    @DisplayName("No debe cortar las sentencias dentro de un bloque $$")
+    void debeConservarBloquesConDolares() {
+        String script = "CREATE FUNCTION f() RETURNS INT AS $$\n" +
+            "BEGIN\n    RETURN 1;\nEND;\n$$ LANGUAGE plpgsql;\n" +
+            "DO $$ BEGIN PERFORM f(); END $$;\n" +
+            "SELECT f();\n";
+
+        List<String> sentencias = MigradorEsquema.separarSentencias(script);
+
+        assertEquals(3, sentencias.size());
+        assertTrue(sentencias.get(0).startsWith("CREATE FUNCTION"));
+        assertTrue(sentencias.get(0).endsWith("$$ LANGUAGE plpgsql"));
+        assertEquals("DO $$ BEGIN PERFORM f(); END $$", sentencias.get(1));
+        assertEquals("SELECT f()", sentencias.get(2));
+    }
+
+    private static Object consultarUnico(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createNativeQuery(sql).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void ejecutar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery(sql).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
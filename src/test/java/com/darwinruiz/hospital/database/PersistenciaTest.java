@@ -0,0 +1,104 @@
+package com.darwinruiz.hospital.database;
+
+import com.darwinruiz.hospital.models.Paciente;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenciaTest {
+
+    @Test
+    @DisplayName("La verificación de conexión debe funcionar sin construir el EntityManagerFactory")
+    void debeVerificarConexion() {
+        assertDoesNotThrow(() -> Persistencia.verificarConexion(5));
+    }
+
+    @Test
+    @DisplayName("La verificación de conexión debe fallar si la base de datos no es alcanzable")
+    void debeFallarConBaseDeDatosInalcanzable() {
+        String anterior = System.getProperty("hospital.db.url");
+        System.setProperty("hospital.db.url", "jdbc:postgresql://localhost:1/sistema_hospital");
+        try {
+            assertThrows(SQLException.class, () -> Persistencia.verificarConexion(2));
+        } finally {
+            if (anterior == null) {
+                System.clearProperty("hospital.db.url");
+            } else {
+                System.setProperty("hospital.db.url", anterior);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("El factory compartido debe ser el mismo en toda la JVM y construirse al usarse")
+    void factoryCompartidoDebeSerUnico() {
+        EntityManagerFactory compartida = Persistencia.compartida();
+        assertSame(compartida, Persistencia.compartida());
+        assertTrue(compartida.isOpen());
+
+        EntityManager em = compartida.createEntityManager();
+        try {
+            assertEquals(1, ((Number) em.createNativeQuery("SELECT 1").getSingleResult()).intValue());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("close() no debe cerrar el factory compartido; solo cerrarCompartida")
+    void closeNoDebeCerrarFactoryCompartido() {
+        EntityManagerFactory compartida = Persistencia.compartida();
+
+        compartida.close();
+        assertTrue(compartida.isOpen());
+        assertSame(compartida, Persistencia.compartida());
+
+        Persistencia.cerrarCompartida();
+        assertFalse(compartida.isOpen());
+        assertNotSame(compartida, Persistencia.compartida());
+    }
+
+    @Test
+    @DisplayName("persistence.xml debe declarar todas las clases @Entity, porque el escaneo está desactivado")
+    void debeDeclararTodasLasEntidades() throws IOException, URISyntaxException {
+        Path modelos = Path.of(Paciente.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+            .resolve("com/darwinruiz/hospital/models");
+        Set<Class<?>> anotadas;
+        try (Stream<Path> archivos = Files.list(modelos)) {
+            anotadas = archivos
+                .map(archivo -> archivo.getFileName().toString())
+                .filter(nombre -> nombre.endsWith(".class") && !nombre.contains("$"))
+                .map(nombre -> cargar("com.darwinruiz.hospital.models." + nombre.substring(0, nombre.length() - 6)))
+                .filter(clase -> clase.isAnnotationPresent(Entity.class))
+                .collect(Collectors.toSet());
+        }
+
+        Set<Class<?>> registradas = Persistencia.compartida().getMetamodel().getEntities().stream()
+            .map(EntityType::getJavaType)
+            .collect(Collectors.toSet());
+        assertFalse(anotadas.isEmpty());
+        assertEquals(anotadas, registradas);
+    }
+
+    private static Class<?> cargar(String nombre) {
+        try {
+            return Class.forName(nombre);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
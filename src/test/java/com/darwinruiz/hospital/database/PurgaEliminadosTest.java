@@ -0,0 +1,178 @@
+package com.darwinruiz.hospital.database;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.HistorialMedicoService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la purga de filas con borrado lógico: borra por lotes solo lo eliminado antes del límite
+ * y conserva las filas vigentes y las eliminadas recientemente.
+ */
+class PurgaEliminadosTest {
+
+    private static final LocalDateTime ELIMINADO_EN = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDateTime LIMITE = LocalDateTime.of(2000, 6, 1, 0, 0);
+
+    private static EntityManagerFactory emf;
+
+    private Paciente eliminado;
+    private Paciente vigente;
+    private Paciente reciente;
+    private Medico medico;
+    private Medico medicoEliminado;
+    private Cita citaEliminada;
+    private Cita citaVigente;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        PacienteService pacienteService = new PacienteService(emf);
+        MedicoService medicoService = new MedicoService(emf);
+        CitaService citaService = new CitaService(emf);
+
+        eliminado = pacienteService.registrarPaciente("Paciente Purga", "PURGA0000001",
+            LocalDate.of(1970, 1, 1), null, "purga1@test.com");
+        vigente = pacienteService.registrarPaciente("Paciente Vigente", "PURGA0000002",
+            LocalDate.of(1971, 1, 1), null, "purga2@test.com");
+        reciente = pacienteService.registrarPaciente("Paciente Reciente", "PURGA0000003",
+            LocalDate.of(1972, 1, 1), null, "purga3@test.com");
+        medico = medicoService.registrarMedico("Dr. Purga", "PURGAMED1", Especialidad.NEUROLOGIA, "purga.med@test.com");
+        medicoEliminado = medicoService.registrarMedico("Dr. Purgado", "PURGAMED2", Especialidad.NEUROLOGIA,
+            "purgado@test.com");
+        new HistorialMedicoService(emf).crearHistorial(eliminado.getId(), "Penicilina", null, null);
+
+        LocalDateTime base = LocalDate.now().plusDays(55).atTime(9, 0);
+        for (int i = 0; i < 3; i++) {
+            citaService.agendarCita(eliminado.getId(), medico.getId(), base.plusDays(i), "Control " + i);
+        }
+        citaEliminada = citaService.agendarCita(vigente.getId(), medico.getId(), base.plusHours(2), "Eliminada");
+        citaVigente = citaService.agendarCita(vigente.getId(), medico.getId(), base.plusHours(3), "Vigente");
+
+        pacienteService.eliminarPaciente(eliminado.getId());
+        medicoService.eliminarMedico(medicoEliminado.getId());
+        citaService.eliminarCita(citaEliminada.getId());
+        pacienteService.eliminarPaciente(reciente.getId());
+
+        // Todo lo eliminado salvo el paciente reciente pasa a estar fuera de la retención
+        ejecutar("UPDATE cita SET deleted_at = ?1 WHERE deleted_at IS NOT NULL AND medico_id = " + medico.getId());
+        ejecutar("UPDATE paciente SET deleted_at = ?1 WHERE id = " + eliminado.getId());
+        ejecutar("UPDATE medico SET deleted_at = ?1 WHERE id = " + medicoEliminado.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Debe borrar por lotes las filas eliminadas antes del límite, con el historial del paciente")
+    void debePurgarEliminadosAnterioresAlLimite() {
+        PurgaEliminados.Resultado resultado = new PurgaEliminados(emf, 2).purgarAnterioresA(LIMITE);
+
+        assertEquals(new PurgaEliminados.Resultado(4, 1, 1), resultado);
+        assertEquals(6, resultado.total());
+        assertEquals(0, contar("SELECT COUNT(*) FROM paciente WHERE id = " + eliminado.getId()));
+        assertEquals(0, contar("SELECT COUNT(*) FROM historial_medico WHERE paciente_id = " + eliminado.getId()));
+        assertEquals(0, contar("SELECT COUNT(*) FROM medico WHERE id = " + medicoEliminado.getId()));
+        assertEquals(0, contar("SELECT COUNT(*) FROM cita WHERE id = " + citaEliminada.getId()));
+    }
+
+    @Test
+    @DisplayName("Debe conservar las filas vigentes y las eliminadas dentro de la retención")
+    void debeConservarVigentesYRecientes() {
+        new PurgaEliminados(emf).purgarVencidos(PurgaEliminados.DIAS_RETENCION_POR_DEFECTO);
+
+        assertEquals(1, contar("SELECT COUNT(*) FROM paciente WHERE id = " + vigente.getId()));
+        assertEquals(1, contar("SELECT COUNT(*) FROM paciente WHERE id = " + reciente.getId() +
+            " AND deleted_at IS NOT NULL"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM medico WHERE id = " + medico.getId()));
+        assertEquals(1, contar("SELECT COUNT(*) FROM cita WHERE id = " + citaVigente.getId()));
+        assertEquals(0, contar("SELECT COUNT(*) FROM paciente WHERE id = " + eliminado.getId()));
+    }
+
+    @Test
+    @DisplayName("Una segunda purga no debe encontrar nada que borrar")
+    void segundaPurgaNoDebeBorrarNada() {
+        PurgaEliminados purga = new PurgaEliminados(emf, 2);
+        purga.purgarAnterioresA(LIMITE);
+
+        assertEquals(0, purga.purgarAnterioresA(LIMITE).total());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar argumentos inválidos")
+    void debeRechazarArgumentosInvalidos() {
+        PurgaEliminados purga = new PurgaEliminados(emf);
+
+        assertThrows(IllegalArgumentException.class, () -> new PurgaEliminados(emf, 0));
+        assertThrows(IllegalArgumentException.class, () -> purga.purgarVencidos(-1));
+        assertThrows(IllegalArgumentException.class, () -> purga.purgarAnterioresA(null));
+        assertThrows(IllegalArgumentException.class, () -> purga.iniciar(Duration.ZERO, 30));
+    }
+
+    private static void ejecutar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery(sql).setParameter(1, ELIMINADO_EN).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static long contar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return ((Number) em.createNativeQuery(sql).getSingleResult()).longValue();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'PURGAMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'PURGAMED%')").executeUpdate();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'PURGA%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'PURGA%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'PURGAMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.darwinruiz.hospital.exportacion;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.HistorialMedicoService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import com.darwinruiz.hospital.utils.CsvUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportadorDatosTest {
+
+    private static EntityManagerFactory emf;
+    private static ExportadorDatos exportador;
+
+    private static Paciente paciente;
+    private static Medico medico;
+    private static LocalDateTime primera;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory();
+        exportador = new ExportadorDatos(emf);
+        limpiarDatosPrueba();
+
+        PacienteService pacienteService = new PacienteService(emf);
+        MedicoService medicoService = new MedicoService(emf);
+        CitaService citaService = new CitaService(emf);
+
+        paciente = pacienteService.registrarPaciente("Pérez, \"Toño\"", "EXPDATPAC001",
+            LocalDate.of(1980, 3, 3), null, "exportacion@test.com");
+        medico = medicoService.registrarMedico("Dr. Exportación", "EXPDATMED001",
+            Especialidad.CARDIOLOGIA, "medico.exportacion@test.com");
+        new HistorialMedicoService(emf).crearHistorial(paciente.getId(), "Penicilina, polen",
+            "Línea uno\nLínea dos", null);
+
+        primera = LocalDate.now().plusDays(40).atTime(8, 0);
+        for (int i = 0; i < 5; i++) {
+            citaService.agendarCita(paciente.getId(), medico.getId(), primera.plusHours(i), i == 0 ? null : "Control " + i);
+        }
+        Cita atendida = citaService.agendarCita(paciente.getId(), medico.getId(), primera.plusDays(1), "Atendida");
+        citaService.cambiarEstadoCita(atendida.getId(), EstadoCita.ATENDIDA);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        limpiarDatosPrueba();
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe exportar a CSV las citas filtradas por médico y rango, en orden de fecha")
+    void debeExportarCitasCsv() throws IOException {
+        Path destino = directorio.resolve("citas.csv");
+        ExportadorDatos.Resultado resultado = exportador.exportarCitas(new ExportadorDatos.FiltroCitas(
+            primera, primera.plusHours(3), null, medico.getId()), destino);
+
+        assertEquals(ExportadorDatos.Formato.CSV, resultado.formato());
+        assertEquals(3, resultado.filas());
+
+        List<List<String>> registros = leerCsv(Files.newBufferedReader(destino, StandardCharsets.UTF_8));
+        assertEquals(4, registros.size());
+        assertEquals("id", registros.get(0).get(0));
+        assertEquals(primera.toString(), registros.get(1).get(1));
+        assertEquals("", registros.get(1).get(3));
+        assertEquals("Pérez, \"Toño\"", registros.get(1).get(5));
+        assertEquals("CARDIOLOGIA", registros.get(1).get(9));
+        assertEquals(primera.plusHours(2).toString(), registros.get(3).get(1));
+    }
+
+    @Test
+    @DisplayName("Debe exportar a NDJSON comprimido y filtrar por estado")
+    void debeExportarCitasNdjsonGzip() throws IOException {
+        Path destino = directorio.resolve("citas.ndjson.gz");
+        ExportadorDatos.Resultado resultado = exportador.exportarCitas(new ExportadorDatos.FiltroCitas(
+            null, null, EstadoCita.ATENDIDA, medico.getId()), destino);
+
+        assertEquals(ExportadorDatos.Formato.NDJSON, resultado.formato());
+        assertEquals(1, resultado.filas());
+
+        List<String> lineas;
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(destino)), StandardCharsets.UTF_8))) {
+            lineas = lector.lines().toList();
+        }
+        assertEquals(1, lineas.size());
+        JsonNode cita = new ObjectMapper().readTree(lineas.get(0));
+        assertEquals("ATENDIDA", cita.get("estado").asText());
+        assertEquals(paciente.getId().longValue(), cita.get("pacienteId").asLong());
+        assertTrue(cita.get("id").isNumber());
+        assertEquals("Atendida", cita.get("motivo").asText());
+    }
+
+    @Test
+    @DisplayName("Debe exportar historiales con comas y saltos de línea sin romper el CSV")
+    void debeExportarHistoriales() throws IOException {
+        Path destino = directorio.resolve("historiales.csv");
+        ExportadorDatos.Resultado resultado = exportador.exportarHistoriales(destino);
+
+        assertTrue(resultado.filas() >= 1);
+        List<List<String>> registros = leerCsv(Files.newBufferedReader(destino, StandardCharsets.UTF_8));
+        assertEquals(resultado.filas() + 1, registros.size());
+
+        List<String> propio = registros.stream()
+            .filter(registro -> "EXPDATPAC001".equals(registro.get(2)))
+            .findFirst().orElseThrow();
+        assertEquals("Penicilina, polen", propio.get(3));
+        assertEquals("Línea uno\nLínea dos", propio.get(4));
+        assertEquals("", propio.get(5));
+    }
+
+    @Test
+    @DisplayName("Debe deducir el formato por la extensión del archivo")
+    void debeDeducirFormato() {
+        assertEquals(ExportadorDatos.Formato.NDJSON, ExportadorDatos.Formato.desdeArchivo(Path.of("a.json")));
+        assertEquals(ExportadorDatos.Formato.NDJSON, ExportadorDatos.Formato.desdeArchivo(Path.of("a.NDJSON.gz")));
+        assertEquals(ExportadorDatos.Formato.CSV, ExportadorDatos.Formato.desdeArchivo(Path.of("a.csv.gz")));
+        assertEquals(ExportadorDatos.Formato.CSV, ExportadorDatos.Formato.desdeArchivo(Path.of("a.txt")));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un rango con la fecha de inicio posterior a la de fin")
+    void debeRechazarRangoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new ExportadorDatos.FiltroCitas(
+            primera, primera.minusDays(1), null, null));
+    }
+
+    private static List<List<String>> leerCsv(BufferedReader entrada) throws IOException {
+        try (entrada) {
+            CsvUtils.Lector lector = new CsvUtils.Lector(entrada);
+            List<List<String>> registros = new ArrayList<>();
+            List<String> registro;
+            while ((registro = lector.leerRegistro()) != null) {
+                registros.add(registro);
+            }
+            return registros;
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'EXPDAT%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'EXPDAT%')").executeUpdate();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'EXPDAT%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'EXPDAT%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'EXPDAT%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.darwinruiz.hospital.importacion;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportadorPacientesCsvTest {
+
+    private static EntityManagerFactory emf;
+    private static PacienteService pacienteService;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory();
+        pacienteService = new PacienteService(emf);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Debe importar las filas válidas y reportar las rechazadas con su línea y motivo")
+    void debeImportarYReportarRechazos() throws IOException {
+        pacienteService.registrarPaciente("Ya Registrado", "IMPCSV0005", LocalDate.of(1980, 1, 1), null,
+            "registrado@test.com");
+        Path archivo = escribir(
+            "nombre,dpi,fechaNacimiento,telefono,email",
+            "Ana López,IMPCSV0001,1990-05-10,55551234,ana@test.com",
+            "\"Pérez, Juan\",IMPCSV0002,10/11/1985,,juan@test.com",
+            "Email Malo,IMPCSV0003,1990-01-01,,sin-arroba",
+            "Fecha Futura,IMPCSV0004,2999-01-01,,futura@test.com",
+            "Duplicado En Base,IMPCSV0005,1970-01-01,,dup@test.com",
+            "Ana Repetida,IMPCSV0001,1991-01-01,,otra@test.com",
+            "Fecha Rota,IMPCSV0006,31-31-2000,,rota@test.com",
+            "Incompleta,IMPCSV0007");
+
+        Path reporte = directorio.resolve("rechazos.csv");
+        ImportadorPacientesCsv.Resultado resultado = new ImportadorPacientesCsv(emf, 3).importar(archivo, reporte);
+
+        assertEquals(8, resultado.leidas());
+        assertEquals(2, resultado.importadas());
+        assertEquals(6, resultado.rechazadas());
+
+        Optional<Paciente> juan = pacienteService.buscarPorDpi("IMPCSV0002");
+        assertTrue(juan.isPresent());
+        assertEquals("Pérez, Juan", juan.get().getNombre());
+        assertEquals(LocalDate.of(1985, 11, 10), juan.get().getFechaNacimiento());
+        assertNull(juan.get().getTelefono());
+        assertEquals("ana@test.com", pacienteService.buscarPorDpi("IMPCSV0001").orElseThrow().getEmail());
+
+        List<String> lineas = Files.readAllLines(reporte, StandardCharsets.UTF_8);
+        assertEquals("linea,dpi,motivo", lineas.get(0));
+        assertEquals(7, lineas.size());
+        assertTrue(lineas.get(1).startsWith("4,IMPCSV0003,"));
+        assertTrue(lineas.get(2).startsWith("5,IMPCSV0004,"));
+        assertEquals("6,IMPCSV0005,El DPI ya está registrado", lineas.get(3));
+        assertEquals("7,IMPCSV0001,DPI repetido en el archivo", lineas.get(4));
+        assertTrue(lineas.get(5).startsWith("8,IMPCSV0006,Fecha de nacimiento inválida"));
+        assertTrue(lineas.get(6).startsWith("9,IMPCSV0007,"));
+    }
+
+    @Test
+    @DisplayName("Una segunda importación del mismo archivo debe rechazar todo por DPI ya registrado")
+    void reimportarDebeSerIdempotente() throws IOException {
+        Path archivo = escribir(
+            "email,dpi,nombre,fechaNacimiento",
+            "uno@test.com,IMPCSV0101,Paciente Uno,2000-01-01",
+            "dos@test.com,IMPCSV0102,Paciente Dos,2000-01-02");
+        ImportadorPacientesCsv importador = new ImportadorPacientesCsv(emf);
+
+        assertEquals(2, importador.importar(archivo, directorio.resolve("r1.csv")).importadas());
+        ImportadorPacientesCsv.Resultado segunda = importador.importar(archivo, directorio.resolve("r2.csv"));
+
+        assertEquals(0, segunda.importadas());
+        assertEquals(2, segunda.rechazadas());
+        assertEquals(2, contarPacientesDePrueba());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un encabezado sin las columnas obligatorias")
+    void debeRechazarEncabezadoIncompleto() throws IOException {
+        Path archivo = escribir("nombre,dpi,email", "Sin Fecha,IMPCSV0201,x@test.com");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new ImportadorPacientesCsv(emf).importar(archivo, directorio.resolve("r.csv")));
+        assertTrue(e.getMessage().contains("fechanacimiento"));
+    }
+
+    private Path escribir(String... lineas) throws IOException {
+        Path archivo = directorio.resolve("pacientes.csv");
+        Files.write(archivo, List.of(lineas), StandardCharsets.UTF_8);
+        return archivo;
+    }
+
+    private static long contarPacientesDePrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(p) FROM Paciente p WHERE p.dpi LIKE 'IMPCSV%'", Long.class)
+                .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'IMPCSV%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
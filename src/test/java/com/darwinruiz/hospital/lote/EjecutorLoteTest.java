@@ -0,0 +1,259 @@
+package com.darwinruiz.hospital.lote;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EjecutorLoteTest {
+
+    private static EntityManagerFactory emf;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final LocalDateTime fechaCita = LocalDate.now().plusDays(30).atTime(10, 0);
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar un script mixto en un solo lote, resolviendo DPI y colegiado registrados en el mismo lote")
+    void debeEjecutarScriptMixtoEnUnLote() throws Exception {
+        String script = String.join("\n",
+            "# alta de datos",
+            "{\"comando\":\"registrarPaciente\",\"nombre\":\"Ana Lote\",\"dpi\":\"LOTE0001\",\"fechaNacimiento\":\"1990-04-01\",\"email\":\"ana.lote@test.com\",\"telefono\":\"55550000\"}",
+            "{\"comando\":\"registrarMedico\",\"nombre\":\"Dr. Lote\",\"colegiado\":\"LOTEMED001\",\"especialidad\":\"cardiologia\",\"email\":\"dr.lote@test.com\"}",
+            "",
+            "{\"comando\":\"agendarCita\",\"dpi\":\"LOTE0001\",\"colegiado\":\"LOTEMED001\",\"fechaHora\":\"" + fechaCita + "\",\"motivo\":\"Control\"}",
+            "{\"comando\":\"consultarPaciente\",\"dpi\":\"LOTE0001\"}",
+            "{\"comando\":\"citasPorPaciente\",\"dpi\":\"LOTE0001\"}");
+
+        StringWriter salida = new StringWriter();
+        EjecutorLote.Resumen resumen = new EjecutorLote(emf).ejecutar(new StringReader(script), salida);
+
+        assertEquals(5, resumen.comandos());
+        assertEquals(5, resumen.exitosos());
+        assertEquals(0, resumen.fallidos());
+        assertEquals(0, resumen.lotesReintentados());
+
+        List<JsonNode> resultados = leer(salida);
+        assertEquals(5, resultados.size());
+        for (JsonNode resultado : resultados) {
+            assertTrue(resultado.get("ok").asBoolean(), resultado.toString());
+        }
+        assertEquals(2, resultados.get(0).get("linea").asLong());
+        assertEquals("registrarMedico", resultados.get(1).get("comando").asText());
+        assertEquals("CARDIOLOGIA", resultados.get(1).get("resultado").get("especialidad").asText());
+
+        JsonNode cita = resultados.get(2).get("resultado");
+        assertEquals(5, resultados.get(2).get("linea").asLong());
+        assertEquals(fechaCita.toString(), cita.get("fechaHora").asText());
+        assertEquals("PROGRAMADA", cita.get("estado").asText());
+        assertEquals(resultados.get(0).get("resultado").get("id").asLong(), cita.get("pacienteId").asLong());
+
+        assertEquals("Ana Lote", resultados.get(3).get("resultado").get("nombre").asText());
+        assertEquals(1, resultados.get(4).get("resultado").size());
+        assertEquals(cita.get("id").asLong(), resultados.get(4).get("resultado").get(0).get("id").asLong());
+
+        assertTrue(new PacienteService(emf).buscarPorDpi("LOTE0001").isPresent());
+        assertEquals(1, new CitaService(emf).listarCitasPorPaciente(cita.get("pacienteId").asLong()).size());
+    }
+
+    @Test
+    @DisplayName("Si un comando falla, el lote se revierte y se reintenta uno por uno, confirmando los válidos")
+    void debeReintentarLoteConComandoFallido() throws Exception {
+        String script = String.join("\n",
+            paciente("LOTE0101", "uno.lote@test.com"),
+            paciente("LOTE0101", "repetido.lote@test.com"),
+            paciente("LOTE0102", "dos.lote@test.com"),
+            paciente("LOTE0103", "sin-arroba"));
+
+        StringWriter salida = new StringWriter();
+        EjecutorLote.Resumen resumen = new EjecutorLote(emf, 10).ejecutar(new StringReader(script), salida);
+
+        assertEquals(4, resumen.comandos());
+        assertEquals(2, resumen.exitosos());
+        assertEquals(2, resumen.fallidos());
+        assertEquals(1, resumen.lotesReintentados());
+
+        List<JsonNode> resultados = leer(salida);
+        assertTrue(resultados.get(0).get("ok").asBoolean());
+        assertFalse(resultados.get(1).get("ok").asBoolean());
+        assertEquals("PacienteYaExisteException", resultados.get(1).get("tipo").asText());
+        assertTrue(resultados.get(2).get("ok").asBoolean());
+        assertFalse(resultados.get(3).get("ok").asBoolean());
+        assertEquals(4, resultados.get(3).get("linea").asLong());
+
+        assertEquals(2, contarPacientesDePrueba());
+        assertEquals("uno.lote@test.com", new PacienteService(emf).buscarPorDpi("LOTE0101").orElseThrow().getEmail());
+    }
+
+    @Test
+    @DisplayName("Un DPI o colegiado repetido dentro del lote debe rechazarse sin revertir ni reintentar el lote")
+    void debeRechazarDuplicadosDelMismoLoteSinReintentar() throws Exception {
+        String medico = "{\"comando\":\"registrarMedico\",\"nombre\":\"Dr. Repetido\",\"colegiado\":\"LOTEMED201\"," +
+            "\"especialidad\":\"pediatria\",\"email\":\"repetido.med@test.com\"}";
+        String script = String.join("\n",
+            paciente("LOTE0201", "uno.dup@test.com"),
+            paciente("LOTE0201", "otro.dup@test.com"),
+            medico,
+            medico,
+            paciente("LOTE0202", "dos.dup@test.com"));
+
+        StringWriter salida = new StringWriter();
+        EjecutorLote.Resumen resumen = new EjecutorLote(emf, 10).ejecutar(new StringReader(script), salida);
+
+        assertEquals(5, resumen.comandos());
+        assertEquals(3, resumen.exitosos());
+        assertEquals(2, resumen.fallidos());
+        assertEquals(0, resumen.lotesReintentados());
+
+        List<JsonNode> resultados = leer(salida);
+        assertEquals("PacienteYaExisteException", resultados.get(1).get("tipo").asText());
+        assertEquals("MedicoYaExisteException", resultados.get(3).get("tipo").asText());
+        assertTrue(resultados.get(4).get("ok").asBoolean());
+        assertEquals(2, contarPacientesDePrueba());
+        assertEquals("repetido.med@test.com", new MedicoService(emf).buscarPorColegiado("LOTEMED201").orElseThrow().getEmail());
+        assertEquals("uno.dup@test.com", new PacienteService(emf).buscarPorDpi("LOTE0201").orElseThrow().getEmail());
+    }
+
+    @Test
+    @DisplayName("Debe reportar las líneas inválidas sin detener el resto del script")
+    void debeReportarLineasInvalidas() throws Exception {
+        String script = String.join("\n",
+            "{\"comando\":\"registrarPaciente\",",
+            "{\"comando\":\"teletransportar\"}",
+            "[1, 2]",
+            "{\"dpi\":\"LOTE0201\"}",
+            paciente("LOTE0201", "valido.lote@test.com"),
+            "{\"comando\":\"consultarPaciente\",\"dpi\":\"LOTE9999\"}");
+
+        StringWriter salida = new StringWriter();
+        EjecutorLote.Resumen resumen = new EjecutorLote(emf, 2).ejecutar(new StringReader(script), salida);
+
+        assertEquals(6, resumen.comandos());
+        assertEquals(2, resumen.exitosos());
+        assertEquals(4, resumen.fallidos());
+
+        List<JsonNode> resultados = leer(salida);
+        assertEquals(6, resultados.size());
+        for (int i = 0; i < resultados.size(); i++) {
+            assertEquals(i + 1, resultados.get(i).get("linea").asLong());
+        }
+        assertFalse(resultados.get(0).get("ok").asBoolean());
+        assertTrue(resultados.get(0).get("comando").isNull());
+        assertTrue(resultados.get(1).get("error").asText().contains("teletransportar"));
+        assertFalse(resultados.get(2).get("ok").asBoolean());
+        assertTrue(resultados.get(3).get("error").asText().contains("comando"));
+        assertTrue(resultados.get(4).get("ok").asBoolean());
+        assertTrue(resultados.get(5).get("ok").asBoolean());
+        assertTrue(resultados.get(5).get("resultado").isNull());
+        assertEquals(1, contarPacientesDePrueba());
+    }
+
+    @Test
+    @DisplayName("Debe cambiar el estado de una cita existente y rechazar estados desconocidos")
+    void debeCambiarEstadoDeCita() throws Exception {
+        Paciente paciente = new PacienteService(emf).registrarPaciente("Paciente Lote", "LOTE0301",
+            LocalDate.of(1985, 1, 1), null, "estado.lote@test.com");
+        Medico medico = new MedicoService(emf).registrarMedico("Dra. Lote", "LOTEMED301",
+            Especialidad.PEDIATRIA, "dra.lote@test.com");
+        Cita cita = new CitaService(emf).agendarCita(paciente.getId(), medico.getId(), fechaCita, "Revisión");
+
+        String script = String.join("\n",
+            "{\"comando\":\"cambiarEstadoCita\",\"citaId\":" + cita.getId() + ",\"estado\":\"atendida\"}",
+            "{\"comando\":\"cambiarEstadoCita\",\"citaId\":" + cita.getId() + ",\"estado\":\"PERDIDA\"}");
+
+        StringWriter salida = new StringWriter();
+        EjecutorLote.Resumen resumen = new EjecutorLote(emf).ejecutar(new StringReader(script), salida);
+
+        List<JsonNode> resultados = leer(salida);
+        assertEquals("ATENDIDA", resultados.get(0).get("resultado").get("estado").asText());
+        assertEquals("IllegalArgumentException", resultados.get(1).get("tipo").asText());
+        assertEquals(1, resumen.exitosos());
+        assertEquals(EstadoCita.ATENDIDA,
+            new CitaService(emf).buscarPorId(cita.getId()).orElseThrow().getEstado());
+    }
+
+    private static String paciente(String dpi, String email) {
+        return "{\"comando\":\"registrarPaciente\",\"nombre\":\"Paciente " + dpi + "\",\"dpi\":\"" + dpi +
+            "\",\"fechaNacimiento\":\"1980-01-01\",\"email\":\"" + email + "\"}";
+    }
+
+    private static List<JsonNode> leer(StringWriter salida) throws Exception {
+        List<JsonNode> resultados = new ArrayList<>();
+        for (String linea : salida.toString().split("\n")) {
+            if (!linea.isEmpty()) {
+                resultados.add(mapper.readTree(linea));
+            }
+        }
+        return resultados;
+    }
+
+    private static long contarPacientesDePrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(p) FROM Paciente p WHERE p.dpi LIKE 'LOTE%'", Long.class)
+                .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'LOTEMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'LOTEMED%')").executeUpdate();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'LOTE%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'LOTE%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'LOTEMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -267,7 +267,8 @@ class CitaIntegrationTest {
         Cita cita2 = new Cita(mismaFecha, "Motivo 2", paciente, medico);
 
         // When & Then
-        assertEquals(cita1, cita2); // Misma fecha, mismo paciente, mismo médico
-        assertEquals(cita1.hashCode(), cita2.hashCode());
+        assertNotEquals(cita1, cita2); // Misma fecha, paciente y médico, pero son dos citas
+        assertEquals(cita1.getUuid(), cita1.getUuid());
+        assertEquals(cita1, cita1);
     }
 }
\ No newline at end of file
@@ -52,8 +52,8 @@ class CitaJPATest {
         
         for (Index index : indexes) {
             switch (index.name()) {
-                case "ix_cita_paciente":
-                    assertEquals("paciente_id", index.columnList());
+                case "ix_cita_paciente_fecha":
+                    assertEquals("paciente_id, fecha_hora DESC", index.columnList());
                     tieneIndicePaciente = true;
                     break;
                 case "ix_cita_medico":
@@ -242,8 +242,13 @@ class CitaRelationshipTest {
         Cita cita3 = new Cita(mismaFecha, "Motivo 1", paciente2, medico1);
         Cita cita4 = new Cita(mismaFecha, "Motivo 1", paciente1, medico2);
         
-        // Misma fecha, mismo paciente, mismo médico -> iguales
-        assertEquals(cita1, cita2);
+        // Misma fecha, mismo paciente, mismo médico -> dos citas distintas
+        assertNotEquals(cita1, cita2);
+        assertEquals(cita1, cita1);
+
+        // Cambiar las relaciones no cambia la identidad
+        cita2.setPaciente(paciente2);
+        assertEquals(cita2, cita2);
         
         // Diferente paciente -> no iguales
         assertNotEquals(cita1, cita3);
@@ -323,8 +323,8 @@ class CitaTest {
         Cita cita2 = new Cita(fechaFutura, "Motivo 2", paciente, medico);
         Cita cita3 = new Cita(fechaFutura.plusHours(1), "Motivo 1", paciente, medico);
         
-        assertEquals(cita1, cita2); // Mismo paciente, médico y fecha
-        assertNotEquals(cita1, cita3); // Diferente fecha
+        assertNotEquals(cita1, cita2); // Mismos datos, pero cada cita nueva tiene su propio uuid
+        assertNotEquals(cita1, cita3);
         assertNotEquals(cita1, null);
         assertEquals(cita1, cita1);
     }
@@ -333,9 +333,11 @@ class CitaTest {
     @DisplayName("Debe implementar hashCode correctamente")
     void debeImplementarHashCodeCorrectamente() {
         Cita cita1 = new Cita(fechaFutura, "Motivo 1", paciente, medico);
-        Cita cita2 = new Cita(fechaFutura, "Motivo 2", paciente, medico);
-        
-        assertEquals(cita1.hashCode(), cita2.hashCode());
+        int hashCode = cita1.hashCode();
+
+        cita1.setId(1L);
+
+        assertEquals(hashCode, cita1.hashCode());
     }
 
     @Test
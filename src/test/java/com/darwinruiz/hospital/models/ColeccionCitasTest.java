@@ -0,0 +1,245 @@
+package com.darwinruiz.hospital.models;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las colecciones de citas de médico y paciente: conjuntos en orden cronológico y vistas
+ * de solo lectura con las próximas citas programadas, filtradas en la base de datos.
+ */
+class ColeccionCitasTest {
+
+    private static EntityManagerFactory emf;
+    private static Statistics estadisticas;
+
+    private Paciente paciente;
+    private Medico medico;
+    private final List<LocalDateTime> programadas = new ArrayList<>();
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory(Map.of("hibernate.generate_statistics", "true"));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        paciente = new PacienteService(emf).registrarPaciente("Paciente Coleccion", "COLEC0000001",
+            LocalDate.of(1978, 7, 7), null, "coleccion@test.com");
+        medico = new MedicoService(emf).registrarMedico("Dr. Coleccion", "COLECMED1", Especialidad.CARDIOLOGIA,
+            "coleccion.med@test.com");
+
+        // Se agendan fuera de orden para comprobar el orden de la colección
+        CitaService citaService = new CitaService(emf);
+        LocalDateTime base = LocalDate.now().plusDays(15).atTime(9, 0);
+        for (int dias : new int[]{3, 1, 2}) {
+            citaService.agendarCita(paciente.getId(), medico.getId(), base.plusDays(dias), "Control " + dias);
+            programadas.add(base.plusDays(dias));
+        }
+        programadas.sort(null);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("INSERT INTO cita (fecha_hora, estado, motivo, paciente_id, medico_id) VALUES " +
+                    "(?1, 'ATENDIDA', 'Pasada', ?3, ?4), (?2, 'CANCELADA', 'Cancelada', ?3, ?4)")
+                .setParameter(1, LocalDate.now().minusDays(10).atTime(9, 0))
+                .setParameter(2, base.plusDays(4))
+                .setParameter(3, paciente.getId())
+                .setParameter(4, medico.getId())
+                .executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Las citas del médico y del paciente deben venir en orden cronológico")
+    void debeOrdenarCitasPorFecha() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<LocalDateTime> delMedico = fechas(em.find(Medico.class, medico.getId()).getCitas());
+            List<LocalDateTime> delPaciente = fechas(em.find(Paciente.class, paciente.getId()).getCitas());
+
+            assertEquals(5, delMedico.size());
+            assertEquals(delMedico.stream().sorted().toList(), delMedico);
+            assertEquals(delMedico, delPaciente);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Las citas programadas deben excluir las pasadas y las canceladas")
+    void debeFiltrarCitasProgramadas() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Medico cargado = em.find(Medico.class, medico.getId());
+            Paciente pacienteCargado = em.find(Paciente.class, paciente.getId());
+
+            assertEquals(programadas, fechas(cargado.getCitasProgramadas()));
+            assertEquals(programadas, fechas(pacienteCargado.getCitasProgramadas()));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Las citas programadas deben ser de solo lectura")
+    void debeImpedirModificarCitasProgramadas() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Medico cargado = em.find(Medico.class, medico.getId());
+            Set<Cita> agenda = cargado.getCitasProgramadas();
+            Cita cita = agenda.iterator().next();
+
+            assertThrows(UnsupportedOperationException.class, () -> agenda.remove(cita));
+            assertThrows(UnsupportedOperationException.class, agenda::clear);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Buscar una cita cargada en otra sesión dentro de la colección no debe ejecutar SQL")
+    void debeBuscarCitaEnColeccionSinSql() {
+        Cita externa;
+        EntityManager otra = emf.createEntityManager();
+        try {
+            externa = otra.createQuery("SELECT c FROM Cita c WHERE c.motivo = 'Control 2' AND c.medico.id = ?1", Cita.class)
+                .setParameter(1, medico.getId())
+                .getSingleResult();
+        } finally {
+            otra.close();
+        }
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Set<Cita> citas = em.find(Medico.class, medico.getId()).getCitas();
+            citas.size();
+            estadisticas.clear();
+
+            assertTrue(citas.contains(externa));
+            assertEquals(0, estadisticas.getPrepareStatementCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Una cita agregada antes de persistirse en cascada debe poder quitarse de la colección")
+    void debeQuitarCitaAgregadaAntesDePersistir() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Medico cargado = em.find(Medico.class, medico.getId());
+            Cita nueva = new Cita(LocalDate.now().plusDays(60).atTime(8, 0), "Nueva",
+                em.find(Paciente.class, paciente.getId()), cargado);
+            cargado.addCita(nueva);
+
+            em.flush();
+            assertNotNull(nueva.getId());
+            assertTrue(cargado.getCitas().contains(nueva));
+
+            cargado.removeCita(nueva);
+            assertFalse(cargado.getCitas().contains(nueva));
+            assertEquals(5, cargado.getCitas().size());
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Buscar y quitar una cita de un conjunto grande no debe compararla con cada elemento")
+    void debeBuscarEnConjuntoSinCompararCadaElemento() {
+        // equals lee getId() del elemento con el que compara: cuenta las comparaciones
+        int[] comparaciones = {0};
+        Set<Cita> citas = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            citas.add(new Cita() {
+                @Override
+                public Long getId() {
+                    comparaciones[0]++;
+                    return super.getId();
+                }
+            });
+        }
+        Cita presente = citas.iterator().next();
+        comparaciones[0] = 0;
+
+        assertFalse(citas.contains(new Cita()));
+        assertTrue(citas.contains(presente));
+        assertTrue(citas.remove(presente));
+        assertFalse(citas.remove(new Cita()));
+
+        assertEquals(999, citas.size());
+        assertTrue(comparaciones[0] < 10, "Comparaciones: " + comparaciones[0]);
+    }
+
+    @Test
+    @DisplayName("Eliminar un médico con citas debe rechazarse sin cargar su colección de citas")
+    void debeRechazarEliminarMedicoSinCargarCitas() {
+        MedicoService medicoService = new MedicoService(emf);
+        estadisticas.clear();
+
+        assertThrows(RuntimeException.class, () -> medicoService.eliminarMedico(medico.getId()));
+
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+        assertTrue(medicoService.buscarPorId(medico.getId()).isPresent());
+    }
+
+    private static List<LocalDateTime> fechas(Set<Cita> citas) {
+        return citas.stream().map(Cita::getFechaHora).toList();
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'COLECMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'COLECMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'COLEC%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'COLECMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.darwinruiz.hospital.models;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.repositories.CitaRepository;
+import com.darwinruiz.hospital.repositories.PerfilCarga;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de equals y hashCode de las entidades: equals se resuelve por id sin inicializar proxies ni
+ * ejecutar SQL, y el hashCode usa el uuid, que no cambia al persistir ni al reasignar asociaciones.
+ */
+class IgualdadEntidadesTest {
+
+    private static EntityManagerFactory emf;
+    private static Statistics estadisticas;
+
+    private Paciente paciente;
+    private Medico cardiologo;
+    private Medico pediatra;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory(Map.of("hibernate.generate_statistics", "true"));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        paciente = new PacienteService(emf).registrarPaciente("Paciente Igualdad", "IGUAL0000001",
+            LocalDate.of(1985, 5, 5), null, "igualdad@test.com");
+        MedicoService medicoService = new MedicoService(emf);
+        cardiologo = medicoService.registrarMedico("Dr. Igualdad Uno", "IGUALMED1", Especialidad.CARDIOLOGIA, "igual1@test.com");
+        pediatra = medicoService.registrarMedico("Dra. Igualdad Dos", "IGUALMED2", Especialidad.PEDIATRIA, "igual2@test.com");
+
+        CitaService citaService = new CitaService(emf);
+        LocalDateTime base = LocalDate.now().plusDays(25).atTime(10, 0);
+        for (int i = 0; i < 4; i++) {
+            citaService.agendarCita(paciente.getId(), i % 2 == 0 ? cardiologo.getId() : pediatra.getId(),
+                base.plusDays(i), "Control " + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Meter y quitar citas de un HashSet no debe inicializar sus proxies ni ejecutar SQL")
+    void debeOperarConjuntosDeCitasSinSql() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            CitaRepository repositorio = new CitaRepository();
+            repositorio.setEntityManager(em);
+            List<Cita> citas = repositorio.findByPacienteId(paciente.getId(), PerfilCarga.CITA_RESUMEN);
+            estadisticas.clear();
+
+            Set<Cita> conjunto = new HashSet<>(citas);
+            for (Cita cita : citas) {
+                assertTrue(conjunto.contains(cita));
+                assertFalse(cita.conflictaConHorario(citas.get(0)) && cita != citas.get(0));
+            }
+            assertTrue(conjunto.remove(citas.get(1)));
+
+            assertEquals(3, conjunto.size());
+            assertEquals(0, estadisticas.getPrepareStatementCount());
+            for (Cita cita : citas) {
+                assertFalse(Hibernate.isInitialized(cita.getPaciente()));
+                assertFalse(Hibernate.isInitialized(cita.getMedico()));
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Quitar una cita de la agenda de un médico no debe ejecutar SQL además de cargar la agenda")
+    void debeQuitarCitaDeMedicoSinSql() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Medico medico = em.find(Medico.class, cardiologo.getId());
+            Set<Cita> agenda = medico.getCitas();
+            assertEquals(2, agenda.size());
+            Cita cita = agenda.iterator().next();
+            estadisticas.clear();
+
+            medico.removeCita(cita);
+
+            assertEquals(1, agenda.size());
+            assertFalse(agenda.contains(cita));
+            assertEquals(0, estadisticas.getPrepareStatementCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Un proxy debe ser igual a la entidad cargada con el mismo id sin inicializarse, y tener su hashCode")
+    void debeCompararProxyConEntidadCargada() {
+        EntityManager em = emf.createEntityManager();
+        EntityManager otraSesion = emf.createEntityManager();
+        try {
+            Medico proxy = em.getReference(Medico.class, cardiologo.getId());
+            Paciente proxyPaciente = em.getReference(Paciente.class, paciente.getId());
+            Medico cargado = otraSesion.find(Medico.class, cardiologo.getId());
+            estadisticas.clear();
+
+            assertEquals(proxy, cargado);
+            assertEquals(cargado, proxy);
+            assertNotEquals(proxy, otraSesion.getReference(Medico.class, pediatra.getId()));
+            assertEquals(proxyPaciente, paciente);
+
+            assertEquals(0, estadisticas.getPrepareStatementCount());
+            assertFalse(Hibernate.isInitialized(proxy));
+            assertFalse(Hibernate.isInitialized(proxyPaciente));
+
+            // El uuid no está en el proxy: hashCode lo inicializa
+            assertEquals(proxy.hashCode(), cargado.hashCode());
+            assertEquals(proxyPaciente.hashCode(), paciente.hashCode());
+        } finally {
+            em.close();
+            otraSesion.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Una cita en un HashSet debe seguir encontrándose después de persistirla y de cambiar su médico")
+    void debeMantenerHashCodeAlPersistirYReasignar() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Cita cita = new Cita(LocalDate.now().plusDays(40).atTime(11, 0), "Nueva",
+                em.getReference(Paciente.class, paciente.getId()), em.getReference(Medico.class, cardiologo.getId()));
+            Set<Cita> conjunto = new HashSet<>(Set.of(cita));
+
+            em.persist(cita);
+            assertNotNull(cita.getId());
+            assertTrue(conjunto.contains(cita));
+
+            cita.setMedico(em.getReference(Medico.class, pediatra.getId()));
+            assertTrue(conjunto.contains(cita));
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Una entidad persistida no debe ser igual a una sin persistir con la misma clave natural")
+    void noDebeIgualarPersistidaConSinPersistir() {
+        Medico sinPersistir = new Medico("Dr. Copia", "IGUALMED1", Especialidad.CARDIOLOGIA, "copia@test.com");
+        Paciente pacienteSinPersistir = new Paciente();
+        pacienteSinPersistir.setDpi("IGUAL0000001");
+
+        assertNotEquals(cardiologo, sinPersistir);
+        assertNotEquals(sinPersistir, cardiologo);
+        assertNotEquals(paciente, pacienteSinPersistir);
+    }
+
+    @Test
+    @DisplayName("Un médico debe ser igual antes y después de persistirlo, y a su copia cargada en otra sesión")
+    void debeConservarIgualdadAlPersistir() {
+        Medico medico = new Medico("Dr. Igualdad Tres", "IGUALMED3", Especialidad.NEUROLOGIA, "igual3@test.com");
+        Medico otroSinPersistir = new Medico("Dr. Igualdad Tres", "IGUALMED3", Especialidad.NEUROLOGIA, "igual3@test.com");
+        Set<Medico> conjunto = new HashSet<>(Set.of(medico));
+        assertNotEquals(medico, otroSinPersistir);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(medico);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        EntityManager otraSesion = emf.createEntityManager();
+        try {
+            Medico cargado = otraSesion.find(Medico.class, medico.getId());
+
+            assertEquals(medico.getUuid(), cargado.getUuid());
+            assertEquals(medico, cargado);
+            assertEquals(cargado, medico);
+            assertTrue(conjunto.contains(medico));
+            assertTrue(conjunto.contains(cargado));
+            assertNotEquals(medico, otroSinPersistir);
+            assertNotEquals(otroSinPersistir, cargado);
+        } finally {
+            otraSesion.close();
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'IGUALMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'IGUALMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'IGUAL%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'IGUALMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -260,24 +260,27 @@ class MedicoTest {
     }
 
     @Test
-    @DisplayName("Equals debe comparar por colegiado")
-    void equalsDebeCompararPorColegiado() {
+    @DisplayName("Equals debe comparar la identidad del médico, no el colegiado")
+    void equalsDebeCompararPorIdentidad() {
         Medico medico1 = new Medico("Dr. A", "COL123", Especialidad.CARDIOLOGIA, "a@hospital.com");
         Medico medico2 = new Medico("Dr. B", "COL123", Especialidad.NEUROLOGIA, "b@hospital.com");
         Medico medico3 = new Medico("Dr. C", "COL456", Especialidad.CARDIOLOGIA, "c@hospital.com");
         
-        assertEquals(medico1, medico2, "Médicos con mismo colegiado deben ser iguales");
+        assertEquals(medico1, medico1);
+        assertNotEquals(medico1, medico2, "Dos médicos nuevos no son iguales aunque repitan el colegiado");
         assertNotEquals(medico1, medico3, "Médicos con diferente colegiado no deben ser iguales");
     }
 
     @Test
-    @DisplayName("HashCode debe ser consistente con equals")
-    void hashCodeDebeSerConsistenteConEquals() {
+    @DisplayName("HashCode no debe cambiar al asignarse el id")
+    void hashCodeNoDebeCambiarAlAsignarseElId() {
         Medico medico1 = new Medico("Dr. A", "COL123", Especialidad.CARDIOLOGIA, "a@hospital.com");
-        Medico medico2 = new Medico("Dr. B", "COL123", Especialidad.NEUROLOGIA, "b@hospital.com");
-        
-        assertEquals(medico1.hashCode(), medico2.hashCode(), 
-                    "HashCode debe ser igual para objetos iguales");
+        int hashCode = medico1.hashCode();
+
+        medico1.setId(1L);
+
+        assertEquals(medico1, medico1);
+        assertEquals(hashCode, medico1.hashCode(), "HashCode no debe cambiar al persistir");
     }
 
     @Test
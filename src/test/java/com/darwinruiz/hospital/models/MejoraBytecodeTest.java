@@ -0,0 +1,151 @@
+package com.darwinruiz.hospital.models;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.services.HistorialMedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las entidades mejoradas en la compilación: seguimiento de cambios en línea y textos
+ * del historial cargados de forma diferida.
+ */
+class MejoraBytecodeTest {
+
+    private static EntityManagerFactory emf;
+
+    private Long pacienteId;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        Paciente paciente = new PacienteService(emf).registrarPaciente("Paciente Mejora", "MEJORA0000001",
+            LocalDate.of(1975, 6, 15), "55551234", "mejora@test.com");
+        pacienteId = paciente.getId();
+        new HistorialMedicoService(emf).crearHistorial(pacienteId,
+            "Alergia a la aspirina", "Hipertensión", "Control trimestral");
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Todas las entidades deben estar mejoradas con seguimiento de cambios")
+    void debeMejorarTodasLasEntidades() {
+        for (Class<?> entidad : List.of(Paciente.class, Medico.class, Cita.class,
+                HistorialMedico.class, EstadisticaCitaDiaria.class)) {
+            assertTrue(ManagedEntity.class.isAssignableFrom(entidad), entidad.getSimpleName());
+            assertTrue(SelfDirtinessTracker.class.isAssignableFrom(entidad), entidad.getSimpleName());
+            assertTrue(PersistentAttributeInterceptable.class.isAssignableFrom(entidad), entidad.getSimpleName());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe registrar en la entidad los atributos modificados, sin comparar contra la copia")
+    void debeRegistrarAtributosModificados() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Paciente paciente = em.find(Paciente.class, pacienteId);
+            SelfDirtinessTracker seguimiento = (SelfDirtinessTracker) paciente;
+
+            paciente.setTelefono("55559999");
+            paciente.setNombre(paciente.getNombre());
+
+            List<String> modificados = Arrays.asList(seguimiento.$$_hibernate_getDirtyAttributes());
+            assertTrue(modificados.contains("telefono"));
+            assertFalse(modificados.contains("nombre"));
+            assertFalse(modificados.contains("email"));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        assertEquals("55559999", new PacienteService(emf).buscarPorId(pacienteId).orElseThrow().getTelefono());
+    }
+
+    @Test
+    @DisplayName("Los textos del historial no se cargan hasta que se leen, y se cargan juntos")
+    void debeCargarTextosDelHistorialDiferidos() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            HistorialMedico historial = em.find(HistorialMedico.class, pacienteId);
+
+            assertEquals(pacienteId, historial.getPaciente().getId());
+            assertFalse(Hibernate.isPropertyInitialized(historial, "alergias"));
+            assertFalse(Hibernate.isPropertyInitialized(historial, "antecedentes"));
+            assertFalse(Hibernate.isPropertyInitialized(historial, "observaciones"));
+
+            assertEquals("Alergia a la aspirina", historial.getAlergias());
+            assertTrue(Hibernate.isPropertyInitialized(historial, "antecedentes"));
+            assertTrue(Hibernate.isPropertyInitialized(historial, "observaciones"));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Las consultas del historial deben traer los textos para mostrarlos fuera de la sesión")
+    void debeTraerTextosEnConsultas() {
+        HistorialMedico historial = new HistorialMedicoService(emf).consultarHistorial(pacienteId).orElseThrow();
+
+        assertEquals("Alergia a la aspirina", historial.getAlergias());
+        assertEquals("Hipertensión", historial.getAntecedentes());
+        assertEquals("Control trimestral", historial.getObservaciones());
+        assertTrue(historial.tieneInformacion());
+    }
+
+    @Test
+    @DisplayName("Debe actualizar los textos del historial sin cargarlos antes")
+    void debeActualizarTextosSinCargarlos() {
+        HistorialMedico actualizado = new HistorialMedicoService(emf)
+            .actualizarHistorial(pacienteId, "Ninguna", null, "Alta médica");
+
+        assertEquals("Ninguna", actualizado.getAlergias());
+        assertNull(actualizado.getAntecedentes());
+
+        HistorialMedico historial = new HistorialMedicoService(emf).consultarHistorial(pacienteId).orElseThrow();
+        assertEquals(Arrays.asList("Ninguna", null, "Alta médica"),
+            Arrays.asList(historial.getAlergias(), historial.getAntecedentes(), historial.getObservaciones()));
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'MEJORA%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'MEJORA%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
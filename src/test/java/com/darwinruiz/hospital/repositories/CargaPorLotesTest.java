@@ -0,0 +1,169 @@
+package com.darwinruiz.hospital.repositories;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la carga por lotes: recorrer las citas de N médicos o pacientes, o las referencias de N
+ * citas, toma ceil(N / lote) sentencias en lugar de una por entidad.
+ */
+class CargaPorLotesTest {
+
+    private static final int LOTE = 3;
+    private static final int MEDICOS = 7;
+
+    private static EntityManagerFactory emf;
+    private static Statistics estadisticas;
+
+    private Paciente paciente;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory(Map.of(
+            "hibernate.generate_statistics", "true",
+            "hibernate.default_batch_fetch_size", String.valueOf(LOTE)));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        PacienteService pacienteService = new PacienteService(emf);
+        paciente = pacienteService.registrarPaciente("Paciente Lote", "LOTE00000001",
+            LocalDate.of(1990, 3, 3), null, "lote@test.com");
+        Paciente otro = pacienteService.registrarPaciente("Paciente Lote Dos", "LOTE00000002",
+            LocalDate.of(1991, 4, 4), null, "lote2@test.com");
+
+        MedicoService medicoService = new MedicoService(emf);
+        CitaService citaService = new CitaService(emf);
+        LocalDateTime base = LocalDate.now().plusDays(30).atTime(9, 0);
+        for (int i = 0; i < MEDICOS; i++) {
+            Medico medico = medicoService.registrarMedico("Dr. Lote " + i, "LOTEMED" + i,
+                Especialidad.values()[i % Especialidad.values().length], "lotemed" + i + "@test.com");
+            citaService.agendarCita(paciente.getId(), medico.getId(), base.plusDays(i), "Control " + i);
+            citaService.agendarCita(otro.getId(), medico.getId(), base.plusDays(i).plusHours(1), "Revisión " + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Recorrer las citas de N médicos debe tomar ceil(N / lote) + 1 sentencias")
+    void debeCargarCitasDeMedicosPorLotes() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            estadisticas.clear();
+            List<Medico> medicos = em.createQuery(
+                "SELECT m FROM Medico m WHERE m.colegiado LIKE 'LOTEMED%' ORDER BY m.colegiado", Medico.class)
+                .getResultList();
+
+            int citas = 0;
+            for (Medico medico : medicos) {
+                citas += medico.getCitas().size();
+            }
+
+            assertEquals(MEDICOS, medicos.size());
+            assertEquals(2 * MEDICOS, citas);
+            assertEquals(lotes(MEDICOS) + 1, estadisticas.getPrepareStatementCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Recorrer las citas de varios pacientes debe cargarlas en una sola sentencia por lote")
+    void debeCargarCitasDePacientesPorLotes() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            estadisticas.clear();
+            List<Paciente> pacientes = em.createQuery(
+                "SELECT p FROM Paciente p WHERE p.dpi LIKE 'LOTE%' ORDER BY p.dpi", Paciente.class)
+                .getResultList();
+
+            for (Paciente p : pacientes) {
+                assertEquals(MEDICOS, p.getCitas().size());
+            }
+
+            assertEquals(2, pacientes.size());
+            assertEquals(2, estadisticas.getPrepareStatementCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Los médicos de N citas cargadas en resumen deben inicializarse en ceil(N / lote) sentencias")
+    void debeInicializarReferenciasDeCitasPorLotes() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            CitaRepository repositorio = new CitaRepository();
+            repositorio.setEntityManager(em);
+            List<Cita> citas = repositorio.findByPacienteId(paciente.getId(), PerfilCarga.CITA_RESUMEN);
+            assertEquals(MEDICOS, citas.size());
+
+            estadisticas.clear();
+            for (Cita cita : citas) {
+                assertTrue(cita.getMedico().getNombre().startsWith("Dr. Lote"));
+            }
+            assertEquals(lotes(MEDICOS), estadisticas.getPrepareStatementCount());
+
+            estadisticas.clear();
+            for (Cita cita : citas) {
+                assertEquals("LOTE00000001", cita.getPaciente().getDpi());
+            }
+            assertEquals(1, estadisticas.getPrepareStatementCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    private static long lotes(int entidades) {
+        return (entidades + LOTE - 1) / LOTE;
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'LOTEMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'LOTEMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'LOTE%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'LOTEMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
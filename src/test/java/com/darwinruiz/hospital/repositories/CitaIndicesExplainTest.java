@@ -0,0 +1,294 @@
+package com.darwinruiz.hospital.repositories;
+
+import com.darwinruiz.hospital.database.MantenimientoParticiones;
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.*;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica con EXPLAIN que las consultas sobre citas PROGRAMADAS usan los índices
+ * parciales y compuestos definidos en db/migracion/indices_cita_programada.sql.
+ * El SQL se obtiene traduciendo el mismo JPQL que ejecutan los repositorios.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CitaIndicesExplainTest {
+
+    private static final int PACIENTES = 200;
+    private static final int MEDICOS = 40;
+
+    private static EntityManagerFactory emf;
+    private static Paciente paciente;
+    private static Medico medico;
+    private static LocalDateTime base;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistencia.crearEntityManagerFactory();
+
+        paciente = new Paciente("Paciente Explain", "7700000000001", LocalDate.of(1990, 1, 1),
+            "77000001", "explain.paciente@test.com");
+        medico = new Medico("Dr. Explain", "COLEXPLAIN1", Especialidad.CARDIOLOGIA, "dr.explain@test.com");
+        base = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+        // Particiones fuera de los rangos consultados, para comprobar que el planificador las descarta
+        MantenimientoParticiones particiones = new MantenimientoParticiones(emf);
+        particiones.crearParticion(YearMonth.from(base).minusMonths(1));
+        particiones.asegurarParticionesFuturas(CitaRepository.HORIZONTE_PROXIMAS_CITAS_MESES + 2);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(paciente);
+            em.persist(medico);
+
+            // Volumen suficiente para que el planificador distinga entre los índices disponibles
+            Paciente[] pacientes = new Paciente[PACIENTES];
+            Medico[] medicos = new Medico[MEDICOS];
+            for (int i = 0; i < PACIENTES; i++) {
+                pacientes[i] = new Paciente("Paciente Explain " + i, String.format("77100%08d", i),
+                    LocalDate.of(1980, 1, 1), null, "explain" + i + "@test.com");
+                em.persist(pacientes[i]);
+            }
+            for (int i = 0; i < MEDICOS; i++) {
+                medicos[i] = new Medico("Dr. Explain " + i, "COLEXP" + i, Especialidad.PEDIATRIA,
+                    "dr.explain" + i + "@test.com");
+                em.persist(medicos[i]);
+            }
+
+            for (int i = 0; i < 40; i++) {
+                Cita cita = new Cita(base.plusMinutes(30L * i), "Control " + i, paciente, medico);
+                if (i % 3 == 0) {
+                    cita.cambiarEstado(EstadoCita.CANCELADA);
+                }
+                em.persist(cita);
+            }
+            for (int dia = 0; dia < 60; dia++) {
+                for (int m = 0; m < MEDICOS; m++) {
+                    Cita cita = new Cita(base.plusDays(dia + 1).plusMinutes(30L * (m % 16)), null,
+                        pacientes[(dia * MEDICOS + m) % PACIENTES], medicos[m]);
+                    if (dia < 45) {
+                        cita.cambiarEstado(dia % 5 == 0 ? EstadoCita.CANCELADA : EstadoCita.ATENDIDA);
+                    }
+                    em.persist(cita);
+                }
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        ejecutar("ANALYZE cita");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'COLEXP%')").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'COLEXP%'").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE '77%' AND p.email LIKE 'explain%'")
+                .executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+            emf.close();
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("existeConflictoHorario usa un índice parcial de citas programadas")
+    void conflictoHorarioUsaIndiceParcial() {
+        String plan = explicar(CitaRepository.JPQL_CONFLICTO_HORARIO, medico.getId(), base.plusMinutes(30));
+
+        assertTrue(usaIndiceProgramadas(plan), plan);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("findCitasHoy usa el índice parcial sobre fecha_hora")
+    void citasHoyUsaIndiceParcial() {
+        String plan = explicar(CitaRepository.JPQL_CITAS_PROGRAMADAS_EN_RANGO,
+            base.toLocalDate().atStartOfDay(), base.toLocalDate().plusDays(1).atStartOfDay());
+
+        assertTrue(usaIndiceProgramadas(plan), plan);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("findByPacienteId usa el índice compuesto (paciente_id, fecha_hora)")
+    void citasPorPacienteUsaIndiceCompuesto() {
+        String plan = explicar(CitaRepository.JPQL_CITAS_POR_PACIENTE, paciente.getId());
+
+        assertTrue(plan.contains("_paciente_fecha"), plan);
+        assertFalse(plan.contains("Seq Scan on cita"), plan);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("findMedicosDisponiblesEnFechaHora resuelve el NOT EXISTS con el índice parcial")
+    void medicosDisponiblesUsaIndiceParcial() {
+        String plan = explicar(MedicoRepository.JPQL_DISPONIBLES_EN_FECHA_HORA, base);
+
+        assertTrue(usaIndiceProgramadas(plan), plan);
+        assertTrue(plan.contains("Anti Join"), plan);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("findMedicosOrderByCitasProgramadas cuenta solo citas programadas e incluye médicos sin ellas")
+    void medicosOrdenadosPorCitasProgramadas() {
+        String plan = explicar(MedicoRepository.JPQL_ORDENADOS_POR_CITAS_PROGRAMADAS);
+        assertTrue(usaIndiceProgramadas(plan), plan);
+
+        MedicoRepository repository = new MedicoRepository();
+        assertTrue(repository.findMedicosOrderByCitasProgramadas().stream()
+            .anyMatch(m -> m.getId().equals(medico.getId())));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Las consultas por rango de fechas solo recorren las particiones del rango")
+    void consultasPorRangoPodanParticiones() {
+        String particionBase = String.format("cita_%1$tY_%1$tm", base);
+
+        String plan = explicar(CitaRepository.JPQL_CITAS_EN_RANGO,
+            base.toLocalDate().atStartOfDay(), base.toLocalDate().plusDays(1).atStartOfDay());
+        assertTrue(plan.contains(particionBase), plan);
+        assertFalse(plan.contains("cita_default"), plan);
+        assertEquals(1, contarParticionesRecorridas(plan), plan);
+
+        String planProximas = explicar(CitaRepository.JPQL_PROXIMAS_CITAS_POR_MEDICO,
+            medico.getId(), base, base.plusMonths(CitaRepository.HORIZONTE_PROXIMAS_CITAS_MESES));
+        assertFalse(planProximas.contains(String.format("cita_%1$tY_%1$tm", base.minusMonths(1))), planProximas);
+        assertFalse(planProximas.contains(String.format("cita_%1$tY_%1$tm",
+            base.plusMonths(CitaRepository.HORIZONTE_PROXIMAS_CITAS_MESES + 1))), planProximas);
+        assertFalse(planProximas.contains("cita_default"), planProximas);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Las consultas por estado sin rango explícito no recorren las particiones fuera de su ventana")
+    void consultasPorEstadoPodanParticiones() {
+        LocalDateTime inicio = LocalDate.now().minusMonths(CitaRepository.HISTORIAL_RECIENTE_MESES).atStartOfDay();
+        LocalDateTime fin = LocalDate.now().plusMonths(CitaRepository.HORIZONTE_PROXIMAS_CITAS_MESES).plusDays(1).atStartOfDay();
+        String particionFuera = String.format("cita_%1$tY_%1$tm",
+            base.plusMonths(CitaRepository.HORIZONTE_PROXIMAS_CITAS_MESES + 1));
+
+        for (String jpql : new String[]{CitaRepository.JPQL_CITAS_POR_ESTADO_EN_RANGO,
+                CitaRepository.JPQL_CONTEO_POR_ESTADO_EN_RANGO, CitaRepository.JPQL_CONTEO_CITAS_POR_PACIENTE_Y_ESTADO}) {
+            String plan = explicar(jpql, "PROGRAMADA", inicio, fin);
+            assertTrue(plan.contains(String.format("cita_%1$tY_%1$tm", base)), plan);
+            assertFalse(plan.contains(particionFuera), plan);
+        }
+        String planTodas = explicar(CitaRepository.JPQL_CITAS_EN_RANGO_DESC, inicio, fin);
+        assertFalse(planTodas.contains(particionFuera), planTodas);
+        String planMedico = explicar(CitaRepository.JPQL_CITAS_POR_MEDICO_Y_ESTADO_EN_RANGO,
+            medico.getId(), "PROGRAMADA", inicio, fin);
+        assertFalse(planMedico.contains(particionFuera), planMedico);
+        String planPaciente = explicar(CitaRepository.JPQL_CITAS_POR_PACIENTE_Y_ESTADO_EN_RANGO,
+            paciente.getId(), "PROGRAMADA", inicio, fin);
+        assertFalse(planPaciente.contains(particionFuera), planPaciente);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Las consultas reescritas conservan sus resultados")
+    void consultasReescritasConservanResultados() {
+        CitaRepository repository = new CitaRepository();
+
+        assertTrue(repository.existeConflictoHorario(medico.getId(), base.plusMinutes(30)));
+        // La cita 0 está CANCELADA, por lo que su horario está libre
+        assertFalse(repository.existeConflictoHorario(medico.getId(), base));
+        assertEquals(40, repository.findByPacienteId(paciente.getId()).size());
+
+        MedicoRepository medicoRepository = new MedicoRepository();
+        assertTrue(medicoRepository.findMedicosDisponiblesEnFechaHora(base).stream()
+            .anyMatch(m -> m.getId().equals(medico.getId())));
+        assertFalse(medicoRepository.findMedicosDisponiblesEnFechaHora(base.plusMinutes(30)).stream()
+            .anyMatch(m -> m.getId().equals(medico.getId())));
+    }
+
+    /**
+     * El planificador puede elegir cualquiera de los dos índices parciales según las estadísticas;
+     * lo importante es que la tabla cita no se recorre completa. En cada partición mensual los
+     * índices se llaman ix_cita_AAAA_MM_medico_fecha_programada e ix_cita_AAAA_MM_fecha_programada.
+     */
+    private static boolean usaIndiceProgramadas(String plan) {
+        return plan.contains("_fecha_programada") && !plan.contains("Seq Scan on cita");
+    }
+
+    private static long contarParticionesRecorridas(String plan) {
+        return plan.lines()
+            .filter(linea -> linea.matches(".* on cita_(\\d{4}_\\d{2}|default) .*"))
+            .map(linea -> linea.replaceAll(".* on (cita_\\w+) .*", "$1"))
+            .distinct()
+            .count();
+    }
+
+    private static String explicar(String jpql, Object... parametros) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            // Los repositorios consultan con el filtro de borrado lógico activo
+            BaseRepository.activarFiltroEliminados(em);
+            String sql = emf.unwrap(SessionFactoryImplementor.class).getQueryPlanCache()
+                .getHQLQueryPlan(jpql, false,
+                    em.unwrap(SessionImplementor.class).getLoadQueryInfluencers().getEnabledFilters())
+                .getSqlStrings()[0];
+
+            em.getTransaction().begin();
+            return em.unwrap(Session.class).doReturningWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    // Con tablas pequeñas el planificador prefiere un Seq Scan; se desactiva para ver el índice elegido
+                    statement.execute("SET LOCAL enable_seqscan = off");
+                }
+                try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                    for (int i = 0; i < parametros.length; i++) {
+                        ps.setObject(i + 1, parametros[i]);
+                    }
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            plan.append(rs.getString(1)).append('\n');
+                        }
+                    }
+                    return plan.toString();
+                }
+            });
+        } finally {
+            em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    private static void ejecutar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery(sql).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -91,20 +91,24 @@ class CitaRepositoryTest {
     
     @AfterAll
     static void tearDown() {
-        // Limpiar datos de prueba
+        // Limpiar datos de prueba; cada entidad por separado para no dejar datos si setUp falló a medias
+        limpiar(() -> citaRepository.remove(cita1));
+        limpiar(() -> citaRepository.remove(cita2));
+        limpiar(() -> citaRepository.remove(cita3));
+
+        limpiar(() -> pacienteRepository.remove(paciente1));
+        limpiar(() -> pacienteRepository.remove(paciente2));
+        limpiar(() -> medicoRepository.remove(medico1));
+        limpiar(() -> medicoRepository.remove(medico2));
+        BaseRepository.closeEntityManagerFactory();
+    }
+
+    private static void limpiar(Runnable eliminacion) {
         try {
-            citaRepository.remove(cita1);
-            citaRepository.remove(cita2);
-            citaRepository.remove(cita3);
-            
-            pacienteRepository.remove(paciente1);
-            pacienteRepository.remove(paciente2);
-            medicoRepository.remove(medico1);
-            medicoRepository.remove(medico2);
+            eliminacion.run();
         } catch (Exception e) {
             // Ignorar errores de limpieza
         }
-        BaseRepository.closeEntityManagerFactory();
     }
     
     @Test
@@ -367,4 +371,37 @@ class CitaRepositoryTest {
         
         assertFalse(citaRepository.findByIdWithDetails(null).isPresent());
     }
+
+    @Test
+    @Order(13)
+    @DisplayName("Las consultas por estado sin rango deben limitarse a su ventana de fechas")
+    void testConsultasPorEstadoLimitadasAVentana() {
+        LocalDateTime fueraDeVentana = LocalDateTime.now()
+            .plusMonths(CitaRepository.HORIZONTE_PROXIMAS_CITAS_MESES + 2).withHour(11).withMinute(0).withSecond(0).withNano(0);
+        Cita lejana = new Cita(fueraDeVentana, "Fuera de la ventana", paciente2, medico1);
+        citaRepository.persist(lejana);
+        try {
+            LocalDate desde = fueraDeVentana.toLocalDate();
+            LocalDate hasta = desde;
+
+            assertFalse(citaRepository.findByEstado(EstadoCita.PROGRAMADA).stream()
+                .anyMatch(c -> c.getId().equals(lejana.getId())));
+            assertFalse(citaRepository.findAllWithDetails().stream()
+                .anyMatch(c -> c.getId().equals(lejana.getId())));
+            assertTrue(citaRepository.findByPacienteIdAndEstado(paciente2.getId(), EstadoCita.PROGRAMADA).stream()
+                .noneMatch(c -> c.getId().equals(lejana.getId())));
+
+            assertEquals(List.of(lejana.getId()), citaRepository
+                .findByEstado(EstadoCita.PROGRAMADA, desde, hasta, PerfilCarga.CITA_RESUMEN).stream()
+                .filter(c -> c.getPaciente().getId().equals(paciente2.getId())).map(Cita::getId).toList());
+            assertTrue(citaRepository.findAllWithDetails(desde, hasta).stream()
+                .anyMatch(c -> c.getId().equals(lejana.getId())));
+            assertEquals(1, citaRepository.findByMedicoIdAndEstado(medico1.getId(), EstadoCita.PROGRAMADA, desde, hasta).size());
+            assertEquals(1, citaRepository.findByPacienteIdAndEstado(paciente2.getId(), EstadoCita.PROGRAMADA, desde, hasta).size());
+            assertEquals(Long.valueOf(1), citaRepository.contarCitasPorPaciente(EstadoCita.PROGRAMADA, desde, hasta).get(paciente2.getId()));
+            assertTrue(citaRepository.countByEstado(EstadoCita.PROGRAMADA, desde, hasta) >= 1);
+        } finally {
+            limpiar(() -> citaRepository.remove(lejana));
+        }
+    }
 }
\ No newline at end of file
@@ -92,18 +92,23 @@ class HistorialMedicoRepositoryTest {
     @AfterAll
     static void tearDown() {
         // Limpiar datos de prueba
+        // Cada eliminación por separado: si el setUp falló a medias, lo demás se limpia igual
+        limpiar(() -> historialRepository.remove(historial1));
+        limpiar(() -> historialRepository.remove(historial2));
+        limpiar(() -> historialRepository.remove(historial3));
+        
+        limpiar(() -> pacienteRepository.remove(paciente1));
+        limpiar(() -> pacienteRepository.remove(paciente2));
+        limpiar(() -> pacienteRepository.remove(paciente3));
+        BaseRepository.closeEntityManagerFactory();
+    }
+
+    private static void limpiar(Runnable eliminacion) {
         try {
-            historialRepository.remove(historial1);
-            historialRepository.remove(historial2);
-            historialRepository.remove(historial3);
-            
-            pacienteRepository.remove(paciente1);
-            pacienteRepository.remove(paciente2);
-            pacienteRepository.remove(paciente3);
+            eliminacion.run();
         } catch (Exception e) {
             // Ignorar errores de limpieza
         }
-        BaseRepository.closeEntityManagerFactory();
     }
     
     @Test
@@ -66,7 +66,8 @@ class MedicoRepositoryTest {
     @AfterAll
     static void tearDown() {
         // Limpiar datos de prueba
-        try {
+        // Cada eliminación por separado: si el setUp falló a medias, lo demás se limpia igual
+        limpiar(() -> {
             // Eliminar citas primero
             List<Cita> citas = citaRepository.findAll();
             for (Cita cita : citas) {
@@ -75,15 +76,21 @@ class MedicoRepositoryTest {
                     citaRepository.remove(cita);
                 }
             }
-            
-            // Eliminar médicos y paciente
-            medicoRepository.remove(medico1);
-            medicoRepository.remove(medico2);
-            pacienteRepository.remove(paciente);
+        });
+        
+        // Eliminar médicos y paciente
+        limpiar(() -> medicoRepository.remove(medico1));
+        limpiar(() -> medicoRepository.remove(medico2));
+        limpiar(() -> pacienteRepository.remove(paciente));
+        BaseRepository.closeEntityManagerFactory();
+    }
+
+    private static void limpiar(Runnable eliminacion) {
+        try {
+            eliminacion.run();
         } catch (Exception e) {
             // Ignorar errores de limpieza
         }
-        BaseRepository.closeEntityManagerFactory();
     }
     
     @Test
@@ -70,7 +70,8 @@ class PacienteRepositoryTest {
     @AfterAll
     static void tearDown() {
         // Limpiar datos de prueba
-        try {
+        // Cada eliminación por separado: si el setUp falló a medias, lo demás se limpia igual
+        limpiar(() -> {
             // Eliminar citas primero
             List<Cita> citas = citaRepository.findAll();
             for (Cita cita : citas) {
@@ -79,19 +80,25 @@ class PacienteRepositoryTest {
                     citaRepository.remove(cita);
                 }
             }
-            
-            // Eliminar historiales
-            Optional<HistorialMedico> historial1 = historialRepository.findByPacienteId(paciente1.getId());
-            historial1.ifPresent(h -> historialRepository.remove(h));
-            
-            // Eliminar pacientes y médico
-            pacienteRepository.remove(paciente1);
-            pacienteRepository.remove(paciente2);
-            medicoRepository.remove(medico);
+        });
+        
+        // Eliminar historiales
+        limpiar(() -> historialRepository.findByPacienteId(paciente1.getId())
+            .ifPresent(h -> historialRepository.remove(h)));
+        
+        // Eliminar pacientes y médico
+        limpiar(() -> pacienteRepository.remove(paciente1));
+        limpiar(() -> pacienteRepository.remove(paciente2));
+        limpiar(() -> medicoRepository.remove(medico));
+        BaseRepository.closeEntityManagerFactory();
+    }
+
+    private static void limpiar(Runnable eliminacion) {
+        try {
+            eliminacion.run();
         } catch (Exception e) {
             // Ignorar errores de limpieza
         }
-        BaseRepository.closeEntityManagerFactory();
     }
     
     @Test
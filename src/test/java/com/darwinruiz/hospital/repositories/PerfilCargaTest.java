@@ -0,0 +1,195 @@
+package com.darwinruiz.hospital.repositories;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.services.CitaService;
+import com.darwinruiz.hospital.services.MedicoService;
+import com.darwinruiz.hospital.services.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de los perfiles de carga de citas: cada perfil se resuelve con una sola sentencia SQL y
+ * deja inicializadas exactamente las asociaciones de su grafo.
+ */
+class PerfilCargaTest {
+
+    private static EntityManagerFactory emf;
+    private static Statistics estadisticas;
+
+    private Paciente paciente;
+    private Medico cardiologo;
+    private Medico pediatra;
+    private Medico sinCitas;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory(Map.of("hibernate.generate_statistics", "true"));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        paciente = new PacienteService(emf).registrarPaciente("Paciente Perfil", "PERFIL0000001",
+            LocalDate.of(1982, 2, 2), null, "perfil@test.com");
+        MedicoService medicoService = new MedicoService(emf);
+        cardiologo = medicoService.registrarMedico("Dr. Perfil Uno", "PERFILMED1", Especialidad.CARDIOLOGIA, "perfil1@test.com");
+        pediatra = medicoService.registrarMedico("Dra. Perfil Dos", "PERFILMED2", Especialidad.PEDIATRIA, "perfil2@test.com");
+        sinCitas = medicoService.registrarMedico("Dr. Perfil Tres", "PERFILMED3", Especialidad.NEUROLOGIA, "perfil3@test.com");
+
+        CitaService citaService = new CitaService(emf);
+        LocalDateTime base = LocalDate.now().plusDays(20).atTime(9, 0);
+        citaService.agendarCita(paciente.getId(), cardiologo.getId(), base, "Control");
+        citaService.agendarCita(paciente.getId(), cardiologo.getId(), base.plusDays(1), "Seguimiento");
+        citaService.agendarCita(paciente.getId(), pediatra.getId(), base.plusDays(2), "Revisión");
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("cita-summary: una sentencia, sin cargar paciente ni médico")
+    void debeCargarSoloLaCitaEnResumen() {
+        List<Cita> citas = contar(1, repositorio -> repositorio.findByPacienteId(paciente.getId(), PerfilCarga.CITA_RESUMEN));
+
+        assertEquals(3, citas.size());
+        for (Cita cita : citas) {
+            assertFalse(Hibernate.isInitialized(cita.getPaciente()));
+            assertFalse(Hibernate.isInitialized(cita.getMedico()));
+            assertEquals(paciente.getId(), cita.getPaciente().getId());
+        }
+    }
+
+    @Test
+    @DisplayName("cita-full: una sentencia con paciente y médico, que se leen fuera de la sesión")
+    void debeCargarPacienteYMedicoEnCompleta() {
+        List<Cita> citas = contar(1, repositorio -> repositorio.findByPacienteId(paciente.getId(), PerfilCarga.CITA_COMPLETA));
+
+        assertEquals(3, citas.size());
+        for (Cita cita : citas) {
+            assertEquals("Paciente Perfil", cita.getPaciente().getNombre());
+            assertNotNull(cita.getMedico().getEspecialidad());
+        }
+    }
+
+    @Test
+    @DisplayName("paciente-timeline: una sentencia con el médico de cada cita")
+    void debeCargarMedicoEnCronologiaDePaciente() {
+        List<Cita> citas = contar(1, repositorio -> repositorio.findByPacienteId(paciente.getId(), PerfilCarga.PACIENTE_CRONOLOGIA));
+
+        assertEquals(3, citas.size());
+        for (Cita cita : citas) {
+            assertTrue(Hibernate.isInitialized(cita.getMedico()));
+            assertFalse(Hibernate.isInitialized(cita.getPaciente()));
+        }
+        assertEquals("Dra. Perfil Dos", citas.get(0).getMedico().getNombre());
+    }
+
+    @Test
+    @DisplayName("medico-agenda: una sentencia con el paciente de cada cita")
+    void debeCargarPacienteEnAgendaDeMedico() {
+        List<Cita> citas = contar(1, repositorio -> repositorio.findProximasCitasByMedicoId(cardiologo.getId(), PerfilCarga.MEDICO_AGENDA));
+
+        assertEquals(2, citas.size());
+        for (Cita cita : citas) {
+            assertTrue(Hibernate.isInitialized(cita.getPaciente()));
+            assertFalse(Hibernate.isInitialized(cita.getMedico()));
+            assertEquals("PERFIL0000001", cita.getPaciente().getDpi());
+        }
+    }
+
+    @Test
+    @DisplayName("Los médicos con próximas citas y sus conteos deben salir en dos sentencias, sin importar cuántos médicos haya")
+    void debeListarMedicosConConteoEnDosSentencias() {
+        estadisticas.clear();
+
+        List<Medico> medicos = new MedicoService(emf).listarMedicosConProximasCitas();
+        Map<Long, Long> conteos = new CitaService(emf).contarProximasCitasProgramadasPorMedico();
+
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+        assertTrue(medicos.stream().anyMatch(m -> m.getId().equals(sinCitas.getId())));
+        assertEquals(2L, conteos.get(cardiologo.getId()));
+        assertEquals(1L, conteos.get(pediatra.getId()));
+        assertNull(conteos.get(sinCitas.getId()));
+    }
+
+    @Test
+    @DisplayName("Las citas de todos los pacientes deben contarse en una sola sentencia")
+    void debeContarCitasPorPacienteEnUnaSentencia() {
+        CitaService citaService = new CitaService(emf);
+        Paciente sinCitasPaciente = new PacienteService(emf).registrarPaciente("Paciente Perfil Dos", "PERFIL0000002",
+            LocalDate.of(1983, 3, 3), null, "perfil.dos@test.com");
+        Cita cancelada = citaService.listarCitasPorPaciente(paciente.getId()).get(0);
+        citaService.cambiarEstadoCita(cancelada.getId(), EstadoCita.CANCELADA);
+        estadisticas.clear();
+
+        Map<Long, Long> totales = citaService.contarCitasPorPaciente();
+
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(3L, totales.get(paciente.getId()));
+        assertNull(totales.get(sinCitasPaciente.getId()));
+
+        Map<Long, Long> programadas = citaService.contarCitasPorPaciente(EstadoCita.PROGRAMADA);
+        assertEquals(2L, programadas.get(paciente.getId()));
+    }
+
+    private static List<Cita> contar(int sentenciasEsperadas, Function<CitaRepository, List<Cita>> consulta) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            CitaRepository repositorio = new CitaRepository();
+            repositorio.setEntityManager(em);
+            estadisticas.clear();
+            List<Cita> citas = consulta.apply(repositorio);
+            assertEquals(sentenciasEsperadas, estadisticas.getPrepareStatementCount());
+            return citas;
+        } finally {
+            if (em.isOpen()) {
+                em.close();
+            }
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'PERFILMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'PERFILMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'PERFIL%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'PERFILMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
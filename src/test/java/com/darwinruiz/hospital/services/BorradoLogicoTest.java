@@ -0,0 +1,228 @@
+package com.darwinruiz.hospital.services;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.repositories.CitaRepository;
+import com.darwinruiz.hospital.repositories.MedicoRepository;
+import com.darwinruiz.hospital.repositories.PacienteRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del borrado lógico: eliminar marca deleted_at, la fila se conserva y los repositorios
+ * dejan de verla en consultas, búsquedas por id y colecciones.
+ */
+class BorradoLogicoTest {
+
+    private static EntityManagerFactory emf;
+
+    private Paciente paciente;
+    private Medico medico;
+    private LocalDateTime horario;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        paciente = new PacienteService(emf).registrarPaciente("Paciente Borrado", "BORRA0000001",
+            LocalDate.of(1982, 2, 2), null, "borrado@test.com");
+        medico = new MedicoService(emf).registrarMedico("Dr. Borrado", "BORRAMED1", Especialidad.DERMATOLOGIA,
+            "borrado.med@test.com");
+        new HistorialMedicoService(emf).crearHistorial(paciente.getId(), "Polen", null, null);
+        horario = LocalDate.now().plusDays(45).atTime(10, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Eliminar una cita debe ocultarla, conservar la fila y liberar el horario")
+    void debeOcultarCitaEliminada() {
+        CitaService citaService = new CitaService(emf);
+        Cita cita = citaService.agendarCita(paciente.getId(), medico.getId(), horario, "Control");
+
+        assertTrue(citaService.eliminarCita(cita.getId()));
+
+        assertTrue(citaService.buscarPorId(cita.getId()).isEmpty());
+        assertTrue(citaService.listarCitasPorPaciente(paciente.getId()).isEmpty());
+        assertFalse(citaService.eliminarCita(cita.getId()));
+        assertNotNull(deletedAt("cita", cita.getId()));
+        assertEquals(0, totalEstadisticasDelMedico());
+
+        Cita nueva = citaService.agendarCita(paciente.getId(), medico.getId(), horario, "Control nuevo");
+        assertNotEquals(cita.getId(), nueva.getId());
+    }
+
+    @Test
+    @DisplayName("Las colecciones de citas no deben incluir las citas eliminadas")
+    void debeExcluirCitasEliminadasDeColecciones() {
+        CitaService citaService = new CitaService(emf);
+        Cita eliminada = citaService.agendarCita(paciente.getId(), medico.getId(), horario, "Eliminada");
+        citaService.agendarCita(paciente.getId(), medico.getId(), horario.plusDays(1), "Vigente");
+        citaService.eliminarCita(eliminada.getId());
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            MedicoRepository repositorio = new MedicoRepository();
+            repositorio.setEntityManager(em);
+            Medico cargado = repositorio.findById(medico.getId());
+
+            assertEquals(1, cargado.getCitas().size());
+            assertEquals("Vigente", cargado.getCitas().iterator().next().getMotivo());
+            assertEquals(1, cargado.getCitasProgramadas().size());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Un médico eliminado no debe encontrarse y su colegiado debe poder registrarse de nuevo")
+    void debeOcultarMedicoEliminado() {
+        MedicoService medicoService = new MedicoService(emf);
+
+        assertTrue(medicoService.eliminarMedico(medico.getId()));
+
+        assertTrue(medicoService.buscarPorId(medico.getId()).isEmpty());
+        assertTrue(medicoService.buscarPorColegiado("BORRAMED1").isEmpty());
+        assertTrue(medicoService.listarMedicos().stream().noneMatch(m -> m.getId().equals(medico.getId())));
+        assertNotNull(deletedAt("medico", medico.getId()));
+
+        Medico nuevo = medicoService.registrarMedico("Dr. Borrado Dos", "BORRAMED1", Especialidad.DERMATOLOGIA,
+            "borrado.dos@test.com");
+        assertEquals(nuevo.getId(), medicoService.buscarPorColegiado("BORRAMED1").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Un paciente eliminado no debe encontrarse, ni su historial, ni aceptar citas nuevas")
+    void debeOcultarPacienteEliminado() {
+        PacienteService pacienteService = new PacienteService(emf);
+        HistorialMedicoService historialService = new HistorialMedicoService(emf);
+
+        assertTrue(pacienteService.eliminarPaciente(paciente.getId()));
+
+        assertTrue(pacienteService.buscarPorId(paciente.getId()).isEmpty());
+        assertTrue(pacienteService.buscarPorDpi("BORRA0000001").isEmpty());
+        assertFalse(historialService.existeHistorial(paciente.getId()));
+        assertTrue(historialService.consultarHistorial(paciente.getId()).isEmpty());
+        assertNotNull(deletedAt("paciente", paciente.getId()));
+        assertThrows(RuntimeException.class,
+            () -> new CitaService(emf).agendarCita(paciente.getId(), medico.getId(), horario, "Control"));
+
+        Paciente nuevo = pacienteService.registrarPaciente("Paciente Borrado Dos", "BORRA0000001",
+            LocalDate.of(1983, 3, 3), null, "borrado.dos@test.com");
+        assertEquals(nuevo.getId(), pacienteService.buscarPorDpi("BORRA0000001").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Eliminar desde los repositorios debe hacer borrado lógico y descontar las estadísticas")
+    void debeHacerBorradoLogicoDesdeRepositorios() {
+        Cita cita = new CitaService(emf).agendarCita(paciente.getId(), medico.getId(), horario, "Control");
+        EntityManager em = emf.createEntityManager();
+        try {
+            CitaRepository citaRepository = new CitaRepository();
+            citaRepository.setEntityManager(em);
+            PacienteRepository pacienteRepository = new PacienteRepository();
+            pacienteRepository.setEntityManager(em);
+            MedicoRepository medicoRepository = new MedicoRepository();
+            medicoRepository.setEntityManager(em);
+
+            em.getTransaction().begin();
+            citaRepository.remove(citaRepository.findById(cita.getId()));
+            pacienteRepository.remove(pacienteRepository.findById(paciente.getId()));
+            medicoRepository.remove(medicoRepository.findById(medico.getId()));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        assertNotNull(deletedAt("cita", cita.getId()));
+        assertNotNull(deletedAt("paciente", paciente.getId()));
+        assertNotNull(deletedAt("medico", medico.getId()));
+        assertEquals(0, totalEstadisticasDelMedico());
+    }
+
+    @Test
+    @DisplayName("Eliminar desde el repositorio un paciente desconectado con citas debe hacer borrado lógico")
+    void debeHacerBorradoLogicoDePacienteDesconectado() {
+        PacienteRepository pacienteRepository = new PacienteRepository();
+        CitaRepository citaRepository = new CitaRepository();
+        Paciente desconectado = new Paciente("Paciente Desconectado", "BORRA0000002", LocalDate.of(1983, 3, 3),
+            null, "borrado.desconectado@test.com");
+        pacienteRepository.persist(desconectado);
+        Cita cita = new Cita(horario, "Control", desconectado, medico);
+        citaRepository.persist(cita);
+
+        pacienteRepository.remove(desconectado);
+
+        assertNotNull(deletedAt("paciente", desconectado.getId()));
+        assertNotNull(deletedAt("cita", cita.getId()));
+    }
+
+    private static LocalDateTime deletedAt(String tabla, Long id) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Object valor = em.createNativeQuery("SELECT deleted_at FROM " + tabla + " WHERE id = ?1")
+                .setParameter(1, id)
+                .getSingleResult();
+            return valor == null ? null : ((Timestamp) valor).toLocalDateTime();
+        } finally {
+            em.close();
+        }
+    }
+
+    private long totalEstadisticasDelMedico() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Number total = (Number) em.createNativeQuery(
+                    "SELECT COALESCE(SUM(total), 0) FROM estadistica_cita_diaria WHERE medico_id = ?1")
+                .setParameter(1, medico.getId())
+                .getSingleResult();
+            return total.longValue();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'BORRAMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'BORRAMED%')").executeUpdate();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'BORRA%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'BORRA%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'BORRAMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.enums.Especialidad;
 import com.darwinruiz.hospital.enums.EstadoCita;
 import com.darwinruiz.hospital.exceptions.CitaConflictoHorarioException;
@@ -9,11 +10,11 @@ import com.darwinruiz.hospital.models.Medico;
 import com.darwinruiz.hospital.models.Paciente;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,7 +38,7 @@ class CitaServiceTest {
     
     @BeforeAll
     static void setUpClass() {
-        emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        emf = Persistencia.crearEntityManagerFactory();
         citaService = new CitaService(emf);
         pacienteService = new PacienteService(emf);
         medicoService = new MedicoService(emf);
@@ -337,6 +338,32 @@ class CitaServiceTest {
     
     @Test
     @Order(14)
+    @DisplayName("Debe recorrer en streaming las mismas citas que la búsqueda por rango")
+    void testRecorrerCitasPorRangoFechas() {
+        // Arrange
+        LocalDate fechaInicio = LocalDate.now().plusDays(1);
+        LocalDate fechaFin = LocalDate.now().plusDays(10);
+        List<Long> esperadas = citaService.buscarCitasPorRangoFechas(fechaInicio, fechaFin).stream()
+            .map(Cita::getId)
+            .toList();
+        
+        // Act
+        List<Long> recorridas = new ArrayList<>();
+        long total = citaService.recorrerCitasPorRangoFechas(fechaInicio, fechaFin, cita -> {
+            assertNotNull(cita.getPaciente().getNombre());
+            assertNotNull(cita.getMedico().getNombre());
+            recorridas.add(cita.getId());
+        });
+        
+        // Assert
+        assertEquals(esperadas.size(), total);
+        assertEquals(esperadas, recorridas);
+        assertThrows(IllegalArgumentException.class,
+            () -> citaService.recorrerCitasPorRangoFechas(fechaFin, fechaInicio, cita -> { }));
+    }
+    
+    @Test
+    @Order(15)
     @DisplayName("Debe eliminar cita existente")
     void testEliminarCita() {
         // Arrange - Crear una cita
@@ -355,7 +382,7 @@ class CitaServiceTest {
     }
     
     @Test
-    @Order(15)
+    @Order(16)
     @DisplayName("Debe retornar false al eliminar cita inexistente")
     void testEliminarCitaInexistente() {
         // Act
@@ -366,7 +393,7 @@ class CitaServiceTest {
     }
     
     @Test
-    @Order(16)
+    @Order(17)
     @DisplayName("Debe actualizar cita programada")
     void testActualizarCita() {
         // Arrange - Crear una cita
@@ -386,7 +413,7 @@ class CitaServiceTest {
     }
     
     @Test
-    @Order(17)
+    @Order(18)
     @DisplayName("Debe lanzar excepción al actualizar cita con conflicto de horario")
     void testActualizarCitaConflictoHorario() {
         // Arrange - Crear dos citas
@@ -402,7 +429,7 @@ class CitaServiceTest {
     }
     
     @Test
-    @Order(18)
+    @Order(19)
     @DisplayName("Debe listar citas por estado")
     void testListarCitasPorEstado() {
         // Act
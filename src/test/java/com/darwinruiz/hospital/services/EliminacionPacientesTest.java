@@ -0,0 +1,180 @@
+package com.darwinruiz.hospital.services;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del borrado en bloque de pacientes: paciente y citas se marcan como eliminados con
+ * sentencias por conjunto, sin cargar entidades, y las estadísticas de citas se descuentan.
+ */
+class EliminacionPacientesTest {
+
+    private static final int PACIENTES = 7;
+    private static final int CITAS_POR_PACIENTE = 3;
+
+    private static EntityManagerFactory emf;
+    private static Statistics estadisticas;
+
+    private Medico medico;
+    private final List<Long> pacienteIds = new ArrayList<>();
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory(Map.of("hibernate.generate_statistics", "true"));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        medico = new MedicoService(emf).registrarMedico("Dr. Bloque", "ELIMBMED1", Especialidad.PEDIATRIA, "bloque@test.com");
+
+        PacienteService pacienteService = new PacienteService(emf);
+        HistorialMedicoService historialService = new HistorialMedicoService(emf);
+        CitaService citaService = new CitaService(emf);
+        LocalDateTime base = LocalDate.now().plusDays(35).atTime(8, 0);
+        for (int i = 0; i < PACIENTES; i++) {
+            Paciente paciente = pacienteService.registrarPaciente("Paciente Bloque " + i,
+                String.format("ELIMB%08d", i), LocalDate.of(1970, 1, 1), null, "bloque" + i + "@test.com");
+            pacienteIds.add(paciente.getId());
+            historialService.crearHistorial(paciente.getId(), "Alergia " + i, null, null);
+            for (int j = 0; j < CITAS_POR_PACIENTE; j++) {
+                citaService.agendarCita(paciente.getId(), medico.getId(),
+                    base.plusDays(j).plusHours(i), "Control " + j);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Eliminar un paciente debe marcarlo con sentencias por conjunto sin cargar sus citas")
+    void debeEliminarPacienteSinCargarEntidades() {
+        Long pacienteId = pacienteIds.get(0);
+        estadisticas.clear();
+
+        assertTrue(new PacienteService(emf).eliminarPaciente(pacienteId));
+
+        // Descuento de estadísticas y UPDATE de citas y paciente
+        assertEquals(3, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+        assertTrue(new PacienteService(emf).buscarPorId(pacienteId).isEmpty());
+        assertFalse(new HistorialMedicoService(emf).existeHistorial(pacienteId));
+        assertEquals(0, contarCitas(List.of(pacienteId)));
+        assertEquals((PACIENTES - 1) * CITAS_POR_PACIENTE, totalEstadisticasDelMedico());
+
+        // Eliminarlo otra vez no descuenta sus citas de nuevo
+        assertFalse(new PacienteService(emf).eliminarPaciente(pacienteId));
+        assertEquals((PACIENTES - 1) * CITAS_POR_PACIENTE, totalEstadisticasDelMedico());
+    }
+
+    @Test
+    @DisplayName("Eliminar un paciente inexistente debe devolver false sin modificar datos")
+    void debeDevolverFalseParaPacienteInexistente() {
+        assertFalse(new PacienteService(emf).eliminarPaciente(-1L));
+
+        assertEquals(PACIENTES * CITAS_POR_PACIENTE, contarCitas(pacienteIds));
+        assertEquals(PACIENTES * CITAS_POR_PACIENTE, totalEstadisticasDelMedico());
+    }
+
+    @Test
+    @DisplayName("Eliminar muchos pacientes debe hacerse por lotes e informar el avance de cada uno")
+    void debeEliminarPacientesPorLotesConAvance() {
+        List<Long> ids = new ArrayList<>(pacienteIds);
+        ids.add(-1L);
+        ids.add(pacienteIds.get(0));
+        List<PacienteService.ProgresoEliminacion> avance = new ArrayList<>();
+
+        long eliminados = new PacienteService(emf).eliminarPacientes(ids, 3, avance::add);
+
+        assertEquals(PACIENTES, eliminados);
+        assertEquals(List.of(
+            new PacienteService.ProgresoEliminacion(3, PACIENTES + 1, 3),
+            new PacienteService.ProgresoEliminacion(6, PACIENTES + 1, 6),
+            new PacienteService.ProgresoEliminacion(8, PACIENTES + 1, PACIENTES)), avance);
+        assertEquals(0, contarCitas(pacienteIds));
+        assertEquals(0, totalEstadisticasDelMedico());
+        assertTrue(new MedicoService(emf).buscarPorId(medico.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Una lista vacía no debe eliminar nada ni informar avance")
+    void debeIgnorarListaVacia() {
+        List<PacienteService.ProgresoEliminacion> avance = new ArrayList<>();
+
+        assertEquals(0, new PacienteService(emf).eliminarPacientes(List.of(), avance::add));
+        assertTrue(avance.isEmpty());
+        assertThrows(IllegalArgumentException.class,
+            () -> new PacienteService(emf).eliminarPacientes(pacienteIds, 0, null));
+    }
+
+    private static long contarCitas(List<Long> ids) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(c) FROM Cita c WHERE c.paciente.id IN ?1 AND c.deletedAt IS NULL", Long.class)
+                .setParameter(1, ids)
+                .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private long totalEstadisticasDelMedico() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Number total = (Number) em.createNativeQuery(
+                    "SELECT COALESCE(SUM(total), 0) FROM estadistica_cita_diaria WHERE medico_id = ?1")
+                .setParameter(1, medico.getId())
+                .getSingleResult();
+            return total.longValue();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'ELIMBMED%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'ELIMBMED%')").executeUpdate();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'ELIMB%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'ELIMB%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'ELIMBMED%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.darwinruiz.hospital.services;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.enums.EstadoCita;
+import com.darwinruiz.hospital.models.Cita;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que CitaService y PacienteService mantengan estadistica_cita_diaria
+ * y que EstadisticaCitaService responda con esos conteos.
+ */
+class EstadisticaCitaServiceTest {
+
+    private static EntityManagerFactory emf;
+    private static CitaService citaService;
+    private static PacienteService pacienteService;
+    private static MedicoService medicoService;
+    private static EstadisticaCitaService estadisticaService;
+
+    private static Paciente paciente;
+    private static Medico medico;
+    private static LocalDate dia;
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory();
+        citaService = new CitaService(emf);
+        pacienteService = new PacienteService(emf);
+        medicoService = new MedicoService(emf);
+        estadisticaService = new EstadisticaCitaService(emf);
+
+        limpiarDatosPrueba();
+
+        paciente = pacienteService.registrarPaciente("Paciente Estadística", "TESTESTPAC001",
+            LocalDate.of(1985, 5, 5), "55550001", "paciente.estadistica@test.com");
+        medico = medicoService.registrarMedico("Dr. Estadística", "TESTESTMED001",
+            Especialidad.DERMATOLOGIA, "medico.estadistica@test.com");
+        dia = LocalDate.now().plusDays(20);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        limpiarDatosPrueba();
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe contar como PROGRAMADA la cita recién agendada")
+    void debeContarCitaAgendada() {
+        long antes = conteo(dia, EstadoCita.PROGRAMADA);
+
+        citaService.agendarCita(paciente.getId(), medico.getId(), dia.atTime(8, 0), "Control");
+
+        assertEquals(antes + 1, conteo(dia, EstadoCita.PROGRAMADA));
+    }
+
+    @Test
+    @DisplayName("Debe mover el conteo al nuevo estado al cambiar el estado de la cita")
+    void debeMoverConteoAlCambiarEstado() {
+        Cita cita = citaService.agendarCita(paciente.getId(), medico.getId(), dia.atTime(9, 0), "Revisión");
+        long programadas = conteo(dia, EstadoCita.PROGRAMADA);
+        long atendidas = conteo(dia, EstadoCita.ATENDIDA);
+
+        citaService.cambiarEstadoCita(cita.getId(), EstadoCita.ATENDIDA);
+
+        assertEquals(programadas - 1, conteo(dia, EstadoCita.PROGRAMADA));
+        assertEquals(atendidas + 1, conteo(dia, EstadoCita.ATENDIDA));
+    }
+
+    @Test
+    @DisplayName("Debe mover el conteo al nuevo día al reprogramar la cita")
+    void debeMoverConteoAlReprogramar() {
+        LocalDate otroDia = dia.plusDays(1);
+        Cita cita = citaService.agendarCita(paciente.getId(), medico.getId(), dia.atTime(10, 0), "Seguimiento");
+        long enDia = conteo(dia, EstadoCita.PROGRAMADA);
+        long enOtroDia = conteo(otroDia, EstadoCita.PROGRAMADA);
+
+        citaService.actualizarCita(cita.getId(), otroDia.atTime(10, 0), null);
+
+        assertEquals(enDia - 1, conteo(dia, EstadoCita.PROGRAMADA));
+        assertEquals(enOtroDia + 1, conteo(otroDia, EstadoCita.PROGRAMADA));
+    }
+
+    @Test
+    @DisplayName("Debe descontar la cita eliminada")
+    void debeDescontarCitaEliminada() {
+        Cita cita = citaService.agendarCita(paciente.getId(), medico.getId(), dia.atTime(11, 0), "Cancelable");
+        long antes = conteo(dia, EstadoCita.PROGRAMADA);
+
+        assertTrue(citaService.eliminarCita(cita.getId()));
+
+        assertEquals(antes - 1, conteo(dia, EstadoCita.PROGRAMADA));
+    }
+
+    @Test
+    @DisplayName("Debe descontar las citas borradas en cascada con el paciente")
+    void debeDescontarCitasDelPacienteEliminado() {
+        Paciente otro = pacienteService.registrarPaciente("Paciente Estadística Dos", "TESTESTPAC002",
+            LocalDate.of(1990, 2, 2), "55550002", "paciente.estadistica2@test.com");
+        citaService.agendarCita(otro.getId(), medico.getId(), dia.atTime(12, 0), "Primera");
+        Cita atendida = citaService.agendarCita(otro.getId(), medico.getId(), dia.atTime(13, 0), "Segunda");
+        citaService.cambiarEstadoCita(atendida.getId(), EstadoCita.ATENDIDA);
+        long programadas = conteo(dia, EstadoCita.PROGRAMADA);
+        long atendidas = conteo(dia, EstadoCita.ATENDIDA);
+
+        assertTrue(pacienteService.eliminarPaciente(otro.getId()));
+
+        assertEquals(programadas - 1, conteo(dia, EstadoCita.PROGRAMADA));
+        assertEquals(atendidas - 1, conteo(dia, EstadoCita.ATENDIDA));
+    }
+
+    @Test
+    @DisplayName("El resumen por rango debe coincidir con las citas del rango")
+    void resumenDebeCoincidirConCitasDelRango() {
+        LocalDate inicio = dia.plusDays(5);
+        LocalDate fin = inicio.plusDays(2);
+        EstadisticaCitaService.ResumenCitas antes = estadisticaService.resumenPorRango(inicio, fin);
+        Map<Especialidad, Long> especialidadAntes = estadisticaService.contarPorEspecialidad(inicio, fin);
+
+        citaService.agendarCita(paciente.getId(), medico.getId(), inicio.atTime(8, 0), "Uno");
+        Cita cancelada = citaService.agendarCita(paciente.getId(), medico.getId(), fin.atTime(8, 0), "Dos");
+        citaService.cambiarEstadoCita(cancelada.getId(), EstadoCita.CANCELADA);
+        // Fuera del rango
+        citaService.agendarCita(paciente.getId(), medico.getId(), fin.plusDays(1).atTime(8, 0), "Tres");
+
+        EstadisticaCitaService.ResumenCitas despues = estadisticaService.resumenPorRango(inicio, fin);
+        assertEquals(antes.programadas() + 1, despues.programadas());
+        assertEquals(antes.canceladas() + 1, despues.canceladas());
+        assertEquals(antes.atendidas(), despues.atendidas());
+        assertEquals(antes.total() + 2, despues.total());
+
+        Map<Especialidad, Long> especialidadDespues = estadisticaService.contarPorEspecialidad(inicio, fin);
+        assertEquals(especialidadAntes.getOrDefault(Especialidad.DERMATOLOGIA, 0L) + 2,
+            especialidadDespues.get(Especialidad.DERMATOLOGIA));
+        assertEquals(2L, estadisticaService.contarPorMedico(inicio, fin).get(medico.getId()));
+
+        List<Cita> citasDelMedico = citaService.buscarCitasPorRangoFechas(inicio, fin).stream()
+            .filter(c -> c.getMedico().getId().equals(medico.getId()))
+            .toList();
+        assertEquals(citasDelMedico.size(), estadisticaService.contarPorMedico(inicio, fin).get(medico.getId()));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un rango con la fecha de inicio posterior a la de fin")
+    void debeRechazarRangoInvalido() {
+        assertThrows(IllegalArgumentException.class,
+            () -> estadisticaService.resumenPorRango(dia, dia.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> estadisticaService.contarPorEstado(null, dia));
+    }
+
+    private static long conteo(LocalDate fecha, EstadoCita estado) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Long> totales = em.createQuery(
+                    "SELECT e.total FROM EstadisticaCitaDiaria e WHERE e.dia = ?1 AND e.medicoId = ?2 AND e.estado = ?3",
+                    Long.class)
+                .setParameter(1, fecha)
+                .setParameter(2, medico.getId())
+                .setParameter(3, estado)
+                .getResultList();
+            return totales.isEmpty() ? 0 : totales.get(0);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM estadistica_cita_diaria WHERE medico_id IN " +
+                "(SELECT id FROM medico WHERE colegiado LIKE 'TESTEST%')").executeUpdate();
+            em.createQuery("DELETE FROM Cita c WHERE c.medico.id IN " +
+                "(SELECT m.id FROM Medico m WHERE m.colegiado LIKE 'TESTEST%')").executeUpdate();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'TESTEST%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'TESTEST%'").executeUpdate();
+            em.createQuery("DELETE FROM Medico m WHERE m.colegiado LIKE 'TESTEST%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
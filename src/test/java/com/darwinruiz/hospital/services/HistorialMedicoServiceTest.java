@@ -1,10 +1,10 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.models.HistorialMedico;
 import com.darwinruiz.hospital.models.Paciente;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
@@ -38,7 +38,7 @@ class HistorialMedicoServiceTest {
     
     @BeforeAll
     static void setUpClass() {
-        emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        emf = Persistencia.crearEntityManagerFactory();
         historialService = new HistorialMedicoService(emf);
         pacienteService = new PacienteService(emf);
         
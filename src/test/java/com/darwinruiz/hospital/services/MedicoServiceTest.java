@@ -1,5 +1,6 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.enums.Especialidad;
 import com.darwinruiz.hospital.enums.EstadoCita;
 import com.darwinruiz.hospital.exceptions.EmailInvalidoException;
@@ -11,7 +12,6 @@ import com.darwinruiz.hospital.services.CitaService;
 import com.darwinruiz.hospital.services.PacienteService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
@@ -34,7 +34,7 @@ class MedicoServiceTest {
     
     @BeforeAll
     static void setUpClass() {
-        emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        emf = Persistencia.crearEntityManagerFactory();
         medicoService = new MedicoService(emf);
         
         // Limpiar datos de prueba previos
@@ -0,0 +1,140 @@
+package com.darwinruiz.hospital.services;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import com.darwinruiz.hospital.models.HistorialMedico;
+import com.darwinruiz.hospital.models.Paciente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la carga diferida de Paciente.historialMedico: listar y buscar pacientes no consulta
+ * sus historiales, que se cargan al pedirlos dentro de la sesión.
+ */
+class PacienteHistorialDiferidoTest {
+
+    private static final int PACIENTES = 8;
+
+    private static EntityManagerFactory emf;
+    private static Statistics estadisticas;
+
+    private final List<Long> pacienteIds = new ArrayList<>();
+
+    @BeforeAll
+    static void setUpClass() {
+        emf = Persistencia.crearEntityManagerFactory(Map.of("hibernate.generate_statistics", "true"));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limpiarDatosPrueba();
+        PacienteService pacienteService = new PacienteService(emf);
+        HistorialMedicoService historialService = new HistorialMedicoService(emf);
+        for (int i = 0; i < PACIENTES; i++) {
+            Paciente paciente = pacienteService.registrarPaciente("Paciente Diferido " + i,
+                String.format("DIFER%08d", i), LocalDate.of(1980, 1, 1), null, "diferido" + i + "@test.com");
+            pacienteIds.add(paciente.getId());
+            if (i % 2 == 0) {
+                historialService.crearHistorial(paciente.getId(), "Alergia " + i, null, null);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpiarDatosPrueba();
+    }
+
+    @Test
+    @DisplayName("Listar N pacientes debe ejecutar una sola sentencia SQL, sin cargar sus historiales")
+    void debeListarPacientesConUnaSentencia() {
+        estadisticas.clear();
+
+        List<Paciente> pacientes = new PacienteService(emf).listarPacientes();
+
+        assertTrue(pacientes.size() >= PACIENTES);
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(pacientes.size(), estadisticas.getEntityLoadCount());
+        for (Paciente paciente : pacientes) {
+            assertFalse(Hibernate.isPropertyInitialized(paciente, "historialMedico"));
+        }
+    }
+
+    @Test
+    @DisplayName("Buscar un paciente por DPI o por id debe ejecutar una sola sentencia SQL")
+    void debeBuscarPacienteConUnaSentencia() {
+        PacienteService pacienteService = new PacienteService(emf);
+
+        estadisticas.clear();
+        assertTrue(pacienteService.buscarPorDpi("DIFER00000000").isPresent());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+
+        estadisticas.clear();
+        assertTrue(pacienteService.buscarPorId(pacienteIds.get(1)).isPresent());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("El historial se debe cargar al pedirlo dentro de la sesión, o null si no existe")
+    void debeCargarHistorialAlPedirlo() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Paciente conHistorial = em.find(Paciente.class, pacienteIds.get(0));
+            Paciente sinHistorial = em.find(Paciente.class, pacienteIds.get(1));
+            estadisticas.clear();
+
+            HistorialMedico historial = conHistorial.getHistorialMedico();
+            assertNotNull(historial);
+            assertEquals(conHistorial.getId(), historial.getId());
+            assertEquals("Alergia 0", historial.getAlergias());
+            assertNull(sinHistorial.getHistorialMedico());
+            assertTrue(estadisticas.getPrepareStatementCount() >= 2);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Eliminar un paciente debe eliminar su historial aunque no se haya cargado")
+    void debeEliminarHistorialConElPaciente() {
+        Long pacienteId = pacienteIds.get(2);
+
+        assertTrue(new PacienteService(emf).eliminarPaciente(pacienteId));
+
+        assertFalse(new HistorialMedicoService(emf).existeHistorial(pacienteId));
+        assertTrue(new PacienteService(emf).buscarPorId(pacienteId).isEmpty());
+    }
+
+    private static void limpiarDatosPrueba() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM HistorialMedico h WHERE h.id IN " +
+                "(SELECT p.id FROM Paciente p WHERE p.dpi LIKE 'DIFER%')").executeUpdate();
+            em.createQuery("DELETE FROM Paciente p WHERE p.dpi LIKE 'DIFER%'").executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+}
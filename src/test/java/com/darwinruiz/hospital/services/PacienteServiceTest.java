@@ -1,11 +1,11 @@
 package com.darwinruiz.hospital.services;
 
+import com.darwinruiz.hospital.database.Persistencia;
 import com.darwinruiz.hospital.exceptions.EmailInvalidoException;
 import com.darwinruiz.hospital.exceptions.PacienteYaExisteException;
 import com.darwinruiz.hospital.models.Paciente;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
@@ -27,7 +27,7 @@ class PacienteServiceTest {
     
     @BeforeAll
     static void setUpClass() {
-        emf = Persistence.createEntityManagerFactory("HospitalSystemPU");
+        emf = Persistencia.crearEntityManagerFactory();
         pacienteService = new PacienteService(emf);
         
         // Limpiar datos de prueba previos
@@ -0,0 +1,45 @@
+package com.darwinruiz.hospital.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnchoVisualTest {
+
+    @Test
+    @DisplayName("ASCII y latín con acentos precompuestos ocupan una columna por carácter")
+    void debeMedirTextoLatino() {
+        assertEquals(0, AnchoVisual.ancho(""));
+        assertEquals(4, AnchoVisual.ancho("Juan"));
+        assertEquals(11, AnchoVisual.ancho("María Núñez"));
+    }
+
+    @Test
+    @DisplayName("Las marcas combinantes y los caracteres de formato no ocupan columnas")
+    void debeIgnorarMarcasCombinantes() {
+        assertEquals(4, AnchoVisual.ancho("José"));
+        assertEquals(1, AnchoVisual.ancho("a‍"));
+        assertEquals(2, AnchoVisual.ancho("❤️!"));
+    }
+
+    @Test
+    @DisplayName("Los ideogramas y los emojis ocupan dos columnas")
+    void debeMedirCaracteresAnchos() {
+        assertEquals(6, AnchoVisual.ancho("日本語"));
+        assertEquals(2, AnchoVisual.ancho("🩺"));
+        assertEquals(7, AnchoVisual.ancho("Cita 😀"));
+        assertEquals(1, AnchoVisual.ancho("✓"));
+    }
+
+    @Test
+    @DisplayName("Debe encontrar el prefijo que cabe en un ancho sin partir caracteres")
+    void debeCalcularIndiceHastaAncho() {
+        assertEquals(2, AnchoVisual.indiceHastaAncho("日本語", 5));
+        assertEquals(3, AnchoVisual.indiceHastaAncho("abcdef", 3));
+        assertEquals(5, AnchoVisual.indiceHastaAncho("José Luis", 4));
+        assertEquals(3, AnchoVisual.indiceHastaAncho("a😀b", 3));
+        assertEquals(1, AnchoVisual.indiceHastaAncho("a😀b", 2));
+        assertEquals(3, AnchoVisual.ancho("a😀b", 0, 3));
+    }
+}
@@ -0,0 +1,61 @@
+package com.darwinruiz.hospital.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvUtilsTest {
+
+    @Test
+    @DisplayName("Debe escapar solo los campos con comas, comillas o saltos de línea")
+    void debeEscaparCampos() {
+        assertEquals("simple", CsvUtils.escapar("simple"));
+        assertEquals("", CsvUtils.escapar(null));
+        assertEquals("\"a,b\"", CsvUtils.escapar("a,b"));
+        assertEquals("\"dijo \"\"hola\"\"\"", CsvUtils.escapar("dijo \"hola\""));
+        assertEquals("\"dos\nlíneas\"", CsvUtils.escapar("dos\nlíneas"));
+        assertEquals("1,,\"x,y\"", CsvUtils.unirLinea("1", null, "x,y"));
+    }
+
+    @Test
+    @DisplayName("Debe leer registros con comillas, comas y saltos de línea internos")
+    void debeLeerRegistrosConComillas() throws IOException {
+        String csv = "a,\"b,c\",\"d \"\"e\"\"\"\r\n" +
+            "\"multi\nlínea\",2,\n" +
+            "ultimo";
+        CsvUtils.Lector lector = new CsvUtils.Lector(new BufferedReader(new StringReader(csv)));
+
+        assertEquals(List.of("a", "b,c", "d \"e\""), lector.leerRegistro());
+        assertEquals(1, lector.getLineaRegistro());
+        assertEquals(List.of("multi\nlínea", "2", ""), lector.leerRegistro());
+        assertEquals(2, lector.getLineaRegistro());
+        assertEquals(List.of("ultimo"), lector.leerRegistro());
+        assertEquals(4, lector.getLineaRegistro());
+        assertNull(lector.leerRegistro());
+    }
+
+    @Test
+    @DisplayName("Debe ignorar la marca BOM al inicio del archivo")
+    void debeIgnorarBom() throws IOException {
+        CsvUtils.Lector lector = new CsvUtils.Lector(new StringReader("\uFEFFnombre,dpi\n"));
+
+        assertEquals(List.of("nombre", "dpi"), lector.leerRegistro());
+        assertNull(lector.leerRegistro());
+    }
+
+    @Test
+    @DisplayName("Lo escrito con unirLinea debe leerse igual")
+    void escrituraYLecturaDebenCoincidir() throws IOException {
+        List<String> campos = List.of("Pérez, Juan", "con \"comillas\"", "", "fin\nde línea");
+        CsvUtils.Lector lector = new CsvUtils.Lector(
+            new StringReader(CsvUtils.unirLinea(campos.toArray(new String[0])) + "\n"));
+
+        assertEquals(campos, lector.leerRegistro());
+    }
+}
@@ -0,0 +1,127 @@
+package com.darwinruiz.hospital.utils;
+
+import com.darwinruiz.hospital.database.Persistencia;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneradorDatosSinteticosTest {
+
+    private static final LocalDate REFERENCIA = LocalDate.now();
+
+    private static EntityManagerFactory emf;
+    private static GeneradorDatosSinteticos.Resumen resumen;
+    private static GeneradorDatosSinteticos.Configuracion configuracion;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistencia.crearEntityManagerFactory();
+        // Más de un bloque de pacientes y de citas para ejercitar la carga en paralelo
+        configuracion = new GeneradorDatosSinteticos.Configuracion(
+            GeneradorDatosSinteticos.TAMANO_BLOQUE + 500, 12, GeneradorDatosSinteticos.TAMANO_BLOQUE + 3_000,
+            7L, 3, REFERENCIA);
+        resumen = new GeneradorDatosSinteticos(emf).generar(configuracion);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (resumen != null) {
+            long ultimoPaciente = resumen.primerPacienteId() + configuracion.pacientes() - 1;
+            long ultimoMedico = resumen.primerMedicoId() + configuracion.medicos() - 1;
+            ejecutar("DELETE FROM estadistica_cita_diaria WHERE medico_id BETWEEN " + resumen.primerMedicoId() + " AND " + ultimoMedico);
+            ejecutar("DELETE FROM cita WHERE medico_id BETWEEN " + resumen.primerMedicoId() + " AND " + ultimoMedico);
+            ejecutar("DELETE FROM historial_medico WHERE paciente_id BETWEEN " + resumen.primerPacienteId() + " AND " + ultimoPaciente);
+            ejecutar("DELETE FROM paciente WHERE id BETWEEN " + resumen.primerPacienteId() + " AND " + ultimoPaciente);
+            ejecutar("DELETE FROM medico WHERE id BETWEEN " + resumen.primerMedicoId() + " AND " + ultimoMedico);
+        }
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe cargar la cantidad de filas configurada")
+    void debeCargarCantidadConfigurada() {
+        assertEquals(configuracion.pacientes(), resumen.pacientes());
+        assertEquals(configuracion.pacientes(), resumen.historiales());
+        assertEquals(configuracion.medicos(), resumen.medicos());
+        assertEquals(configuracion.citas(), resumen.citas());
+
+        assertEquals(configuracion.citas(), contar("SELECT COUNT(*) FROM cita WHERE medico_id BETWEEN " +
+            resumen.primerMedicoId() + " AND " + (resumen.primerMedicoId() + configuracion.medicos() - 1)));
+    }
+
+    @Test
+    @DisplayName("Las citas generadas no deben tener conflictos de horario")
+    void citasNoDebenTenerConflictos() {
+        long repetidas = contar("SELECT COUNT(*) FROM (SELECT medico_id, fecha_hora FROM cita " +
+            "WHERE medico_id BETWEEN " + resumen.primerMedicoId() + " AND " + (resumen.primerMedicoId() + configuracion.medicos() - 1) +
+            " GROUP BY medico_id, fecha_hora HAVING COUNT(*) > 1) r");
+
+        assertEquals(0, repetidas);
+    }
+
+    @Test
+    @DisplayName("Debe sumar las citas generadas a las estadísticas diarias")
+    void debeActualizarEstadisticas() {
+        long total = contar("SELECT COALESCE(SUM(total), 0) FROM estadistica_cita_diaria WHERE medico_id BETWEEN " +
+            resumen.primerMedicoId() + " AND " + (resumen.primerMedicoId() + configuracion.medicos() - 1));
+
+        assertEquals(configuracion.citas(), total);
+    }
+
+    @Test
+    @DisplayName("Debe dejar las secuencias por delante de los ids generados")
+    void debeAvanzarSecuencias() {
+        long siguientePaciente = contar("SELECT last_value FROM paciente_id_seq");
+
+        assertTrue(siguientePaciente >= resumen.primerPacienteId() + configuracion.pacientes() - 1);
+    }
+
+    @Test
+    @DisplayName("La misma semilla debe producir los mismos datos")
+    void mismaSemillaDebeSerDeterminista() {
+        assertEquals(GeneradorDatosSinteticos.csvPacientes(configuracion, 1, 1),
+            GeneradorDatosSinteticos.csvPacientes(configuracion, 1, 1));
+        assertEquals(GeneradorDatosSinteticos.csvCitas(configuracion, 1, 1, 1, 0, 3),
+            GeneradorDatosSinteticos.csvCitas(configuracion, 1, 1, 1, 0, 3));
+
+        GeneradorDatosSinteticos.Configuracion otraSemilla = new GeneradorDatosSinteticos.Configuracion(
+            configuracion.pacientes(), configuracion.medicos(), configuracion.citas(), 8L, 1, REFERENCIA);
+        assertNotEquals(GeneradorDatosSinteticos.csvPacientes(configuracion, 1, 0),
+            GeneradorDatosSinteticos.csvPacientes(otraSemilla, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar configuraciones sin pacientes o sin médicos")
+    void debeRechazarConfiguracionInvalida() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new GeneradorDatosSinteticos.Configuracion(0, 1, 10, 1L, 1, REFERENCIA));
+        assertThrows(IllegalArgumentException.class,
+            () -> new GeneradorDatosSinteticos.Configuracion(10, 0, 10, 1L, 1, REFERENCIA));
+    }
+
+    private static long contar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return ((Number) em.createNativeQuery(sql).getSingleResult()).longValue();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void ejecutar(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery(sql).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.darwinruiz.hospital.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalidaConsolaTest {
+
+    @Test
+    @DisplayName("Debe acumular las líneas hasta vaciar la salida")
+    void debeAcumularHastaVaciar() {
+        ContadorEscrituras destino = new ContadorEscrituras();
+        PrintStream salida = SalidaConsola.crear(destino);
+
+        for (int i = 0; i < 500; i++) {
+            salida.println("Línea " + i + " ✓");
+        }
+        assertEquals(0, destino.escrituras);
+
+        salida.flush();
+        assertEquals(1, destino.escrituras);
+        assertTrue(destino.contenido.toString(StandardCharsets.UTF_8).startsWith("Línea 0 ✓"));
+    }
+
+    @Test
+    @DisplayName("Los errores deben escribirse después de la salida pendiente")
+    void erroresDebenRespetarElOrden() {
+        ByteArrayOutputStream terminal = new ByteArrayOutputStream();
+        PrintStream salida = SalidaConsola.crear(terminal);
+        PrintStream errores = SalidaConsola.crearError(terminal, salida);
+
+        salida.println("menú");
+        errores.println("error");
+
+        assertEquals("menú" + System.lineSeparator() + "error" + System.lineSeparator(),
+            terminal.toString(StandardCharsets.UTF_8));
+    }
+
+    private static final class ContadorEscrituras extends OutputStream {
+
+        private final ByteArrayOutputStream contenido = new ByteArrayOutputStream();
+        private int escrituras;
+
+        @Override
+        public void write(int b) {
+            escrituras++;
+            contenido.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            escrituras++;
+            contenido.write(b, off, len);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
 
@@ -223,4 +224,115 @@ class TableFormatterTest {
         assertTrue(resultado.contains("Sin nombre"));
         assertEquals(2, formatter.getRowCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("La tabla en streaming debe calcular los anchos con la muestra")
+    void tablaStreamingDebeUsarAnchosDeLaMuestra() {
+        StringWriter salida = new StringWriter();
+        long filas = TableFormatter.streaming(salida)
+                .setHeaders("ID", "Nombre")
+                .addRow("1", "Juan")
+                .addRow("22", "María José")
+                .finish();
+        
+        assertEquals(2, filas);
+        assertEquals(String.join("\n",
+                "+----+------------+",
+                "| ID | Nombre     |",
+                "+----+------------+",
+                "| 1  | Juan       |",
+                "| 22 | María José |",
+                "+----+------------+",
+                ""), salida.toString());
+    }
+    
+    @Test
+    @DisplayName("La tabla en streaming debe escribir desde la primera fila con anchos fijos y truncar")
+    void tablaStreamingDebeTruncarConAnchosFijos() {
+        StringWriter salida = new StringWriter();
+        TableFormatter.StreamingTable tabla = TableFormatter.streaming(salida)
+                .setHeaders("ID", "Motivo")
+                .setColumnWidths(2, 6);
+        
+        tabla.addRow("1", "Control\nanual");
+        
+        assertTrue(salida.toString().contains("| 1  | Contr… |"));
+        tabla.finish();
+        assertTrue(salida.toString().endsWith("+----+--------+\n"));
+    }
+    
+    @Test
+    @DisplayName("La tabla en streaming debe escribir las filas al completar la muestra, antes de cerrarse")
+    void tablaStreamingDebeEscribirAlCompletarMuestra() {
+        StringWriter salida = new StringWriter();
+        TableFormatter.StreamingTable tabla = TableFormatter.streaming(salida)
+                .setHeaders("Nombre")
+                .setSampleSize(2)
+                .setMaxColumnWidth(5);
+        
+        tabla.addRow("Ana");
+        assertEquals("", salida.toString());
+        
+        tabla.addRow("Alejandro").addRow("Bernardo Antonio");
+        assertTrue(salida.toString().contains("| Alej… |"));
+        assertTrue(salida.toString().contains("| Bern… |"));
+        assertEquals(3, tabla.getRowCount());
+    }
+    
+    @Test
+    @DisplayName("La tabla en streaming sin filas no debe escribir nada")
+    void tablaStreamingSinFilasNoDebeEscribir() {
+        StringWriter salida = new StringWriter();
+        
+        long filas = TableFormatter.streaming(salida).setHeaders("ID").finish();
+        
+        assertEquals(0, filas);
+        assertEquals("", salida.toString());
+    }
+
+    @Test
+    @DisplayName("Debe conservar el formato exacto de la tabla")
+    void debeConservarFormatoExacto() {
+        String resultado = formatter.setHeaders("ID", "Nombre")
+                .addRow("1", "Juan")
+                .addRow("22", null)
+                .build();
+        
+        assertEquals(String.join("\n",
+                "+----+--------+",
+                "| ID | Nombre |",
+                "+----+--------+",
+                "| 1  | Juan   |",
+                "| 22 |        |",
+                "+----+--------+"), resultado);
+    }
+    
+    @Test
+    @DisplayName("Debe alinear por ancho visual los acentos combinantes y los emojis")
+    void debeAlinearPorAnchoVisual() {
+        String resultado = formatter.setHeaders("Nombre")
+                .addRow("Jose\u0301")
+                .addRow("Cita 🩺")
+                .addRow("Ana")
+                .build();
+        
+        String[] lineas = resultado.split("\n");
+        assertEquals("+---------+", lineas[0]);
+        assertEquals("| Jose\u0301    |", lineas[3]);
+        assertEquals("| Cita 🩺 |", lineas[4]);
+        assertEquals("| Ana     |", lineas[5]);
+    }
+    
+    @Test
+    @DisplayName("La tabla en streaming debe truncar por ancho visual")
+    void tablaStreamingDebeTruncarPorAnchoVisual() {
+        StringWriter salida = new StringWriter();
+        TableFormatter.streaming(salida)
+                .setHeaders("Texto")
+                .setColumnWidths(5)
+                .addRow("日本語です")
+                .finish();
+        
+        assertTrue(salida.toString().contains("| 日本… |"), salida.toString());
+    }
+}
@@ -0,0 +1,29 @@
+package com.darwinruiz.hospital.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TiemposArranqueTest {
+
+    @Test
+    @DisplayName("El resumen debe listar las etapas en el orden en que se registraron")
+    void resumenDebeConservarElOrden() {
+        TiemposArranque.registrar("prueba etapa uno", 12);
+        TiemposArranque.marcar("prueba etapa dos");
+
+        Map<String, Long> etapas = TiemposArranque.etapas();
+        List<String> nombres = List.copyOf(etapas.keySet());
+        assertTrue(nombres.indexOf("prueba etapa uno") < nombres.indexOf("prueba etapa dos"));
+        assertEquals(12L, etapas.get("prueba etapa uno"));
+        assertTrue(etapas.get("prueba etapa dos") >= 0);
+
+        String resumen = TiemposArranque.resumen();
+        assertTrue(resumen.startsWith("Tiempos de arranque:"));
+        assertTrue(resumen.contains("prueba etapa uno: 12 ms"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.darwinruiz.hospital.validacion;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de propiedades del validador de formatos: para cadenas aleatorias (con semilla fija) y
+ * casos límite, cada comprobación debe dar lo mismo que la expresión regular que reemplaza.
+ */
+class ValidadorFormatoTest {
+
+    private static final Pattern EMAIL =
+        Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9]+([.-][a-zA-Z0-9]+)*\\.[a-zA-Z]{2,}$");
+    private static final Pattern DPI = Pattern.compile("[0-9]{13}");
+    private static final Pattern TELEFONO =
+        Pattern.compile("(?=.{1,15}$)(?=(?:[^0-9]*[0-9]){7})\\+?[0-9]+(?:[ -][0-9]+)*");
+
+    private static final int CASOS = 200_000;
+
+    @Test
+    @DisplayName("El formato de email debe coincidir con la expresión regular anterior")
+    void debeValidarEmailComoLaExpresionRegular() {
+        List<String> limites = List.of("", "@", "a@", "@b.co", "a@b.c", "a@b.co", "a@b.c0", "a@b-c.co",
+            "a@b.c-co", "a@b..co", "a@b.-co", "a@-b.co", "a@b.co.", "a@b.co-", "a@b@c.co", "a b@c.co",
+            "a@1.co", "a@b.1c", "a@b.co\n", "a@b.có", ".%+-_@b.co", "a@b.cd.ef");
+
+        comprobarEquivalencia(EMAIL, ValidadorFormato::esEmailValido, limites,
+            List.of("usuario.uno@hospital-nacional.gob.gt", "a@b.co", "dr+tag@mail1.com"),
+            List.of("ab", "Z", "9", "x1", ".", "-", "_", "%+", "@", "co", "org", "é", " "), 10);
+    }
+
+    @Test
+    @DisplayName("El formato de DPI debe coincidir con la expresión regular de 13 dígitos")
+    void debeValidarDpiComoLaExpresionRegular() {
+        List<String> limites = List.of("", "123456789012", "1234567890123", "12345678901234",
+            "123456789012a", " 1234567890123", "１234567890123");
+
+        comprobarEquivalencia(DPI, ValidadorFormato::esDpiValido, limites,
+            List.of("1234567890123", "2987654320101"),
+            List.of("0", "1", "5", "9", "0123", "456789", "a", " "), 12);
+    }
+
+    @Test
+    @DisplayName("El formato de teléfono debe coincidir con la expresión regular equivalente")
+    void debeValidarTelefonoComoLaExpresionRegular() {
+        List<String> limites = List.of("", "+", "123456", "1234567", "+1234567", "555-0004", "5555 1234",
+            "+502 5555-1234", "+502 55551234567", "123456789012345", "1234567890123456", "-5551234",
+            "5551234-", "555--1234", "555 -1234", "++5551234", "555+1234", "555.1234");
+
+        comprobarEquivalencia(TELEFONO, ValidadorFormato::esTelefonoValido, limites,
+            List.of("+502 5555-1234", "55551234", "555 123 4567"),
+            List.of("0", "5", "9", "502", "5555", "1234", "-", " ", "+", "."), 10);
+    }
+
+    @Test
+    @DisplayName("Un valor nulo no debe ser válido")
+    void debeRechazarNulos() {
+        assertFalse(ValidadorFormato.esEmailValido(null));
+        assertFalse(ValidadorFormato.esDpiValido(null));
+        assertFalse(ValidadorFormato.esTelefonoValido(null));
+    }
+
+    private static void comprobarEquivalencia(Pattern referencia, Predicate<String> validador,
+                                              List<String> limites, List<String> semillas,
+                                              List<String> fragmentos, int maximoFragmentos) {
+        for (String valor : limites) {
+            assertEquals(referencia.matcher(valor).matches(), validador.test(valor), valor);
+        }
+
+        Random aleatorio = new Random(20_260_418L);
+        int validos = 0;
+        for (int i = 0; i < CASOS; i++) {
+            String valor = aleatorio.nextBoolean()
+                ? generar(aleatorio, fragmentos, maximoFragmentos)
+                : mutar(aleatorio, semillas.get(aleatorio.nextInt(semillas.size())), fragmentos);
+            boolean esperado = referencia.matcher(valor).matches();
+            assertEquals(esperado, validador.test(valor), valor);
+            if (esperado) {
+                validos++;
+            }
+        }
+        // Los casos generados deben cubrir tanto valores válidos como inválidos
+        assertTrue(validos > CASOS / 100 && validos < CASOS, "válidos: " + validos);
+    }
+
+    // Concatena fragmentos al azar: salen valores válidos, casi válidos y claramente inválidos
+    private static String generar(Random aleatorio, List<String> fragmentos, int maximoFragmentos) {
+        StringBuilder valor = new StringBuilder();
+        for (int i = aleatorio.nextInt(maximoFragmentos + 1); i > 0; i--) {
+            valor.append(fragmentos.get(aleatorio.nextInt(fragmentos.size())));
+        }
+        return valor.toString();
+    }
+
+    // Cambia, inserta o borra hasta dos caracteres de un valor válido: casos en el borde del formato
+    private static String mutar(Random aleatorio, String semilla, List<String> fragmentos) {
+        StringBuilder valor = new StringBuilder(semilla);
+        for (int i = aleatorio.nextInt(3); i > 0 && !valor.isEmpty(); i--) {
+            int posicion = aleatorio.nextInt(valor.length());
+            String fragmento = fragmentos.get(aleatorio.nextInt(fragmentos.size()));
+            char c = fragmento.charAt(aleatorio.nextInt(fragmento.length()));
+            switch (aleatorio.nextInt(3)) {
+                case 0 -> valor.setCharAt(posicion, c);
+                case 1 -> valor.insert(posicion, c);
+                default -> valor.deleteCharAt(posicion);
+            }
+        }
+        return valor.toString();
+    }
+}
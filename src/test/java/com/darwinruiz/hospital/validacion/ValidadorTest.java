@@ -0,0 +1,99 @@
+package com.darwinruiz.hospital.validacion;
+
+import com.darwinruiz.hospital.enums.Especialidad;
+import com.darwinruiz.hospital.exceptions.ValidacionException;
+import com.darwinruiz.hospital.models.Medico;
+import com.darwinruiz.hospital.models.Paciente;
+import com.darwinruiz.hospital.utils.ConsoleUtils;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del validador compartido: un solo formato de email en entidades y consola, el primer
+ * error en el orden de los campos y validación concurrente con la misma instancia.
+ */
+class ValidadorTest {
+
+    private static final LocalDate NACIMIENTO = LocalDate.of(1990, 5, 15);
+
+    @Test
+    @DisplayName("Paciente, médico y consola deben aceptar y rechazar los mismos emails")
+    void debeUsarUnSoloFormatoDeEmail() {
+        List<String> validos = List.of("usuario@ejemplo.com", "user+tag@gmail.com", "a@b.co",
+            "dr_martinez@hospital-nacional.gov.gt");
+        List<String> invalidos = List.of("email-invalido", "@dominio.com", "usuario@", "usuario@dominio",
+            "usuario@@dominio.com", "usuario@dominio..com", "missing@.com", "spaces in@email.com");
+
+        for (String email : validos) {
+            assertTrue(ValidadorFormato.esEmailValido(email), email);
+            assertTrue(ConsoleUtils.esEmailValido(email), email);
+            assertDoesNotThrow(() -> new Paciente("Paciente", "1234567890123", NACIMIENTO, null, email));
+            assertTrue(Validador.violaciones(new Medico("Dr. Uno", "COL1", Especialidad.PEDIATRIA, email)).isEmpty());
+        }
+        for (String email : invalidos) {
+            assertFalse(ValidadorFormato.esEmailValido(email), email);
+            assertFalse(ConsoleUtils.esEmailValido(email), email);
+            ValidacionException e = assertThrows(ValidacionException.class,
+                () -> new Paciente("Paciente", "1234567890123", NACIMIENTO, null, email));
+            assertEquals(EmailValido.class, e.getRestriccion());
+            assertEquals(EmailValido.class, assertThrows(ValidacionException.class,
+                () -> Validador.validar(new Medico("Dr. Uno", "COL1", Especialidad.PEDIATRIA, email))).getRestriccion());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe informar primero el error del primer campo declarado")
+    void debeInformarErrorDelPrimerCampo() {
+        Paciente paciente = new Paciente();
+
+        ValidacionException e = assertThrows(ValidacionException.class, paciente::validarDatos);
+
+        assertEquals("nombre", e.getPropiedad());
+        assertEquals(NotBlank.class, e.getRestriccion());
+        assertEquals("El nombre no puede ser nulo o vacío", e.getMessage());
+        assertEquals(List.of("nombre", "dpi", "fechaNacimiento", "email"),
+            Validador.violaciones(paciente).stream().map(v -> v.getPropertyPath().toString()).toList());
+    }
+
+    @Test
+    @DisplayName("Debe validar un valor candidato sin instancia")
+    void debeValidarValorSinInstancia() {
+        ValidacionException e = assertThrows(ValidacionException.class,
+            () -> Validador.validarValor(Paciente.class, "telefono", "1234567890123456"));
+
+        assertEquals(Size.class, e.getRestriccion());
+        assertEquals("El teléfono no puede tener más de 15 caracteres", e.getMessage());
+        assertDoesNotThrow(() -> Validador.validarValor(Paciente.class, "telefono", null));
+    }
+
+    @Test
+    @DisplayName("Validar en paralelo debe dar el mismo resultado que en secuencia")
+    void debeValidarEnParalelo() {
+        List<String> emails = IntStream.range(0, 2_000)
+            .mapToObj(i -> i % 7 == 0 ? "paciente" + i + "@sin-dominio" : "paciente" + i + "@hospital.test")
+            .toList();
+
+        List<Boolean> secuencial = emails.stream().map(ValidadorTest::esPacienteValido).toList();
+        List<Boolean> paralelo = emails.parallelStream().map(ValidadorTest::esPacienteValido).toList();
+
+        assertEquals(secuencial, paralelo);
+        assertEquals(2_000 - 286, secuencial.stream().filter(v -> v).count());
+    }
+
+    private static boolean esPacienteValido(String email) {
+        try {
+            new Paciente("Paciente", "1234567890123", NACIMIENTO, null, email);
+            return true;
+        } catch (ValidacionException e) {
+            return false;
+        }
+    }
+}